@@ -83,6 +83,8 @@ CREATE TABLE OB_CONSENT_ATTRIBUTE (
   CONSTRAINT FK_OB_CONSENT_ATTRIBUTE FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID) ON DELETE CASCADE
 );
 
+CREATE INDEX IDX_OB_CONSENT_ATTRIBUTE_KEY ON OB_CONSENT_ATTRIBUTE (ATT_KEY, ATT_VALUE);
+
 CREATE TABLE OB_THROTTLE_DATA (
   THROTTLE_GROUP VARCHAR(100) NOT NULL,
   THROTTLE_PARAM VARCHAR(100) NOT NULL,
@@ -88,6 +88,8 @@ CREATE TABLE IF NOT EXISTS OB_CONSENT_ATTRIBUTE (
 )
 ENGINE INNODB;
 
+CREATE INDEX IDX_OB_CONSENT_ATTRIBUTE_KEY ON OB_CONSENT_ATTRIBUTE (ATT_KEY, ATT_VALUE);
+
 CREATE TABLE IF NOT EXISTS OB_THROTTLE_DATA (
   THROTTLE_GROUP VARCHAR(100) NOT NULL,
   THROTTLE_PARAM VARCHAR(100) NOT NULL,
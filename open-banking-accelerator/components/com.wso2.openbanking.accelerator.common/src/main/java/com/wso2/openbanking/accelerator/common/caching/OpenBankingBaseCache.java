@@ -18,10 +18,29 @@
 
 package com.wso2.openbanking.accelerator.common.caching;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-
+import org.wso2.carbon.caching.impl.CacheImpl;
+import org.wso2.carbon.caching.impl.eviction.EvictionAlgorithm;
+import org.wso2.carbon.caching.impl.eviction.LeastFrequentlyUsedEvictionAlgorithm;
+import org.wso2.carbon.caching.impl.eviction.LeastRecentlyUsedEvictionAlgorithm;
+import org.wso2.carbon.caching.impl.eviction.MostFrequentlyUsedEvictionAlgorithm;
+import org.wso2.carbon.caching.impl.eviction.MostRecentlyUsedEvictionAlgorithm;
+import org.wso2.carbon.caching.impl.eviction.RandomEvictionAlgorithm;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import javax.cache.Cache;
@@ -29,9 +48,16 @@ import javax.cache.CacheBuilder;
 import javax.cache.CacheConfiguration;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
+import javax.cache.Status;
 
 /**
  * Abstract cache manager for Open Banking.
+ * <p>
+ * Concurrent misses of a key are loaded once, and the other callers wait for the result of the running load.
+ * Subclasses can opt in to serve the last loaded value while it is refreshed in the background, and to remember
+ * failed lookups for a short time so that a failing backend is not called on every request. Loads, stale values
+ * and failed lookups are tracked per tenant like the cache entries, and the stale values and failed lookups held
+ * locally are bounded by the cache capacity.
  *
  * @param <K>
  * @param <V>
@@ -39,10 +65,27 @@ import javax.cache.Caching;
 public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V> {
 
     private static final String BASE_CACHE_KEY = "OB_BASE_CACHE";
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int DEFAULT_LOCAL_ENTRY_LIMIT = 10000;
+    private static final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(2, 2, 60,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000), runnable -> {
+                Thread thread = new Thread(runnable, "ob-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
     private final String cacheName;
+    private final ConcurrentMap<String, Cache<K, V>> tenantCaches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TenantKey<K>, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TenantKey<K>, StaleValue<V>> staleValues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TenantKey<K>, FailedLookup> failedLookups = new ConcurrentHashMap<>();
+    private volatile long lastPruneTime = System.currentTimeMillis();
 
     private static final Log log = LogFactory.getLog(OpenBankingBaseCache.class);
 
+    static {
+        refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
     /**
      * On Demand Retriever for caching.
      */
@@ -67,6 +110,10 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
 
     /**
      * Get from cache or invoke ondemand retriever and store.
+     * <p>
+     * Only one retriever runs for a key at a time. If stale while revalidate is enabled, the last loaded value is
+     * returned while a refresh runs in the background. If negative caching is enabled, a failed retrieval is
+     * rethrown without invoking the retriever until the failure expires.
      *
      * @param key
      * @param onDemandRetriever
@@ -75,34 +122,52 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
      */
     public V getFromCacheOrRetrieve(K key, OnDemandRetriever onDemandRetriever) throws OpenBankingException {
 
-        Cache<K, V> cache = getBaseCache();
+        String tenantDomain = getTenantDomain();
+        Cache<K, V> cache = getBaseCache(tenantDomain);
+        V cachedValue = cache.get(key);
 
-        if (cache.containsKey(key)) {
+        if (cachedValue != null) {
 
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Found cache entry `%s` in cache %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
-            return cache.get(key);
-        } else {
+            return cachedValue;
+        }
 
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Cache Entry `%s` not available in cache %s",
-                        key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-            }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Cache Entry `%s` not available in cache %s",
+                    key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+        }
 
-            V value = (V) onDemandRetriever.get();
+        long currentTime = System.currentTimeMillis();
+        pruneIfRequired(currentTime);
+
+        TenantKey<K> tenantKey = new TenantKey<>(tenantDomain, key);
+        FailedLookup failedLookup = failedLookups.get(tenantKey);
+        if (failedLookup != null && failedLookup.isExpired(currentTime)) {
+            failedLookups.remove(tenantKey, failedLookup);
+            failedLookup = null;
+        }
+
+        StaleValue<V> staleValue = staleValues.get(tenantKey);
+        if (staleValue != null && !staleValue.isExpired(currentTime)) {
 
             if (log.isDebugEnabled()) {
-                log.debug(String.format("On demand retrieved `%s` for %s",
+                log.debug(String.format("Serving stale entry `%s` of cache %s while it is refreshed",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
+            if (failedLookup == null) {
+                refreshInBackground(tenantKey, onDemandRetriever);
+            }
+            return staleValue.getValue();
+        }
 
-            removeFromCache(key);
-            addToCache(key, value);
-            return value;
+        if (failedLookup != null) {
+            throw new OpenBankingException(failedLookup.getFailure().getMessage(), failedLookup.getFailure());
         }
 
+        return load(tenantKey, onDemandRetriever);
     }
 
     /**
@@ -146,6 +211,24 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
         cache.put(key, value);
     }
 
+    /**
+     * Add Object to cache only if the key is not already cached.
+     *
+     * @param key
+     * @param value
+     * @return true if the object is added
+     */
+    public boolean addToCacheIfAbsent(K key, V value) {
+
+        Cache<K, V> cache = getBaseCache();
+        boolean added = cache.putIfAbsent(key, value);
+        if (added && log.isDebugEnabled()) {
+            log.debug(String.format("`%s` added into cache %s", key.toString().replaceAll("[\r\n]", ""),
+                    cacheName.replaceAll("[\r\n]", "")));
+        }
+        return added;
+    }
+
     /**
      * Remove Object from Cache.
      *
@@ -158,17 +241,53 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
                     cacheName.replaceAll("[\r\n]", "")));
         }
 
-        Cache<K, V> cache = getBaseCache();
+        String tenantDomain = getTenantDomain();
+        Cache<K, V> cache = getBaseCache(tenantDomain);
         cache.remove(key);
+        TenantKey<K> tenantKey = new TenantKey<>(tenantDomain, key);
+        staleValues.remove(tenantKey);
+        failedLookups.remove(tenantKey);
     }
 
     /**
-     * Get Cache for instance.
+     * Get Cache for instance. The cache is resolved from the cache manager once per tenant, and is resolved again
+     * only if the held cache is no longer started.
      *
      * @return
      */
     private Cache<K, V> getBaseCache() {
 
+        return getBaseCache(getTenantDomain());
+    }
+
+    private Cache<K, V> getBaseCache(String tenantDomain) {
+
+        Cache<K, V> cache = tenantCaches.get(tenantDomain);
+        if (cache != null && cache.getStatus() == Status.STARTED) {
+            return cache;
+        }
+        return tenantCaches.compute(tenantDomain, (tenant, currentCache) ->
+                currentCache != null && currentCache.getStatus() == Status.STARTED ?
+                        currentCache : resolveBaseCache());
+    }
+
+    private static String getTenantDomain() {
+
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        return tenantDomain == null ? MultitenantConstants.SUPER_TENANT_DOMAIN_NAME : tenantDomain;
+    }
+
+    /**
+     * Find the cache in the cache manager, or build it if not available.
+     *
+     * @return
+     */
+    private Cache<K, V> resolveBaseCache() {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Resolving cache %s", cacheName.replaceAll("[\r\n]", "")));
+        }
+
         CacheManager cacheManager = Caching.getCacheManager(BASE_CACHE_KEY);
 
         Iterable<Cache<?, ?>> availableCaches = cacheManager.getCaches();
@@ -188,12 +307,52 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
         // Build Cache on OB base cache.
         CacheBuilder<K, V> cacheBuilder = cacheManager.createCacheBuilder(cacheName);
 
-        return cacheBuilder.setExpiry(CacheConfiguration.ExpiryType.ACCESSED, accessExpiry)
+        Cache<K, V> cache = cacheBuilder.setExpiry(CacheConfiguration.ExpiryType.ACCESSED, accessExpiry)
                 .setExpiry(CacheConfiguration.ExpiryType.MODIFIED, modifiedExpiry)
                 .build();
 
+        if (cache instanceof CacheImpl) {
+            int capacity = getCacheCapacity();
+            if (capacity > 0) {
+                ((CacheImpl) cache).setCapacity(capacity);
+            }
+            EvictionAlgorithm evictionAlgorithm = getEvictionAlgorithm(getCacheEvictionAlgorithm());
+            if (evictionAlgorithm != null) {
+                ((CacheImpl) cache).setEvictionAlgorithm(evictionAlgorithm);
+            }
+        }
+        return cache;
     }
 
+    /**
+     * Map the configured eviction algorithm name to the Carbon eviction algorithm.
+     *
+     * @param evictionAlgorithm one of LRU, MRU, LFU, MFU or RANDOM
+     * @return eviction algorithm, or null to use the default algorithm
+     */
+    private EvictionAlgorithm getEvictionAlgorithm(String evictionAlgorithm) {
+
+        if (evictionAlgorithm == null || evictionAlgorithm.isEmpty()) {
+            return null;
+        }
+        switch (evictionAlgorithm.toUpperCase(Locale.ENGLISH)) {
+            case "LRU":
+                return new LeastRecentlyUsedEvictionAlgorithm();
+            case "MRU":
+                return new MostRecentlyUsedEvictionAlgorithm();
+            case "LFU":
+                return new LeastFrequentlyUsedEvictionAlgorithm();
+            case "MFU":
+                return new MostFrequentlyUsedEvictionAlgorithm();
+            case "RANDOM":
+                return new RandomEvictionAlgorithm();
+            default:
+                log.warn(String.format("Unknown eviction algorithm %s configured for cache %s. Using the default " +
+                                "eviction algorithm", evictionAlgorithm.replaceAll("[\r\n]", ""),
+                        cacheName.replaceAll("[\r\n]", "")));
+                return null;
+        }
+    }
 
     /**
      * Get Cache expiry time upon access in minutes.
@@ -209,4 +368,328 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
      */
     public abstract int getCacheModifiedExpiryMinutes();
 
+    /**
+     * Get the maximum number of entries of the cache. Read from the Common.Cache configuration of the cache name.
+     *
+     * @return capacity of the cache, 0 to use the default capacity.
+     */
+    protected int getCacheCapacity() {
+
+        return OpenBankingConfigParser.getInstance().getCacheCapacity(cacheName);
+    }
+
+    /**
+     * Get the eviction algorithm of the cache. Read from the Common.Cache configuration of the cache name.
+     *
+     * @return eviction algorithm name, null to use the default algorithm.
+     */
+    protected String getCacheEvictionAlgorithm() {
+
+        return OpenBankingConfigParser.getInstance().getCacheEvictionAlgorithm(cacheName);
+    }
+
+    /**
+     * Get the time in minutes for which the last loaded value of an expired entry is served while it is refreshed
+     * in the background. Stale while revalidate is disabled by default.
+     *
+     * @return integer denoting number of minutes.
+     */
+    protected int getStaleWhileRevalidateMinutes() {
+
+        return 0;
+    }
+
+    /**
+     * Get the time in seconds for which a failed retrieval is remembered. Negative caching is disabled by default.
+     *
+     * @return integer denoting number of seconds.
+     */
+    protected int getNegativeCacheTimeToLiveSeconds() {
+
+        return 0;
+    }
+
+    /**
+     * Load the value of a key, or wait for the load already running for the key in the same tenant.
+     *
+     * @param tenantKey         cache key of the tenant
+     * @param onDemandRetriever retriever
+     * @return loaded value
+     * @throws OpenBankingException if the retrieval failed
+     */
+    private V load(TenantKey<K> tenantKey, OnDemandRetriever onDemandRetriever) throws OpenBankingException {
+
+        CompletableFuture<V> loader = new CompletableFuture<>();
+        CompletableFuture<V> runningLoader = inFlightLoads.putIfAbsent(tenantKey, loader);
+
+        if (runningLoader != null) {
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Waiting for the running retrieval of `%s` for %s",
+                        tenantKey.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+            }
+            return awaitLoad(runningLoader);
+        }
+
+        try {
+            V value = retrieve(tenantKey, onDemandRetriever);
+            loader.complete(value);
+            return value;
+        } catch (OpenBankingException | RuntimeException e) {
+            loader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(tenantKey, loader);
+            if (!loader.isDone()) {
+                loader.completeExceptionally(new OpenBankingException("Retrieval of the cache entry was aborted"));
+            }
+        }
+    }
+
+    private V awaitLoad(CompletableFuture<V> runningLoader) throws OpenBankingException {
+
+        try {
+            return runningLoader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while waiting for the retrieval of the cache entry", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OpenBankingException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Refresh the value of a key in the background unless a load is already running for the key. The tenant of
+     * the caller is carried over to the refresh thread.
+     *
+     * @param tenantKey         cache key of the tenant
+     * @param onDemandRetriever retriever
+     */
+    private void refreshInBackground(TenantKey<K> tenantKey, OnDemandRetriever onDemandRetriever) {
+
+        CompletableFuture<V> loader = new CompletableFuture<>();
+        if (inFlightLoads.putIfAbsent(tenantKey, loader) != null) {
+            return;
+        }
+
+        PrivilegedCarbonContext callerContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        String tenantDomain = callerContext.getTenantDomain();
+        int tenantId = callerContext.getTenantId();
+
+        try {
+            refreshExecutor.execute(() -> {
+                PrivilegedCarbonContext.startTenantFlow();
+                try {
+                    PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                    carbonContext.setTenantDomain(tenantDomain);
+                    carbonContext.setTenantId(tenantId);
+                    loader.complete(retrieve(tenantKey, onDemandRetriever));
+                } catch (OpenBankingException | RuntimeException e) {
+                    log.error(String.format("Error while refreshing `%s` of cache %s",
+                            tenantKey.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")), e);
+                    loader.completeExceptionally(e);
+                } finally {
+                    inFlightLoads.remove(tenantKey, loader);
+                    PrivilegedCarbonContext.endTenantFlow();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn(String.format("Refresh of `%s` of cache %s was rejected",
+                    tenantKey.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+            inFlightLoads.remove(tenantKey, loader);
+            loader.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Invoke the retriever and store the retrieved value. Runs in the tenant flow of the given key.
+     *
+     * @param tenantKey         cache key of the tenant
+     * @param onDemandRetriever retriever
+     * @return retrieved value
+     * @throws OpenBankingException if the retrieval failed
+     */
+    private V retrieve(TenantKey<K> tenantKey, OnDemandRetriever onDemandRetriever) throws OpenBankingException {
+
+        K key = tenantKey.getKey();
+        V value;
+        try {
+            value = (V) onDemandRetriever.get();
+        } catch (OpenBankingException e) {
+            int negativeCacheTimeToLive = getNegativeCacheTimeToLiveSeconds();
+            if (negativeCacheTimeToLive > 0) {
+                putBounded(failedLookups, tenantKey, new FailedLookup(e,
+                        System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(negativeCacheTimeToLive)));
+            }
+            throw e;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("On demand retrieved `%s` for %s",
+                    key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+        }
+
+        removeFromCache(key);
+        if (value != null) {
+            addToCache(key, value);
+            int staleWhileRevalidate = getStaleWhileRevalidateMinutes();
+            if (staleWhileRevalidate > 0) {
+                putBounded(staleValues, tenantKey, new StaleValue<>(value, System.currentTimeMillis() +
+                        TimeUnit.MINUTES.toMillis((long) getCacheModifiedExpiryMinutes() + staleWhileRevalidate)));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Store a stale value or a failed lookup unless the local entries have reached the cache capacity. Expired
+     * entries are removed first when the limit is reached.
+     *
+     * @param entries local entries
+     * @param key     cache key of the tenant
+     * @param entry   entry to store
+     * @param <T>     type of the entry
+     */
+    private <T extends LocalEntry> void putBounded(ConcurrentMap<TenantKey<K>, T> entries, TenantKey<K> key,
+                                                   T entry) {
+
+        int capacity = getCacheCapacity();
+        int limit = capacity > 0 ? capacity : DEFAULT_LOCAL_ENTRY_LIMIT;
+        if (entries.size() >= limit && !entries.containsKey(key)) {
+            long currentTime = System.currentTimeMillis();
+            entries.values().removeIf(localEntry -> localEntry.isExpired(currentTime));
+            if (entries.size() >= limit) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Local entry limit of cache %s reached. `%s` is not kept locally",
+                            cacheName.replaceAll("[\r\n]", ""), key.toString().replaceAll("[\r\n]", "")));
+                }
+                return;
+            }
+        }
+        entries.put(key, entry);
+    }
+
+    /**
+     * Remove the expired stale values and failed lookups, at most once per minute.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    private void pruneIfRequired(long currentTime) {
+
+        if (currentTime - lastPruneTime < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPruneTime = currentTime;
+        staleValues.values().removeIf(staleValue -> staleValue.isExpired(currentTime));
+        failedLookups.values().removeIf(failedLookup -> failedLookup.isExpired(currentTime));
+    }
+
+    /**
+     * Cache key qualified by the tenant domain, since the cache entries are held per tenant.
+     *
+     * @param <K>
+     */
+    private static final class TenantKey<K> {
+
+        private final String tenantDomain;
+        private final K key;
+
+        TenantKey(String tenantDomain, K key) {
+
+            this.tenantDomain = tenantDomain;
+            this.key = key;
+        }
+
+        K getKey() {
+
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TenantKey)) {
+                return false;
+            }
+            TenantKey<?> that = (TenantKey<?>) o;
+            return tenantDomain.equals(that.tenantDomain) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, key);
+        }
+
+        @Override
+        public String toString() {
+
+            return key + "@" + tenantDomain;
+        }
+    }
+
+    /**
+     * Entry kept locally until it expires.
+     */
+    private abstract static class LocalEntry {
+
+        private final long expiryTime;
+
+        LocalEntry(long expiryTime) {
+
+            this.expiryTime = expiryTime;
+        }
+
+        boolean isExpired(long currentTime) {
+
+            return currentTime >= expiryTime;
+        }
+    }
+
+    /**
+     * Last loaded value of a key, kept locally to be served while the key is refreshed.
+     *
+     * @param <V>
+     */
+    private static class StaleValue<V> extends LocalEntry {
+
+        private final V value;
+
+        StaleValue(V value, long expiryTime) {
+
+            super(expiryTime);
+            this.value = value;
+        }
+
+        V getValue() {
+
+            return value;
+        }
+    }
+
+    /**
+     * Failure of a retrieval, kept locally until it expires.
+     */
+    private static class FailedLookup extends LocalEntry {
+
+        private final OpenBankingException failure;
+
+        FailedLookup(OpenBankingException failure, long expiryTime) {
+
+            super(expiryTime);
+            this.failure = failure;
+        }
+
+        OpenBankingException getFailure() {
+
+            return failure;
+        }
+    }
+
 }
@@ -840,6 +840,30 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.CONSENT_RETENTION_DATA_DB_SYNC_CRON)).trim();
     }
 
+    /**
+     * Method to get the number of consents synced to the retention database in a single batch.
+     * @return data retention db sync chunk size
+     */
+    public int getRetentionDataDBSyncChunkSize() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_RETENTION_DATA_DB_SYNC_CHUNK_SIZE) == null
+                ? OpenBankingConstants.DEFAULT_RETENTION_DATA_DB_SYNC_CHUNK_SIZE :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_RETENTION_DATA_DB_SYNC_CHUNK_SIZE).toString().trim());
+    }
+
+    /**
+     * Method to get the number of workers syncing consent chunks to the retention database in parallel.
+     * @return data retention db sync worker count
+     */
+    public int getRetentionDataDBSyncWorkerCount() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_RETENTION_DATA_DB_SYNC_WORKER_COUNT) == null
+                ? OpenBankingConstants.DEFAULT_RETENTION_DATA_DB_SYNC_WORKER_COUNT :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_RETENTION_DATA_DB_SYNC_WORKER_COUNT).toString().trim());
+    }
+
     /**
      * Truststore dynamic loading interval.
      *
@@ -943,6 +967,52 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.ELIGIBLE_STATUSES_FOR_CONSENT_EXPIRY)).trim();
     }
 
+    /**
+     * Method to get the number of expired consents updated by the periodical consent expiration job in a single page.
+     * @return consent expiration page size
+     */
+    public int getConsentExpirationPageSize() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PAGE_SIZE) == null
+                ? OpenBankingConstants.DEFAULT_CONSENT_PERIODICAL_EXPIRATION_PAGE_SIZE :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PAGE_SIZE).toString().trim());
+    }
+
+    /**
+     * Method to get the number of partitions the consents are split into for the periodical consent expiration job.
+     * @return consent expiration partition count
+     */
+    public int getConsentExpirationPartitionCount() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PARTITION_COUNT) == null
+                ? 1 : Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PARTITION_COUNT).toString().trim());
+    }
+
+    /**
+     * Method to get the partition of consents swept by the periodical consent expiration job of this node.
+     * @return consent expiration partition index
+     */
+    public int getConsentExpirationPartitionIndex() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PARTITION_INDEX) == null
+                ? 0 : Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_PARTITION_INDEX).toString().trim());
+    }
+
+    /**
+     * Method to get the time to live of the compiled consents held for consent validation.
+     * @return time to live in seconds
+     */
+    public int getConsentValidationModelCacheTimeToLive() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_VALIDATION_MODEL_CACHE_TIME_TO_LIVE) == null
+                ? OpenBankingConstants.DEFAULT_CONSENT_VALIDATION_MODEL_CACHE_TIME_TO_LIVE :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_VALIDATION_MODEL_CACHE_TIME_TO_LIVE).toString().trim());
+    }
+
     /**
      * Method to get isEnabled config for periodical consent expiration job.
      * @return consent expiration job is enabled
@@ -1007,6 +1077,92 @@ public class OpenBankingConfigParser {
         }
     }
 
+    /**
+     * ConnectionPool maximum connection count of a named http client.
+     *
+     * @param clientName name of the http client
+     * @return maximum connections count, default value is the maximum connection count of the connection pool
+     */
+    public int getConnectionPoolMaxConnections(String clientName) {
+
+        return getHttpClientConfig(clientName, OpenBankingConstants.CONNECTION_POOL_CLIENT_MAX_CONNECTIONS,
+                getConnectionPoolMaxConnections());
+    }
+
+    /**
+     * ConnectionPool maximum connection per route count of a named http client.
+     *
+     * @param clientName name of the http client
+     * @return maximum connections per route value, default value is the maximum connections per route value of the
+     * connection pool
+     */
+    public int getConnectionPoolMaxConnectionsPerRoute(String clientName) {
+
+        return getHttpClientConfig(clientName, OpenBankingConstants.CONNECTION_POOL_CLIENT_MAX_CONNECTIONS_PER_ROUTE,
+                getConnectionPoolMaxConnectionsPerRoute());
+    }
+
+    /**
+     * Connect timeout of a named http client in milliseconds.
+     *
+     * @param clientName name of the http client
+     * @return connect timeout, default value is -1 which uses the default of the http client
+     */
+    public int getHttpClientConnectTimeout(String clientName) {
+
+        return getHttpClientConfig(clientName, OpenBankingConstants.CONNECTION_POOL_CLIENT_CONNECT_TIMEOUT, -1);
+    }
+
+    /**
+     * Socket timeout of a named http client in milliseconds.
+     *
+     * @param clientName name of the http client
+     * @return socket timeout, default value is -1 which uses the default of the http client
+     */
+    public int getHttpClientSocketTimeout(String clientName) {
+
+        return getHttpClientConfig(clientName, OpenBankingConstants.CONNECTION_POOL_CLIENT_SOCKET_TIMEOUT, -1);
+    }
+
+    /**
+     * Timeout in milliseconds to lease a connection from the connection pool of a named http client.
+     *
+     * @param clientName name of the http client
+     * @return connection request timeout, default value is -1 which uses the default of the http client
+     */
+    public int getHttpClientConnectionRequestTimeout(String clientName) {
+
+        return getHttpClientConfig(clientName,
+                OpenBankingConstants.CONNECTION_POOL_CLIENT_CONNECTION_REQUEST_TIMEOUT, -1);
+    }
+
+    /**
+     * Interval in seconds to check the truststore used by the http clients for modifications.
+     *
+     * @return truststore reload interval, default value is 60. The truststore is not reloaded if the value is 0
+     */
+    public int getHttpClientTrustStoreReloadInterval() {
+        try {
+            Object reloadInterval =
+                    getConfigElementFromKey(OpenBankingConstants.CONNECTION_POOL_TRUSTSTORE_RELOAD_INTERVAL);
+            return reloadInterval == null ? 60 : Integer.parseInt(String.valueOf(reloadInterval).trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the TrustStoreReloadInterval " +
+                    "value in open-banking.xml. " + e.getMessage());
+        }
+    }
+
+    private int getHttpClientConfig(String clientName, String property, int defaultValue) {
+        try {
+            Object value = getConfigElementFromKey(OpenBankingConstants.CONNECTION_POOL_CLIENT + clientName +
+                    property);
+            return value == null ? defaultValue : Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the " + clientName + property +
+                    " value in open-banking.xml. " + e.getMessage());
+        }
+    }
+
     private void buildServiceActivatorSubscribers() {
         OMElement serviceActivatorElement = rootElement.getFirstChildWithName(
                 new QName(OpenBankingConstants.OB_CONFIG_QNAME, OpenBankingConstants.SERVICE_ACTIVATOR_TAG));
@@ -1055,6 +1211,19 @@ public class OpenBankingConfigParser {
                 Integer.parseInt((String) getConfigElementFromKey(OpenBankingConstants.MAX_SETS_TO_RETURN));
     }
 
+    /**
+     * Number of threads to sign the SETs returned for an event polling request. SETs are signed in the polling
+     * thread when the value is 1.
+     *
+     * @return SET signing thread pool size, default value is 1
+     */
+    public int getSETSigningThreadPoolSize() {
+
+        return getConfigElementFromKey(OpenBankingConstants.SET_SIGNING_THREAD_POOL_SIZE) == null ? 1 :
+                Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.SET_SIGNING_THREAD_POOL_SIZE)).trim());
+    }
+
     public boolean isSubClaimIncluded() {
 
         return getConfigElementFromKey(OpenBankingConstants.IS_SUB_CLAIM_INCLUDED) == null ? false :
@@ -1095,6 +1264,36 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.COMMON_IDENTITY_CACHE_ACCESS_EXPIRY)).trim();
     }
 
+    /**
+     * Returns the maximum number of entries of a cache.
+     *
+     * @param cacheName name of the cache
+     * @return capacity of the cache, 0 if not configured
+     */
+    public int getCacheCapacity(String cacheName) {
+        try {
+            Object capacity = getConfigElementFromKey(OpenBankingConstants.COMMON_CACHE + cacheName +
+                    OpenBankingConstants.CACHE_CAPACITY);
+            return capacity == null ? 0 : Integer.parseInt(String.valueOf(capacity).trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the cache capacity " +
+                    "value in open-banking.xml. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the eviction algorithm of a cache. One of LRU, MRU, LFU, MFU or RANDOM.
+     *
+     * @param cacheName name of the cache
+     * @return eviction algorithm of the cache, null if not configured
+     */
+    public String getCacheEvictionAlgorithm(String cacheName) {
+
+        Object evictionAlgorithm = getConfigElementFromKey(OpenBankingConstants.COMMON_CACHE + cacheName +
+                OpenBankingConstants.CACHE_EVICTION_ALGORITHM);
+        return evictionAlgorithm == null ? null : String.valueOf(evictionAlgorithm).trim();
+    }
+
     /**
      * Alias of the signing certificate in Production Environment.
      *
@@ -1172,6 +1371,45 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_READ_TIMEOUT)).trim();
     }
 
+    /**
+     * Time in seconds a JWK set is kept in the JWKS registry before it is retrieved again.
+     *
+     * @return JWK set expiry time in seconds
+     */
+    public int getJwksRetrieverCacheExpiry() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_CACHE_EXPIRY) == null
+                ? OpenBankingConstants.DEFAULT_JWKS_RETRIEVER_CACHE_EXPIRY :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.JWKS_RETRIEVER_CACHE_EXPIRY).toString().trim());
+    }
+
+    /**
+     * Minimum interval in seconds between two retrievals of a JWK set triggered by an unknown kid.
+     *
+     * @return minimum refetch interval in seconds
+     */
+    public int getJwksRetrieverMinRefetchInterval() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_MIN_REFETCH_INTERVAL) == null
+                ? OpenBankingConstants.DEFAULT_JWKS_RETRIEVER_MIN_REFETCH_INTERVAL :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.JWKS_RETRIEVER_MIN_REFETCH_INTERVAL).toString().trim());
+    }
+
+    /**
+     * Time in seconds a JWKS endpoint is not called again after a failed retrieval.
+     *
+     * @return failure cache time in seconds
+     */
+    public int getJwksRetrieverFailureCacheTime() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_FAILURE_CACHE_TIME) == null
+                ? OpenBankingConstants.DEFAULT_JWKS_RETRIEVER_FAILURE_CACHE_TIME :
+                Integer.parseInt(getConfigElementFromKey(
+                        OpenBankingConstants.JWKS_RETRIEVER_FAILURE_CACHE_TIME).toString().trim());
+    }
+
     /**
      * Check if Jws Signature Validation is enabled.
      *
@@ -1296,17 +1534,6 @@ public class OpenBankingConfigParser {
                 OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_ENABLED).toString().trim()));
     }
 
-    /**
-     * Method to get periodic Cron expression config for realtime event notifications scheduler.
-     *
-     * @return String Cron expression to trigger the Cron job for real-time event notification
-     */
-    public String getRealtimeEventNotificationSchedulerCronExpression() {
-        return getConfigElementFromKey(OpenBankingConstants.PERIODIC_CRON_EXPRESSION)
-                == null ? "0 0/1 0 ? * * *" : (String) getConfigElementFromKey(
-                OpenBankingConstants.PERIODIC_CRON_EXPRESSION);
-    }
-
     /**
      * Method to get TIMEOUT_IN_SECONDS config for realtime event notifications.
      *
@@ -1374,6 +1601,28 @@ public class OpenBankingConfigParser {
                 OpenBankingConstants.EVENT_NOTIFICATION_THREADPOOL_SIZE).toString().trim()));
     }
 
+    /**
+     * Method to get MAX_CONCURRENT_DELIVERIES_PER_CALLBACK config for realtime event notifications.
+     *
+     * @return integer maximum number of notifications sent to the same callback URL at the same time
+     */
+    public int getRealtimeEventNotificationMaxConcurrentDeliveriesPerCallback() {
+        return getConfigElementFromKey(OpenBankingConstants.MAX_CONCURRENT_DELIVERIES_PER_CALLBACK)
+                == null ? 5 : (Integer.parseInt(getConfigElementFromKey(
+                OpenBankingConstants.MAX_CONCURRENT_DELIVERIES_PER_CALLBACK).toString().trim()));
+    }
+
+    /**
+     * Method to get MAX_PENDING_DELIVERIES_PER_CALLBACK config for realtime event notifications.
+     *
+     * @return integer maximum number of notifications of the same callback URL waiting to be sent or being sent
+     */
+    public int getRealtimeEventNotificationMaxPendingDeliveriesPerCallback() {
+        return getConfigElementFromKey(OpenBankingConstants.MAX_PENDING_DELIVERIES_PER_CALLBACK)
+                == null ? 1000 : (Integer.parseInt(getConfigElementFromKey(
+                OpenBankingConstants.MAX_PENDING_DELIVERIES_PER_CALLBACK).toString().trim()));
+    }
+
     /**
      * Method to get EVENT_NOTIFICATION_GENERATOR config for event notifications.
      *
@@ -1423,4 +1672,29 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.PSU_FEDERATED_IDP_NAME)).trim();
     }
 
+    /**
+     * Get config related for checking whether the throttle data is shared with the other nodes of the cluster using
+     * the distributed cache.
+     *
+     * @return Boolean value indicating whether cluster wide throttling is enabled
+     */
+    public boolean isClusterWideThrottlingEnabled() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CLUSTER_WIDE_THROTTLING_ENABLED) == null ? false :
+                (Boolean.parseBoolean(getConfigElementFromKey(
+                        OpenBankingConstants.CLUSTER_WIDE_THROTTLING_ENABLED).toString().trim()));
+    }
+
+    /**
+     * Get the interval in which the throttle data updated in memory is written to the database.
+     *
+     * @return persistence interval in seconds, default value is 5
+     */
+    public int getThrottleDataPersistenceIntervalInSeconds() {
+
+        return getConfigElementFromKey(OpenBankingConstants.THROTTLE_DATA_PERSISTENCE_INTERVAL_IN_SECONDS) == null ?
+                5 : Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.THROTTLE_DATA_PERSISTENCE_INTERVAL_IN_SECONDS)).trim());
+    }
+
 }
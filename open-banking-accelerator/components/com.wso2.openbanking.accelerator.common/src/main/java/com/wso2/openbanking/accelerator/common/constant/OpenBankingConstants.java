@@ -52,6 +52,13 @@ public class OpenBankingConstants {
     public static final String AUTH_SERVLET_EXTENSION = "Identity.AuthenticationWebApp.ServletExtension";
     public static final String COMMON_IDENTITY_CACHE_ACCESS_EXPIRY = "Common.Identity.Cache.CacheAccessExpiry";
     public static final String COMMON_IDENTITY_CACHE_MODIFY_EXPIRY = "Common.Identity.Cache.CacheModifiedExpiry";
+    public static final String COMMON_IDENTITY_CACHE_STALE_WHILE_REVALIDATE =
+            "Common.Identity.Cache.StaleWhileRevalidate";
+    public static final String COMMON_IDENTITY_CACHE_NEGATIVE_TIME_TO_LIVE =
+            "Common.Identity.Cache.NegativeCacheTimeToLive";
+    public static final String COMMON_CACHE = "Common.Cache.";
+    public static final String CACHE_CAPACITY = ".Capacity";
+    public static final String CACHE_EVICTION_ALGORITHM = ".EvictionAlgorithm";
     public static final String JWKS_ENDPOINT_NAME = "DCR.JWKSEndpointName";
     public static final String SP_METADATA_FILTER_EXTENSION =
             "Identity.ApplicationInformationEndpoint.SPMetadataFilterExtension";
@@ -117,6 +124,12 @@ public class OpenBankingConstants {
             ".CertificateManagement.TrustStoreDynamicLoadingInterval";
     public static final String CLIENT_CERTIFICATE_CACHE_EXPIRY = "Gateway" +
             ".CertificateManagement.ClientCertificateCacheExpiry";
+    public static final String CRL_STORE_PERSISTENCE_ENABLED = "Gateway" +
+            ".CertificateManagement.CRLStore.PersistenceEnabled";
+    public static final String CRL_STORE_REFRESH_BEFORE_NEXT_UPDATE = "Gateway" +
+            ".CertificateManagement.CRLStore.RefreshBeforeNextUpdate";
+    public static final String OCSP_RESPONSE_STORE_MAX_CACHE_TIME = "Gateway" +
+            ".CertificateManagement.OCSPResponseStore.MaxCacheTime";
     public static final String TPP_VALIDATION_CACHE_EXPIRY = "Gateway" +
             ".TPPManagement.TPPValidationCacheExpiry";
     public static final String TPP_VALIDATION_SERVICE_AISP_SCOPE_REGEX = "Gateway" +
@@ -137,6 +150,14 @@ public class OpenBankingConstants {
     public static final String TPP_MANAGEMENT_CONFIG_TAG = "TPPManagement";
     public static final String CONNECTION_POOL_MAX_CONNECTIONS = "HTTPConnectionPool.MaxConnections";
     public static final String CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE = "HTTPConnectionPool.MaxConnectionsPerRoute";
+    public static final String CONNECTION_POOL_CLIENT = "HTTPConnectionPool.Client.";
+    public static final String CONNECTION_POOL_CLIENT_MAX_CONNECTIONS = ".MaxConnections";
+    public static final String CONNECTION_POOL_CLIENT_MAX_CONNECTIONS_PER_ROUTE = ".MaxConnectionsPerRoute";
+    public static final String CONNECTION_POOL_CLIENT_CONNECT_TIMEOUT = ".ConnectTimeout";
+    public static final String CONNECTION_POOL_CLIENT_SOCKET_TIMEOUT = ".SocketTimeout";
+    public static final String CONNECTION_POOL_CLIENT_CONNECTION_REQUEST_TIMEOUT = ".ConnectionRequestTimeout";
+    public static final String CONNECTION_POOL_TRUSTSTORE_RELOAD_INTERVAL =
+            "HTTPConnectionPool.TrustStoreReloadInterval";
     public static final String PUSH_AUTH_EXPIRY_TIME = "PushAuthorisation.ExpiryTime";
     public static final String PUSH_AUTH_REQUEST_URI_SUBSTRING = "PushAuthorisation.RequestUriSubString";
 
@@ -146,6 +167,15 @@ public class OpenBankingConstants {
     public static final String IS_CONSENT_AMENDMENT_HISTORY_ENABLED = "Consent.AmendmentHistory.Enabled";
     public static final String ELIGIBLE_STATUSES_FOR_CONSENT_EXPIRY =
             "Consent.PeriodicalExpiration.EligibleStatuses";
+    public static final String CONSENT_PERIODICAL_EXPIRATION_PAGE_SIZE = "Consent.PeriodicalExpiration.PageSize";
+    public static final String CONSENT_PERIODICAL_EXPIRATION_PARTITION_COUNT =
+            "Consent.PeriodicalExpiration.PartitionCount";
+    public static final String CONSENT_PERIODICAL_EXPIRATION_PARTITION_INDEX =
+            "Consent.PeriodicalExpiration.PartitionIndex";
+    public static final int DEFAULT_CONSENT_PERIODICAL_EXPIRATION_PAGE_SIZE = 500;
+    public static final String CONSENT_VALIDATION_MODEL_CACHE_TIME_TO_LIVE =
+            "Consent.ValidationModelCache.TimeToLive";
+    public static final int DEFAULT_CONSENT_VALIDATION_MODEL_CACHE_TIME_TO_LIVE = 30;
     public static final String CONSENT_ID_CLAIM_NAME = "Identity.ConsentIDClaimName";
 
     public static final String EVENT_QUEUE_SIZE = "Event.QueueSize";
@@ -156,6 +186,10 @@ public class OpenBankingConstants {
     public static final String IS_CONSENT_DATA_RETENTION_ENABLED = "Consent.DataRetention.Enabled";
     public static final String IS_CONSENT_RETENTION_DATA_DB_SYNC_ENABLED = "Consent.DataRetention.DBSyncEnabled";
     public static final String CONSENT_RETENTION_DATA_DB_SYNC_CRON = "Consent.DataRetention.CronValue";
+    public static final String CONSENT_RETENTION_DATA_DB_SYNC_CHUNK_SIZE = "Consent.DataRetention.DBSyncChunkSize";
+    public static final String CONSENT_RETENTION_DATA_DB_SYNC_WORKER_COUNT = "Consent.DataRetention.DBSyncWorkerCount";
+    public static final int DEFAULT_RETENTION_DATA_DB_SYNC_CHUNK_SIZE = 500;
+    public static final int DEFAULT_RETENTION_DATA_DB_SYNC_WORKER_COUNT = 4;
 
     // Service Activator Constants
     public static final String SERVICE_ACTIVATOR_TAG = "ServiceActivator";
@@ -178,6 +212,13 @@ public class OpenBankingConstants {
     public static final String JWKS_RETRIEVER_SIZE_LIMIT = "OBIdentityRetriever.JWKSRetriever.SizeLimit";
     public static final String JWKS_RETRIEVER_CONN_TIMEOUT = "OBIdentityRetriever.JWKSRetriever.ConnectionTimeout";
     public static final String JWKS_RETRIEVER_READ_TIMEOUT = "OBIdentityRetriever.JWKSRetriever.ReadTimeout";
+    public static final String JWKS_RETRIEVER_CACHE_EXPIRY = "OBIdentityRetriever.JWKSRetriever.CacheExpiry";
+    public static final String JWKS_RETRIEVER_MIN_REFETCH_INTERVAL =
+            "OBIdentityRetriever.JWKSRetriever.MinRefetchInterval";
+    public static final String JWKS_RETRIEVER_FAILURE_CACHE_TIME = "OBIdentityRetriever.JWKSRetriever.FailureCacheTime";
+    public static final int DEFAULT_JWKS_RETRIEVER_CACHE_EXPIRY = 3600;
+    public static final int DEFAULT_JWKS_RETRIEVER_MIN_REFETCH_INTERVAL = 30;
+    public static final int DEFAULT_JWKS_RETRIEVER_FAILURE_CACHE_TIME = 30;
 
     // Key Manager Additional Property Configs
     public static final String KEY_MANAGER_CONFIG_TAG = "KeyManager";
@@ -189,6 +230,7 @@ public class OpenBankingConstants {
     //OB Event Notifications Constants
     public static final String TOKEN_ISSUER = "OBEventNotifications.TokenIssuer";
     public static final String MAX_SETS_TO_RETURN = "OBEventNotifications.NumberOfSetsToReturn";
+    public static final String SET_SIGNING_THREAD_POOL_SIZE = "OBEventNotifications.SETSigningThreadPoolSize";
     public static final String SIGNING_ALIAS = "OBEventNotifications.SigningAlias";
     public static final String IS_SUB_CLAIM_INCLUDED = "OBEventNotifications.PollingResponseParams.IsSubClaimAvailable";
     public static final String IS_TXN_CLAIM_INCLUDED = "OBEventNotifications.PollingResponseParams.IsTxnClaimAvailable";
@@ -230,7 +272,6 @@ public class OpenBankingConstants {
 
     // Realtime Event Notification Constants
     public static final String REALTIME_EVENT_NOTIFICATION_ENABLED = "RealtimeEventNotification.Enable";
-    public static final String PERIODIC_CRON_EXPRESSION = "RealtimeEventNotification.PeriodicCronExpression";
     public static final String TIMEOUT_IN_SECONDS = "RealtimeEventNotification.TimeoutInSeconds";
     public static final String MAX_RETRIES = "RealtimeEventNotification.MaxRetries";
     public static final String INITIAL_BACKOFF_TIME_IN_SECONDS
@@ -240,6 +281,10 @@ public class OpenBankingConstants {
             = "RealtimeEventNotification.CircuitBreakerOpenTimeoutInSeconds";
     public static final String EVENT_NOTIFICATION_THREADPOOL_SIZE
             = "RealtimeEventNotification.EventNotificationThreadPoolSize";
+    public static final String MAX_CONCURRENT_DELIVERIES_PER_CALLBACK
+            = "RealtimeEventNotification.MaxConcurrentDeliveriesPerCallback";
+    public static final String MAX_PENDING_DELIVERIES_PER_CALLBACK
+            = "RealtimeEventNotification.MaxPendingDeliveriesPerCallback";
     public static final String REALTIME_EVENT_NOTIFICATION_REQUEST_GENERATOR
             = "RealtimeEventNotification.RequestGenerator";
     public static final String CONTENT_TYPE_TAG = "Content-Type";
@@ -249,4 +294,9 @@ public class OpenBankingConstants {
     public static final String QUERY = "query";
     public static final String IS_PSU_FEDERATED = "PSUFederatedAuthentication.Enabled";
     public static final String PSU_FEDERATED_IDP_NAME = "PSUFederatedAuthentication.IDPName";
+
+    // Throttler Constants
+    public static final String CLUSTER_WIDE_THROTTLING_ENABLED = "Throttler.ClusterWide.Enable";
+    public static final String THROTTLE_DATA_PERSISTENCE_INTERVAL_IN_SECONDS
+            = "Throttler.PersistenceIntervalInSeconds";
 }
@@ -18,14 +18,24 @@
 
 package com.wso2.openbanking.accelerator.common.distributed.caching;
 
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 /**
  * Abstract cache manager for Open Banking Distributed cache.
+ * <p>
+ * A near cache can be configured per cache name under DistributedCache.NearCache. Read heavy caches are then
+ * served from the local member, and the local entries are invalidated when they change in the cluster.
  *
  * @param <K> Key of the cache.
  * @param <V> Value of the cache.
@@ -49,7 +59,7 @@ public abstract class OpenBankingDistributedCache<K extends OpenBankingDistribut
     }
 
     /**
-     * Get from cache.
+     * Get from cache. Entries of caches with a near cache are served locally when available.
      *
      * @param key cache key.
      * @return cache.
@@ -58,21 +68,14 @@ public abstract class OpenBankingDistributedCache<K extends OpenBankingDistribut
 
         if (isEnabled()) {
 
-            IMap<K, V> cache = getBaseCache();
+            V value = getBaseCache().get(key);
 
-            if (cache.containsKey(key)) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Found cache entry `%s` in cache %s.",
-                            key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-                }
-                return cache.get(key);
-            } else {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Cache entry `%s` is not Found in cache %s.",
-                            key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-                }
-                return null;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format(value != null ? "Found cache entry `%s` in cache %s." :
+                                "Cache entry `%s` is not Found in cache %s.",
+                        key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
+            return value;
         } else {
             log.debug("Distributed cache is Disabled.");
             return null;
@@ -98,6 +101,62 @@ public abstract class OpenBankingDistributedCache<K extends OpenBankingDistribut
         }
     }
 
+    /**
+     * Add Object to cache if the key is not already mapped, as a single atomic operation in the cluster.
+     *
+     * @param key   cache key.
+     * @param value object to be cached.
+     * @return the existing value of the key, or null if the value was added.
+     */
+    public V putIfAbsent(K key, V value) {
+        if (isEnabled()) {
+            V existingValue = getBaseCache().putIfAbsent(key, value, getCacheTimeToLiveMinutes(), TimeUnit.MINUTES);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format(existingValue == null ? "`%s` added into cache %s." :
+                                "`%s` already exists in cache %s.", key.toString().replaceAll("[\r\n]", ""),
+                        cacheName.replaceAll("[\r\n]", "")));
+            }
+            return existingValue;
+        } else {
+            log.debug("Distributed cache is Disabled.");
+            return null;
+        }
+    }
+
+    /**
+     * Atomically update the value of a key. The key is locked in the cluster while the remapping function runs, so
+     * the function is given the current value, or null if the key is not mapped, and is invoked exactly once.
+     * The new value is written with the cache time to live. Returning null removes the entry.
+     *
+     * @param key               cache key.
+     * @param remappingFunction function computing the new value from the current value.
+     * @return the new value, or null if the entry was removed.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (isEnabled()) {
+            IMap<K, V> cache = getBaseCache();
+            cache.lock(key);
+            try {
+                V newValue = remappingFunction.apply(key, cache.get(key));
+                if (newValue == null) {
+                    cache.delete(key);
+                } else {
+                    cache.set(key, newValue, getCacheTimeToLiveMinutes(), TimeUnit.MINUTES);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("`%s` updated in cache %s.", key.toString().replaceAll("[\r\n]", ""),
+                            cacheName.replaceAll("[\r\n]", "")));
+                }
+                return newValue;
+            } finally {
+                cache.unlock(key);
+            }
+        } else {
+            log.debug("Distributed cache is Disabled.");
+            return null;
+        }
+    }
+
     /**
      * Remove from cache.
      *
@@ -116,6 +175,34 @@ public abstract class OpenBankingDistributedCache<K extends OpenBankingDistribut
         }
     }
 
+    /**
+     * Add a listener notified when the entry of a key is updated, removed, expired or evicted anywhere in the
+     * cluster. The listener runs on an event thread of the cache, so it should only signal the waiting threads.
+     *
+     * @param key      cache key.
+     * @param listener listener to notify.
+     * @return id of the registered listener, or null if distributed caching is disabled.
+     */
+    public UUID addChangeListener(K key, Runnable listener) {
+        if (isEnabled()) {
+            return getBaseCache().addEntryListener(new EntryChangeListener<K, V>(listener), key, false);
+        } else {
+            log.debug("Distributed cache is Disabled.");
+            return null;
+        }
+    }
+
+    /**
+     * Remove a listener added with {@link #addChangeListener(OpenBankingDistributedCacheKey, Runnable)}.
+     *
+     * @param listenerId id of the registered listener.
+     */
+    public void removeChangeListener(UUID listenerId) {
+        if (listenerId != null && isEnabled()) {
+            getBaseCache().removeEntryListener(listenerId);
+        }
+    }
+
     /**
      * Method to check if the cache is empty.
      *
@@ -150,4 +237,40 @@ public abstract class OpenBankingDistributedCache<K extends OpenBankingDistribut
      */
     public abstract int getCacheTimeToLiveMinutes();
 
+    /**
+     * Entry listener running a task on any change of an existing entry.
+     *
+     * @param <K> Key of the cache.
+     * @param <V> Value of the cache.
+     */
+    private static class EntryChangeListener<K, V> implements EntryUpdatedListener<K, V>,
+            EntryRemovedListener<K, V>, EntryExpiredListener<K, V>, EntryEvictedListener<K, V> {
+
+        private final Runnable listener;
+
+        EntryChangeListener(Runnable listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<K, V> event) {
+            listener.run();
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<K, V> event) {
+            listener.run();
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<K, V> event) {
+            listener.run();
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<K, V> event) {
+            listener.run();
+        }
+    }
+
 }
@@ -26,6 +26,11 @@ public class OpenBankingDistributedCacheConstants {
     // Distributed cache cluster name.
     public static final String CLUSTER_NAME = "OB_DISTRIBUTED_CACHE";
 
+    // Topic used to notify consent state changes to the cluster members.
+    public static final String CONSENT_STATE_CHANGE_TOPIC = "OB_CONSENT_STATE_CHANGE_TOPIC";
+    // Message published to the consent state change topic when the changed consents are not known.
+    public static final String ALL_CONSENTS_CHANGED_MESSAGE = "*";
+
     // Common constants for both TCP and Multicast.
     public static final String ENABLED = "DistributedCache.Enabled";
     public static final String HOST_NAME = "DistributedCache.HostName";
@@ -42,6 +47,13 @@ public class OpenBankingDistributedCacheConstants {
     public static final String TCP = "TCP";
     public static final String MEMBERS = "DistributedCache.Members.Member";
 
+    // Constants for near caches, configured per cache name.
+    public static final String NEAR_CACHE = "DistributedCache.NearCache.";
+    public static final String NEAR_CACHE_MAX_SIZE = ".MaxSize";
+    public static final String NEAR_CACHE_TIME_TO_LIVE = ".TimeToLive";
+    public static final String NEAR_CACHE_MAX_IDLE = ".MaxIdle";
+    public static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 10000;
+
     // Constants for hazelcast properties.
     public static final String PROPERTY_MAX_HEARTBEAT = "DistributedCache.Properties.MaxHeartbeat";
     public static final String PROPERTY_MAX_MASTER_CONFIRMATION = "DistributedCache.Properties.MasterConfirmation";
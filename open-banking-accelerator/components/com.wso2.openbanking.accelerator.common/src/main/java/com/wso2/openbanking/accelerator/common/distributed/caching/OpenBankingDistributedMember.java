@@ -19,8 +19,14 @@
 package com.wso2.openbanking.accelerator.common.distributed.caching;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.MulticastConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NetworkConfig;
 import com.hazelcast.config.TcpIpConfig;
 import com.hazelcast.core.Hazelcast;
@@ -34,8 +40,11 @@ import org.apache.commons.logging.LogFactory;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.CLUSTER_NAME;
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.DEFAULT_NEAR_CACHE_MAX_SIZE;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.DISCOVERY_MECHANISM;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.ENABLED;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.HAZELCAST_PROPERTY_LOGGING_TYPE;
@@ -48,6 +57,10 @@ import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBa
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.MULTICAST;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.MULTICAST_GROUP;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.MULTICAST_PORT;
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.NEAR_CACHE;
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.NEAR_CACHE_MAX_IDLE;
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.NEAR_CACHE_MAX_SIZE;
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.NEAR_CACHE_TIME_TO_LIVE;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.PORT;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.PROPERTY_LOGGING_TYPE;
 import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.PROPERTY_MAX_HEARTBEAT;
@@ -79,6 +92,8 @@ public class OpenBankingDistributedMember {
 
         setProperties(hazelcastConfig);
 
+        setNearCacheConfigurations(hazelcastConfig);
+
         NetworkConfig network = hazelcastConfig.getNetworkConfig();
 
         setNetworkConfigurations(network);
@@ -196,6 +211,59 @@ public class OpenBankingDistributedMember {
         }
     }
 
+    /**
+     * Method to set the near caches of the configured caches. A near cache keeps the entries read by this member
+     * locally, and the entries are invalidated when they are updated or removed in the cluster. Entries are kept
+     * in binary form, so that each read returns a copy which callers can modify without affecting the cache.
+     *
+     * @param hazelcastConfig hazelcastConfig.
+     */
+    private synchronized void setNearCacheConfigurations(Config hazelcastConfig) {
+
+        Set<String> nearCacheNames = new TreeSet<>();
+        for (String configurationName : configurations.keySet()) {
+            if (configurationName.startsWith(NEAR_CACHE) && configurationName.lastIndexOf('.') > NEAR_CACHE.length()) {
+                nearCacheNames.add(configurationName.substring(NEAR_CACHE.length(),
+                        configurationName.lastIndexOf('.')));
+            }
+        }
+
+        for (String cacheName : nearCacheNames) {
+            EvictionConfig evictionConfig = new EvictionConfig()
+                    .setEvictionPolicy(EvictionPolicy.LRU)
+                    .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                    .setSize(getIntConfiguration(NEAR_CACHE + cacheName + NEAR_CACHE_MAX_SIZE,
+                            DEFAULT_NEAR_CACHE_MAX_SIZE));
+
+            NearCacheConfig nearCacheConfig = new NearCacheConfig(cacheName)
+                    .setInMemoryFormat(InMemoryFormat.BINARY)
+                    .setInvalidateOnChange(true)
+                    .setCacheLocalEntries(true)
+                    .setTimeToLiveSeconds(getIntConfiguration(NEAR_CACHE + cacheName + NEAR_CACHE_TIME_TO_LIVE, 0))
+                    .setMaxIdleSeconds(getIntConfiguration(NEAR_CACHE + cacheName + NEAR_CACHE_MAX_IDLE, 0))
+                    .setEvictionConfig(evictionConfig);
+
+            hazelcastConfig.addMapConfig(new MapConfig(cacheName).setNearCacheConfig(nearCacheConfig));
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Near cache enabled for %s with maximum size %d",
+                        cacheName.replaceAll("[\r\n]", ""), evictionConfig.getSize()));
+            }
+        }
+    }
+
+    /**
+     * Method to read an integer configuration.
+     *
+     * @param configurationName Name of the configuration in config file.
+     * @param defaultValue      value to use when the configuration is not set.
+     * @return configured value.
+     */
+    private int getIntConfiguration(String configurationName, int defaultValue) {
+        Object configuration = configurations.get(configurationName);
+        return configuration == null ? defaultValue : Integer.parseInt(configuration.toString().trim());
+    }
+
     /**
      * Method to set hazelcast network configurations.
      *
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.distributed.caching;
+
+import com.hazelcast.topic.ITopic;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.function.Consumer;
+
+import static com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants.ENABLED;
+
+/**
+ * Publish/subscribe topic shared through the Open Banking distributed cache cluster.
+ * Used to push cache invalidation messages between the nodes (ex: from IS to gateway nodes).
+ */
+public class OpenBankingDistributedTopic {
+
+    private static final Log log = LogFactory.getLog(OpenBankingDistributedTopic.class);
+    private final String topicName;
+
+    /**
+     * Initialize with unique topic name.
+     *
+     * @param topicName Name of the topic.
+     */
+    public OpenBankingDistributedTopic(String topicName) {
+
+        this.topicName = topicName;
+    }
+
+    /**
+     * Publish a message to all the members listening to the topic.
+     *
+     * @param message message to publish.
+     */
+    public void publish(String message) {
+
+        if (isEnabled()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Publishing `%s` to topic %s.", message.replaceAll("[\r\n]", ""),
+                        topicName.replaceAll("[\r\n]", "")));
+            }
+            getTopic().publish(message);
+        } else {
+            log.debug("Distributed cache is Disabled. Topic message is not published.");
+        }
+    }
+
+    /**
+     * Register a listener for the messages published to the topic.
+     *
+     * @param listener consumer to invoke for each message.
+     * @return true if the listener is registered, false if distributed caching is disabled.
+     */
+    public boolean addListener(Consumer<String> listener) {
+
+        if (isEnabled()) {
+            getTopic().addMessageListener(message -> listener.accept(message.getMessageObject()));
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Listener registered for topic %s.", topicName.replaceAll("[\r\n]", "")));
+            }
+            return true;
+        }
+        log.debug("Distributed cache is Disabled. Topic listener is not registered.");
+        return false;
+    }
+
+    private ITopic<String> getTopic() {
+
+        return OpenBankingDistributedMember.of().getHazelcastInstance().getTopic(this.topicName);
+    }
+
+    /**
+     * Check the configuration before touching the distributed member, so that a hazelcast member is not started
+     * on nodes where distributed caching is disabled.
+     *
+     * @return True if enabled, false if disabled.
+     */
+    private boolean isEnabled() {
+
+        Object enabled = OpenBankingConfigParser.getInstance().getConfiguration().get(ENABLED);
+        return enabled != null && Boolean.parseBoolean(enabled.toString().trim())
+                && OpenBankingDistributedMember.of().isEnabled();
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.event;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded event queue consumed by a fixed number of long-lived consumer threads.
+ * <p>
+ * Each consumer waits for an event, drains up to the batch size of queued events and processes them as a batch.
+ * The {@link QueueFullPolicy} decides what happens to the events offered while the queue is full. Queue depth,
+ * dropped events and batch sizes are counted, and reported once a minute. Events dropped since the previous report
+ * are reported as a warning.
+ *
+ * @param <E> type of the events
+ */
+public abstract class OBBatchingQueue<E> {
+
+    private static final Log log = LogFactory.getLog(OBBatchingQueue.class);
+    private static final long POLL_TIMEOUT_MILLIS = 1000;
+    private static final long REPORT_INTERVAL_SECONDS = 60;
+    private static final ScheduledExecutorService reportExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ob-event-queue-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String name;
+    private final BlockingQueue<E> queue;
+    private final ExecutorService consumerExecutorService;
+    private final int batchSize;
+    private final QueueFullPolicy queueFullPolicy;
+    private final long blockTimeoutMillis;
+    private final int samplingRate;
+    private final int samplingThreshold;
+    private final AtomicLong sampledCount = new AtomicLong();
+    private final AtomicBoolean dropping = new AtomicBoolean();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final ScheduledFuture<?> report;
+    private long reportedDroppedCount;
+    private volatile boolean running = true;
+
+    /**
+     * Create a queue and start its consumers.
+     *
+     * @param name               name of the queue, used for the consumer thread names and logs
+     * @param queueSize          maximum number of queued events
+     * @param consumerCount      number of consumer threads
+     * @param batchSize          maximum number of events processed as a batch
+     * @param queueFullPolicy    policy applied when the queue is full
+     * @param blockTimeoutMillis time to wait for space in the queue with the BLOCK policy
+     * @param samplingRate       one of every sampling rate events is queued with the SAMPLE policy
+     */
+    protected OBBatchingQueue(String name, int queueSize, int consumerCount, int batchSize,
+                              QueueFullPolicy queueFullPolicy, long blockTimeoutMillis, int samplingRate) {
+
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = Math.max(batchSize, 1);
+        this.queueFullPolicy = queueFullPolicy == null ? QueueFullPolicy.DROP_NEWEST : queueFullPolicy;
+        this.blockTimeoutMillis = Math.max(blockTimeoutMillis, 0);
+        this.samplingRate = Math.max(samplingRate, 1);
+        this.samplingThreshold = queueSize / 2;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        consumerExecutorService = Executors.newFixedThreadPool(consumerCount, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumerCount; i++) {
+            consumerExecutorService.execute(this::consume);
+        }
+        report = reportExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                reportMetrics();
+            } catch (RuntimeException e) {
+                log.error("Error while reporting the metrics of event queue " + name, e);
+            }
+        }, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Add an event to the queue, applying the queue full policy if the queue is full.
+     *
+     * @param event event to add
+     */
+    public void put(E event) {
+
+        if (!running) {
+            droppedCount.increment();
+            log.debug("Event queue " + name + " is shut down. Event is dropped.");
+            return;
+        }
+        boolean queued;
+        switch (queueFullPolicy) {
+            case DROP_OLDEST:
+                queued = offerDroppingOldest(event);
+                break;
+            case SAMPLE:
+                queued = (queue.size() < samplingThreshold || sampledCount.incrementAndGet() % samplingRate == 0)
+                        && queue.offer(event);
+                break;
+            case BLOCK:
+                queued = offerWithTimeout(event);
+                break;
+            default:
+                queued = queue.offer(event);
+                break;
+        }
+        if (queued) {
+            if (dropping.get() && dropping.compareAndSet(true, false)) {
+                log.warn("Event queue " + name + " is accepting events again. " + droppedCount.sum() +
+                        " events have been dropped in total.");
+            }
+        } else {
+            recordDrop();
+        }
+    }
+
+    /**
+     * Process a batch of events taken from the queue. The list is reused for the next batch of the consumer.
+     *
+     * @param batch events in the order they were queued
+     */
+    protected abstract void processBatch(List<E> batch);
+
+    /**
+     * Stop accepting events and wait for the consumers to process the queued events.
+     *
+     * @param timeoutMillis maximum time to wait for the consumers
+     */
+    public void shutdown(long timeoutMillis) {
+
+        running = false;
+        report.cancel(false);
+        consumerExecutorService.shutdown();
+        try {
+            if (!consumerExecutorService.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Consumers of " + name + " did not finish in time. " + queue.size() +
+                        " queued events are discarded");
+                consumerExecutorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            consumerExecutorService.shutdownNow();
+        }
+    }
+
+    public int getQueueDepth() {
+
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+
+        return droppedCount.sum();
+    }
+
+    public long getProcessedCount() {
+
+        return processedCount.sum();
+    }
+
+    public long getBatchCount() {
+
+        return batchCount.sum();
+    }
+
+    public int getMaxBatchSize() {
+
+        return maxBatchSize.get();
+    }
+
+    public double getAverageBatchSize() {
+
+        long batches = batchCount.sum();
+        return batches == 0 ? 0 : (double) processedCount.sum() / batches;
+    }
+
+    /**
+     * Log the metrics of the queue. Events dropped since the previous report are logged as a warning, and the other
+     * metrics at debug level.
+     *
+     * @return number of events dropped since the previous report
+     */
+    public synchronized long reportMetrics() {
+
+        long dropped = droppedCount.sum();
+        long newlyDropped = dropped - reportedDroppedCount;
+        reportedDroppedCount = dropped;
+        if (newlyDropped > 0) {
+            log.warn(String.format("Event queue %s dropped %d events since the previous report. Queue depth: %d, " +
+                    "dropped events: %d, processed events: %d", name, newlyDropped, getQueueDepth(), dropped,
+                    getProcessedCount()));
+        } else if (log.isDebugEnabled()) {
+            log.debug(String.format("Event queue %s. Queue depth: %d, processed events: %d, batches: %d, " +
+                            "average batch size: %.1f, maximum batch size: %d", name, getQueueDepth(),
+                    getProcessedCount(), getBatchCount(), getAverageBatchSize(), getMaxBatchSize()));
+        }
+        return newlyDropped;
+    }
+
+    private void consume() {
+
+        List<E> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                E event = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                queue.drainTo(batch, batchSize - 1);
+                recordBatch(batch.size());
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error while processing a batch of " + name + " events", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean offerDroppingOldest(E event) {
+
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                recordDrop();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerWithTimeout(E event) {
+
+        try {
+            return queue.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void recordBatch(int size) {
+
+        batchCount.increment();
+        processedCount.add(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    private void recordDrop() {
+
+        droppedCount.increment();
+        if (dropping.compareAndSet(false, true)) {
+            log.error("Event queue " + name + " is full. Starting to drop events.");
+        }
+    }
+}
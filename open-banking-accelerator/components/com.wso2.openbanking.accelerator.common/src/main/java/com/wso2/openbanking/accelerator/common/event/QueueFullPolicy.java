@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.event;
+
+import java.util.Locale;
+
+/**
+ * Policy applied by an {@link OBBatchingQueue} when an event is offered while the queue is full.
+ */
+public enum QueueFullPolicy {
+
+    /**
+     * Drop the offered event.
+     */
+    DROP_NEWEST("DropNewest"),
+
+    /**
+     * Drop the oldest queued event to queue the offered event.
+     */
+    DROP_OLDEST("DropOldest"),
+
+    /**
+     * Queue one of every sampling rate events once the queue is half full, and drop the offered event when full.
+     */
+    SAMPLE("Sample"),
+
+    /**
+     * Wait for the block timeout for space in the queue, and drop the offered event if the queue is still full.
+     */
+    BLOCK("Block");
+
+    private final String value;
+
+    QueueFullPolicy(String value) {
+
+        this.value = value;
+    }
+
+    public String getValue() {
+
+        return value;
+    }
+
+    /**
+     * Get the policy of a configured value.
+     *
+     * @param value configured value
+     * @return policy of the value, or DROP_NEWEST if the value is not set or unknown
+     */
+    public static QueueFullPolicy fromValue(String value) {
+
+        if (value != null) {
+            String policyValue = value.trim().toLowerCase(Locale.ENGLISH);
+            for (QueueFullPolicy policy : values()) {
+                if (policy.value.toLowerCase(Locale.ENGLISH).equals(policyValue)) {
+                    return policy;
+                }
+            }
+        }
+        return DROP_NEWEST;
+    }
+}
@@ -18,49 +18,51 @@
 
 package com.wso2.openbanking.accelerator.common.event.executor;
 
+import com.wso2.openbanking.accelerator.common.event.OBBatchingQueue;
+import com.wso2.openbanking.accelerator.common.event.QueueFullPolicy;
 import com.wso2.openbanking.accelerator.common.event.executor.model.OBEvent;
+import com.wso2.openbanking.accelerator.common.internal.OpenBankingCommonDataHolder;
+import com.wso2.openbanking.accelerator.common.util.OpenBankingUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
-
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * Open Banking event queue wrapper class wrapping the ArrayBlockingQueue.
+ * Open Banking event queue, which executes the queued events with the configured event executors.
+ * <p>
+ * Events are executed in batches by long-lived worker threads. The executors are instantiated per event, as before
+ * batching, so executors may keep state of the event they process. A failure of an event does not stop the execution
+ * of the rest of the batch.
  */
-public class OBEventQueue {
+public class OBEventQueue extends OBBatchingQueue<OBEvent> {
 
     private static final Log log = LogFactory.getLog(OBEventQueue.class);
-    private final BlockingQueue<OBEvent> eventQueue;
-    private final ExecutorService executorService;
+    private static final int BATCH_SIZE = 100;
 
     public OBEventQueue(int queueSize, int workerThreadCount) {
 
-        // Note : Using a fixed worker thread pool and a bounded queue to control the load on the server
-        executorService = Executors.newFixedThreadPool(workerThreadCount);
-        eventQueue = new ArrayBlockingQueue<>(queueSize);
+        // Note : Using a fixed number of workers and a bounded queue to control the load on the server
+        super("ob-event-executor", queueSize, workerThreadCount, BATCH_SIZE, QueueFullPolicy.DROP_NEWEST, 0, 1);
     }
 
-    public void put(OBEvent obEvent) {
+    @Override
+    protected void processBatch(List<OBEvent> batch) {
 
-        try {
-            if (eventQueue.offer(obEvent)) {
-                executorService.submit(new OBQueueWorker(eventQueue, executorService));
-            } else {
-                log.error("Event queue is full. Starting to drop events.");
+        Map<Integer, String> obEventExecutors = OpenBankingCommonDataHolder.getInstance().getOBEventExecutors();
+        for (OBEvent event : batch) {
+            try {
+                List<OBEventExecutor> executorList = obEventExecutors.keySet().stream()
+                        .map(integer -> (OBEventExecutor) OpenBankingUtils
+                                .getClassInstanceFromFQN(obEventExecutors.get(integer))).collect(Collectors.toList());
+                for (OBEventExecutor obEventExecutor : executorList) {
+                    obEventExecutor.processEvent(event);
+                }
+            } catch (RuntimeException e) {
+                log.error("Error while executing the OB event", e);
             }
-        } catch (RejectedExecutionException e) {
-            log.warn("Task submission failed. Task queue might be full", e);
         }
     }
-
-    @Override
-    protected void finalize() throws Throwable {
-        executorService.shutdown();
-        super.finalize();
-    }
 }
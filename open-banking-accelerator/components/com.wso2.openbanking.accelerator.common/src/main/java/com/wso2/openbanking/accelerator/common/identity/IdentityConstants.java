@@ -35,6 +35,8 @@ public class IdentityConstants {
 
     public static final String KEYSTORE_LOCATION_CONF_KEY = "Security.KeyStore.Location";
     public static final String KEYSTORE_PASS_CONF_KEY = "Security.KeyStore.Password";
+    public static final String KEYSTORE_KEY_ALIAS_CONF_KEY = "Security.KeyStore.KeyAlias";
+    public static final String KEYSTORE_KEY_PASS_CONF_KEY = "Security.KeyStore.KeyPassword";
 
     /**
      * CertificateType enum.
@@ -55,6 +55,18 @@ public class OpenBankingIdentityBaseCache<K extends OpenBankingBaseCacheKey, V>
         return modifiedExpiryMinutes;
     }
 
+    @Override
+    protected int getStaleWhileRevalidateMinutes() {
+
+        return OpenBankingCommonDataHolder.getInstance().getCommonCacheStaleWhileRevalidate();
+    }
+
+    @Override
+    protected int getNegativeCacheTimeToLiveSeconds() {
+
+        return OpenBankingCommonDataHolder.getInstance().getCommonCacheNegativeTimeToLive();
+    }
+
     public int setAccessExpiryMinutes() {
 
         return OpenBankingCommonDataHolder.getInstance().getCommonCacheAccessExpiry();
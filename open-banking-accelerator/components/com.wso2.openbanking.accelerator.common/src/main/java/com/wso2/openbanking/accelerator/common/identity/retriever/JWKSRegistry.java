@@ -0,0 +1,441 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.identity.retriever;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the JWK sets of the JWKS endpoints, keyed by the JWKS URI, with the keys of each set indexed by the kid.
+ * <p>
+ * Concurrent requests for a JWK set which is not available wait for a single retrieval. JWK sets which are used are
+ * retrieved again in the background before they expire, while JWK sets which have not been used since they were
+ * retrieved are dropped. When a kid is not found in a JWK set, the set is retrieved again at most once per minimum
+ * refetch interval, to pick up rotated keys. A JWKS endpoint which could not be reached is not called again until
+ * the failure cache time has passed.
+ */
+public class JWKSRegistry {
+
+    private static final Log log = LogFactory.getLog(JWKSRegistry.class);
+    private static volatile JWKSRegistry jwksRegistry;
+
+    private final Map<String, CachedJWKSet> jwkSets = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedJWKSet>> pendingRetrievals = new ConcurrentHashMap<>();
+    private final Map<String, Long> failedRetrievals = new ConcurrentHashMap<>();
+    private final JWKSetRetrieval retrieval;
+    private final long expiryMillis;
+    private final long minRefetchIntervalMillis;
+    private final long failureCacheMillis;
+    private final ScheduledExecutorService refreshExecutor;
+    private final LongSupplier clock;
+
+    /**
+     * Create a registry.
+     *
+     * @param retrieval                  retrieval of the JWK set of a JWKS endpoint
+     * @param expiryMillis               time a JWK set is used before it is retrieved again
+     * @param minRefetchIntervalMillis   minimum interval between the retrievals triggered by an unknown kid
+     * @param failureCacheMillis         time a JWKS endpoint is not called again after a failed retrieval
+     */
+    public JWKSRegistry(JWKSetRetrieval retrieval, long expiryMillis, long minRefetchIntervalMillis,
+                        long failureCacheMillis) {
+
+        this(retrieval, expiryMillis, minRefetchIntervalMillis, failureCacheMillis,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "ob-jwks-registry-refresher");
+                    thread.setDaemon(true);
+                    return thread;
+                }), System::currentTimeMillis);
+    }
+
+    /**
+     * Create a registry which schedules the background refreshes on the given executor and checks the expiry times
+     * against the given clock.
+     *
+     * @param retrieval                  retrieval of the JWK set of a JWKS endpoint
+     * @param expiryMillis               time a JWK set is used before it is retrieved again
+     * @param minRefetchIntervalMillis   minimum interval between the retrievals triggered by an unknown kid
+     * @param failureCacheMillis         time a JWKS endpoint is not called again after a failed retrieval
+     * @param refreshExecutor            executor of the background refreshes
+     * @param clock                      current time in milliseconds
+     */
+    public JWKSRegistry(JWKSetRetrieval retrieval, long expiryMillis, long minRefetchIntervalMillis,
+                        long failureCacheMillis, ScheduledExecutorService refreshExecutor, LongSupplier clock) {
+
+        this.retrieval = retrieval;
+        this.expiryMillis = expiryMillis;
+        this.minRefetchIntervalMillis = minRefetchIntervalMillis;
+        this.failureCacheMillis = failureCacheMillis;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return JWKSRegistry object
+     */
+    @Generated(message = "Excluding from code coverage since it requires the open banking configuration")
+    public static JWKSRegistry getInstance() {
+
+        if (jwksRegistry == null) {
+            synchronized (JWKSRegistry.class) {
+                if (jwksRegistry == null) {
+                    OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+                    jwksRegistry = new JWKSRegistry(jwksURL -> new JWKRetriever().updateJWKSetFromURL(jwksURL),
+                            TimeUnit.SECONDS.toMillis(configParser.getJwksRetrieverCacheExpiry()),
+                            TimeUnit.SECONDS.toMillis(configParser.getJwksRetrieverMinRefetchInterval()),
+                            TimeUnit.SECONDS.toMillis(configParser.getJwksRetrieverFailureCacheTime()));
+                }
+            }
+        }
+        return jwksRegistry;
+    }
+
+    /**
+     * Get the JWK set of a JWKS endpoint.
+     *
+     * @param jwksUri JWKS URI
+     * @return JWK set
+     * @throws OpenBankingException when the JWK set cannot be retrieved
+     */
+    public JWKSet getJWKSet(String jwksUri) throws OpenBankingException {
+
+        return getCachedJWKSet(jwksUri).getJWKSet();
+    }
+
+    /**
+     * Get the JWK set of a JWKS endpoint which is expected to contain a key. If the key is not found, the JWK set is
+     * retrieved again, unless it has been retrieved within the minimum refetch interval.
+     *
+     * @param jwksUri JWKS URI
+     * @param kid     kid of the expected key
+     * @return JWK set
+     * @throws OpenBankingException when the JWK set cannot be retrieved
+     */
+    public JWKSet getJWKSet(String jwksUri, String kid) throws OpenBankingException {
+
+        return getCachedJWKSet(jwksUri, kid).getJWKSet();
+    }
+
+    /**
+     * Get the keys of a kid from the JWK set of a JWKS endpoint. If the kid is not found, the JWK set is retrieved
+     * again, unless it has been retrieved within the minimum refetch interval.
+     *
+     * @param jwksUri JWKS URI
+     * @param kid     kid of the keys
+     * @return keys of the kid, or an empty list if the kid is not found
+     * @throws OpenBankingException when the JWK set cannot be retrieved
+     */
+    public List<JWK> getKeys(String jwksUri, String kid) throws OpenBankingException {
+
+        return getCachedJWKSet(jwksUri, kid).getKeys(kid);
+    }
+
+    /**
+     * Get a JWK source of a JWKS endpoint, to be used with the JOSE processors. If no key is selected by a selector
+     * with key IDs, the JWK set is retrieved again, unless it has been retrieved within the minimum refetch interval.
+     *
+     * @param jwksUri JWKS URI
+     * @param <C>     security context type
+     * @return JWK source
+     */
+    public <C extends SecurityContext> JWKSource<C> getJWKSource(String jwksUri) {
+
+        return (jwkSelector, context) -> {
+            try {
+                CachedJWKSet cachedJWKSet = getCachedJWKSet(jwksUri);
+                List<JWK> keys = jwkSelector.select(cachedJWKSet.getJWKSet());
+                if (keys.isEmpty() && hasKeyIds(jwkSelector)) {
+                    cachedJWKSet = refetch(jwksUri, cachedJWKSet);
+                    keys = jwkSelector.select(cachedJWKSet.getJWKSet());
+                }
+                return keys;
+            } catch (OpenBankingException e) {
+                throw new KeySourceException(e.getMessage(), e);
+            }
+        };
+    }
+
+    private CachedJWKSet getCachedJWKSet(String jwksUri, String kid) throws OpenBankingException {
+
+        CachedJWKSet cachedJWKSet = getCachedJWKSet(jwksUri);
+        if (kid != null && cachedJWKSet.getKeys(kid).isEmpty()) {
+            cachedJWKSet = refetch(jwksUri, cachedJWKSet);
+        }
+        return cachedJWKSet;
+    }
+
+    private CachedJWKSet getCachedJWKSet(String jwksUri) throws OpenBankingException {
+
+        CachedJWKSet cachedJWKSet = jwkSets.get(jwksUri);
+        long currentTime = clock.getAsLong();
+        if (cachedJWKSet != null && currentTime < cachedJWKSet.getExpiryTime()) {
+            cachedJWKSet.markAccessed();
+            return cachedJWKSet;
+        }
+        checkFailedRetrieval(jwksUri, currentTime);
+        return retrieve(jwksUri, cachedJWKSet);
+    }
+
+    /**
+     * Retrieve a JWK set again for an unknown kid, if it has not been retrieved within the minimum refetch interval.
+     * If the retrieval fails, the current JWK set is used.
+     */
+    private CachedJWKSet refetch(String jwksUri, CachedJWKSet cachedJWKSet) {
+
+        long currentTime = clock.getAsLong();
+        if (currentTime - cachedJWKSet.getRetrievedTime() < minRefetchIntervalMillis) {
+            return cachedJWKSet;
+        }
+        try {
+            checkFailedRetrieval(jwksUri, currentTime);
+            if (log.isDebugEnabled()) {
+                log.debug("Kid not found in the JWK set of " + jwksUri + ". Retrieving the JWK set again");
+            }
+            return retrieve(jwksUri, cachedJWKSet);
+        } catch (OpenBankingException e) {
+            log.warn("Error while retrieving the JWK set of " + jwksUri + " for an unknown kid. Proceeding with " +
+                    "the previously retrieved JWK set", e);
+            return cachedJWKSet;
+        }
+    }
+
+    private void checkFailedRetrieval(String jwksUri, long currentTime) throws OpenBankingException {
+
+        Long failedUntil = failedRetrievals.get(jwksUri);
+        if (failedUntil != null) {
+            if (currentTime < failedUntil) {
+                throw new OpenBankingException("Couldn't retrieve remote JWK set: Retrieval of the JWK set of " +
+                        jwksUri + " failed recently");
+            }
+            failedRetrievals.remove(jwksUri, failedUntil);
+        }
+    }
+
+    /**
+     * Retrieve a JWK set, replacing the given JWK set. Concurrent retrievals of the same JWK set wait for a single
+     * retrieval, and a JWK set which has been replaced by another thread is used without retrieving it again.
+     */
+    private CachedJWKSet retrieve(String jwksUri, CachedJWKSet replacedJWKSet) throws OpenBankingException {
+
+        CompletableFuture<CachedJWKSet> future = new CompletableFuture<>();
+        CompletableFuture<CachedJWKSet> pendingRetrieval = pendingRetrievals.putIfAbsent(jwksUri, future);
+        if (pendingRetrieval != null) {
+            return getCachedJWKSet(pendingRetrieval);
+        }
+
+        try {
+            CachedJWKSet currentJWKSet = jwkSets.get(jwksUri);
+            long currentTime = clock.getAsLong();
+            if (currentJWKSet != null && currentJWKSet != replacedJWKSet
+                    && currentTime < currentJWKSet.getExpiryTime()) {
+                future.complete(currentJWKSet);
+                return currentJWKSet;
+            }
+
+            JWKSet jwkSet = retrieval.retrieve(new URL(jwksUri));
+            if (jwkSet == null) {
+                throw new OpenBankingException("Couldn't retrieve remote JWK set: Empty JWK set received from " +
+                        jwksUri);
+            }
+            CachedJWKSet cachedJWKSet = new CachedJWKSet(jwksUri, jwkSet, currentTime, currentTime + expiryMillis);
+            jwkSets.put(jwksUri, cachedJWKSet);
+            failedRetrievals.remove(jwksUri);
+            scheduleRefresh(cachedJWKSet);
+            future.complete(cachedJWKSet);
+            return cachedJWKSet;
+        } catch (MalformedURLException e) {
+            OpenBankingException exception = new OpenBankingException("The provided JWKS_URI is malformed", e);
+            future.completeExceptionally(exception);
+            throw exception;
+        } catch (OpenBankingException | RuntimeException e) {
+            failedRetrievals.put(jwksUri, clock.getAsLong() + failureCacheMillis);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingRetrievals.remove(jwksUri, future);
+        }
+    }
+
+    private void scheduleRefresh(CachedJWKSet cachedJWKSet) {
+
+        // Refresh at 80% of the expiry time, leaving time to retry a failed refresh before the JWK set expires
+        long delay = expiryMillis - expiryMillis / 5;
+        if (delay > 0) {
+            refreshExecutor.schedule(() -> refresh(cachedJWKSet), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh(CachedJWKSet cachedJWKSet) {
+
+        String jwksUri = cachedJWKSet.getJwksUri();
+        if (jwkSets.get(jwksUri) != cachedJWKSet) {
+            // JWK set has been replaced or removed since the refresh was scheduled
+            return;
+        }
+        if (!cachedJWKSet.isAccessed()) {
+            if (log.isDebugEnabled()) {
+                log.debug("JWK set of " + jwksUri + " has not been used since it was retrieved. Removing the JWK " +
+                        "set from the registry");
+            }
+            jwkSets.remove(jwksUri, cachedJWKSet);
+            return;
+        }
+
+        try {
+            retrieve(jwksUri, cachedJWKSet);
+        } catch (OpenBankingException | RuntimeException e) {
+            log.warn("Error while refreshing the JWK set of " + jwksUri, e);
+            long retryTime = clock.getAsLong() + failureCacheMillis;
+            if (retryTime < cachedJWKSet.getExpiryTime()) {
+                refreshExecutor.schedule(() -> refresh(cachedJWKSet), failureCacheMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static CachedJWKSet getCachedJWKSet(CompletableFuture<CachedJWKSet> future)
+            throws OpenBankingException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while waiting for the JWK set", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OpenBankingException) {
+                throw (OpenBankingException) e.getCause();
+            }
+            throw new OpenBankingException("Couldn't retrieve remote JWK set", e.getCause());
+        }
+    }
+
+    private static boolean hasKeyIds(JWKSelector jwkSelector) {
+
+        Set<String> keyIds = jwkSelector.getMatcher().getKeyIDs();
+        return keyIds != null && !keyIds.isEmpty();
+    }
+
+    /**
+     * Retrieval of the JWK set of a JWKS endpoint.
+     */
+    @FunctionalInterface
+    public interface JWKSetRetrieval {
+
+        /**
+         * Retrieve the JWK set.
+         *
+         * @param jwksURL JWKS URL
+         * @return JWK set
+         * @throws OpenBankingException when the JWK set cannot be retrieved
+         */
+        JWKSet retrieve(URL jwksURL) throws OpenBankingException;
+    }
+
+    /**
+     * JWK set with the keys indexed by the kid.
+     */
+    private static class CachedJWKSet {
+
+        private final String jwksUri;
+        private final JWKSet jwkSet;
+        private final Map<String, List<JWK>> keysByKid;
+        private final long retrievedTime;
+        private final long expiryTime;
+        private volatile boolean accessed;
+
+        CachedJWKSet(String jwksUri, JWKSet jwkSet, long retrievedTime, long expiryTime) {
+
+            this.jwksUri = jwksUri;
+            this.jwkSet = jwkSet;
+            this.retrievedTime = retrievedTime;
+            this.expiryTime = expiryTime;
+
+            Map<String, List<JWK>> keys = new HashMap<>();
+            for (JWK key : jwkSet.getKeys()) {
+                if (key.getKeyID() != null) {
+                    keys.computeIfAbsent(key.getKeyID(), kid -> new ArrayList<>()).add(key);
+                }
+            }
+            keys.replaceAll((kid, kidKeys) -> Collections.unmodifiableList(kidKeys));
+            this.keysByKid = keys;
+        }
+
+        String getJwksUri() {
+
+            return jwksUri;
+        }
+
+        JWKSet getJWKSet() {
+
+            return jwkSet;
+        }
+
+        List<JWK> getKeys(String kid) {
+
+            List<JWK> keys = keysByKid.get(kid);
+            return keys == null ? Collections.emptyList() : keys;
+        }
+
+        long getRetrievedTime() {
+
+            return retrievedTime;
+        }
+
+        long getExpiryTime() {
+
+            return expiryTime;
+        }
+
+        void markAccessed() {
+
+            accessed = true;
+        }
+
+        boolean isAccessed() {
+
+            return accessed;
+        }
+    }
+}
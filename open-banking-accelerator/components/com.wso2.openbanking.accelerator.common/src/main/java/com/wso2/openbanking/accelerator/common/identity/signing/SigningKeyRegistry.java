@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.identity.signing;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.IdentityConstants;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.common.util.HTTPClientUtils;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.base.ServerConfiguration;
+
+import java.io.File;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the JWS signers of the keys in the server keystore.
+ * <p>
+ * The keystore is loaded once and a signer is built once for each key alias and algorithm. Signers are thread-safe
+ * and shared by all the requests. The keystore file is checked for modifications at most once per reload interval,
+ * and the signers are built again from the modified keystore. If the modified keystore cannot be loaded, the
+ * previously loaded keystore is used.
+ */
+public class SigningKeyRegistry {
+
+    private static final Log log = LogFactory.getLog(SigningKeyRegistry.class);
+    private static final int RELOAD_INTERVAL_SECONDS = 30;
+    private static volatile SigningKeyRegistry signingKeyRegistry;
+
+    private final String keyStoreLocation;
+    private final String keyStorePassword;
+    private final String defaultKeyAlias;
+    private final String defaultKeyPassword;
+    private final long reloadIntervalMillis;
+    private final LongSupplier clock;
+    private volatile KeyMaterial keyMaterial;
+    private volatile long nextCheckTime;
+
+    /**
+     * Create a registry for a keystore. The keystore is loaded when a signer is first requested.
+     *
+     * @param keyStoreLocation      location of the keystore
+     * @param keyStorePassword      password of the keystore, also used as the password of the keys
+     * @param defaultKeyAlias       alias of the default key of the server
+     * @param defaultKeyPassword    password of the default key, or null to use the keystore password
+     * @param reloadIntervalSeconds interval to check the keystore for modifications, 0 to never reload
+     */
+    public SigningKeyRegistry(String keyStoreLocation, String keyStorePassword, String defaultKeyAlias,
+                              String defaultKeyPassword, int reloadIntervalSeconds) {
+
+        this(keyStoreLocation, keyStorePassword, defaultKeyAlias, defaultKeyPassword, reloadIntervalSeconds,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Create a registry for a keystore, checking the reload interval against the given clock.
+     *
+     * @param keyStoreLocation      location of the keystore
+     * @param keyStorePassword      password of the keystore, also used as the password of the keys
+     * @param defaultKeyAlias       alias of the default key of the server
+     * @param defaultKeyPassword    password of the default key, or null to use the keystore password
+     * @param reloadIntervalSeconds interval to check the keystore for modifications, 0 to never reload
+     * @param clock                 current time in milliseconds
+     */
+    public SigningKeyRegistry(String keyStoreLocation, String keyStorePassword, String defaultKeyAlias,
+                              String defaultKeyPassword, int reloadIntervalSeconds, LongSupplier clock) {
+
+        this.keyStoreLocation = keyStoreLocation;
+        this.keyStorePassword = keyStorePassword;
+        this.defaultKeyAlias = defaultKeyAlias;
+        this.defaultKeyPassword = defaultKeyPassword == null ? keyStorePassword : defaultKeyPassword;
+        this.reloadIntervalMillis = TimeUnit.SECONDS.toMillis(reloadIntervalSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object, for the keystore configured in the carbon.xml.
+     *
+     * @return SigningKeyRegistry object
+     */
+    @Generated(message = "Excluding from code coverage since it requires the server configuration")
+    public static SigningKeyRegistry getInstance() {
+
+        if (signingKeyRegistry == null) {
+            synchronized (SigningKeyRegistry.class) {
+                if (signingKeyRegistry == null) {
+                    ServerConfiguration serverConfiguration = ServerConfiguration.getInstance();
+                    signingKeyRegistry = new SigningKeyRegistry(
+                            serverConfiguration.getFirstProperty(IdentityConstants.KEYSTORE_LOCATION_CONF_KEY),
+                            serverConfiguration.getFirstProperty(IdentityConstants.KEYSTORE_PASS_CONF_KEY),
+                            serverConfiguration.getFirstProperty(IdentityConstants.KEYSTORE_KEY_ALIAS_CONF_KEY),
+                            serverConfiguration.getFirstProperty(IdentityConstants.KEYSTORE_KEY_PASS_CONF_KEY),
+                            RELOAD_INTERVAL_SECONDS);
+                }
+            }
+        }
+        return signingKeyRegistry;
+    }
+
+    /**
+     * Get the signer of a key in the keystore.
+     *
+     * @param keyAlias  alias of the key
+     * @param algorithm signing algorithm
+     * @return signer of the key
+     * @throws OpenBankingException when the key is not available or does not support the algorithm
+     */
+    public JWSSigner getSigner(String keyAlias, JWSAlgorithm algorithm) throws OpenBankingException {
+
+        return getSigner(keyAlias, keyStorePassword, algorithm);
+    }
+
+    /**
+     * Get the signer of the default key of the server.
+     *
+     * @param algorithm signing algorithm
+     * @return signer of the default key
+     * @throws OpenBankingException when the key is not available or does not support the algorithm
+     */
+    public JWSSigner getDefaultSigner(JWSAlgorithm algorithm) throws OpenBankingException {
+
+        if (StringUtils.isBlank(defaultKeyAlias)) {
+            throw new OpenBankingException("Default key alias of the keystore is not configured");
+        }
+        return getSigner(defaultKeyAlias, defaultKeyPassword, algorithm);
+    }
+
+    private JWSSigner getSigner(String keyAlias, String keyPassword, JWSAlgorithm algorithm)
+            throws OpenBankingException {
+
+        KeyMaterial currentKeyMaterial = getKeyMaterial();
+        String signerKey = keyAlias + ":" + algorithm.getName();
+        JWSSigner signer = currentKeyMaterial.signers.get(signerKey);
+        if (signer == null) {
+            signer = createSigner(currentKeyMaterial.keyStore, keyAlias, keyPassword, algorithm);
+            JWSSigner existingSigner = currentKeyMaterial.signers.putIfAbsent(signerKey, signer);
+            if (existingSigner != null) {
+                signer = existingSigner;
+            }
+        }
+        return signer;
+    }
+
+    /**
+     * Get the current key material, reloading the keystore if the file has been modified since it was last loaded.
+     *
+     * @return current key material
+     * @throws OpenBankingException when the keystore cannot be loaded for the first time
+     */
+    private KeyMaterial getKeyMaterial() throws OpenBankingException {
+
+        KeyMaterial currentKeyMaterial = keyMaterial;
+        long now = clock.getAsLong();
+        if (currentKeyMaterial != null && (reloadIntervalMillis <= 0 || now < nextCheckTime)) {
+            return currentKeyMaterial;
+        }
+        synchronized (this) {
+            currentKeyMaterial = keyMaterial;
+            if (currentKeyMaterial == null) {
+                keyMaterial = load();
+                nextCheckTime = now + reloadIntervalMillis;
+            } else if (reloadIntervalMillis > 0 && now >= nextCheckTime) {
+                nextCheckTime = now + reloadIntervalMillis;
+                if (getKeyStoreFile().lastModified() != currentKeyMaterial.lastModified) {
+                    try {
+                        keyMaterial = load();
+                        log.info("Reloaded the modified keystore of the signing keys");
+                    } catch (OpenBankingException e) {
+                        log.error("Error while reloading the modified keystore. Proceeding with the previously " +
+                                "loaded keystore", e);
+                    }
+                }
+            }
+            return keyMaterial;
+        }
+    }
+
+    private KeyMaterial load() throws OpenBankingException {
+
+        if (StringUtils.isBlank(keyStoreLocation) || keyStorePassword == null) {
+            throw new OpenBankingException("Keystore of the signing keys is not configured");
+        }
+        long modifiedTime = getKeyStoreFile().lastModified();
+        return new KeyMaterial(HTTPClientUtils.loadKeyStore(keyStoreLocation, keyStorePassword), modifiedTime);
+    }
+
+    private static JWSSigner createSigner(KeyStore keyStore, String keyAlias, String keyPassword,
+                                          JWSAlgorithm algorithm) throws OpenBankingException {
+
+        Key key;
+        try {
+            key = keyStore.getKey(keyAlias, keyPassword.toCharArray());
+        } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException e) {
+            throw new OpenBankingException("Unable to retrieve the signing key", e);
+        }
+        if (!(key instanceof PrivateKey)) {
+            throw new OpenBankingException("Signing key is not present for the alias " + keyAlias);
+        }
+
+        JWSSigner signer;
+        if ("RSA".equals(key.getAlgorithm())) {
+            signer = new RSASSASigner((PrivateKey) key);
+        } else if ("EC".equals(key.getAlgorithm())) {
+            try {
+                signer = new ECDSASigner((ECPrivateKey) key);
+            } catch (JOSEException e) {
+                throw new OpenBankingException("Unable to create a signer for the EC signing key", e);
+            }
+        } else {
+            throw new OpenBankingException("The \"" + key.getAlgorithm() +
+                    "\" algorithm is not supported by the Solution");
+        }
+
+        if (!signer.supportedJWSAlgorithms().contains(algorithm)) {
+            throw new OpenBankingException("The signing key does not support the " + algorithm.getName() +
+                    " algorithm");
+        }
+        return signer;
+    }
+
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - new File(keyStoreLocation)
+    // Suppression reason - False Positive : Keystore location is obtained from carbon.xml. So it can be
+    //                      marked as a trusted filepath
+    // Suppressed warning count - 1
+    private File getKeyStoreFile() {
+
+        return new File(keyStoreLocation);
+    }
+
+    /**
+     * Loaded keystore with the signers built from it.
+     */
+    private static class KeyMaterial {
+
+        private final KeyStore keyStore;
+        private final long lastModified;
+        private final Map<String, JWSSigner> signers = new ConcurrentHashMap<>();
+
+        KeyMaterial(KeyStore keyStore, long lastModified) {
+
+            this.keyStore = keyStore;
+            this.lastModified = lastModified;
+        }
+    }
+}
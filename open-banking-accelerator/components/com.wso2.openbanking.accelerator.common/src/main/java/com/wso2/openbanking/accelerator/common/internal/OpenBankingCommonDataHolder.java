@@ -36,6 +36,8 @@ public class OpenBankingCommonDataHolder {
     private ApplicationManagementService applicationManagementService;
     private int commonCacheAccessExpiry;
     private int commonCacheModifiedExpiry;
+    private int commonCacheStaleWhileRevalidate;
+    private int commonCacheNegativeTimeToLive;
 
     private OpenBankingCommonDataHolder() {
 
@@ -50,6 +52,10 @@ public class OpenBankingCommonDataHolder {
                 .get(OpenBankingConstants.COMMON_IDENTITY_CACHE_ACCESS_EXPIRY));
         setCommonCacheModifiedExpiry((String) OpenBankingConfigParser.getInstance().getConfiguration()
                 .get(OpenBankingConstants.COMMON_IDENTITY_CACHE_MODIFY_EXPIRY));
+        setCommonCacheStaleWhileRevalidate((String) OpenBankingConfigParser.getInstance().getConfiguration()
+                .get(OpenBankingConstants.COMMON_IDENTITY_CACHE_STALE_WHILE_REVALIDATE));
+        setCommonCacheNegativeTimeToLive((String) OpenBankingConfigParser.getInstance().getConfiguration()
+                .get(OpenBankingConstants.COMMON_IDENTITY_CACHE_NEGATIVE_TIME_TO_LIVE));
     }
 
     public static OpenBankingCommonDataHolder getInstance() {
@@ -123,4 +129,24 @@ public class OpenBankingCommonDataHolder {
 
         this.commonCacheModifiedExpiry = expTime == null ? 60 : Integer.parseInt(expTime);
     }
+
+    public int getCommonCacheStaleWhileRevalidate() {
+
+        return commonCacheStaleWhileRevalidate;
+    }
+
+    public void setCommonCacheStaleWhileRevalidate(String staleTime) {
+
+        this.commonCacheStaleWhileRevalidate = staleTime == null ? 0 : Integer.parseInt(staleTime);
+    }
+
+    public int getCommonCacheNegativeTimeToLive() {
+
+        return commonCacheNegativeTimeToLive;
+    }
+
+    public void setCommonCacheNegativeTimeToLive(String timeToLive) {
+
+        this.commonCacheNegativeTimeToLive = timeToLive == null ? 0 : Integer.parseInt(timeToLive);
+    }
 }
@@ -23,18 +23,26 @@ import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.cookie.Cookie;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.ssl.SSLContexts;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.wso2.carbon.base.ServerConfiguration;
 
 import java.io.FileInputStream;
@@ -44,11 +52,26 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
 
 /**
  * HTTP Client Utility methods.
+ * <p>
+ * Shared https clients are long-lived pooled clients, one per purpose, with the pool sizes and timeouts configured
+ * under HTTPConnectionPool.Client.{client name} in open-banking.xml. All https clients share one SSL socket factory,
+ * whose truststore is reloaded when the truststore file is modified. The connection pools of the shared clients are
+ * checked once a minute, and a warning is logged for a pool with requests waiting for a connection.
  */
 public class HTTPClientUtils {
 
@@ -60,6 +83,16 @@ public class HTTPClientUtils {
     private static final String[] SUPPORTED_HTTP_PROTOCOLS = {"TLSv1.2"};
     private static final Log log = LogFactory.getLog(DatabaseUtil.class);
 
+    public static final String REVOCATION_CLIENT = "Revocation";
+    public static final String DCR_CLIENT = "DCR";
+    public static final String SP_QUERY_CLIENT = "SPQuery";
+    public static final String REALTIME_EVENT_NOTIFICATION_CLIENT = "RealtimeEventNotification";
+    private static final int IDLE_CONNECTION_TIMEOUT_SECONDS = 30;
+    private static final int POOL_STATS_REPORT_INTERVAL_SECONDS = 60;
+    private static final Map<String, SharedHttpClient> sharedHttpClients = new ConcurrentHashMap<>();
+    private static volatile SSLConnectionSocketFactory sslConnectionSocketFactory;
+    private static boolean poolStatsReporterStarted;
+
     /**
      * Get closeable https client.
      *
@@ -88,36 +121,136 @@ public class HTTPClientUtils {
     }
 
     /**
-     * Get closeable https client to send realtime event notifications.
+     * Get the long-lived pooled https client of the given purpose. The client is created on the first call and shared
+     * by all the callers of the same client name.
+     * <p>
+     * Closing the shared client has no effect. Responses should be closed after reading, to release the connection
+     * back to the pool.
      *
-     * @return Closeable https client
+     * @param clientName name of the client, ex: {@link #REVOCATION_CLIENT}
+     * @return Shared closeable https client
      * @throws OpenBankingException OpenBankingException exception
      */
-    @Generated(message = "Ignoring since method contains no logics")
-    public static CloseableHttpClient getRealtimeEventNotificationHttpsClient() throws OpenBankingException {
+    public static CloseableHttpClient getSharedHttpsClient(String clientName) throws OpenBankingException {
+
+        SharedHttpClient sharedHttpClient = sharedHttpClients.get(clientName);
+        if (sharedHttpClient == null) {
+            synchronized (sharedHttpClients) {
+                sharedHttpClient = sharedHttpClients.get(clientName);
+                if (sharedHttpClient == null) {
+                    sharedHttpClient = createSharedHttpsClient(clientName);
+                    sharedHttpClients.put(clientName, sharedHttpClient);
+                    if (!poolStatsReporterStarted) {
+                        startPoolStatsReporter();
+                        poolStatsReporterStarted = true;
+                    }
+                }
+            }
+        }
+        return sharedHttpClient;
+    }
 
-        SSLConnectionSocketFactory sslsf = createSSLConnectionSocketFactory();
+    /**
+     * Get the leased, available (idle) and pending connection counts of the connection pools of the shared https
+     * clients.
+     *
+     * @return pool stats by client name
+     */
+    public static Map<String, PoolStats> getConnectionPoolStats() {
+
+        Map<String, PoolStats> connectionPoolStats = new TreeMap<>();
+        for (Map.Entry<String, SharedHttpClient> entry : sharedHttpClients.entrySet()) {
+            connectionPoolStats.put(entry.getKey(), entry.getValue().connectionManager.getTotalStats());
+        }
+        return connectionPoolStats;
+    }
+
+    /**
+     * Log the connection pool stats of the shared https clients. A warning is logged for a pool with requests waiting
+     * for a connection, since the requests of the client are then limited by the pool size.
+     */
+    public static void reportConnectionPoolStats() {
+
+        for (Map.Entry<String, PoolStats> entry : getConnectionPoolStats().entrySet()) {
+            PoolStats poolStats = entry.getValue();
+            if (poolStats.getPending() > 0) {
+                log.warn(String.format("Connection pool of the shared https client %s is exhausted. Leased " +
+                                "connections: %d of %d, requests waiting for a connection: %d", entry.getKey(),
+                        poolStats.getLeased(), poolStats.getMax(), poolStats.getPending()));
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("Connection pool of the shared https client %s. Leased connections: %d " +
+                                "of %d, available connections: %d", entry.getKey(), poolStats.getLeased(),
+                        poolStats.getMax(), poolStats.getAvailable()));
+            }
+        }
+    }
+
+    private static void startPoolStatsReporter() {
+
+        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ob-http-connection-pool-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(() -> {
+            try {
+                reportConnectionPoolStats();
+            } catch (RuntimeException e) {
+                log.error("Error while reporting the connection pool stats of the shared https clients", e);
+            }
+        }, POOL_STATS_REPORT_INTERVAL_SECONDS, POOL_STATS_REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Generated(message = "Ignoring because ServerConfiguration cannot be mocked")
+    private static SharedHttpClient createSharedHttpsClient(String clientName) throws OpenBankingException {
 
+        OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
         Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
                 .register(HTTP_PROTOCOL, new PlainConnectionSocketFactory())
-                .register(HTTPS_PROTOCOL, sslsf)
+                .register(HTTPS_PROTOCOL, createSSLConnectionSocketFactory())
                 .build();
 
-        final PoolingHttpClientConnectionManager connectionManager = (socketFactoryRegistry != null) ?
-                new PoolingHttpClientConnectionManager(socketFactoryRegistry) :
-                new PoolingHttpClientConnectionManager();
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(configParser.getConnectionPoolMaxConnections(clientName));
+        connectionManager.setDefaultMaxPerRoute(configParser.getConnectionPoolMaxConnectionsPerRoute(clientName));
 
-        // configuring default maximum connections
-        connectionManager.setMaxTotal(OpenBankingConfigParser.getInstance()
-                .getRealtimeEventNotificationMaxRetries() + 1);
-        connectionManager.setDefaultMaxPerRoute(OpenBankingConfigParser.getInstance()
-                .getRealtimeEventNotificationMaxRetries() + 1);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(configParser.getHttpClientConnectTimeout(clientName))
+                .setSocketTimeout(configParser.getHttpClientSocketTimeout(clientName))
+                .setConnectionRequestTimeout(configParser.getHttpClientConnectionRequestTimeout(clientName))
+                .build();
 
-        return HttpClients.custom().setConnectionManager(connectionManager).build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // Cookies received for a request should not be sent with the requests of other users
+                .setDefaultCookieStore(new DiscardingCookieStore())
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Created shared https client %s with %d maximum connections",
+                    clientName.replaceAll("[\r\n]", ""), connectionManager.getMaxTotal()));
+        }
+        return new SharedHttpClient(httpClient, connectionManager);
     }
 
     /**
-     * create a SSL Connection Socket Factory.
+     * Get the shared https client to send realtime event notifications.
+     *
+     * @return Closeable https client
+     * @throws OpenBankingException OpenBankingException exception
+     */
+    @Generated(message = "Ignoring since method contains no logics")
+    public static CloseableHttpClient getRealtimeEventNotificationHttpsClient() throws OpenBankingException {
+
+        return getSharedHttpsClient(REALTIME_EVENT_NOTIFICATION_CLIENT);
+    }
+
+    /**
+     * Get the SSL Connection Socket Factory shared by the https clients. The factory is created on the first call.
      *
      * @return SSLConnectionSocketFactory
      * @throws OpenBankingException
@@ -126,24 +259,30 @@ public class HTTPClientUtils {
     private static SSLConnectionSocketFactory createSSLConnectionSocketFactory()
             throws OpenBankingException {
 
-        KeyStore trustStore = null;
-
-        trustStore = loadKeyStore(
-                ServerConfiguration.getInstance().getFirstProperty("Security.TrustStore.Location"),
-                ServerConfiguration.getInstance().getFirstProperty("Security.TrustStore.Password"));
-
-        // Trust own CA and all self-signed certs
-        SSLContext sslcontext = null;
-        try {
-            sslcontext = SSLContexts.custom().loadTrustMaterial(trustStore, new TrustSelfSignedStrategy()).build();
-        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-            throw new OpenBankingException("Unable to create the ssl context", e);
+        if (sslConnectionSocketFactory == null) {
+            synchronized (HTTPClientUtils.class) {
+                if (sslConnectionSocketFactory == null) {
+                    // Trust own CA and all self-signed certs
+                    TrustManager trustManager = new ReloadableTrustManager(
+                            ServerConfiguration.getInstance().getFirstProperty("Security.TrustStore.Location"),
+                            ServerConfiguration.getInstance().getFirstProperty("Security.TrustStore.Password"),
+                            OpenBankingConfigParser.getInstance().getHttpClientTrustStoreReloadInterval());
+
+                    SSLContext sslcontext;
+                    try {
+                        sslcontext = SSLContext.getInstance("TLS");
+                        sslcontext.init(null, new TrustManager[]{trustManager}, null);
+                    } catch (NoSuchAlgorithmException | KeyManagementException e) {
+                        throw new OpenBankingException("Unable to create the ssl context", e);
+                    }
+
+                    // Allow TLSv1 protocol only
+                    sslConnectionSocketFactory = new SSLConnectionSocketFactory(sslcontext,
+                            SUPPORTED_HTTP_PROTOCOLS, null, getX509HostnameVerifier());
+                }
+            }
         }
-
-        // Allow TLSv1 protocol only
-        return new SSLConnectionSocketFactory(sslcontext, SUPPORTED_HTTP_PROTOCOLS,
-                null, getX509HostnameVerifier());
-
+        return sslConnectionSocketFactory;
     }
 
     /**
@@ -201,4 +340,73 @@ public class HTTPClientUtils {
 
     }
 
+    /**
+     * Https client shared by the callers of a client name, which is not closed by the callers.
+     */
+    private static class SharedHttpClient extends CloseableHttpClient {
+
+        private final CloseableHttpClient httpClient;
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        SharedHttpClient(CloseableHttpClient httpClient, PoolingHttpClientConnectionManager connectionManager) {
+
+            this.httpClient = httpClient;
+            this.connectionManager = connectionManager;
+        }
+
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+                throws IOException {
+
+            return httpClient.execute(target, request, context);
+        }
+
+        @Override
+        public void close() {
+
+            // Shared client is kept open for the lifetime of the server
+        }
+
+        @Override
+        @Deprecated
+        public HttpParams getParams() {
+
+            return httpClient.getParams();
+        }
+
+        @Override
+        @Deprecated
+        public ClientConnectionManager getConnectionManager() {
+
+            return httpClient.getConnectionManager();
+        }
+    }
+
+    /**
+     * Cookie store which does not keep the cookies of the responses.
+     */
+    private static class DiscardingCookieStore implements CookieStore {
+
+        @Override
+        public void addCookie(Cookie cookie) {
+
+        }
+
+        @Override
+        public List<Cookie> getCookies() {
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean clearExpired(Date date) {
+
+            return false;
+        }
+
+        @Override
+        public void clear() {
+
+        }
+    }
 }
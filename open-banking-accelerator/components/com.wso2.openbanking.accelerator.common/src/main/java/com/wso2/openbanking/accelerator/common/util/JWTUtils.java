@@ -20,26 +20,23 @@ package com.wso2.openbanking.accelerator.common.util;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jose.proc.JWSKeySelector;
 import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.proc.SimpleSecurityContext;
-import com.nimbusds.jose.util.DefaultResourceRetriever;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
-import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSRegistry;
 import net.minidev.json.JSONObject;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.ParseException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Util class for jwt related functions.
@@ -82,28 +79,11 @@ public class JWTUtils {
     public static boolean validateJWTSignature(String jwtString, String jwksUri, String algorithm)
             throws ParseException, BadJOSEException, JOSEException, MalformedURLException {
 
-        int defaultConnectionTimeout = 3000;
-        int defaultReadTimeout = 3000;
         ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
         JWT jwt = JWTParser.parse(jwtString);
-        // set the Key Selector for the jwks_uri.
-        Map<String, RemoteJWKSet<SecurityContext>> jwkSourceMap = new ConcurrentHashMap<>();
-        RemoteJWKSet<SecurityContext> jwkSet = jwkSourceMap.get(jwksUri);
-        if (jwkSet == null) {
-            int connectionTimeout = Integer.parseInt(OpenBankingConfigParser.getInstance().getJWKSConnectionTimeOut());
-            int readTimeout = Integer.parseInt(OpenBankingConfigParser.getInstance().getJWKSReadTimeOut());
-            int sizeLimit = RemoteJWKSet.DEFAULT_HTTP_SIZE_LIMIT;
-            if (connectionTimeout == 0 && readTimeout == 0) {
-                connectionTimeout = defaultConnectionTimeout;
-                readTimeout = defaultReadTimeout;
-            }
-            DefaultResourceRetriever resourceRetriever = new DefaultResourceRetriever(
-                    connectionTimeout,
-                    readTimeout,
-                    sizeLimit);
-            jwkSet = new RemoteJWKSet<>(new URL(jwksUri), resourceRetriever);
-            jwkSourceMap.put(jwksUri, jwkSet);
-        }
+        // Source the keys from the JWKS registry, which shares the retrieved JWK set across validations and
+        // retrieves it again when the kid is not found.
+        JWKSource<SecurityContext> jwkSet = JWKSRegistry.getInstance().getJWKSource(new URL(jwksUri).toString());
         // The expected JWS algorithm of the access tokens (agreed out-of-band).
         JWSAlgorithm expectedJWSAlg = JWSAlgorithm.parse(algorithm);
         //Configure the JWT processor with a key selector to feed matching public RSA keys sourced from the JWK set URL.
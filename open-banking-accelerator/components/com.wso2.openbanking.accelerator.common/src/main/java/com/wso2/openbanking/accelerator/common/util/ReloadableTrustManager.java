@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.util;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Trust manager backed by a truststore file, which is reloaded when the file is modified.
+ * <p>
+ * The file is checked for modifications at most once per reload interval, during a TLS handshake. Self-signed
+ * certificates are trusted, same as the trust material of the http clients built with a TrustSelfSignedStrategy.
+ * If the modified truststore cannot be loaded, the previously loaded truststore is used.
+ */
+public class ReloadableTrustManager implements X509TrustManager {
+
+    private static final Log log = LogFactory.getLog(ReloadableTrustManager.class);
+
+    private final String trustStoreLocation;
+    private final String trustStorePassword;
+    private final long reloadIntervalMillis;
+    private volatile X509TrustManager trustManager;
+    private volatile long lastModified;
+    private volatile long nextCheckTime;
+
+    /**
+     * Create a trust manager and load the truststore.
+     *
+     * @param trustStoreLocation    location of the truststore
+     * @param trustStorePassword    password of the truststore
+     * @param reloadIntervalSeconds interval to check the truststore for modifications, 0 to never reload
+     * @throws OpenBankingException when the truststore cannot be loaded
+     */
+    public ReloadableTrustManager(String trustStoreLocation, String trustStorePassword, int reloadIntervalSeconds)
+            throws OpenBankingException {
+
+        this.trustStoreLocation = trustStoreLocation;
+        this.trustStorePassword = trustStorePassword;
+        this.reloadIntervalMillis = TimeUnit.SECONDS.toMillis(reloadIntervalSeconds);
+        load();
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+
+        getTrustManager().checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+
+        // Trust own CA and all self-signed certs
+        if (chain != null && chain.length == 1) {
+            return;
+        }
+        getTrustManager().checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+
+        return getTrustManager().getAcceptedIssuers();
+    }
+
+    /**
+     * Get the trust manager of the current truststore, reloading the truststore if the file has been modified since
+     * it was last loaded.
+     *
+     * @return trust manager of the current truststore
+     */
+    X509TrustManager getTrustManager() {
+
+        long now = System.currentTimeMillis();
+        if (reloadIntervalMillis > 0 && now >= nextCheckTime) {
+            synchronized (this) {
+                if (now >= nextCheckTime) {
+                    nextCheckTime = now + reloadIntervalMillis;
+                    if (getTrustStoreFile().lastModified() != lastModified) {
+                        try {
+                            load();
+                            log.info("Reloaded the modified truststore of the http clients");
+                        } catch (OpenBankingException e) {
+                            log.error("Error while reloading the modified truststore. Proceeding with the " +
+                                    "previously loaded truststore", e);
+                        }
+                    }
+                }
+            }
+        }
+        return trustManager;
+    }
+
+    private void load() throws OpenBankingException {
+
+        long modifiedTime = getTrustStoreFile().lastModified();
+        KeyStore trustStore = HTTPClientUtils.loadKeyStore(trustStoreLocation, trustStorePassword);
+        try {
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(trustStore);
+            for (TrustManager manager : trustManagerFactory.getTrustManagers()) {
+                if (manager instanceof X509TrustManager) {
+                    trustManager = (X509TrustManager) manager;
+                    lastModified = modifiedTime;
+                    return;
+                }
+            }
+        } catch (NoSuchAlgorithmException | KeyStoreException e) {
+            throw new OpenBankingException("Unable to initialize the trust manager", e);
+        }
+        throw new OpenBankingException("No X509 trust manager found for the truststore");
+    }
+
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - new File(trustStoreLocation)
+    // Suppression reason - False Positive : Truststore location is obtained from deployment.toml. So it can be
+    //                      marked as a trusted filepath
+    // Suppressed warning count - 1
+    private File getTrustStoreFile() {
+
+        return new File(trustStoreLocation);
+    }
+}
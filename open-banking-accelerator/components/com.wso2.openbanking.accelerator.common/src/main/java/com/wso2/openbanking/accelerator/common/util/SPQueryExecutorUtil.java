@@ -27,8 +27,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -61,7 +61,7 @@ public class SPQueryExecutorUtil {
                     .encode((spUserName + ":" + spPassword).getBytes(StandardCharsets.ISO_8859_1));
             String authHeader = "Basic " + new String(encodedAuth, StandardCharsets.UTF_8.toString());
 
-            CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient();;
+            CloseableHttpClient httpClient = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.SP_QUERY_CLIENT);
             HttpPost httpPost = new HttpPost(spApiHost + OpenBankingConstants.SP_API_PATH);
             httpPost.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
             JSONObject jsonObject = new JSONObject();
@@ -70,21 +70,21 @@ public class SPQueryExecutorUtil {
             StringEntity requestEntity = new StringEntity(jsonObject.toJSONString());
             httpPost.setHeader(OpenBankingConstants.CONTENT_TYPE_TAG, OpenBankingConstants.JSON_CONTENT_TYPE);
             httpPost.setEntity(requestEntity);
-            HttpResponse response;
 
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Executing query %s on SP", query));
             }
-            response = httpClient.execute(httpPost);
-            HttpEntity entity = response.getEntity();
-            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-                String error = String.format("Error while invoking SP rest api : %s %s",
-                        response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
-                log.error(error);
-                return null;
+            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                HttpEntity entity = response.getEntity();
+                if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                    String error = String.format("Error while invoking SP rest api : %s %s",
+                            response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
+                    log.error(error);
+                    return null;
+                }
+                String responseStr = EntityUtils.toString(entity);
+                JSONParser parser = new JSONParser(JSONParser.MODE_PERMISSIVE);
+                return (JSONObject) parser.parse(responseStr);
             }
-            String responseStr = EntityUtils.toString(entity);
-            JSONParser parser = new JSONParser(JSONParser.MODE_PERMISSIVE);
-            return (JSONObject) parser.parse(responseStr);
         }
     }
@@ -157,6 +157,21 @@ public class OBConfigParserTests {
         Assert.assertEquals(maxConnectionsPerRoute, 500);
     }
 
+    @Test(priority = 8)
+    public void testGetNamedHttpClientConfigs() {
+
+        String dummyConfigFile = absolutePathForTestResources + "/open-banking.xml";
+        OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
+
+        Assert.assertEquals(configParser.getConnectionPoolMaxConnections("Revocation"), 50);
+        Assert.assertEquals(configParser.getConnectionPoolMaxConnectionsPerRoute("Revocation"), 500);
+        Assert.assertEquals(configParser.getHttpClientConnectTimeout("Revocation"), 2000);
+        Assert.assertEquals(configParser.getHttpClientSocketTimeout("Revocation"), 5000);
+        Assert.assertEquals(configParser.getHttpClientConnectionRequestTimeout("Revocation"), -1);
+        Assert.assertEquals(configParser.getConnectionPoolMaxConnections("DCR"), 1000);
+        Assert.assertEquals(configParser.getHttpClientTrustStoreReloadInterval(), 60);
+    }
+
     @Test(priority = 8)
     public void testConsentPeriodicalExpirationConfigs() {
 
@@ -264,6 +279,7 @@ public class OBConfigParserTests {
                 .getNumberOfSetsToReturn();
 
         Assert.assertEquals(maxEvents, 5);
+        Assert.assertEquals(OpenBankingConfigParser.getInstance(dummyConfigFile).getSETSigningThreadPoolSize(), 4);
     }
 
     @Test (priority = 18)
@@ -430,8 +446,6 @@ public class OBConfigParserTests {
         OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
 
         Assert.assertTrue(openBankingConfigParser.isRealtimeEventNotificationEnabled());
-        Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationSchedulerCronExpression(),
-                "0 0/1 0 ? * * *");
         Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationTimeoutInSeconds(), 60);
         Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationMaxRetries(), 5);
         Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationInitialBackoffTimeInSeconds(),
@@ -440,10 +454,24 @@ public class OBConfigParserTests {
         Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationCircuitBreakerOpenTimeoutInSeconds(),
                 600);
         Assert.assertEquals(openBankingConfigParser.getEventNotificationThreadpoolSize(), 20);
+        Assert.assertEquals(openBankingConfigParser
+                .getRealtimeEventNotificationMaxConcurrentDeliveriesPerCallback(), 10);
+        Assert.assertEquals(openBankingConfigParser
+                .getRealtimeEventNotificationMaxPendingDeliveriesPerCallback(), 500);
         Assert.assertEquals(openBankingConfigParser.getRealtimeEventNotificationRequestGenerator(),
                 "com.wso2.openbanking.accelerator.event.notifications.service.realtime" +
                         ".service.DefaultRealtimeEventNotificationRequestGenerator");
 
     }
 
+    @Test (priority = 33)
+    public void testThrottlerConfigs() {
+
+        String dummyConfigFile = absolutePathForTestResources + "/open-banking.xml";
+        OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
+
+        Assert.assertTrue(openBankingConfigParser.isClusterWideThrottlingEnabled());
+        Assert.assertEquals(openBankingConfigParser.getThrottleDataPersistenceIntervalInSeconds(), 10);
+    }
+
 }
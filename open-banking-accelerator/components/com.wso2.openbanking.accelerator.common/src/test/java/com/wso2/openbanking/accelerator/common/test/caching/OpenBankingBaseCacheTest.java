@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.caching;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCacheKey;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+
+/**
+ * Test for Open Banking base cache.
+ */
+@PrepareForTest({Caching.class, PrivilegedCarbonContext.class})
+@PowerMockIgnore({"jdk.internal.reflect.*", "javax.management.*"})
+public class OpenBankingBaseCacheTest extends PowerMockTestCase {
+
+    private static final String CACHE_NAME = "OB_TEST_CACHE";
+    private Map<TestCacheKey, String> cacheEntries;
+    private volatile String tenantDomain;
+
+    @BeforeMethod
+    public void before() {
+
+        cacheEntries = new ConcurrentHashMap<>();
+        tenantDomain = null;
+        Cache cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.getName()).thenReturn(CACHE_NAME);
+        Mockito.when(cache.getStatus()).thenReturn(Status.STARTED);
+        Mockito.when(cache.get(any())).thenAnswer(invocation -> cacheEntries.get(invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> cacheEntries.put((TestCacheKey) invocation.getArguments()[0],
+                (String) invocation.getArguments()[1])).when(cache).put(any(), any());
+        Mockito.when(cache.containsKey(any())).thenAnswer(invocation ->
+                cacheEntries.containsKey(invocation.getArguments()[0]));
+        Mockito.when(cache.putIfAbsent(any(), any())).thenAnswer(invocation -> cacheEntries.putIfAbsent(
+                (TestCacheKey) invocation.getArguments()[0], (String) invocation.getArguments()[1]) == null);
+        Mockito.when(cache.remove(any())).thenAnswer(invocation ->
+                cacheEntries.remove(invocation.getArguments()[0]) != null);
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Mockito.doReturn(Collections.singletonList(cache)).when(cacheManager).getCaches();
+        Mockito.doReturn(cache).when(cacheManager).getCache(anyString());
+
+        PowerMockito.mockStatic(Caching.class);
+        PowerMockito.when(Caching.getCacheManager(anyString())).thenReturn(cacheManager);
+
+        PrivilegedCarbonContext carbonContext = Mockito.mock(PrivilegedCarbonContext.class);
+        Mockito.when(carbonContext.getTenantDomain()).thenAnswer(invocation -> tenantDomain);
+        PowerMockito.mockStatic(PrivilegedCarbonContext.class);
+        PowerMockito.when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(carbonContext);
+    }
+
+    @Test
+    public void testConcurrentMissesAreRetrievedOnce() throws Exception {
+
+        TestCache testCache = new TestCache(0, 0);
+        AtomicInteger retrievalCount = new AtomicInteger();
+        CountDownLatch retrievalStarted = new CountDownLatch(1);
+        CountDownLatch releaseRetrieval = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit(() -> testCache.getFromCacheOrRetrieve(
+                        new TestCacheKey("key"), () -> {
+                            retrievalCount.incrementAndGet();
+                            retrievalStarted.countDown();
+                            awaitQuietly(releaseRetrieval);
+                            return "value";
+                        })));
+            }
+            Assert.assertTrue(retrievalStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            releaseRetrieval.countDown();
+
+            for (Future<String> result : results) {
+                Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "value");
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(retrievalCount.get(), 1);
+        Assert.assertEquals(cacheEntries.get(new TestCacheKey("key")), "value");
+    }
+
+    @Test
+    public void testAddToCacheIfAbsent() throws Exception {
+
+        TestCache testCache = new TestCache(0, 0);
+        Assert.assertTrue(testCache.addToCacheIfAbsent(new TestCacheKey("key"), "value"));
+        Assert.assertFalse(testCache.addToCacheIfAbsent(new TestCacheKey("key"), "other"));
+        Assert.assertEquals(testCache.getFromCache(new TestCacheKey("key")), "value");
+    }
+
+    @Test
+    public void testCacheIsResolvedOnce() throws Exception {
+
+        TestCache testCache = new TestCache(0, 0);
+        testCache.addToCache(new TestCacheKey("key"), "value");
+        Assert.assertEquals(testCache.getFromCache(new TestCacheKey("key")), "value");
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(new TestCacheKey("key"), () -> "other"), "value");
+        testCache.removeFromCache(new TestCacheKey("key"));
+
+        PowerMockito.verifyStatic(Mockito.times(1));
+        Caching.getCacheManager(anyString());
+    }
+
+    @Test
+    public void testFailedRetrievalIsCached() throws Exception {
+
+        TestCache testCache = new TestCache(0, 60);
+        AtomicInteger retrievalCount = new AtomicInteger();
+        OpenBankingBaseCache.OnDemandRetriever failingRetriever = () -> {
+            retrievalCount.incrementAndGet();
+            throw new OpenBankingException("Backend unavailable");
+        };
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                testCache.getFromCacheOrRetrieve(new TestCacheKey("key"), failingRetriever);
+                Assert.fail("Failed retrieval should be rethrown");
+            } catch (OpenBankingException e) {
+                Assert.assertEquals(e.getMessage(), "Backend unavailable");
+            }
+        }
+        Assert.assertEquals(retrievalCount.get(), 1);
+
+        // Removing the entry clears the cached failure
+        testCache.removeFromCache(new TestCacheKey("key"));
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(new TestCacheKey("key"), () -> "value"), "value");
+    }
+
+    @Test
+    public void testFailedRetrievalIsNotCachedByDefault() throws Exception {
+
+        TestCache testCache = new TestCache(0, 0);
+        try {
+            testCache.getFromCacheOrRetrieve(new TestCacheKey("key"), () -> {
+                throw new OpenBankingException("Backend unavailable");
+            });
+            Assert.fail("Failed retrieval should be rethrown");
+        } catch (OpenBankingException e) {
+            Assert.assertEquals(e.getMessage(), "Backend unavailable");
+        }
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(new TestCacheKey("key"), () -> "value"), "value");
+    }
+
+    @Test
+    public void testStaleValueIsServedWhileRefreshing() throws Exception {
+
+        TestCache testCache = new TestCache(1, 0);
+        TestCacheKey key = new TestCacheKey("key");
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "v1"), "v1");
+
+        // Simulate the expiry of the entry
+        cacheEntries.clear();
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "v2"), "v1");
+
+        long waitUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!"v2".equals(cacheEntries.get(key)) && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(cacheEntries.get(key), "v2");
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "v3"), "v2");
+
+        // Stale value is not served once removed
+        testCache.removeFromCache(key);
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "v4"), "v4");
+    }
+
+    @Test
+    public void testStaleValueIsNotServedToOtherTenants() throws Exception {
+
+        TestCache testCache = new TestCache(1, 0);
+        TestCacheKey key = new TestCacheKey("key");
+        tenantDomain = "tenant-a.com";
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "a"), "a");
+
+        cacheEntries.clear();
+        tenantDomain = "tenant-b.com";
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "b"), "b");
+    }
+
+    @Test
+    public void testFailedRetrievalIsNotSharedWithOtherTenants() throws Exception {
+
+        TestCache testCache = new TestCache(0, 60);
+        TestCacheKey key = new TestCacheKey("key");
+        tenantDomain = "tenant-a.com";
+        try {
+            testCache.getFromCacheOrRetrieve(key, () -> {
+                throw new OpenBankingException("Backend unavailable");
+            });
+            Assert.fail("Failed retrieval should be rethrown");
+        } catch (OpenBankingException e) {
+            Assert.assertEquals(e.getMessage(), "Backend unavailable");
+        }
+
+        tenantDomain = "tenant-b.com";
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(key, () -> "b"), "b");
+    }
+
+    @Test
+    public void testStaleValuesAreBoundedByCapacity() throws Exception {
+
+        TestCache testCache = new TestCache(1, 0, 2);
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            testCache.getFromCacheOrRetrieve(new TestCacheKey("key" + i), () -> "v" + index);
+        }
+
+        // Only the first two values are kept locally once the entries expire
+        cacheEntries.clear();
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(new TestCacheKey("key1"), () -> "new"), "v1");
+        Assert.assertEquals(testCache.getFromCacheOrRetrieve(new TestCacheKey("key2"), () -> "new"), "new");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cache with configurable stale while revalidate and negative caching.
+     */
+    private static class TestCache extends OpenBankingBaseCache<TestCacheKey, String> {
+
+        private final int staleWhileRevalidateMinutes;
+        private final int negativeCacheTimeToLiveSeconds;
+        private final int capacity;
+
+        TestCache(int staleWhileRevalidateMinutes, int negativeCacheTimeToLiveSeconds) {
+
+            this(staleWhileRevalidateMinutes, negativeCacheTimeToLiveSeconds, 100);
+        }
+
+        TestCache(int staleWhileRevalidateMinutes, int negativeCacheTimeToLiveSeconds, int capacity) {
+
+            super(CACHE_NAME);
+            this.staleWhileRevalidateMinutes = staleWhileRevalidateMinutes;
+            this.negativeCacheTimeToLiveSeconds = negativeCacheTimeToLiveSeconds;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public int getCacheAccessExpiryMinutes() {
+
+            return 0;
+        }
+
+        @Override
+        public int getCacheModifiedExpiryMinutes() {
+
+            return 0;
+        }
+
+        @Override
+        protected int getStaleWhileRevalidateMinutes() {
+
+            return staleWhileRevalidateMinutes;
+        }
+
+        @Override
+        protected int getNegativeCacheTimeToLiveSeconds() {
+
+            return negativeCacheTimeToLiveSeconds;
+        }
+
+        @Override
+        protected int getCacheCapacity() {
+
+            return capacity;
+        }
+    }
+
+    /**
+     * Cache key for tests.
+     */
+    private static class TestCacheKey extends OpenBankingBaseCacheKey {
+
+        private final String key;
+
+        TestCacheKey(String key) {
+
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            return o instanceof TestCacheKey && Objects.equals(key, ((TestCacheKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(key);
+        }
+
+        @Override
+        public String toString() {
+
+            return key;
+        }
+    }
+}
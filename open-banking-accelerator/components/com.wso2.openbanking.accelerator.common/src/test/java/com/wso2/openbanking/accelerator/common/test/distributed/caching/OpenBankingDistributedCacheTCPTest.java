@@ -18,6 +18,8 @@
 
 package com.wso2.openbanking.accelerator.common.test.distributed.caching;
 
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants;
 import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedMember;
@@ -66,6 +68,8 @@ public class OpenBankingDistributedCacheTCPTest extends PowerMockTestCase {
         members.add("localhost:5722");
         configsTCP.put(OpenBankingDistributedCacheConstants.MEMBERS, members);
         configsTCP.put(OpenBankingDistributedCacheConstants.PROPERTY_LOGGING_TYPE, "none");
+        configsTCP.put(OpenBankingDistributedCacheConstants.NEAR_CACHE + "test-cache-tcp" +
+                OpenBankingDistributedCacheConstants.NEAR_CACHE_MAX_SIZE, "100");
 
         Mockito.when(openBankingConfigParser.getConfiguration()).thenReturn(configsTCP);
 
@@ -99,6 +103,38 @@ public class OpenBankingDistributedCacheTCPTest extends PowerMockTestCase {
         Assert.assertNull(fromCache);
     }
 
+    @Test(priority = 2)
+    public void nearCacheConfigTestTCP() {
+        NearCacheConfig nearCacheConfig = OpenBankingDistributedMember.of().getHazelcastInstance().getConfig()
+                .getMapConfig("test-cache-tcp").getNearCacheConfig();
+
+        Assert.assertNotNull(nearCacheConfig);
+        Assert.assertTrue(nearCacheConfig.isInvalidateOnChange());
+        Assert.assertEquals(nearCacheConfig.getInMemoryFormat(), InMemoryFormat.BINARY);
+        Assert.assertEquals(nearCacheConfig.getEvictionConfig().getSize(), 100);
+    }
+
+    @Test(priority = 2)
+    public void putIfAbsentTestTCP() {
+        TestOpenBankingDistributedCacheKey key = new TestOpenBankingDistributedCacheKey("test-put-if-absent-key");
+
+        Assert.assertNull(cacheTCP.putIfAbsent(key, "first-body"));
+        Assert.assertEquals(cacheTCP.putIfAbsent(key, "second-body"), "first-body");
+        Assert.assertEquals(cacheTCP.getFromCache(key), "first-body");
+        cacheTCP.removeFromCache(key);
+    }
+
+    @Test(priority = 2)
+    public void computeTestTCP() {
+        TestOpenBankingDistributedCacheKey key = new TestOpenBankingDistributedCacheKey("test-compute-key");
+
+        Assert.assertEquals(cacheTCP.compute(key, (cacheKey, value) -> value == null ? "1" : value + "1"), "1");
+        Assert.assertEquals(cacheTCP.compute(key, (cacheKey, value) -> value == null ? "1" : value + "1"), "11");
+        Assert.assertEquals(cacheTCP.getFromCache(key), "11");
+        Assert.assertNull(cacheTCP.compute(key, (cacheKey, value) -> null));
+        Assert.assertNull(cacheTCP.getFromCache(key));
+    }
+
     @Test(priority = 3)
     public void cacheEvictionTestTCP() throws InterruptedException {
         TestOpenBankingDistributedCacheKey key = new TestOpenBankingDistributedCacheKey("test-cache-key");
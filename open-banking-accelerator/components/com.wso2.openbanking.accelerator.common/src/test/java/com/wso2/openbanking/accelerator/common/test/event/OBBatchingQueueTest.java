@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.event;
+
+import com.wso2.openbanking.accelerator.common.event.OBBatchingQueue;
+import com.wso2.openbanking.accelerator.common.event.QueueFullPolicy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for Open Banking batching queue.
+ */
+public class OBBatchingQueueTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Test
+    public void testQueuedEventsAreProcessedInBatches() throws Exception {
+
+        TestQueue queue = new TestQueue(10, 4, QueueFullPolicy.DROP_NEWEST);
+        try {
+            queue.put(0);
+            Assert.assertTrue(queue.batchStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            for (int i = 1; i <= 6; i++) {
+                queue.put(i);
+            }
+            queue.releaseBatches.countDown();
+
+            queue.awaitProcessed(7);
+            Assert.assertEquals(queue.getBatches().get(0), Collections.singletonList(0));
+            Assert.assertEquals(queue.getBatches().get(1), Arrays.asList(1, 2, 3, 4));
+            Assert.assertEquals(queue.getBatches().get(2), Arrays.asList(5, 6));
+            Assert.assertEquals(queue.getBatchCount(), 3);
+            Assert.assertEquals(queue.getMaxBatchSize(), 4);
+            Assert.assertEquals(queue.getProcessedCount(), 7);
+            Assert.assertEquals(queue.getDroppedCount(), 0);
+        } finally {
+            queue.shutdown(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testNewestEventIsDroppedWhenFull() throws Exception {
+
+        TestQueue queue = getBlockedQueue(QueueFullPolicy.DROP_NEWEST);
+        try {
+            queue.put(1);
+            queue.put(2);
+            queue.put(3);
+            Assert.assertEquals(queue.getQueueDepth(), 2);
+            Assert.assertEquals(queue.getDroppedCount(), 1);
+            // Drops are reported once
+            Assert.assertEquals(queue.reportMetrics(), 1);
+            Assert.assertEquals(queue.reportMetrics(), 0);
+
+            queue.releaseBatches.countDown();
+            queue.awaitProcessed(3);
+            Assert.assertEquals(queue.getProcessedEvents(), Arrays.asList(0, 1, 2));
+        } finally {
+            queue.shutdown(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testOldestEventIsDroppedWhenFull() throws Exception {
+
+        TestQueue queue = getBlockedQueue(QueueFullPolicy.DROP_OLDEST);
+        try {
+            queue.put(1);
+            queue.put(2);
+            queue.put(3);
+            Assert.assertEquals(queue.getQueueDepth(), 2);
+            Assert.assertEquals(queue.getDroppedCount(), 1);
+
+            queue.releaseBatches.countDown();
+            queue.awaitProcessed(3);
+            Assert.assertEquals(queue.getProcessedEvents(), Arrays.asList(0, 2, 3));
+        } finally {
+            queue.shutdown(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testEventsAreSampledWhenHalfFull() throws Exception {
+
+        TestQueue queue = new TestQueue(4, 10, QueueFullPolicy.SAMPLE);
+        try {
+            queue.put(0);
+            Assert.assertTrue(queue.batchStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            for (int i = 1; i <= 6; i++) {
+                queue.put(i);
+            }
+            // Events are queued until the queue is half full, and then one of every two events is queued
+            Assert.assertEquals(queue.getQueueDepth(), 4);
+            Assert.assertEquals(queue.getDroppedCount(), 2);
+
+            queue.releaseBatches.countDown();
+            queue.awaitProcessed(5);
+            Assert.assertEquals(queue.getProcessedEvents(), Arrays.asList(0, 1, 2, 4, 6));
+        } finally {
+            queue.shutdown(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testEventIsDroppedAfterBlockTimeout() throws Exception {
+
+        TestQueue queue = getBlockedQueue(QueueFullPolicy.BLOCK);
+        try {
+            queue.put(1);
+            queue.put(2);
+            long startTime = System.currentTimeMillis();
+            queue.put(3);
+            Assert.assertTrue(System.currentTimeMillis() - startTime >= 100);
+            Assert.assertEquals(queue.getDroppedCount(), 1);
+        } finally {
+            queue.releaseBatches.countDown();
+            queue.shutdown(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testQueuedEventsAreProcessedOnShutdown() throws Exception {
+
+        TestQueue queue = getBlockedQueue(QueueFullPolicy.DROP_NEWEST);
+        queue.put(1);
+        queue.put(2);
+        queue.releaseBatches.countDown();
+        queue.shutdown(TIMEOUT_MILLIS);
+
+        Assert.assertEquals(queue.getProcessedEvents(), Arrays.asList(0, 1, 2));
+        queue.put(3);
+        Assert.assertEquals(queue.getDroppedCount(), 1);
+        Assert.assertEquals(queue.getQueueDepth(), 0);
+    }
+
+    /**
+     * Get a queue of size 2 with a single consumer, which is blocked processing the first event.
+     */
+    private static TestQueue getBlockedQueue(QueueFullPolicy queueFullPolicy) throws InterruptedException {
+
+        TestQueue queue = new TestQueue(2, 10, queueFullPolicy);
+        queue.put(0);
+        Assert.assertTrue(queue.batchStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        return queue;
+    }
+
+    /**
+     * Queue with a single consumer, which records the processed batches and blocks until released.
+     */
+    private static class TestQueue extends OBBatchingQueue<Integer> {
+
+        private final CountDownLatch batchStarted = new CountDownLatch(1);
+        private final CountDownLatch releaseBatches = new CountDownLatch(1);
+        private final List<List<Integer>> batches = new ArrayList<>();
+
+        TestQueue(int queueSize, int batchSize, QueueFullPolicy queueFullPolicy) {
+
+            super("ob-test-queue", queueSize, 1, batchSize, queueFullPolicy, 100, 2);
+        }
+
+        @Override
+        protected void processBatch(List<Integer> batch) {
+
+            batchStarted.countDown();
+            try {
+                releaseBatches.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (batches) {
+                batches.add(new ArrayList<>(batch));
+                batches.notifyAll();
+            }
+        }
+
+        List<List<Integer>> getBatches() {
+
+            synchronized (batches) {
+                return new ArrayList<>(batches);
+            }
+        }
+
+        List<Integer> getProcessedEvents() {
+
+            List<Integer> events = new ArrayList<>();
+            getBatches().forEach(events::addAll);
+            return events;
+        }
+
+        void awaitProcessed(int eventCount) throws InterruptedException {
+
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            synchronized (batches) {
+                while (batches.stream().mapToInt(List::size).sum() < eventCount
+                        && System.currentTimeMillis() < deadline) {
+                    batches.wait(100);
+                }
+            }
+        }
+    }
+}
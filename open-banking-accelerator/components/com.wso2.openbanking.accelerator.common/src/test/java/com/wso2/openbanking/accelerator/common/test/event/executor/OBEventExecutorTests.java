@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.common.test.event.executor;
 
 import com.wso2.openbanking.accelerator.common.event.executor.DefaultOBEventExecutor;
+import com.wso2.openbanking.accelerator.common.event.executor.OBEventExecutor;
 import com.wso2.openbanking.accelerator.common.event.executor.OBEventQueue;
 import com.wso2.openbanking.accelerator.common.event.executor.model.OBEvent;
 import com.wso2.openbanking.accelerator.common.internal.OpenBankingCommonDataHolder;
@@ -35,6 +36,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -89,4 +93,51 @@ public class OBEventExecutorTests extends PowerMockTestCase {
         // there should be an error log or a warning if the queue is full.
         Assert.assertTrue(outContent.toString().isEmpty());
     }
+
+    @Test
+    public void testFailedEventDoesNotStopTheBatch() throws Exception {
+
+        RecordingOBEventExecutor.EXECUTORS.clear();
+        RecordingOBEventExecutor.PROCESSED_EVENTS.clear();
+
+        OpenBankingCommonDataHolder openBankingCommonDataHolderMock = mock(OpenBankingCommonDataHolder.class);
+        mockStatic(OpenBankingCommonDataHolder.class);
+        when(OpenBankingCommonDataHolder.getInstance()).thenReturn(openBankingCommonDataHolderMock);
+        Map<Integer, String>  obEventExecutors = new HashMap<>();
+        obEventExecutors.put(1, RecordingOBEventExecutor.class.getName());
+        when(openBankingCommonDataHolderMock.getOBEventExecutors()).thenReturn(obEventExecutors);
+
+        OBEventQueue obEventQueue = new OBEventQueue(10, 1);
+        obEventQueue.put(new OBEvent("failed", new HashMap<>()));
+        obEventQueue.put(new OBEvent("revoked", new HashMap<>()));
+        obEventQueue.put(new OBEvent("expired", new HashMap<>()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (RecordingOBEventExecutor.PROCESSED_EVENTS.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(RecordingOBEventExecutor.PROCESSED_EVENTS.contains("revoked"));
+        Assert.assertTrue(RecordingOBEventExecutor.PROCESSED_EVENTS.contains("expired"));
+        // Each event is processed by its own executor instance
+        Assert.assertEquals(RecordingOBEventExecutor.EXECUTORS.size(), 3);
+    }
+
+    /**
+     * Event executor which records the processed events and fails the events in the failed state.
+     */
+    public static class RecordingOBEventExecutor implements OBEventExecutor {
+
+        static final Set<String> PROCESSED_EVENTS = ConcurrentHashMap.newKeySet();
+        static final Set<OBEventExecutor> EXECUTORS = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void processEvent(OBEvent obEvent) {
+
+            EXECUTORS.add(this);
+            if ("failed".equals(obEvent.getEventType())) {
+                throw new IllegalStateException("Failed to process the event");
+            }
+            PROCESSED_EVENTS.add(obEvent.getEventType());
+        }
+    }
 }
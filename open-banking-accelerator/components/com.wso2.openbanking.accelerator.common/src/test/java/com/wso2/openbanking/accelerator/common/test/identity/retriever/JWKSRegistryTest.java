@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.retriever;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sun.net.httpserver.HttpServer;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSRegistry;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test for JWKS registry.
+ */
+public class JWKSRegistryTest {
+
+    private static final long EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(60);
+    private static final long FAILURE_CACHE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int THREAD_COUNT = 8;
+    private static final String FIRST_KID = "kid1";
+    private static final String SECOND_KID = "kid2";
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicReference<String> jwksResponse = new AtomicReference<>();
+    private final AtomicInteger responseStatus = new AtomicInteger();
+    private final AtomicInteger responseDelayMillis = new AtomicInteger();
+    private HttpServer server;
+    private String jwksUri;
+    private RSAKey firstKey;
+    private RSAKey secondKey;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+
+        firstKey = generateKey(FIRST_KID);
+        secondKey = generateKey(SECOND_KID);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = jwksResponse.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseStatus.get(), response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        jwksUri = "http://localhost:" + server.getAddress().getPort() + "/jwks";
+    }
+
+    @AfterClass
+    public void stopServer() {
+
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void init() {
+
+        requestCount.set(0);
+        responseStatus.set(200);
+        responseDelayMillis.set(0);
+        serveKeys(firstKey);
+    }
+
+    @Test
+    public void testJWKSetIsSharedAcrossLookups() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, 0);
+
+        JWKSet jwkSet = registry.getJWKSet(jwksUri);
+        Assert.assertNotNull(jwkSet.getKeyByKeyId(FIRST_KID));
+        Assert.assertSame(registry.getJWKSet(jwksUri, FIRST_KID), jwkSet);
+        Assert.assertEquals(registry.getKeys(jwksUri, FIRST_KID).size(), 1);
+        Assert.assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void testUnknownKidRefetchIsCoalesced() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, 0);
+        registry.getJWKSet(jwksUri);
+
+        // Rotate the signing key and make the retrieval slow enough for the lookups to overlap
+        serveKeys(secondKey);
+        responseDelayMillis.set(300);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<JWKSet>> results = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(executorService.submit((Callable<JWKSet>) () -> {
+                    start.await();
+                    return registry.getJWKSet(jwksUri, SECOND_KID);
+                }));
+            }
+            start.countDown();
+            for (Future<JWKSet> result : results) {
+                Assert.assertNotNull(result.get(30, TimeUnit.SECONDS).getKeyByKeyId(SECOND_KID));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void testUnknownKidRefetchIsRateLimited() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, TimeUnit.MINUTES.toMillis(1));
+        registry.getJWKSet(jwksUri);
+
+        serveKeys(secondKey);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(registry.getKeys(jwksUri, "unknown-kid").isEmpty());
+        }
+        Assert.assertNull(registry.getJWKSet(jwksUri, SECOND_KID).getKeyByKeyId(SECOND_KID));
+        Assert.assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void testFailedRetrievalIsCached() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, 0);
+        responseStatus.set(500);
+        jwksResponse.set("error");
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                registry.getJWKSet(jwksUri);
+                Assert.fail("Failed retrieval should be rethrown");
+            } catch (OpenBankingException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Couldn't retrieve remote JWK set"));
+            }
+        }
+        Assert.assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void testFailedRefetchKeepsPreviousJWKSet() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, 0);
+        JWKSet jwkSet = registry.getJWKSet(jwksUri);
+
+        responseStatus.set(500);
+        jwksResponse.set("error");
+        Assert.assertSame(registry.getJWKSet(jwksUri, SECOND_KID), jwkSet);
+        Assert.assertSame(registry.getJWKSet(jwksUri, SECOND_KID), jwkSet);
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void testUsedJWKSetIsRefreshedInBackground() throws Exception {
+
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        ScheduledExecutorService refreshExecutor = Mockito.mock(ScheduledExecutorService.class);
+        JWKSRegistry registry = getRegistry(2000, 0, refreshExecutor, clock);
+        registry.getJWKSet(jwksUri);
+        registry.getJWKSet(jwksUri);
+
+        // Refreshed at 80% of the expiry time, without a lookup waiting for the retrieval
+        serveKeys(secondKey);
+        clock.addAndGet(1600);
+        runScheduledRefresh(refreshExecutor, 1600);
+        Assert.assertEquals(requestCount.get(), 2);
+        Assert.assertNotNull(registry.getJWKSet(jwksUri).getKeyByKeyId(SECOND_KID));
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void testUnusedJWKSetIsNotRefreshed() throws Exception {
+
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        ScheduledExecutorService refreshExecutor = Mockito.mock(ScheduledExecutorService.class);
+        JWKSRegistry registry = getRegistry(1000, 0, refreshExecutor, clock);
+        registry.getJWKSet(jwksUri);
+
+        clock.addAndGet(800);
+        runScheduledRefresh(refreshExecutor, 800);
+        Assert.assertEquals(requestCount.get(), 1);
+        registry.getJWKSet(jwksUri);
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void testJWKSourceVerifiesRotatedKey() throws Exception {
+
+        JWKSRegistry registry = getRegistry(EXPIRY_MILLIS, 0);
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256,
+                registry.<SecurityContext>getJWKSource(jwksUri)));
+
+        Assert.assertEquals(jwtProcessor.process(sign(firstKey), null).getSubject(), "subject");
+        serveKeys(secondKey);
+        Assert.assertEquals(jwtProcessor.process(sign(secondKey), null).getSubject(), "subject");
+        Assert.assertEquals(requestCount.get(), 2);
+    }
+
+    private JWKSRegistry getRegistry(long expiryMillis, long minRefetchIntervalMillis) {
+
+        return new JWKSRegistry(this::retrieve, expiryMillis, minRefetchIntervalMillis, FAILURE_CACHE_MILLIS);
+    }
+
+    private JWKSRegistry getRegistry(long expiryMillis, long minRefetchIntervalMillis,
+                                     ScheduledExecutorService refreshExecutor, AtomicLong clock) {
+
+        return new JWKSRegistry(this::retrieve, expiryMillis, minRefetchIntervalMillis, FAILURE_CACHE_MILLIS,
+                refreshExecutor, clock::get);
+    }
+
+    private JWKSet retrieve(URL jwksURL) throws OpenBankingException {
+
+        try {
+            return JWKSet.parse(new DefaultResourceRetriever(1000, 1000).retrieveResource(jwksURL).getContent());
+        } catch (IOException | ParseException e) {
+            throw new OpenBankingException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run the refresh scheduled on the refresh executor, after verifying its delay.
+     */
+    private static void runScheduledRefresh(ScheduledExecutorService refreshExecutor, long delayMillis) {
+
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(refreshExecutor).schedule(refresh.capture(), Mockito.eq(delayMillis),
+                Mockito.eq(TimeUnit.MILLISECONDS));
+        refresh.getValue().run();
+    }
+
+    private void serveKeys(RSAKey key) {
+
+        jwksResponse.set(new JWKSet(key.toPublicJWK()).toString());
+    }
+
+    private static SignedJWT sign(RSAKey key) throws Exception {
+
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("subject")
+                        .expirationTime(new Date(System.currentTimeMillis() + 60000)).build());
+        signedJWT.sign(new RSASSASigner(key.toRSAPrivateKey()));
+        return signedJWT;
+    }
+
+    private static RSAKey generateKey(String kid) throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyUse(KeyUse.SIGNATURE)
+                .keyID(kid)
+                .build();
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.signing;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyRegistry;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the signing key registry.
+ */
+public class SigningKeyRegistryTest {
+
+    private static final String KEYSTORE_PASSWORD = "wso2carbon";
+    private static final String RSA_KEY_ALIAS = "signing";
+    private static final String EC_KEY_ALIAS = "ec-signing";
+    private static final String DEFAULT_KEY_ALIAS = "wso2carbon";
+
+    private File keyStoreFile;
+    private KeyPair rsaKeyPair;
+    private KeyPair ecKeyPair;
+
+    @BeforeMethod
+    public void init() throws Exception {
+
+        keyStoreFile = File.createTempFile("signing-keystore", ".p12");
+        rsaKeyPair = generateKeyPair("RSA");
+        ecKeyPair = generateKeyPair("EC");
+        writeKeyStore(rsaKeyPair);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+
+        Assert.assertTrue(keyStoreFile.delete());
+    }
+
+    @Test
+    public void testSignerIsShared() throws Exception {
+
+        SigningKeyRegistry registry = getRegistry(0);
+        JWSSigner signer = registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.PS256);
+
+        Assert.assertSame(registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.PS256), signer);
+        Assert.assertNotSame(registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256), signer);
+        Assert.assertTrue(sign(signer, JWSAlgorithm.PS256)
+                .verify(new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic())));
+    }
+
+    @Test
+    public void testDefaultSigner() throws Exception {
+
+        SigningKeyRegistry registry = getRegistry(0);
+        JWSSigner signer = registry.getDefaultSigner(JWSAlgorithm.RS256);
+
+        Assert.assertSame(registry.getSigner(DEFAULT_KEY_ALIAS, JWSAlgorithm.RS256), signer);
+        Assert.assertTrue(sign(signer, JWSAlgorithm.RS256)
+                .verify(new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic())));
+    }
+
+    @Test
+    public void testECSigner() throws Exception {
+
+        JWSSigner signer = getRegistry(0).getSigner(EC_KEY_ALIAS, JWSAlgorithm.ES256);
+
+        Assert.assertTrue(sign(signer, JWSAlgorithm.ES256)
+                .verify(new ECDSAVerifier((ECPublicKey) ecKeyPair.getPublic())));
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testUnsupportedAlgorithm() throws Exception {
+
+        getRegistry(0).getSigner(EC_KEY_ALIAS, JWSAlgorithm.RS256);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testUnknownKeyAlias() throws Exception {
+
+        getRegistry(0).getSigner("unknown", JWSAlgorithm.RS256);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testInvalidKeyStore() throws Exception {
+
+        new SigningKeyRegistry(keyStoreFile.getAbsolutePath() + ".invalid", KEYSTORE_PASSWORD, DEFAULT_KEY_ALIAS,
+                null, 0).getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256);
+    }
+
+    @Test
+    public void testKeyStoreIsReloadedWhenModified() throws Exception {
+
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        SigningKeyRegistry registry = new SigningKeyRegistry(keyStoreFile.getAbsolutePath(), KEYSTORE_PASSWORD,
+                DEFAULT_KEY_ALIAS, null, 1, clock::get);
+        JWSSigner signer = registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256);
+
+        // Keystore which cannot be loaded is ignored
+        Files.write(keyStoreFile.toPath(), new byte[]{1, 2, 3});
+        Assert.assertTrue(keyStoreFile.setLastModified(System.currentTimeMillis() + 10000));
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        Assert.assertSame(registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256), signer);
+
+        KeyPair newKeyPair = generateKeyPair("RSA");
+        writeKeyStore(newKeyPair);
+        Assert.assertTrue(keyStoreFile.setLastModified(System.currentTimeMillis() + 20000));
+        // Modification is not checked again within the reload interval
+        Assert.assertSame(registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256), signer);
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        JWSSigner reloadedSigner = registry.getSigner(RSA_KEY_ALIAS, JWSAlgorithm.RS256);
+
+        Assert.assertNotSame(reloadedSigner, signer);
+        Assert.assertTrue(sign(reloadedSigner, JWSAlgorithm.RS256)
+                .verify(new RSASSAVerifier((RSAPublicKey) newKeyPair.getPublic())));
+    }
+
+    private SigningKeyRegistry getRegistry(int reloadIntervalSeconds) {
+
+        return new SigningKeyRegistry(keyStoreFile.getAbsolutePath(), KEYSTORE_PASSWORD, DEFAULT_KEY_ALIAS, null,
+                reloadIntervalSeconds);
+    }
+
+    private static JWSObject sign(JWSSigner signer, JWSAlgorithm algorithm) throws Exception {
+
+        JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(algorithm).keyID("kid").build(),
+                new Payload("{\"sub\":\"admin@wso2.com\"}"));
+        jwsObject.sign(signer);
+        return jwsObject;
+    }
+
+    private static KeyPair generateKeyPair(String algorithm) throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+        if ("EC".equals(algorithm)) {
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else {
+            keyPairGenerator.initialize(2048);
+        }
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private void writeKeyStore(KeyPair rsaSigningKeyPair) throws Exception {
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        char[] password = KEYSTORE_PASSWORD.toCharArray();
+        keyStore.setKeyEntry(RSA_KEY_ALIAS, rsaSigningKeyPair.getPrivate(), password,
+                new Certificate[]{generateCertificate(rsaSigningKeyPair, "SHA256withRSA")});
+        keyStore.setKeyEntry(DEFAULT_KEY_ALIAS, rsaSigningKeyPair.getPrivate(), password,
+                new Certificate[]{generateCertificate(rsaSigningKeyPair, "SHA256withRSA")});
+        keyStore.setKeyEntry(EC_KEY_ALIAS, ecKeyPair.getPrivate(), password,
+                new Certificate[]{generateCertificate(ecKeyPair, "SHA256withECDSA")});
+        try (FileOutputStream outputStream = new FileOutputStream(keyStoreFile)) {
+            keyStore.store(outputStream, password);
+        }
+    }
+
+    private static X509Certificate generateCertificate(KeyPair keyPair, String signatureAlgorithm)
+            throws Exception {
+
+        X500Name name = new X500Name("CN=signing.wso2.com");
+        Date notBefore = new Date();
+        Date notAfter = new Date(notBefore.getTime() + TimeUnit.DAYS.toMillis(1));
+        JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(name,
+                BigInteger.valueOf(System.nanoTime()), notBefore, notAfter, name, keyPair.getPublic());
+        return new JcaX509CertificateConverter().getCertificate(certificateBuilder
+                .build(new JcaContentSignerBuilder(signatureAlgorithm).build(keyPair.getPrivate())));
+    }
+}
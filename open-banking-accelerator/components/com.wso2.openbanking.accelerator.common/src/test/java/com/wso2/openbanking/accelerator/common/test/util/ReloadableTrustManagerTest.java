@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.util;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.HTTPClientUtils;
+import com.wso2.openbanking.accelerator.common.util.ReloadableTrustManager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+
+/**
+ * Test for the reloadable trust manager.
+ */
+public class ReloadableTrustManagerTest {
+
+    private static final String TRUSTSTORE_PASSWORD = "wso2carbon";
+    private final File trustStoreFile = new File("src/test/resources/wso2carbon.jks");
+
+    @Test
+    public void testSelfSignedCertificateIsTrusted() throws Exception {
+
+        ReloadableTrustManager trustManager = new ReloadableTrustManager(trustStoreFile.getAbsolutePath(),
+                TRUSTSTORE_PASSWORD, 0);
+        KeyStore trustStore = HTTPClientUtils.loadKeyStore(trustStoreFile.getAbsolutePath(), TRUSTSTORE_PASSWORD);
+        X509Certificate certificate = (X509Certificate) trustStore.getCertificate(trustStore.aliases().nextElement());
+
+        trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "RSA");
+        Assert.assertTrue(trustManager.getAcceptedIssuers().length > 0);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testInvalidTrustStore() throws Exception {
+
+        new ReloadableTrustManager(trustStoreFile.getAbsolutePath() + ".invalid", TRUSTSTORE_PASSWORD, 0);
+    }
+
+    @Test
+    public void testTrustStoreIsReloadedWhenModified() throws Exception {
+
+        File trustStoreCopy = File.createTempFile("truststore", ".jks");
+        trustStoreCopy.deleteOnExit();
+        Files.copy(trustStoreFile.toPath(), trustStoreCopy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        ReloadableTrustManager trustManager = new ReloadableTrustManager(trustStoreCopy.getAbsolutePath(),
+                TRUSTSTORE_PASSWORD, 1);
+        int acceptedIssuerCount = trustManager.getAcceptedIssuers().length;
+        Assert.assertTrue(acceptedIssuerCount > 0);
+
+        // Truststore which cannot be loaded is ignored
+        Files.write(trustStoreCopy.toPath(), new byte[]{1, 2, 3});
+        Assert.assertTrue(trustStoreCopy.setLastModified(System.currentTimeMillis() + 10000));
+        Thread.sleep(1100);
+        Assert.assertEquals(trustManager.getAcceptedIssuers().length, acceptedIssuerCount);
+
+        KeyStore emptyTrustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        emptyTrustStore.load(null, null);
+        try (FileOutputStream outputStream = new FileOutputStream(trustStoreCopy)) {
+            emptyTrustStore.store(outputStream, TRUSTSTORE_PASSWORD.toCharArray());
+        }
+        Assert.assertTrue(trustStoreCopy.setLastModified(System.currentTimeMillis() + 20000));
+        Thread.sleep(1100);
+        Assert.assertEquals(trustManager.getAcceptedIssuers().length, 0);
+    }
+}
@@ -18,48 +18,61 @@
 
 package com.wso2.openbanking.accelerator.data.publisher.common;
 
+import com.wso2.openbanking.accelerator.common.event.OBBatchingQueue;
+import com.wso2.openbanking.accelerator.common.event.QueueFullPolicy;
+import com.wso2.openbanking.accelerator.data.publisher.common.constants.DataPublishingConstants;
 import com.wso2.openbanking.accelerator.data.publisher.common.model.OBAnalyticsEvent;
+import com.wso2.openbanking.accelerator.data.publisher.common.util.OBDataPublisherUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.List;
 
 /**
- * Event queue wrapper class wrapping the ArrayBlockingQueue.
+ * Event queue of the OB analytics events.
+ * <p>
+ * Events are published in batches by long-lived worker threads. Each batch is published with a single data publisher
+ * borrowed from the data publisher pool. A failure to publish an event does not stop publishing the rest of the batch.
  */
-public class EventQueue {
+public class EventQueue extends OBBatchingQueue<OBAnalyticsEvent> {
 
     private static final Log log = LogFactory.getLog(EventQueue.class);
-    private final BlockingQueue<OBAnalyticsEvent> eventQueue;
-    private final ExecutorService publisherExecutorService;
 
     public EventQueue(int queueSize, int workerThreadCount) {
 
-        // Note : Using a fixed worker thread pool and a bounded queue to control the load on the server
-        publisherExecutorService = Executors.newFixedThreadPool(workerThreadCount);
-        eventQueue = new ArrayBlockingQueue<>(queueSize);
+        this(queueSize, workerThreadCount, DataPublishingConstants.DEFAULT_BATCH_SIZE, QueueFullPolicy.DROP_NEWEST,
+                DataPublishingConstants.DEFAULT_QUEUE_BLOCK_TIMEOUT,
+                DataPublishingConstants.DEFAULT_QUEUE_SAMPLING_RATE);
     }
 
-    public void put(OBAnalyticsEvent obAnalyticsEvent) {
+    public EventQueue(int queueSize, int workerThreadCount, int batchSize, QueueFullPolicy queueFullPolicy,
+                      long blockTimeoutMillis, int samplingRate) {
 
-        try {
-            if (eventQueue.offer(obAnalyticsEvent)) {
-                publisherExecutorService.submit(new QueueWorker(eventQueue, publisherExecutorService));
-            } else {
-                log.error("Event queue is full. Starting to drop OB analytics events.");
-            }
-        } catch (RejectedExecutionException e) {
-            log.warn("Task submission failed. Task queue might be full", e);
-        }
+        // Note : Using a fixed number of workers and a bounded queue to control the load on the server
+        super("ob-analytics-publisher", queueSize, workerThreadCount, batchSize, queueFullPolicy,
+                blockTimeoutMillis, samplingRate);
     }
 
     @Override
-    protected void finalize() throws Throwable {
-        publisherExecutorService.shutdown();
-        super.finalize();
+    protected void processBatch(List<OBAnalyticsEvent> batch) {
+
+        OpenBankingDataPublisher dataPublisher = OBDataPublisherUtil.getDataPublisherInstance();
+        if (dataPublisher == null) {
+            log.error("Unable to get a data publisher. " + batch.size() + " OB analytics events are dropped.");
+            return;
+        }
+        try {
+            for (OBAnalyticsEvent event : batch) {
+                try {
+                    dataPublisher.publish(event.getStreamName(), event.getStreamVersion(),
+                            event.getAnalyticsData());
+                } catch (RuntimeException e) {
+                    log.error("Error while publishing the OB analytics event to stream " +
+                            String.valueOf(event.getStreamName()).replaceAll("[\r\n]", ""), e);
+                }
+            }
+        } finally {
+            OBDataPublisherUtil.releaseDataPublishingInstance(dataPublisher);
+        }
     }
 }
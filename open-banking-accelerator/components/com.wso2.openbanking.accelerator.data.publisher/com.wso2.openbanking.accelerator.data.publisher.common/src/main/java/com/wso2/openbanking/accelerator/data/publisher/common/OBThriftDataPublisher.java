@@ -18,6 +18,7 @@
 
 package com.wso2.openbanking.accelerator.data.publisher.common;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.data.publisher.common.constants.DataPublishingConstants;
@@ -34,21 +35,30 @@ import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.exception.TransportException;
 import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Open Banking Thrift Data publisher.
+ * <p>
+ * The attributes of each stream are compiled into a schema with the validation of each attribute, so that the
+ * payload of an event is validated and populated with a single pass over the attributes. Schemas are only cached once
+ * the attribute validations are loaded, so that streams published before the configuration is loaded are validated
+ * once it is.
  */
 public class OBThriftDataPublisher implements OpenBankingDataPublisher {
 
+    private static final Object[] EMPTY_PAYLOAD = new Object[]{};
+
     private DataPublisher dataPublisher;
     private Map<String, List<String>> streamAttributeMap = new HashMap<>();
-    private Map<String, Map<String, Object>> attributeValidationMap;
+    private volatile Map<String, Map<String, Object>> attributeValidationMap;
+    private final Map<String, StreamSchema> streamSchemas = new ConcurrentHashMap<>();
+    private long publishingTimeout = DataPublishingConstants.DEFAULT_THRIFT_PUBLISHING_TIMEOUT;
     private static final Log log = LogFactory.getLog(OBThriftDataPublisher.class);
     private Map<String, Object> obConfigurations;
 
@@ -60,7 +70,8 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
     public void publish(String streamName, String streamVersion, Map<String, Object> analyticsData) {
 
         // Set payloads
-        Object[] payload = setPayload(streamName, analyticsData);
+        StreamSchema streamSchema = getStreamSchema(streamName);
+        Object[] payload = streamSchema == null ? EMPTY_PAYLOAD : setPayload(streamSchema, analyticsData);
 
         // Log error and return if payload is not set
         if (payload.length == 0) {
@@ -70,7 +81,7 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
 
         // Create wso2 event to publish
         Event event = new Event();
-        event.setStreamId(DataBridgeCommonsUtils.generateStreamId(streamName, streamVersion));
+        event.setStreamId(streamSchema.getStreamId(streamVersion));
         event.setMetaData(null);
         event.setCorrelationData(null);
         event.setPayloadData(payload);
@@ -79,8 +90,7 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
             // Try to publish event with timeout
             // If the queue is full, this will wait timeout time and retry to add to queue. If still full this
             // returns false
-            boolean published = dataPublisher.tryPublish(event,
-                    Long.parseLong((String) obConfigurations.get(DataPublishingConstants.THRIFT_PUBLISHING_TIMEOUT)));
+            boolean published = dataPublisher.tryPublish(event, publishingTimeout);
             if (!published) {
                 log.error("Unable to publish data for stream: " + streamName.replaceAll("[\r\n]", "") +
                  ". Queue is full.");
@@ -94,7 +104,7 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
 
     /**
      * Initialize OB Thrift Data publisher.
-     * This method initializes data publisher and read the attribute map for each data stream.
+     * This method initializes data publisher and compiles the schema of each data stream.
      */
     protected void init() {
 
@@ -109,11 +119,12 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
             log.error("Error while retrieving publisher server configs");
             return;
         }
+        publishingTimeout = getPublishingTimeout();
 
         log.debug("Reading attribute list for data streams");
         buildStreamAttributeMap();
-        attributeValidationMap = OBAnalyticsDataHolder.getInstance().getOpenBankingConfigurationService()
-                .getDataPublishingValidationMap();
+        loadAttributeValidationMap();
+        compileStreamSchemas();
 
         try {
             //Create new DataPublisher for the tenant.
@@ -149,60 +160,46 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
      */
     protected Object[] setPayload(String streamName, Map<String, Object> analyticsData) {
 
-        if (streamAttributeMap.containsKey(streamName)) {
-            List<String> attributes = streamAttributeMap.get(streamName);
-            boolean isValid = validateAttributes(streamName, attributes, analyticsData);
-            if (isValid) {
-                ArrayList<Object> payload = new ArrayList<>();
-                for (String attribute : attributes) {
-                    payload.add(analyticsData.get(attribute));
-                }
-                return payload.toArray();
-            }
-        }
-        return new Object[]{};
+        StreamSchema streamSchema = getStreamSchema(streamName);
+        return streamSchema == null ? EMPTY_PAYLOAD : setPayload(streamSchema, analyticsData);
     }
 
     /**
-     * Validate whether the required parameters are present and are of correct data type.
-     * @param streamName stream name
+     * Validate whether the required parameters are present and are of correct data type, and populate the payload
+     * in the order of the stream attributes.
+     *
+     * @param streamSchema  compiled schema of the stream
      * @param analyticsData data map
-     * @return boolean isValid
+     * @return payload of object[], or an empty payload if the data is not valid
      */
-    private boolean validateAttributes(String streamName, List<String> attributes, Map<String, Object> analyticsData) {
+    private Object[] setPayload(StreamSchema streamSchema, Map<String, Object> analyticsData) {
 
-        Map<String, Map<String, Object>> attributeValidations = getAttributeValidationMap();
-        for (String attribute: attributes) {
-            String attributeNameKey = streamName + "_" + attribute;
-            boolean isRequired = (boolean) attributeValidations.get(attributeNameKey)
-                    .get(OpenBankingConstants.REQUIRED);
-            String type = (String) attributeValidations.get(attributeNameKey).get(OpenBankingConstants.ATTRIBUTE_TYPE);
+        AttributeSchema[] attributes = streamSchema.attributes;
+        Object[] payload = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            AttributeSchema attribute = attributes[i];
+            Object attributeValue = analyticsData.get(attribute.name);
 
             // validation for required attributes
-            if (isRequired) {
-                if (analyticsData.containsKey(attribute)) {
-                    if (analyticsData.get(attribute) == null) {
-                        log.error(attribute.replaceAll("[\r\n]", "") + " is missing in data map for " + 
-                        streamName.replaceAll("[\r\n]", "") + ". This event "
-                                + "will not be processed further.");
-                        return false;
-                    }
-                } else {
-                    log.error(attribute.replaceAll("[\r\n]", "") + " is missing in data map for " + 
-                    streamName.replaceAll("[\r\n]", "") + ". This event "
+            if (attributeValue == null) {
+                if (attribute.required) {
+                    log.error(attribute.name.replaceAll("[\r\n]", "") + " is missing in data map for " +
+                            streamSchema.streamName.replaceAll("[\r\n]", "") + ". This event "
                             + "will not be processed further.");
-                    return false;
+                    return EMPTY_PAYLOAD;
                 }
+                continue;
             }
 
             // validation for data type
-            if (analyticsData.containsKey(attribute) && analyticsData.get(attribute) != null) {
-                if (!isValidDataType(type, attribute, analyticsData.get(attribute))) {
-                    return false;
-                }
+            if (attribute.type != null && !attribute.type.equals(attributeValue.getClass())) {
+                logInvalidDataTypeError(attribute.name, attribute.type.getName(),
+                        attributeValue.getClass().getName());
+                return EMPTY_PAYLOAD;
             }
+            payload[i] = attributeValue;
         }
-        return true;
+        return payload;
     }
 
     /**
@@ -218,6 +215,85 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
                     .map(integerStringMap::get).collect(Collectors.toList());
             streamAttributeMap.put(dataStream, attributeList);
         });
+        streamSchemas.clear();
+    }
+
+    /**
+     * Compile the schema of each stream with the attribute validations.
+     */
+    private void compileStreamSchemas() {
+
+        if (getAttributeValidationMap() == null) {
+            // Schemas are compiled on the first event of each stream
+            return;
+        }
+        streamAttributeMap.keySet().forEach(this::getStreamSchema);
+    }
+
+    private StreamSchema getStreamSchema(String streamName) {
+
+        StreamSchema streamSchema = streamSchemas.get(streamName);
+        if (streamSchema == null && streamAttributeMap.containsKey(streamName)) {
+            if (getAttributeValidationMap() == null && !loadAttributeValidationMap()) {
+                // Schema without validations is not cached, so that the validations are applied once loaded
+                return compileStreamSchema(streamName);
+            }
+            streamSchema = streamSchemas.computeIfAbsent(streamName, this::compileStreamSchema);
+        }
+        return streamSchema;
+    }
+
+    /**
+     * Load the attribute validations from the configuration service.
+     *
+     * @return true if the attribute validations are loaded
+     */
+    private boolean loadAttributeValidationMap() {
+
+        OpenBankingConfigurationService configurationService =
+                OBAnalyticsDataHolder.getInstance().getOpenBankingConfigurationService();
+        if (configurationService != null) {
+            attributeValidationMap = configurationService.getDataPublishingValidationMap();
+        }
+        return getAttributeValidationMap() != null;
+    }
+
+    private StreamSchema compileStreamSchema(String streamName) {
+
+        List<String> attributes = streamAttributeMap.get(streamName);
+        Map<String, Map<String, Object>> attributeValidations = getAttributeValidationMap();
+        AttributeSchema[] attributeSchemas = new AttributeSchema[attributes.size()];
+        for (int i = 0; i < attributeSchemas.length; i++) {
+            String attribute = attributes.get(i);
+            Map<String, Object> attributeValidation = attributeValidations == null ? null :
+                    attributeValidations.get(streamName + "_" + attribute);
+            if (attributeValidation == null) {
+                if (attributeValidations != null) {
+                    log.warn("Validations are not configured for " + attribute.replaceAll("[\r\n]", "") +
+                            " of " + streamName.replaceAll("[\r\n]", "") + ". Attribute is not validated.");
+                }
+                attributeSchemas[i] = new AttributeSchema(attribute, false, null);
+                continue;
+            }
+            boolean isRequired = Boolean.TRUE.equals(attributeValidation.get(OpenBankingConstants.REQUIRED));
+            String type = (String) attributeValidation.get(OpenBankingConstants.ATTRIBUTE_TYPE);
+            attributeSchemas[i] = new AttributeSchema(attribute, isRequired, getAttributeType(type));
+        }
+        return new StreamSchema(streamName, attributeSchemas);
+    }
+
+    private long getPublishingTimeout() {
+
+        Object timeout = obConfigurations.get(DataPublishingConstants.THRIFT_PUBLISHING_TIMEOUT);
+        if (timeout != null) {
+            try {
+                return Long.parseLong(timeout.toString().trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid Thrift publishing timeout configured. Using the default timeout of " +
+                        DataPublishingConstants.DEFAULT_THRIFT_PUBLISHING_TIMEOUT + " ms");
+            }
+        }
+        return DataPublishingConstants.DEFAULT_THRIFT_PUBLISHING_TIMEOUT;
     }
 
     @Generated(message = "Added for testing purposes")
@@ -236,48 +312,27 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
     // Suppression reason - False Positive : Since the value is used in switch statements, it cannot be used
     //                      maliciously
     // Suppressed warning count - 1
-    private boolean isValidDataType(String type, String attributeName, Object attributeValue) {
+    private static Class<?> getAttributeType(String type) {
 
-        Class<?> attributeClass = attributeValue.getClass();
+        if (type == null) {
+            return null;
+        }
         switch (type.toLowerCase(Locale.ENGLISH)) {
             case "string" :
-                if (!(attributeClass.equals(String.class))) {
-                    logInvalidDataTypeError(attributeName, String.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return String.class;
             case "int" :
-                if (!(attributeClass.equals(Integer.class))) {
-                    logInvalidDataTypeError(attributeName, Integer.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return Integer.class;
             case "long" :
-                if (!(attributeClass.equals(Long.class))) {
-                    logInvalidDataTypeError(attributeName, Long.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return Long.class;
             case "boolean" :
-                if (!(attributeClass.equals(Boolean.class))) {
-                    logInvalidDataTypeError(attributeName, Boolean.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return Boolean.class;
             case "double" :
-                if (!(attributeClass.equals(Double.class))) {
-                    logInvalidDataTypeError(attributeName, Double.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return Double.class;
             case "float" :
-                if (!(attributeClass.equals(Float.class))) {
-                    logInvalidDataTypeError(attributeName, Float.class.getName(), attributeClass.getName());
-                    return false;
-                }
-                break;
+                return Float.class;
+            default:
+                return null;
         }
-        return true;
     }
 
     private void logInvalidDataTypeError(String attributeName, String expectedDataType, String actualDataType) {
@@ -285,4 +340,50 @@ public class OBThriftDataPublisher implements OpenBankingDataPublisher {
         expectedDataType.replaceAll("[\r\n]", "") + " type attribute while attribute of " +
                 "type " + actualDataType.replaceAll("[\r\n]", "") + " is present.");
     }
+
+    /**
+     * Compiled schema of a stream, with the attributes in the order of the payload.
+     */
+    private static final class StreamSchema {
+
+        private final String streamName;
+        private final AttributeSchema[] attributes;
+        private final Map<String, String> streamIds = new ConcurrentHashMap<>();
+
+        StreamSchema(String streamName, AttributeSchema[] attributes) {
+
+            this.streamName = streamName;
+            this.attributes = attributes;
+        }
+
+        String getStreamId(String streamVersion) {
+
+            if (streamVersion == null) {
+                return DataBridgeCommonsUtils.generateStreamId(streamName, null);
+            }
+            String streamId = streamIds.get(streamVersion);
+            if (streamId == null) {
+                streamId = streamIds.computeIfAbsent(streamVersion,
+                        version -> DataBridgeCommonsUtils.generateStreamId(streamName, version));
+            }
+            return streamId;
+        }
+    }
+
+    /**
+     * Compiled validation of a stream attribute. The type is null when the data type is not validated.
+     */
+    private static final class AttributeSchema {
+
+        private final String name;
+        private final boolean required;
+        private final Class<?> type;
+
+        AttributeSchema(String name, boolean required, Class<?> type) {
+
+            this.name = name;
+            this.required = required;
+            this.type = type;
+        }
+    }
 }
@@ -34,7 +34,15 @@ public class DataPublishingConstants {
     public static final String APIM_ANALYTICS_ENABLED = "APIMAnalytics.Enabled";
     public static final String QUEUE_SIZE = "DataPublishing.QueueSize";
     public static final String WORKER_THREAD_COUNT = "DataPublishing.WorkerThreadCount";
+    public static final String BATCH_SIZE = "DataPublishing.BatchSize";
+    public static final String QUEUE_FULL_POLICY = "DataPublishing.QueueFullPolicy";
+    public static final String QUEUE_BLOCK_TIMEOUT = "DataPublishing.QueueBlockTimeoutMs";
+    public static final String QUEUE_SAMPLING_RATE = "DataPublishing.QueueSamplingRate";
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_QUEUE_BLOCK_TIMEOUT = 1000;
+    public static final int DEFAULT_QUEUE_SAMPLING_RATE = 10;
 
     public static final String THRIFT_PUBLISHING_TIMEOUT = "DataPublishing.Thrift.PublishingTimeout";
+    public static final long DEFAULT_THRIFT_PUBLISHING_TIMEOUT = 2000;
 
 }
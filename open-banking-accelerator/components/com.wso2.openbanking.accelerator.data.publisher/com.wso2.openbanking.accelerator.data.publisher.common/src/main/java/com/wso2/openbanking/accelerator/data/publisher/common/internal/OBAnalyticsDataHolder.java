@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.data.publisher.common.internal;
 
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.common.event.QueueFullPolicy;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.data.publisher.common.DataPublisherFactory;
 import com.wso2.openbanking.accelerator.data.publisher.common.DataPublisherPool;
@@ -34,6 +35,7 @@ import java.util.Map;
  */
 public class OBAnalyticsDataHolder {
 
+    private static final long EVENT_QUEUE_SHUTDOWN_TIMEOUT = 10000;
     private static volatile OBAnalyticsDataHolder instance;
     private OpenBankingConfigurationService openBankingConfigurationService;
     private Map<String, Object> configurationMap;
@@ -100,7 +102,31 @@ public class OBAnalyticsDataHolder {
         int queueSize = Integer.parseInt((String) configurationMap.get(DataPublishingConstants.QUEUE_SIZE));
         int workerThreadCount =
                 Integer.parseInt((String) configurationMap.get(DataPublishingConstants.WORKER_THREAD_COUNT));
-        eventQueue = new EventQueue(queueSize, workerThreadCount);
+        int batchSize = getIntConfig(DataPublishingConstants.BATCH_SIZE, DataPublishingConstants.DEFAULT_BATCH_SIZE);
+        QueueFullPolicy queueFullPolicy = QueueFullPolicy.fromValue(
+                (String) configurationMap.get(DataPublishingConstants.QUEUE_FULL_POLICY));
+        int blockTimeout = getIntConfig(DataPublishingConstants.QUEUE_BLOCK_TIMEOUT,
+                DataPublishingConstants.DEFAULT_QUEUE_BLOCK_TIMEOUT);
+        int samplingRate = getIntConfig(DataPublishingConstants.QUEUE_SAMPLING_RATE,
+                DataPublishingConstants.DEFAULT_QUEUE_SAMPLING_RATE);
+        eventQueue = new EventQueue(queueSize, workerThreadCount, batchSize, queueFullPolicy, blockTimeout,
+                samplingRate);
+    }
+
+    /**
+     * Stop the event queue after publishing the queued events.
+     */
+    public void shutdownEventQueue() {
+
+        if (eventQueue != null) {
+            eventQueue.shutdown(EVENT_QUEUE_SHUTDOWN_TIMEOUT);
+        }
+    }
+
+    private int getIntConfig(String key, int defaultValue) {
+
+        Object value = configurationMap.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.toString().trim());
     }
 
     public EventQueue getEventQueue() {
@@ -51,6 +51,7 @@ public class OBAnalyticsServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        OBAnalyticsDataHolder.getInstance().shutdownEventQueue();
         OBAnalyticsDataHolder.getInstance().closePool();
         log.debug("Open banking data publishing component is deactivated ");
     }
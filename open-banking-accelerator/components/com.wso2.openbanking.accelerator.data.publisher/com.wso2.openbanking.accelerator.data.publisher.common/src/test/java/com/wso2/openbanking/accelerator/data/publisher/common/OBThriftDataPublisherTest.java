@@ -22,6 +22,7 @@ import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationSe
 import com.wso2.openbanking.accelerator.data.publisher.common.internal.OBAnalyticsDataHolder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -31,7 +32,9 @@ import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfiguration
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.exception.TransportException;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -40,6 +43,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -315,6 +319,70 @@ public class OBThriftDataPublisherTest {
         Assert.assertFalse(OBThriftDataPublisherTest.outContent.toString().contains("ERROR"));
     }
 
+    @Test
+    public void publishWithCompiledStreamSchema() {
+
+        OBThriftDataPublisher thriftDataPublisher = new MockedOBThriftDataPublisher();
+        DataPublisher dataPublisher = Mockito.mock(DataPublisher.class);
+        thriftDataPublisher.setDataPublisher(dataPublisher);
+        Mockito.doReturn(true).when(dataPublisher).tryPublish(Mockito.any(), Mockito.anyLong());
+        Map<String, Object> data = new HashMap<>();
+        data.put("SampleIntAttribute", 2);
+        data.put("SampleBooleanAttribute", true);
+        thriftDataPublisher.publish("testStream", "1.0", data);
+        thriftDataPublisher.publish("testStream", "1.0", data);
+
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(dataPublisher, Mockito.times(2)).tryPublish(eventCaptor.capture(), Mockito.eq(2000L));
+        Event event = eventCaptor.getValue();
+        Assert.assertEquals(event.getStreamId(), DataBridgeCommonsUtils.generateStreamId("testStream", "1.0"));
+        Assert.assertEquals(event.getPayloadData(), new Object[]{true, null, 2});
+        Assert.assertNotSame(eventCaptor.getAllValues().get(0).getPayloadData(), event.getPayloadData());
+    }
+
+    @Test
+    public void setPayloadWithoutAttributeValidations() {
+
+        OBThriftDataPublisher thriftDataPublisher = new MockedOBThriftDataPublisher() {
+
+            @Override
+            protected Map<String, Map<String, Object>> getAttributeValidationMap() {
+
+                return new HashMap<>();
+            }
+        };
+        Map<String, Object> data = new HashMap<>();
+        data.put("SampleFloatAttribute", 4);
+
+        Object[] result = thriftDataPublisher.setPayload("testStream2", data);
+        Assert.assertEquals(result, new Object[]{null, 4, null});
+    }
+
+    @Test
+    public void setPayloadBeforeAttributeValidationsAreLoaded() {
+
+        AtomicBoolean validationsLoaded = new AtomicBoolean();
+        OBThriftDataPublisher thriftDataPublisher = new MockedOBThriftDataPublisher() {
+
+            @Override
+            protected Map<String, Map<String, Object>> getAttributeValidationMap() {
+
+                return validationsLoaded.get() ? super.getAttributeValidationMap() : null;
+            }
+        };
+        thriftDataPublisher.buildStreamAttributeMap();
+        Map<String, Object> data = new HashMap<>();
+        data.put("SampleStringAttribute", "StringValue1");
+        data.put("SampleIntAttribute", 2.14);
+        data.put("SampleBooleanAttribute", true);
+
+        // Attributes are not validated, and the schema is not cached, until the validations are loaded
+        Assert.assertEquals(thriftDataPublisher.setPayload("testStream", data),
+                new Object[]{true, "StringValue1", 2.14});
+        validationsLoaded.set(true);
+        Assert.assertEquals(thriftDataPublisher.setPayload("testStream", data), new Object[]{});
+    }
+
     @Test
     public void tryPublishWhenAttributesNotDefined() {
 
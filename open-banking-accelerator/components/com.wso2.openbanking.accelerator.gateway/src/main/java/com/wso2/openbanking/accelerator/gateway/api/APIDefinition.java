@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.api;
+
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsed definition of a deployed API along with the lookups derived from it.
+ * Instances are immutable and replaced as a whole when the API definition changes.
+ */
+public class APIDefinition {
+
+    private static final Log log = LogFactory.getLog(APIDefinition.class);
+    private static final String[] HTTP_METHODS = {GatewayConstants.GET, GatewayConstants.POST, GatewayConstants.PUT,
+            GatewayConstants.PATCH, GatewayConstants.DELETE};
+
+    private final String apiId;
+    private final String digest;
+    private final OpenAPI openAPI;
+    private final String apiType;
+    private final Map<String, List<String>> allowedOAuthFlows;
+
+    public APIDefinition(String apiId, String digest, OpenAPI openAPI) {
+
+        this.apiId = apiId;
+        this.digest = digest;
+        this.openAPI = openAPI;
+        this.apiType = readAPIType(openAPI);
+        this.allowedOAuthFlows = Collections.unmodifiableMap(readAllowedOAuthFlows(openAPI));
+    }
+
+    public String getApiId() {
+
+        return apiId;
+    }
+
+    /**
+     * Digest of the raw API definition this model was parsed from.
+     *
+     * @return digest
+     */
+    public String getDigest() {
+
+        return digest;
+    }
+
+    public OpenAPI getOpenAPI() {
+
+        return openAPI;
+    }
+
+    /**
+     * Value of the x-wso2-api-type extension of the API.
+     *
+     * @return API type or null if not defined
+     */
+    public String getApiType() {
+
+        return apiType;
+    }
+
+    /**
+     * Allowed OAuth flows of a resource.
+     *
+     * @param resource   resource path as defined in the API
+     * @param httpMethod http method
+     * @return allowed OAuth flows or null if the resource is not defined in the API
+     */
+    public List<String> getAllowedOAuthFlows(String resource, String httpMethod) {
+
+        if (resource == null || httpMethod == null) {
+            return null;
+        }
+        return allowedOAuthFlows.get(getResourceKey(resource, httpMethod));
+    }
+
+    private static String getResourceKey(String resource, String httpMethod) {
+
+        return resource + ":" + httpMethod.toUpperCase(Locale.ENGLISH);
+    }
+
+    private static String readAPIType(OpenAPI openAPI) {
+
+        if (openAPI == null || openAPI.getExtensions() == null) {
+            return null;
+        }
+        Object apiType = openAPI.getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP);
+        return apiType == null ? null : apiType.toString();
+    }
+
+    private Map<String, List<String>> readAllowedOAuthFlows(OpenAPI openAPI) {
+
+        Map<String, List<String>> oauthFlows = new HashMap<>();
+        if (openAPI == null || openAPI.getPaths() == null || openAPI.getComponents() == null ||
+                openAPI.getComponents().getSecuritySchemes() == null) {
+            return oauthFlows;
+        }
+        for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+            for (String httpMethod : HTTP_METHODS) {
+                if (!hasOperation(path.getValue(), httpMethod)) {
+                    continue;
+                }
+                try {
+                    oauthFlows.put(getResourceKey(path.getKey(), httpMethod), Collections.unmodifiableList(
+                            GatewayUtils.getAllowedOAuthFlowsFromSwagger(openAPI, path.getKey(), httpMethod)));
+                } catch (RuntimeException e) {
+                    // Resolved from the model at request time, as done before
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Unable to read allowed OAuth flows of %s %s in API %s",
+                                httpMethod, path.getKey().replaceAll("[\r\n]", ""),
+                                apiId.replaceAll("[\r\n]", "")), e);
+                    }
+                }
+            }
+        }
+        return oauthFlows;
+    }
+
+    private static boolean hasOperation(PathItem pathItem, String httpMethod) {
+
+        if (pathItem == null) {
+            return false;
+        }
+        switch (httpMethod) {
+            case GatewayConstants.GET:
+                return pathItem.getGet() != null;
+            case GatewayConstants.POST:
+                return pathItem.getPost() != null;
+            case GatewayConstants.PUT:
+                return pathItem.getPut() != null;
+            case GatewayConstants.PATCH:
+                return pathItem.getPatch() != null;
+            case GatewayConstants.DELETE:
+                return pathItem.getDelete() != null;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.api;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the parsed definitions of the deployed APIs.
+ * <p>
+ * Definitions of all the APIs are loaded in the background when the gateway starts and are synced with the publisher
+ * periodically afterwards. A definition is parsed again only if it has changed since it was last loaded. Definitions
+ * are parsed on the registry threads, hence request threads only wait for an API that has not been loaded yet.
+ */
+public class APIDefinitionRegistry {
+
+    private static final Log log = LogFactory.getLog(APIDefinitionRegistry.class);
+    private static volatile APIDefinitionRegistry apiDefinitionRegistry;
+
+    private final Map<String, APIDefinition> definitions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<APIDefinition>> pendingLoads = new ConcurrentHashMap<>();
+    private final Function<String, String> definitionRetriever;
+    private final Supplier<List<String>> apiIdRetriever;
+    private final ScheduledExecutorService executorService;
+
+    APIDefinitionRegistry(Function<String, String> definitionRetriever, Supplier<List<String>> apiIdRetriever) {
+
+        this.definitionRetriever = definitionRetriever;
+        this.apiIdRetriever = apiIdRetriever;
+        this.executorService = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "ob-api-definition-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return APIDefinitionRegistry object
+     */
+    public static APIDefinitionRegistry getInstance() {
+
+        if (apiDefinitionRegistry == null) {
+            synchronized (APIDefinitionRegistry.class) {
+                if (apiDefinitionRegistry == null) {
+                    apiDefinitionRegistry = new APIDefinitionRegistry(GatewayUtils::getSwaggerDefinition,
+                            GatewayUtils::getAPIIds);
+                }
+            }
+        }
+        return apiDefinitionRegistry;
+    }
+
+    /**
+     * Load the definitions of all the APIs and schedule the periodic sync with the publisher.
+     */
+    @Generated(message = "Starts the background sync of the gateway")
+    public void start() {
+
+        int refreshInterval = GatewayDataHolder.getInstance().getApiDefinitionRefreshInterval();
+        executorService.scheduleWithFixedDelay(this::refreshAll, 0, refreshInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background sync.
+     */
+    @Generated(message = "Stops the background sync of the gateway")
+    public void stop() {
+
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Get the definition of an API. If the API is not loaded yet, the caller waits until it is loaded by the
+     * registry.
+     *
+     * @param apiId API ID
+     * @return API definition
+     */
+    public APIDefinition getDefinition(String apiId) {
+
+        APIDefinition definition = definitions.get(apiId);
+        if (definition != null) {
+            return definition;
+        }
+        try {
+            return load(apiId).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingRuntimeException("Interrupted while loading the API definition", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OpenBankingRuntimeException) {
+                throw (OpenBankingRuntimeException) e.getCause();
+            }
+            throw new OpenBankingRuntimeException("Failed to load the API definition", e.getCause());
+        }
+    }
+
+    /**
+     * Load the definition of an API again. The loaded model is replaced only if the definition has changed.
+     *
+     * @param apiId API ID
+     */
+    public void refresh(String apiId) {
+
+        load(apiId).join();
+    }
+
+    /**
+     * Remove the definition of an API.
+     *
+     * @param apiId API ID
+     */
+    public void remove(String apiId) {
+
+        definitions.remove(apiId);
+    }
+
+    /**
+     * Sync the definitions of all the APIs with the publisher.
+     */
+    void refreshAll() {
+
+        try {
+            Set<String> apiIds = new HashSet<>(apiIdRetriever.get());
+            for (String apiId : apiIds) {
+                try {
+                    refresh(apiId);
+                } catch (RuntimeException e) {
+                    log.error(String.format("Failed to load the definition of API %s",
+                            apiId.replaceAll("[\r\n]", "")), e);
+                }
+            }
+            definitions.keySet().retainAll(apiIds);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Synced definitions of %d APIs", definitions.size()));
+            }
+        } catch (RuntimeException e) {
+            // Failures are retried in the next sync. APIs are loaded on demand until then.
+            log.error("Failed to sync the API definitions", e);
+        }
+    }
+
+    private CompletableFuture<APIDefinition> load(String apiId) {
+
+        // Concurrent loads of the same API share a single retrieval
+        CompletableFuture<APIDefinition> future = pendingLoads.computeIfAbsent(apiId,
+                id -> CompletableFuture.supplyAsync(() -> retrieve(id), executorService));
+        future.whenComplete((definition, error) -> pendingLoads.remove(apiId, future));
+        return future;
+    }
+
+    private APIDefinition retrieve(String apiId) {
+
+        String swaggerDefinition = definitionRetriever.apply(apiId);
+        String digest = DigestUtils.sha256Hex(swaggerDefinition);
+        APIDefinition definition = definitions.get(apiId);
+        if (definition != null && digest.equals(definition.getDigest())) {
+            return definition;
+        }
+        OpenAPI openAPI = new OpenAPIParser().readContents(swaggerDefinition, null, null).getOpenAPI();
+        definition = new APIDefinition(apiId, digest, openAPI);
+        definitions.put(apiId, definition);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Loaded the definition of API %s", apiId.replaceAll("[\r\n]", "")));
+        }
+        return definition;
+    }
+}
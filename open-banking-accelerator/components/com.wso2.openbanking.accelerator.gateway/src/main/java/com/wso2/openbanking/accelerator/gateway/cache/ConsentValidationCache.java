@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedTopic;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache definition to store consent validation decisions of the consent validation endpoint.
+ * <p>
+ * Decisions are grouped by the consent ID, so that all the decisions of a consent can be dropped at once when the
+ * consent state changes. Each decision lives only for the configured time to live (in seconds). State changes are
+ * received through the distributed cache topic, on which the consent service publishes the changed consents once
+ * the change is committed. Hence the cache is only active when distributed caching is enabled.
+ */
+public class ConsentValidationCache extends OpenBankingBaseCache<GatewayCacheKey,
+        ConsentValidationCache.ConsentDecisions> {
+
+    private static final Log log = LogFactory.getLog(ConsentValidationCache.class);
+    private static final String CACHE_NAME = "OPEN_BANKING_CONSENT_VALIDATION_CACHE";
+    private static volatile ConsentValidationCache consentValidationCache;
+
+    private final long timeToLiveMillis;
+    private final int expiryMinutes;
+    // Time of the last change of consents which are not known (ex: account mapping updates).
+    private volatile long allConsentsInvalidatedAt;
+    private volatile boolean active;
+
+    /**
+     * Initialize with unique cache name.
+     */
+    private ConsentValidationCache() {
+
+        super(CACHE_NAME);
+        int timeToLiveSeconds = GatewayDataHolder.getInstance().getConsentValidationCacheTimeToLive();
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+        // Underlying cache entries only need to outlive the decisions they hold.
+        this.expiryMinutes = Math.max(1, (int) Math.ceil(timeToLiveSeconds / 60.0));
+    }
+
+    /**
+     * Singleton getInstance method to create only one object. Registers the consent state change listener on
+     * creation.
+     *
+     * @return ConsentValidationCache object
+     */
+    public static ConsentValidationCache getInstance() {
+
+        if (consentValidationCache == null) {
+            synchronized (ConsentValidationCache.class) {
+                if (consentValidationCache == null) {
+                    ConsentValidationCache cache = new ConsentValidationCache();
+                    cache.registerStateChangeListener();
+                    consentValidationCache = cache;
+                }
+            }
+        }
+        return consentValidationCache;
+    }
+
+    /**
+     * Whether decisions can be served from the cache. The cache is inactive when consent state changes cannot be
+     * received.
+     *
+     * @return true if active
+     */
+    public boolean isActive() {
+
+        return active;
+    }
+
+    /**
+     * Get a cached validation decision.
+     *
+     * @param consentId   consent ID
+     * @param decisionKey key derived from the validation request
+     * @return cached consent validation response or null if not available
+     */
+    public String getDecision(String consentId, String decisionKey) {
+
+        ConsentDecisions consentDecisions = getFromCache(GatewayCacheKey.of(consentId));
+        if (consentDecisions == null) {
+            return null;
+        }
+        Decision decision = consentDecisions.getDecision(decisionKey);
+        return decision != null && isUsable(consentDecisions, decision, System.currentTimeMillis()) ?
+                decision.getResponse() : null;
+    }
+
+    /**
+     * Store a validation decision. Decisions issued before the last state change of the consent are not stored,
+     * since the validation might have been done on the previous state of the consent.
+     * <p>
+     * Cached decisions are never modified. A new set of decisions of the consent is put back to the cache, hence
+     * the decisions can be stored by value. A decision lost to a concurrent put is validated again.
+     *
+     * @param consentId   consent ID
+     * @param decisionKey key derived from the validation request
+     * @param response    consent validation response
+     * @param issuedAt    time in millis at which the validation request was sent
+     */
+    public void putDecision(String consentId, String decisionKey, String response, long issuedAt) {
+
+        if (issuedAt < allConsentsInvalidatedAt) {
+            return;
+        }
+        GatewayCacheKey key = GatewayCacheKey.of(consentId);
+        ConsentDecisions consentDecisions = getFromCache(key);
+        if (consentDecisions != null && issuedAt < consentDecisions.getInvalidatedAt()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Decision> decisions = new HashMap<>();
+        long invalidatedAt = 0;
+        if (consentDecisions != null) {
+            invalidatedAt = consentDecisions.getInvalidatedAt();
+            // Decisions which can no longer be served are not carried over.
+            consentDecisions.getDecisions().forEach((cachedKey, decision) -> {
+                if (isUsable(consentDecisions, decision, now)) {
+                    decisions.put(cachedKey, decision);
+                }
+            });
+        }
+        decisions.put(decisionKey, new Decision(response, issuedAt, issuedAt + timeToLiveMillis));
+        addToCache(key, new ConsentDecisions(invalidatedAt, decisions));
+    }
+
+    /**
+     * Drop all the decisions held for a consent. The time of the state change is kept in place of the decisions,
+     * so that decisions of validations in progress during the change are not stored. It expires with the cache
+     * entry, after the decisions issued before the change have expired.
+     *
+     * @param consentId consent ID
+     */
+    public void invalidate(String consentId) {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Invalidating consent validation decisions of consent %s",
+                    consentId.replaceAll("[\r\n]", "")));
+        }
+        addToCache(GatewayCacheKey.of(consentId),
+                new ConsentDecisions(System.currentTimeMillis(), Collections.emptyMap()));
+    }
+
+    /**
+     * Drop the decisions of all the consents, issued before now. Used when the changed consents are not known.
+     */
+    public void invalidateAll() {
+
+        log.debug("Invalidating consent validation decisions of all consents");
+        allConsentsInvalidatedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public int getCacheAccessExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+
+    @Override
+    public int getCacheModifiedExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+
+    private boolean isUsable(ConsentDecisions consentDecisions, Decision decision, long now) {
+
+        return decision.getExpiresAt() > now && decision.getIssuedAt() >= allConsentsInvalidatedAt
+                && decision.getIssuedAt() >= consentDecisions.getInvalidatedAt();
+    }
+
+    private void onStateChange(String message) {
+
+        if (OpenBankingDistributedCacheConstants.ALL_CONSENTS_CHANGED_MESSAGE.equals(message)) {
+            invalidateAll();
+        } else {
+            invalidate(message);
+        }
+    }
+
+    private void registerStateChangeListener() {
+
+        this.active = new OpenBankingDistributedTopic(
+                OpenBankingDistributedCacheConstants.CONSENT_STATE_CHANGE_TOPIC).addListener(this::onStateChange);
+        if (!active) {
+            log.warn("Consent validation cache requires distributed caching to receive consent state changes. " +
+                    "Hence the consent validation cache is not used.");
+        }
+    }
+
+    /**
+     * Cached consent validation decisions of a consent, with the time of the last state change of the consent.
+     */
+    public static class ConsentDecisions implements Serializable {
+
+        private static final long serialVersionUID = 4526310871938541672L;
+        private final long invalidatedAt;
+        private final Map<String, Decision> decisions;
+
+        public ConsentDecisions(long invalidatedAt, Map<String, Decision> decisions) {
+
+            this.invalidatedAt = invalidatedAt;
+            this.decisions = decisions;
+        }
+
+        public long getInvalidatedAt() {
+
+            return invalidatedAt;
+        }
+
+        public Map<String, Decision> getDecisions() {
+
+            return Collections.unmodifiableMap(decisions);
+        }
+
+        public Decision getDecision(String decisionKey) {
+
+            return decisions.get(decisionKey);
+        }
+    }
+
+    /**
+     * Cached consent validation response.
+     */
+    public static class Decision implements Serializable {
+
+        private static final long serialVersionUID = 7723905512384106549L;
+        private final String response;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        public Decision(String response, long issuedAt, long expiresAt) {
+
+            this.response = response;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getResponse() {
+
+            return response;
+        }
+
+        public long getIssuedAt() {
+
+            return issuedAt;
+        }
+
+        public long getExpiresAt() {
+
+            return expiresAt;
+        }
+    }
+}
@@ -18,36 +18,38 @@
 
 package com.wso2.openbanking.accelerator.gateway.executor.core;
 
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinition;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import org.wso2.carbon.apimgt.common.gateway.dto.APIRequestInfoDTO;
+import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Open Banking Default Request Router.
+ * <p>
+ * Routes are resolved once per API and elected resource, and kept in a routing table along with the executor chain
+ * of the route. A route is resolved again when the definition of the API changes. Routes are resolved with the API
+ * context, since the DCR check applies to the full resource path.
  */
 public class DefaultRequestRouter extends AbstractRequestRouter {
 
     private static final List<OpenBankingGatewayExecutor> EMPTY_LIST = new ArrayList<>();
+    private final Map<String, Route> routingTable = new ConcurrentHashMap<>();
 
     public List<OpenBankingGatewayExecutor> getExecutorsForRequest(OBAPIRequestContext requestContext) {
-        if (GatewayConstants.API_TYPE_NON_REGULATORY
-                .equals(requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP))) {
-            requestContext.addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP,
-                    GatewayConstants.API_TYPE_NON_REGULATORY);
-            return EMPTY_LIST;
-        } else if (GatewayConstants.API_TYPE_CONSENT
-                .equals(requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP))) {
-            requestContext.addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP,
-                    GatewayConstants.API_TYPE_CONSENT);
-            return this.getExecutorMap().get("Consent");
-        } else if (requestContext.getMsgInfo().getResource().contains("/register")) {
-            return this.getExecutorMap().get("DCR");
-        } else {
-            return this.getExecutorMap().get("Default");
+
+        Route route = getRoute(requestContext);
+        if (route.getApiType() != null) {
+            requestContext.addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP, route.getApiType());
         }
+        return route.getExecutors();
     }
 
     public List<OpenBankingGatewayExecutor> getExecutorsForResponse(OBAPIResponseContext responseContext) {
@@ -62,11 +64,117 @@ public class DefaultRequestRouter extends AbstractRequestRouter {
             }
         }
 
-        if (responseContext.getMsgInfo().getResource().contains("/register")) {
-            return this.getExecutorMap().get("DCR");
+        // Routes of APIs without a type only depend on the resource
+        String routeKey = getRouteKey(responseContext.getApiRequestInfo(), responseContext.getMsgInfo());
+        Route route = routeKey == null ? null : routingTable.get(routeKey);
+        if (route != null && route.getApiType() == null) {
+            return route.getExecutors();
+        }
+        return resolveRoute(null, responseContext.getMsgInfo().getResource()).getExecutors();
+    }
+
+    @Override
+    public void setExecutorMap(Map<String, List<OpenBankingGatewayExecutor>> executorMap) {
+
+        super.setExecutorMap(executorMap);
+        routingTable.clear();
+    }
+
+    /**
+     * Get the route of a request from the routing table, resolving it if the route is not available or the API
+     * definition has changed since it was resolved.
+     *
+     * @param requestContext OB Request context
+     * @return route of the request
+     */
+    private Route getRoute(OBAPIRequestContext requestContext) {
+
+        APIDefinition apiDefinition = requestContext.getApiDefinition();
+        String routeKey = getRouteKey(requestContext.getApiRequestInfo(), requestContext.getMsgInfo());
+        if (apiDefinition == null || routeKey == null) {
+            Object apiType = requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP);
+            return resolveRoute(apiType == null ? null : apiType.toString(),
+                    requestContext.getMsgInfo().getResource());
+        }
+        Route route = routingTable.get(routeKey);
+        if (route == null || route.getApiDefinition() != apiDefinition) {
+            route = resolveRoute(apiDefinition,
+                    getRoutedResource(requestContext.getApiRequestInfo(), requestContext.getMsgInfo()));
+            routingTable.put(routeKey, route);
+        }
+        return route;
+    }
+
+    private Route resolveRoute(APIDefinition apiDefinition, String resource) {
+
+        Route route = resolveRoute(apiDefinition.getApiType(), resource);
+        return new Route(apiDefinition, route.getApiType(), route.getExecutors());
+    }
+
+    private Route resolveRoute(String apiType, String resource) {
+
+        if (GatewayConstants.API_TYPE_NON_REGULATORY.equals(apiType)) {
+            return new Route(null, GatewayConstants.API_TYPE_NON_REGULATORY, EMPTY_LIST);
+        } else if (GatewayConstants.API_TYPE_CONSENT.equals(apiType)) {
+            return new Route(null, GatewayConstants.API_TYPE_CONSENT, this.getExecutorMap().get("Consent"));
+        } else if (resource.contains("/register")) {
+            return new Route(null, null, this.getExecutorMap().get("DCR"));
         } else {
-            return this.getExecutorMap().get("Default");
+            return new Route(null, null, this.getExecutorMap().get("Default"));
+        }
+    }
+
+    private static String getRouteKey(APIRequestInfoDTO apiRequestInfo, MsgInfoDTO msgInfo) {
+
+        if (apiRequestInfo == null || apiRequestInfo.getApiId() == null || apiRequestInfo.getContext() == null
+                || msgInfo.getElectedResource() == null) {
+            return null;
         }
+        return apiRequestInfo.getApiId() + ":" + getRoutedResource(apiRequestInfo, msgInfo);
+    }
+
+    /**
+     * Get the resource template of a request along with the API context, which is used in place of the resource
+     * path of the request when resolving a route.
+     *
+     * @param apiRequestInfo API request info
+     * @param msgInfo        message info
+     * @return elected resource prefixed with the API context
+     */
+    private static String getRoutedResource(APIRequestInfoDTO apiRequestInfo, MsgInfoDTO msgInfo) {
+
+        return apiRequestInfo.getContext() + msgInfo.getElectedResource();
     }
 
+    /**
+     * Resolved route of an API resource.
+     */
+    private static class Route {
+
+        private final APIDefinition apiDefinition;
+        private final String apiType;
+        private final List<OpenBankingGatewayExecutor> executors;
+
+        Route(APIDefinition apiDefinition, String apiType, List<OpenBankingGatewayExecutor> executors) {
+
+            this.apiDefinition = apiDefinition;
+            this.apiType = apiType;
+            this.executors = executors == null ? null : Collections.unmodifiableList(executors);
+        }
+
+        APIDefinition getApiDefinition() {
+
+            return apiDefinition;
+        }
+
+        String getApiType() {
+
+            return apiType;
+        }
+
+        List<OpenBankingGatewayExecutor> getExecutors() {
+
+            return executors;
+        }
+    }
 }
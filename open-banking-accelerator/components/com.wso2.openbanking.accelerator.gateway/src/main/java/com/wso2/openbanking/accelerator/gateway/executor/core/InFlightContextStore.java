@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.core;
+
+import com.wso2.openbanking.accelerator.gateway.cache.GatewayCache;
+import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Store for the context properties and analytics data carried between the request and response phases of an
+ * exchange, keyed by the message ID.
+ * <p>
+ * Entries are removed when the response is processed. Entries of exchanges that never receive a response are
+ * removed by a sweeper once they exceed the configured time to live, and are counted as orphaned. The number of
+ * entries is bounded. While the store is full, the context of a new exchange is stored in the gateway cache as done
+ * before the store was introduced, and a warning is logged once per sweep interval.
+ */
+public class InFlightContextStore {
+
+    private static final Log log = LogFactory.getLog(InFlightContextStore.class);
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static volatile InFlightContextStore inFlightContextStore;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final GatewayCache fallbackCache;
+    private final LongAdder orphanedCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+    private final AtomicBoolean fullWarningLogged = new AtomicBoolean();
+
+    InFlightContextStore(int maxEntries, long timeToLiveMillis, GatewayCache fallbackCache) {
+
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.fallbackCache = fallbackCache;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object. Starts the sweeper on creation.
+     *
+     * @return InFlightContextStore object
+     */
+    public static InFlightContextStore getInstance() {
+
+        if (inFlightContextStore == null) {
+            synchronized (InFlightContextStore.class) {
+                if (inFlightContextStore == null) {
+                    GatewayDataHolder dataHolder = GatewayDataHolder.getInstance();
+                    InFlightContextStore store = new InFlightContextStore(dataHolder.getInFlightContextMaxEntries(),
+                            TimeUnit.SECONDS.toMillis(dataHolder.getInFlightContextTimeToLive()),
+                            GatewayDataHolder.getGatewayCache());
+                    store.startSweeper();
+                    inFlightContextStore = store;
+                }
+            }
+        }
+        return inFlightContextStore;
+    }
+
+    /**
+     * Store the context of an exchange. The time to live of an entry is counted from the first phase of the
+     * exchange. If the store is full, the context of a new exchange is stored in the gateway cache.
+     *
+     * @param messageId     message ID of the exchange
+     * @param contextProps  context properties
+     * @param analyticsData analytics data
+     */
+    public void put(String messageId, Map<String, String> contextProps, Map<String, Object> analyticsData) {
+
+        Entry entry = entries.get(messageId);
+        if (entry == null && entries.size() >= maxEntries) {
+            fallbackCount.increment();
+            if (fullWarningLogged.compareAndSet(false, true)) {
+                log.warn(String.format("In-flight context store is full with %d entries. Contexts of new " +
+                        "exchanges are stored in the gateway cache", maxEntries));
+            }
+            fallbackCache.addToCache(GatewayCacheKey.of(messageId + GatewayConstants.CONTEXT_PROP_CACHE_KEY),
+                    contextProps);
+            fallbackCache.addToCache(GatewayCacheKey.of(messageId + GatewayConstants.ANALYTICS_PROP_CACHE_KEY),
+                    analyticsData);
+            return;
+        }
+        long createdTime = entry == null ? System.currentTimeMillis() : entry.getCreatedTime();
+        entries.put(messageId, new Entry(contextProps, analyticsData, createdTime));
+    }
+
+    /**
+     * Get the context of an exchange.
+     *
+     * @param messageId message ID of the exchange
+     * @return stored context or null if not available
+     */
+    public Entry get(String messageId) {
+
+        Entry entry = entries.get(messageId);
+        if (entry != null || fallbackCount.sum() == 0) {
+            return entry;
+        }
+        Object contextProps = fallbackCache.getFromCache(
+                GatewayCacheKey.of(messageId + GatewayConstants.CONTEXT_PROP_CACHE_KEY));
+        Object analyticsData = fallbackCache.getFromCache(
+                GatewayCacheKey.of(messageId + GatewayConstants.ANALYTICS_PROP_CACHE_KEY));
+        if (contextProps == null && analyticsData == null) {
+            return null;
+        }
+        return new Entry(contextProps == null ? new HashMap<>() : (Map<String, String>) contextProps,
+                analyticsData == null ? new HashMap<>() : (Map<String, Object>) analyticsData,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Remove the context of an exchange once it is completed.
+     *
+     * @param messageId message ID of the exchange
+     */
+    public void remove(String messageId) {
+
+        if (entries.remove(messageId) == null && fallbackCount.sum() > 0) {
+            fallbackCache.removeFromCache(GatewayCacheKey.of(messageId + GatewayConstants.CONTEXT_PROP_CACHE_KEY));
+            fallbackCache.removeFromCache(GatewayCacheKey.of(messageId + GatewayConstants.ANALYTICS_PROP_CACHE_KEY));
+        }
+    }
+
+    /**
+     * Number of exchanges currently tracked.
+     *
+     * @return live entry count
+     */
+    public int getLiveEntryCount() {
+
+        return entries.size();
+    }
+
+    /**
+     * Number of entries removed by the sweeper since the response of the exchange never arrived.
+     *
+     * @return orphaned entry count
+     */
+    public long getOrphanedEntryCount() {
+
+        return orphanedCount.sum();
+    }
+
+    /**
+     * Number of exchanges stored in the gateway cache since the store was full.
+     *
+     * @return fallback entry count
+     */
+    public long getFallbackEntryCount() {
+
+        return fallbackCount.sum();
+    }
+
+    /**
+     * Remove the entries which have exceeded the time to live.
+     */
+    void sweep() {
+
+        long expiredBefore = System.currentTimeMillis() - timeToLiveMillis;
+        entries.values().removeIf(entry -> {
+            if (entry.getCreatedTime() < expiredBefore) {
+                orphanedCount.increment();
+                return true;
+            }
+            return false;
+        });
+        fullWarningLogged.set(false);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight context store: live entries %d, orphaned entries %d, " +
+                    "fallback entries %d", getLiveEntryCount(), getOrphanedEntryCount(), getFallbackEntryCount()));
+        }
+    }
+
+    private void startSweeper() {
+
+        long sweepInterval = Math.max(1, Math.min(timeToLiveMillis, MAX_SWEEP_INTERVAL_MILLIS));
+        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ob-in-flight-context-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.error("Error while sweeping the in-flight context store", e);
+            }
+        }, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Context of an in-flight exchange.
+     */
+    public static class Entry {
+
+        private final Map<String, String> contextProps;
+        private final Map<String, Object> analyticsData;
+        private final long createdTime;
+
+        public Entry(Map<String, String> contextProps, Map<String, Object> analyticsData, long createdTime) {
+
+            this.contextProps = contextProps;
+            this.analyticsData = analyticsData;
+            this.createdTime = createdTime;
+        }
+
+        public Map<String, String> getContextProps() {
+
+            return contextProps;
+        }
+
+        public Map<String, Object> getAnalyticsData() {
+
+            return analyticsData;
+        }
+
+        public long getCreatedTime() {
+
+            return createdTime;
+        }
+    }
+}
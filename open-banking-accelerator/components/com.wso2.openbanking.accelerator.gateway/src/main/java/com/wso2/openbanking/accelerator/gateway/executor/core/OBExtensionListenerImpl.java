@@ -20,10 +20,12 @@ package com.wso2.openbanking.accelerator.gateway.executor.core;
 
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.data.publisher.common.util.OBDataPublisherUtil;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.executor.idempotency.OpenBankingIdempotencyHandlingExecutor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.reporter.OBExecutorLatencyRecorder;
+import com.wso2.openbanking.accelerator.gateway.reporter.OBExecutorLatencyRecorder.Phase;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,6 +39,7 @@ import org.wso2.carbon.apimgt.common.gateway.extensionlistener.ExtensionListener
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -53,18 +56,14 @@ public class OBExtensionListenerImpl implements ExtensionListener {
 
         OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(requestContextDTO, new HashMap<>(),
                 new HashMap<>());
-        for (OpenBankingGatewayExecutor gatewayExecutor :
-                GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForRequest(obapiRequestContext)) {
-            gatewayExecutor.preProcessRequest(obapiRequestContext);
-        }
+        executePhase(GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForRequest(obapiRequestContext),
+                Phase.PRE_REQUEST, obapiRequestContext, null, requestContextDTO.getMsgInfo().getMessageId());
 
         if (!obapiRequestContext.isError()) {
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiRequestContext.getContextProps());
-
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiRequestContext.getAnalyticsData());
+            InFlightContextStore.getInstance().put(requestContextDTO.getMsgInfo().getMessageId(),
+                    obapiRequestContext.getContextProps(), obapiRequestContext.getAnalyticsData());
         } else {
+            InFlightContextStore.getInstance().remove(requestContextDTO.getMsgInfo().getMessageId());
             publishAnalyticsData(obapiRequestContext.getAnalyticsData());
         }
         return getResponseDTOForRequest(obapiRequestContext);
@@ -74,25 +73,23 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO postProcessRequest(RequestContextDTO requestContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(requestContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(requestContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
+        InFlightContextStore.Entry inFlightContext =
+                InFlightContextStore.getInstance().get(requestContextDTO.getMsgInfo().getMessageId());
+        Map<String, String> contextProps = getContextProps(inFlightContext);
+        Map<String, Object> analyticsData = getAnalyticsData(inFlightContext);
 
         OBAPIRequestContext obapiRequestContext =
                 new OBAPIRequestContext(requestContextDTO, contextProps, analyticsData);
-        for (OpenBankingGatewayExecutor gatewayExecutor :
-                GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForRequest(obapiRequestContext)) {
-            gatewayExecutor.postProcessRequest(obapiRequestContext);
-        }
+        executePhase(GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForRequest(obapiRequestContext),
+                Phase.POST_REQUEST, obapiRequestContext, null, requestContextDTO.getMsgInfo().getMessageId());
 
         if (!obapiRequestContext.isError()) {
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiRequestContext.getContextProps());
-
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiRequestContext.getAnalyticsData());
+            InFlightContextStore.getInstance().put(requestContextDTO.getMsgInfo().getMessageId(),
+                    obapiRequestContext.getContextProps(), obapiRequestContext.getAnalyticsData());
         } else {
+            // The exchange ends here, hence the idempotency key reserved for the request is released
+            OpenBankingIdempotencyHandlingExecutor.releaseReservation(obapiRequestContext.getContextProps());
+            InFlightContextStore.getInstance().remove(requestContextDTO.getMsgInfo().getMessageId());
             publishAnalyticsData(obapiRequestContext.getAnalyticsData());
         }
         return getResponseDTOForRequest(obapiRequestContext);
@@ -102,24 +99,21 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO preProcessResponse(ResponseContextDTO responseContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
+        InFlightContextStore.Entry inFlightContext =
+                InFlightContextStore.getInstance().get(responseContextDTO.getMsgInfo().getMessageId());
+        Map<String, String> contextProps = getContextProps(inFlightContext);
+        Map<String, Object> analyticsData = getAnalyticsData(inFlightContext);
         OBAPIResponseContext obapiResponseContext =
                 new OBAPIResponseContext(responseContextDTO, contextProps, analyticsData);
-        for (OpenBankingGatewayExecutor gatewayExecutor :
-                GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext)) {
-            gatewayExecutor.preProcessResponse(obapiResponseContext);
-        }
+        executePhase(GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext),
+                Phase.PRE_RESPONSE, null, obapiResponseContext, responseContextDTO.getMsgInfo().getMessageId());
 
         if (!obapiResponseContext.isError()) {
-            setPropertiesToCache(responseContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiResponseContext.getContextProps());
-
-            setPropertiesToCache(responseContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiResponseContext.getAnalyticsData());
+            InFlightContextStore.getInstance().put(responseContextDTO.getMsgInfo().getMessageId(),
+                    obapiResponseContext.getContextProps(), obapiResponseContext.getAnalyticsData());
         } else {
+            OpenBankingIdempotencyHandlingExecutor.releaseReservation(obapiResponseContext.getContextProps());
+            InFlightContextStore.getInstance().remove(responseContextDTO.getMsgInfo().getMessageId());
             publishAnalyticsData(obapiResponseContext.getAnalyticsData());
         }
         return getResponseDTOForResponse(obapiResponseContext);
@@ -129,22 +123,17 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO postProcessResponse(ResponseContextDTO responseContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
+        InFlightContextStore.Entry inFlightContext =
+                InFlightContextStore.getInstance().get(responseContextDTO.getMsgInfo().getMessageId());
+        Map<String, String> contextProps = getContextProps(inFlightContext);
+        Map<String, Object> analyticsData = getAnalyticsData(inFlightContext);
         OBAPIResponseContext obapiResponseContext =
                 new OBAPIResponseContext(responseContextDTO, contextProps, analyticsData);
-        for (OpenBankingGatewayExecutor gatewayExecutor :
-                GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext)) {
-            gatewayExecutor.postProcessResponse(obapiResponseContext);
-        }
+        executePhase(GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext),
+                Phase.POST_RESPONSE, null, obapiResponseContext, responseContextDTO.getMsgInfo().getMessageId());
         publishAnalyticsData(obapiResponseContext.getAnalyticsData());
         ExtensionResponseDTO responseDTOForResponse = getResponseDTOForResponse(obapiResponseContext);
-        removePropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        removePropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
+        InFlightContextStore.getInstance().remove(responseContextDTO.getMsgInfo().getMessageId());
         return responseDTOForResponse;
     }
 
@@ -236,37 +225,79 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     }
 
     /**
-     * Method to store properties to cache.
+     * Method to run the executors of a phase, recording the time taken by each executor.
      *
-     * @param key          unique cache key
-     * @param contextProps properties to store
+     * @param executors       executors of the phase
+     * @param phase           phase
+     * @param requestContext  request context for request phases
+     * @param responseContext response context for response phases
+     * @param messageId       message ID of the exchange
      */
-    private void setPropertiesToCache(String key, Map contextProps) {
+    private void executePhase(List<OpenBankingGatewayExecutor> executors, Phase phase,
+                              OBAPIRequestContext requestContext, OBAPIResponseContext responseContext,
+                              String messageId) {
+
+        OBExecutorLatencyRecorder latencyRecorder = OBExecutorLatencyRecorder.getInstance();
+        if (!latencyRecorder.isEnabled()) {
+            for (OpenBankingGatewayExecutor gatewayExecutor : executors) {
+                executePhase(gatewayExecutor, phase, requestContext, responseContext);
+            }
+            return;
+        }
+        // Indexed loop and a reused buffer keep the timing free of allocations
+        long[] durations = latencyRecorder.getDurationBuffer(executors.size());
+        long phaseStartTime = System.nanoTime();
+        for (int i = 0; i < executors.size(); i++) {
+            OpenBankingGatewayExecutor gatewayExecutor = executors.get(i);
+            long startTime = System.nanoTime();
+            executePhase(gatewayExecutor, phase, requestContext, responseContext);
+            durations[i] = System.nanoTime() - startTime;
+            latencyRecorder.record(gatewayExecutor, phase, durations[i]);
+        }
+        latencyRecorder.recordPhase(executors, phase, durations, System.nanoTime() - phaseStartTime, messageId);
+    }
 
-        GatewayDataHolder.getGatewayCache().addToCache(GatewayCacheKey.of(key), contextProps);
+    private void executePhase(OpenBankingGatewayExecutor gatewayExecutor, Phase phase,
+                              OBAPIRequestContext requestContext, OBAPIResponseContext responseContext) {
+
+        switch (phase) {
+            case PRE_REQUEST:
+                gatewayExecutor.preProcessRequest(requestContext);
+                break;
+            case POST_REQUEST:
+                gatewayExecutor.postProcessRequest(requestContext);
+                break;
+            case PRE_RESPONSE:
+                gatewayExecutor.preProcessResponse(responseContext);
+                break;
+            default:
+                gatewayExecutor.postProcessResponse(responseContext);
+                break;
+        }
     }
 
     /**
-     * Method to retrieve context properties from cache.
+     * Method to read context properties of the in-flight exchange.
      *
-     * @param key unique cache key
+     * @param inFlightContext stored context of the exchange
      * @return context properties
      */
-    private Map getPropertiesFromCache(String key) {
-        //Need to implement after adding base cache implementation to the common module.
-        Object cachedObject = GatewayDataHolder.getGatewayCache().getFromCache(GatewayCacheKey.of(key));
-        return cachedObject == null ? new HashMap<>() : (Map) cachedObject;
+    private Map<String, String> getContextProps(InFlightContextStore.Entry inFlightContext) {
+
+        return inFlightContext == null || inFlightContext.getContextProps() == null ?
+                new HashMap<>() : inFlightContext.getContextProps();
     }
 
     /**
-     * Method to remove context properties from cache.
+     * Method to read analytics data of the in-flight exchange.
      *
-     * @param key unique cache key
-     * @return context properties
+     * @param inFlightContext stored context of the exchange
+     * @return analytics data
      */
-    private void removePropertiesFromCache(String key) {
-        //Need to implement after adding base cache implementation to the common module.
-        GatewayDataHolder.getGatewayCache().removeFromCache(GatewayCacheKey.of(key));
+    private Map<String, Object> getAnalyticsData(InFlightContextStore.Entry inFlightContext) {
+
+        return inFlightContext == null || inFlightContext.getAnalyticsData() == null ?
+                new HashMap<>() : inFlightContext.getAnalyticsData();
     }
 
     private void publishAnalyticsData(Map<String, Object> analyticsData) {
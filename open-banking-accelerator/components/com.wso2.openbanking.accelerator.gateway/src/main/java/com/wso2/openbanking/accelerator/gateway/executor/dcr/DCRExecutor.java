@@ -681,14 +681,14 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement callPost(String endpoint, String payload, String authenticationHeader)
             throws IOException, OpenBankingException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpPost httpPost = new HttpPost(endpoint);
-            StringEntity entity = new StringEntity(payload);
-            httpPost.setEntity(entity);
-            httpPost.setHeader(GatewayConstants.ACCEPT, GatewayConstants.JSON_CONTENT_TYPE);
-            httpPost.setHeader(GatewayConstants.CONTENT_TYPE_TAG, GatewayConstants.JSON_CONTENT_TYPE);
-            httpPost.setHeader(HttpHeaders.AUTHORIZATION, authenticationHeader);
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
+        CloseableHttpClient httpClient = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpPost httpPost = new HttpPost(endpoint);
+        StringEntity entity = new StringEntity(payload);
+        httpPost.setEntity(entity);
+        httpPost.setHeader(GatewayConstants.ACCEPT, GatewayConstants.JSON_CONTENT_TYPE);
+        httpPost.setHeader(GatewayConstants.CONTENT_TYPE_TAG, GatewayConstants.JSON_CONTENT_TYPE);
+        httpPost.setHeader(HttpHeaders.AUTHORIZATION, authenticationHeader);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
             return getResponse(httpResponse);
         }
     }
@@ -697,16 +697,16 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement getToken(String authHeader, String url, String clientId) throws IOException, JSONException,
             OpenBankingException {
 
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
-            HttpPost request = new HttpPost(url);
-            List<NameValuePair> params = new ArrayList<>();
-            params.add(new BasicNameValuePair("grant_type", "client_credentials"));
-            params.add(new BasicNameValuePair("scope", "apim:subscribe apim:api_key apim:app_manage " +
-                    "apim:sub_manage openid"));
-            //params.add(new BasicNameValuePair("client_id", clientId));
-            request.setEntity(new UrlEncodedFormEntity(params));
-            request.addHeader(HTTPConstants.HEADER_AUTHORIZATION, authHeader);
-            HttpResponse response = client.execute(request);
+        CloseableHttpClient client = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpPost request = new HttpPost(url);
+        List<NameValuePair> params = new ArrayList<>();
+        params.add(new BasicNameValuePair("grant_type", "client_credentials"));
+        params.add(new BasicNameValuePair("scope", "apim:subscribe apim:api_key apim:app_manage " +
+                "apim:sub_manage openid"));
+        //params.add(new BasicNameValuePair("client_id", clientId));
+        request.setEntity(new UrlEncodedFormEntity(params));
+        request.addHeader(HTTPConstants.HEADER_AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse response = client.execute(request)) {
             if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
                 log.error("Obtaining access token  failed with status code: " +
                         response.getStatusLine().getStatusCode());
@@ -740,17 +740,17 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement callGet(String endpoint, String authHeader, String queryParamKey, String paramValue)
             throws IOException, OpenBankingException, URISyntaxException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpGet httpGet = new HttpGet(endpoint);
-            List nameValuePairs = new ArrayList();
-            if (StringUtils.isNotEmpty(queryParamKey)) {
-                nameValuePairs.add(new BasicNameValuePair(queryParamKey, paramValue));
-                URI uri = new URIBuilder(httpGet.getURI()).addParameters(nameValuePairs).build();
-                ((HttpRequestBase) httpGet).setURI(uri);
-            }
-            httpGet.setHeader("Accept", "application/json");
-            httpGet.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
-            CloseableHttpResponse restAPIResponse = httpClient.execute(httpGet);
+        CloseableHttpClient httpClient = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpGet httpGet = new HttpGet(endpoint);
+        List nameValuePairs = new ArrayList();
+        if (StringUtils.isNotEmpty(queryParamKey)) {
+            nameValuePairs.add(new BasicNameValuePair(queryParamKey, paramValue));
+            URI uri = new URIBuilder(httpGet.getURI()).addParameters(nameValuePairs).build();
+            ((HttpRequestBase) httpGet).setURI(uri);
+        }
+        httpGet.setHeader("Accept", "application/json");
+        httpGet.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse restAPIResponse = httpClient.execute(httpGet)) {
             return getResponse(restAPIResponse);
         }
     }
@@ -782,10 +782,10 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     @Generated(message = "Excluding from test coverage since it is an HTTP call")
     protected boolean callDelete(String endpoint, String authHeader) throws OpenBankingException, IOException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpDelete httpDelete = new HttpDelete(endpoint);
-            httpDelete.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
-            CloseableHttpResponse appDeletedResponse = httpClient.execute(httpDelete);
+        CloseableHttpClient httpClient = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpDelete httpDelete = new HttpDelete(endpoint);
+        httpDelete.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse appDeletedResponse = httpClient.execute(httpDelete)) {
             int status = appDeletedResponse.getStatusLine().getStatusCode();
             return (status == 204 || status == 200);
         }
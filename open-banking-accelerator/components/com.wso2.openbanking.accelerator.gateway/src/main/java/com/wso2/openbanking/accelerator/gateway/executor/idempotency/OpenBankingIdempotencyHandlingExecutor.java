@@ -20,6 +20,7 @@ package com.wso2.openbanking.accelerator.gateway.executor.idempotency;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.gateway.cache.OpenBankingIdempotencyCacheKey;
@@ -30,6 +31,7 @@ import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseCont
 import com.wso2.openbanking.accelerator.gateway.executor.model.OpenBankingExecutorError;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
 import com.wso2.openbanking.accelerator.gateway.util.IdempotencyConstants;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
@@ -40,13 +42,26 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Executor to handle Payment Idempotency.
+ * <p>
+ * The idempotency key is reserved in the distributed cache when the request arrives, so that a concurrent request
+ * with the same key either waits for the response of the first request or is rejected, instead of reaching the
+ * backend again. Requests are compared using a digest of the canonical JSON payload. A reservation is released when
+ * the request does not produce a cacheable response, including when a later executor fails the exchange.
  */
 public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBankingGatewayExecutor {
 
     private static final Log log = LogFactory.getLog(OpenBankingIdempotencyHandlingExecutor.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper canonicalObjectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
     private OpenBankingIdempotencyValidationCache openBankingIdempotencyValidationCache =
             OpenBankingIdempotencyValidationCache.getInstance();
     private OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance();
@@ -114,17 +129,42 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
                 return;
             }
 
-            Map<String, String> cachedObjectMap = getPropertiesFromCache(idempotencyCacheKey);
+            String requestDigest = getRequestDigest(payload);
+            OpenBankingIdempotencyCacheKey cacheKey = OpenBankingIdempotencyCacheKey.of(idempotencyCacheKey);
+
+            HashMap<String, String> cachedObjectMap = reserve(cacheKey, requestDigest);
+            if (cachedObjectMap != null && isInFlight(cachedObjectMap) &&
+                    isRequestSimilar(cachedObjectMap, requestDigest, payload)) {
+                cachedObjectMap = awaitResponse(cacheKey, requestDigest);
+            }
+
             //Check whether the request exists in the cache
-            if (!cachedObjectMap.isEmpty()) {
+            if (cachedObjectMap == null) {
+                log.debug("Request is not found in cache, reserved the idempotency key for the request.");
+                contextProps.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY, requestDigest);
+                contextProps.put(GatewayConstants.IDEMPOTENCY_RESERVED, GatewayConstants.TRUE);
+                contextProps.put(GatewayConstants.IDEMPOTENCY_RESERVATION_CACHE_KEY, idempotencyCacheKey);
+            } else {
                 log.debug("Handling idempotency through gateway");
 
-                // previous result is present in cache, retrieving request from cache
-                String cachedRequest = cachedObjectMap.get(GatewayConstants.REQUEST_CACHE_KEY);
-                String createdTime = cachedObjectMap.get(GatewayConstants.CREATED_TIME_CACHE_KEY);
                 //Check whether payload received is similar to the payload stored
-                if (isJSONPayloadSimilar(cachedRequest, payload)) {
+                if (!isRequestSimilar(cachedObjectMap, requestDigest, payload)) {
+                    //Payloads are not similar, hence returning an error
+                    log.error(IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_FRAUDULENT);
+                    obapiRequestContext.setError(true);
+                    obapiRequestContext.setErrors(handleIdempotencyErrors(obapiRequestContext,
+                            IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_FRAUDULENT,
+                            IdempotencyConstants.Error.HEADER_INVALID));
+                } else if (isInFlight(cachedObjectMap)) {
+                    //The first request has not completed yet, hence returning a conflict
+                    log.error(IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_IN_FLIGHT);
+                    obapiRequestContext.setError(true);
+                    obapiRequestContext.setErrors(handleIdempotencyErrors(obapiRequestContext,
+                            IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_IN_FLIGHT,
+                            IdempotencyConstants.Error.REQUEST_CONFLICT, OpenBankingErrorCodes.CONFLICT_CODE));
+                } else {
                     log.debug("Payloads are similar for idempotent request");
+                    String createdTime = cachedObjectMap.get(GatewayConstants.CREATED_TIME_CACHE_KEY);
                     //Payloads are similar, hence checking whether request came within allowed time
                     if (isRequestReceivedWithinAllowedTime(createdTime)) {
                         log.debug("Idempotent request received within allowed time");
@@ -138,19 +178,10 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
                         //Setting Context Properties to return response without executing further
                         contextProps.put(GatewayConstants.IS_RETURN_RESPONSE, GatewayConstants.TRUE);
                         contextProps.put(GatewayConstants.MODIFIED_STATUS, String.valueOf(httpStatus));
+                    } else {
+                        contextProps.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY, requestDigest);
                     }
-                } else {
-                    //Payloads are not similar, hence returning an error
-                    log.error(IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_FRAUDULENT);
-                    obapiRequestContext.setError(true);
-                    obapiRequestContext.setErrors(handleIdempotencyErrors(obapiRequestContext,
-                            IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_FRAUDULENT,
-                            IdempotencyConstants.Error.HEADER_INVALID));
                 }
-            } else {
-                log.debug("Request is not found in cache, adding the request to cache.");
-                //Since request is not in cache, adding the request to the cache against the idempotency key
-                contextProps.put(GatewayConstants.REQUEST_CACHE_KEY, payload);
             }
         } catch (IOException e) {
             log.error(IdempotencyConstants.Error.EXECUTOR_IDEMPOTENCY_KEY_ERROR, e);
@@ -188,18 +219,55 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
             return;
         }
 
+        //Retrieve context properties
+        Map<String, String> contextProps = obapiResponseContext.getContextProps();
+
         // Validating if the response is a valid idempotency available response.
         if (!isValidIdempotencyResponse(obapiResponseContext)) {
+            releaseReservation(obapiResponseContext, contextProps);
             return;
         }
 
         //Retrieving payload
         String responsePayload = obapiResponseContext.getResponsePayload();
-        //Retrieve idempotency key from headers
-        String consumerKey = obapiResponseContext.getApiRequestInfo().getConsumerKey();
-        //Retrieve context properties
-        Map<String, String> contextProps = obapiResponseContext.getContextProps();
 
+        String createdTime = getCreatedTimeFromResponse(obapiResponseContext);
+        if (createdTime == null) {
+            log.error(IdempotencyConstants.Error.DATE_MISSING);
+            releaseReservation(obapiResponseContext, contextProps);
+            return;
+        }
+
+        //Construct cache keys for request and response using client Id and idempotency key
+        String idempotencyCacheKey = getIdempotencyCacheKey(obapiResponseContext, contextProps);
+
+        //Add response and created time to a copy of the cache entry
+        HashMap<String, String> cachedObject = getPropertiesFromCache(idempotencyCacheKey);
+        cachedObject.remove(GatewayConstants.IDEMPOTENCY_STATUS_CACHE_KEY);
+        cachedObject.remove(GatewayConstants.RESERVED_TIME_CACHE_KEY);
+        if (contextProps.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY) != null) {
+            cachedObject.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY,
+                    contextProps.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY));
+        }
+        cachedObject.put(GatewayConstants.RESPONSE_CACHE_KEY, responsePayload);
+        cachedObject.put(GatewayConstants.CREATED_TIME_CACHE_KEY, createdTime);
+
+        log.debug("Setting properties to cache");
+        setPropertiesToCache(idempotencyCacheKey, cachedObject);
+    }
+
+    /**
+     * Method to construct the cache key of the idempotency key of a response.
+     *
+     * @param obapiResponseContext OB response context object.
+     * @param contextProps         context properties.
+     * @return cache key.
+     */
+    private String getIdempotencyCacheKey(OBAPIResponseContext obapiResponseContext,
+                                          Map<String, String> contextProps) {
+
+        //Retrieve consumer key
+        String consumerKey = obapiResponseContext.getApiRequestInfo().getConsumerKey();
         MsgInfoDTO msgInfoDTO = obapiResponseContext.getMsgInfo();
 
         String idempotencyKey;
@@ -211,28 +279,182 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
             idempotencyKey = contextProps.get(GatewayConstants.IDEMPOTENCY_KEY_CACHE_KEY);
         }
 
-        String createdTime = getCreatedTimeFromResponse(obapiResponseContext);
-        if (createdTime == null) {
-            log.error(IdempotencyConstants.Error.DATE_MISSING);
+        // Retrieve elected resources
+        String resource = msgInfoDTO.getResource();
+        return consumerKey + "_" + resource + "_" + idempotencyKey;
+    }
+
+    /**
+     * Method to reserve the idempotency key for a request. An in-flight reservation which exceeded the configured
+     * timeout is considered abandoned and is taken over.
+     *
+     * @param cacheKey      cache key.
+     * @param requestDigest digest of the request payload.
+     * @return null if the key was reserved for the request, else the existing cache entry.
+     */
+    private HashMap<String, String> reserve(OpenBankingIdempotencyCacheKey cacheKey, String requestDigest) {
+
+        HashMap<String, String> reservation = new HashMap<>();
+        reservation.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY, requestDigest);
+        reservation.put(GatewayConstants.IDEMPOTENCY_STATUS_CACHE_KEY, GatewayConstants.IDEMPOTENCY_IN_FLIGHT);
+        reservation.put(GatewayConstants.RESERVED_TIME_CACHE_KEY, String.valueOf(System.currentTimeMillis()));
+
+        HashMap<String, String> existing = openBankingIdempotencyValidationCache.putIfAbsent(cacheKey, reservation);
+        if (existing == null || !isAbandoned(existing)) {
+            return existing;
+        }
+
+        log.debug("Taking over an abandoned idempotency key reservation");
+        HashMap<String, String> current = openBankingIdempotencyValidationCache.compute(cacheKey,
+                (key, value) -> value == null || value.equals(existing) ? reservation : value);
+        return current == reservation ? null : current;
+    }
+
+    /**
+     * Method to wait for the response of an in-flight request with the same idempotency key, up to the configured
+     * wait time. The wait ends as soon as the reservation is completed or released on any node, as signalled by a
+     * change listener on the cache entry.
+     *
+     * @param cacheKey      cache key.
+     * @param requestDigest digest of the request payload.
+     * @return the latest cache entry, or null if the key was reserved for the request after the in-flight request
+     * released it.
+     */
+    private HashMap<String, String> awaitResponse(OpenBankingIdempotencyCacheKey cacheKey, String requestDigest) {
+
+        long waitUntil = System.currentTimeMillis() + getInFlightWaitTimeFromConfig();
+        HashMap<String, String> cachedObject = openBankingIdempotencyValidationCache.getFromCache(cacheKey);
+        long remainingMillis = waitUntil - System.currentTimeMillis();
+        while (cachedObject != null && isInFlight(cachedObject) && remainingMillis > 0) {
+            CompletableFuture<Void> entryChanged = new CompletableFuture<>();
+            UUID listenerId = openBankingIdempotencyValidationCache.addChangeListener(cacheKey,
+                    () -> entryChanged.complete(null));
+            try {
+                // Read the entry again once the listener is registered, so that a change made in between is not missed
+                cachedObject = openBankingIdempotencyValidationCache.getFromCache(cacheKey);
+                if (cachedObject != null && isInFlight(cachedObject)) {
+                    entryChanged.get(remainingMillis, TimeUnit.MILLISECONDS);
+                    cachedObject = openBankingIdempotencyValidationCache.getFromCache(cacheKey);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                break;
+            } finally {
+                openBankingIdempotencyValidationCache.removeChangeListener(listenerId);
+            }
+            remainingMillis = waitUntil - System.currentTimeMillis();
+        }
+        return cachedObject == null ? reserve(cacheKey, requestDigest) : cachedObject;
+    }
+
+    /**
+     * Method to remove the reservation of a request which did not produce a cacheable response, so that the
+     * request can be retried.
+     *
+     * @param obapiResponseContext OB response context object.
+     * @param contextProps         context properties.
+     */
+    private void releaseReservation(OBAPIResponseContext obapiResponseContext, Map<String, String> contextProps) {
+
+        if (contextProps == null || !GatewayConstants.TRUE.equals(
+                contextProps.get(GatewayConstants.IDEMPOTENCY_RESERVED))) {
             return;
         }
+        releaseReservation(openBankingIdempotencyValidationCache,
+                getIdempotencyCacheKey(obapiResponseContext, contextProps),
+                contextProps.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY));
+    }
 
-        // Retrieve elected resources
-        String resource = msgInfoDTO.getResource();
+    /**
+     * Method to remove the reservation made for an exchange which failed before its response was processed, so
+     * that the request can be retried. Invoked when an executor fails the request or the response.
+     *
+     * @param contextProps context properties of the exchange.
+     */
+    public static void releaseReservation(Map<String, String> contextProps) {
 
-        //Construct cache keys for request and response using client Id and idempotency key
-        String idempotencyCacheKey = consumerKey + "_" + resource + "_" + idempotencyKey;
+        if (contextProps == null || !GatewayConstants.TRUE.equals(
+                contextProps.get(GatewayConstants.IDEMPOTENCY_RESERVED))) {
+            return;
+        }
+        String idempotencyCacheKey = contextProps.get(GatewayConstants.IDEMPOTENCY_RESERVATION_CACHE_KEY);
+        if (idempotencyCacheKey == null) {
+            return;
+        }
+        log.debug("Releasing the idempotency key reservation of a failed request");
+        releaseReservation(OpenBankingIdempotencyValidationCache.getInstance(), idempotencyCacheKey,
+                contextProps.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY));
+        contextProps.remove(GatewayConstants.IDEMPOTENCY_RESERVED);
+    }
 
-        //Add response and created time to the cache
-        HashMap<String, String> cachedObject = getPropertiesFromCache(idempotencyCacheKey);
-        if (contextProps.get(GatewayConstants.REQUEST_CACHE_KEY) != null) {
-            cachedObject.put(GatewayConstants.REQUEST_CACHE_KEY, contextProps.get(GatewayConstants.REQUEST_CACHE_KEY));
+    private static void releaseReservation(OpenBankingIdempotencyValidationCache cache, String idempotencyCacheKey,
+                                           String requestDigest) {
+
+        cache.compute(OpenBankingIdempotencyCacheKey.of(idempotencyCacheKey),
+                (key, value) -> value != null && isInFlight(value) &&
+                        requestDigest != null && requestDigest.equals(
+                        value.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY)) ? null : value);
+    }
+
+    private static boolean isInFlight(Map<String, String> cachedObject) {
+
+        return GatewayConstants.IDEMPOTENCY_IN_FLIGHT.equals(
+                cachedObject.get(GatewayConstants.IDEMPOTENCY_STATUS_CACHE_KEY));
+    }
+
+    private boolean isAbandoned(Map<String, String> cachedObject) {
+
+        if (!isInFlight(cachedObject)) {
+            return false;
         }
-        cachedObject.put(GatewayConstants.RESPONSE_CACHE_KEY, responsePayload);
-        cachedObject.put(GatewayConstants.CREATED_TIME_CACHE_KEY, createdTime);
+        String reservedTime = cachedObject.get(GatewayConstants.RESERVED_TIME_CACHE_KEY);
+        return reservedTime == null || System.currentTimeMillis() - Long.parseLong(reservedTime) >
+                TimeUnit.SECONDS.toMillis(getInFlightTimeoutFromConfig());
+    }
 
-        log.debug("Setting properties to cache");
-        setPropertiesToCache(idempotencyCacheKey, cachedObject);
+    /**
+     * Method to check whether a request matches the request of a cache entry. Entries cached with the full request
+     * payload are compared as JSON.
+     *
+     * @param cachedObject  cache entry.
+     * @param requestDigest digest of the request payload.
+     * @param payload       request payload.
+     * @return True if the requests are similar.
+     * @throws IOException if the payloads could not be compared.
+     */
+    private boolean isRequestSimilar(Map<String, String> cachedObject, String requestDigest, String payload)
+            throws IOException {
+
+        if (cachedObject.containsKey(GatewayConstants.REQUEST_DIGEST_CACHE_KEY)) {
+            return requestDigest.equals(cachedObject.get(GatewayConstants.REQUEST_DIGEST_CACHE_KEY));
+        }
+        if (cachedObject.containsKey(GatewayConstants.REQUEST_CACHE_KEY)) {
+            return isJSONPayloadSimilar(cachedObject.get(GatewayConstants.REQUEST_CACHE_KEY), payload);
+        }
+        return true;
+    }
+
+    /**
+     * Method to compute the digest of a request payload. JSON payloads are digested in a canonical form, with the
+     * object fields sorted, so that payloads which differ only in field order or whitespace have the same digest.
+     *
+     * @param payload request payload.
+     * @return SHA-256 digest of the payload in hex.
+     */
+    protected String getRequestDigest(String payload) {
+
+        if (payload == null) {
+            return DigestUtils.sha256Hex("");
+        }
+        try {
+            Object canonicalPayload = canonicalObjectMapper.treeToValue(objectMapper.readTree(payload), Object.class);
+            return DigestUtils.sha256Hex(canonicalObjectMapper.writeValueAsString(canonicalPayload));
+        } catch (IOException e) {
+            log.debug("Request payload is not JSON, digesting the payload as it is");
+            return DigestUtils.sha256Hex(payload);
+        }
     }
 
     /**
@@ -245,9 +467,25 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
     protected ArrayList<OpenBankingExecutorError> handleIdempotencyErrors(OBAPIRequestContext obapiRequestContext,
                                                                         String message, String errorCode) {
 
-        OpenBankingExecutorError error = new OpenBankingExecutorError(errorCode,
-                IdempotencyConstants.Error.IDEMPOTENCY_HANDLE_ERROR, message,
+        return handleIdempotencyErrors(obapiRequestContext, message, errorCode,
                 OpenBankingErrorCodes.BAD_REQUEST_CODE);
+    }
+
+    /**
+     * Method to handle errors in Idempotency validation with the given HTTP status.
+     *
+     * @param obapiRequestContext obapiRequestContext.
+     * @param message             message.
+     * @param errorCode           error code.
+     * @param httpStatusCode      HTTP status code.
+     * @return Arraylist of OpenBankingExecutorError.
+     */
+    protected ArrayList<OpenBankingExecutorError> handleIdempotencyErrors(OBAPIRequestContext obapiRequestContext,
+                                                                        String message, String errorCode,
+                                                                        String httpStatusCode) {
+
+        OpenBankingExecutorError error = new OpenBankingExecutorError(errorCode,
+                IdempotencyConstants.Error.IDEMPOTENCY_HANDLE_ERROR, message, httpStatusCode);
         ArrayList<OpenBankingExecutorError> executorErrors = obapiRequestContext.getErrors();
         executorErrors.add(error);
         return executorErrors;
@@ -266,16 +504,17 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
     }
 
     /**
-     * Method to retrieve context properties from cache.
+     * Method to retrieve context properties from cache. A copy of the cache entry is returned, so that it can be
+     * modified and written back without changing the entry seen by other readers.
      *
      * @param key unique cache key.
-     * @return context properties.
+     * @return context properties, empty if the entry has expired or was evicted.
      */
     private HashMap<String, String> getPropertiesFromCache(String key) {
 
         HashMap<String, String> cachedObject = openBankingIdempotencyValidationCache.getFromCache(
                 OpenBankingIdempotencyCacheKey.of(key));
-        return cachedObject == null ? new HashMap<>() : cachedObject;
+        return cachedObject == null ? new HashMap<>() : new HashMap<>(cachedObject);
     }
 
     /**
@@ -288,8 +527,8 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
      */
     private boolean isJSONPayloadSimilar(String jsonString1, String jsonString2) throws IOException {
 
-        JsonNode expectedNode = new ObjectMapper().readTree(jsonString1);
-        JsonNode actualNode = new ObjectMapper().readTree(jsonString2);
+        JsonNode expectedNode = objectMapper.readTree(jsonString1);
+        JsonNode actualNode = objectMapper.readTree(jsonString2);
         return expectedNode.equals(actualNode);
     }
 
@@ -331,6 +570,30 @@ public abstract class OpenBankingIdempotencyHandlingExecutor implements OpenBank
         return Boolean.parseBoolean(isIdempotencyEnabled);
     }
 
+    /**
+     * Method to get the time to wait for the response of an in-flight request with the same idempotency key.
+     *
+     * @return wait time in milliseconds, 0 by default.
+     */
+    private long getInFlightWaitTimeFromConfig() {
+
+        String waitTime = (String) openBankingConfigParser.getConfiguration()
+                .get(IdempotencyConstants.IDEMPOTENCY_IN_FLIGHT_WAIT_TIME);
+        return waitTime == null ? 0 : Long.parseLong(waitTime.trim());
+    }
+
+    /**
+     * Method to get the time after which an in-flight reservation is considered abandoned.
+     *
+     * @return timeout in seconds, 60 by default.
+     */
+    private long getInFlightTimeoutFromConfig() {
+
+        String timeout = (String) openBankingConfigParser.getConfiguration()
+                .get(IdempotencyConstants.IDEMPOTENCY_IN_FLIGHT_TIMEOUT);
+        return timeout == null ? 60 : Long.parseLong(timeout.trim());
+    }
+
     /**
      * Method to get the Idempotency Key from the config.
      *
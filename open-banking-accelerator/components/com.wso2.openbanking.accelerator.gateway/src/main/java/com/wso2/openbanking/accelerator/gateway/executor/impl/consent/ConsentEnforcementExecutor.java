@@ -21,6 +21,7 @@ package com.wso2.openbanking.accelerator.gateway.executor.impl.consent;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.cache.ConsentValidationCache;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
@@ -31,6 +32,7 @@ import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -52,7 +54,10 @@ import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Consent Enforcement executor.
@@ -179,6 +184,53 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
         return IOUtils.toString(in, String.valueOf(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Method to check whether validation decisions can be served from the consent validation cache.
+     *
+     * @return true if the cache is enabled and able to receive consent state changes
+     */
+    protected boolean isConsentValidationCacheEnabled() {
+
+        return dataHolder.isConsentValidationCacheEnabled() && ConsentValidationCache.getInstance().isActive();
+    }
+
+    /**
+     * Method to generate the consent validation cache key. The key covers every input of the validation request
+     * other than the consent ID, which is used to group the decisions in the cache. Only the configured headers are
+     * considered, so that per request headers (ex: interaction IDs) do not defeat the cache.
+     *
+     * @param requestHeaders   Request headers of original request
+     * @param requestPayload   Request payload sent for validation
+     * @param additionalParams Additional parameters sent for validation
+     * @return SHA-256 hash of the validation inputs
+     */
+    protected String generateDecisionCacheKey(Map<String, String> requestHeaders, String requestPayload,
+                                              Map<String, Object> additionalParams) {
+
+        List<String> keyHeaders = dataHolder.getConsentValidationCacheKeyHeaders();
+        Map<String, String> headers = new TreeMap<>();
+        requestHeaders.forEach((name, value) -> {
+            String headerName = name.toLowerCase(Locale.ENGLISH);
+            if (keyHeaders.contains(headerName)) {
+                headers.put(headerName, value);
+            }
+        });
+
+        // Entries are sorted and quoted, so that the same inputs always produce the same key.
+        StringBuilder keyData = new StringBuilder();
+        new TreeMap<>(additionalParams).forEach((name, value) -> appendKeyData(keyData, name,
+                value instanceof Map ? new TreeMap<>((Map<?, ?>) value) : value));
+        headers.forEach((name, value) -> appendKeyData(keyData, HEADERS_TAG + "." + name, value));
+        appendKeyData(keyData, BODY_TAG, requestPayload);
+        return DigestUtils.sha256Hex(keyData.toString());
+    }
+
+    private static void appendKeyData(StringBuilder keyData, String name, Object value) {
+
+        keyData.append(JSONObject.quote(name)).append(':').append(JSONObject.quote(String.valueOf(value)))
+                .append(',');
+    }
+
     /**
      * Method to handle errors.
      *
@@ -252,19 +304,33 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
         additionalParams.put(CLIENT_ID_TAG, obapiRequestContext.getApiRequestInfo().getConsumerKey());
         additionalParams.put(RESOURCE_PARAMS, getResourceParamMap(obapiRequestContext));
 
-        JSONObject validationRequest;
-        if (StringUtils.isNotBlank(obapiRequestContext.getModifiedPayload())) {
-            validationRequest = createValidationRequestPayload(requestHeaders,
-                    obapiRequestContext.getModifiedPayload(), additionalParams);
-        } else {
-            validationRequest = createValidationRequestPayload(requestHeaders,
-                    obapiRequestContext.getRequestPayload(), additionalParams);
+        String requestPayload = StringUtils.isNotBlank(obapiRequestContext.getModifiedPayload()) ?
+                obapiRequestContext.getModifiedPayload() : obapiRequestContext.getRequestPayload();
+        JSONObject validationRequest = createValidationRequestPayload(requestHeaders, requestPayload,
+                additionalParams);
+
+        boolean isDecisionCacheEnabled = isConsentValidationCacheEnabled();
+        String consentId = obapiRequestContext.getConsentId();
+        String decisionKey = null;
+        String response = null;
+        if (isDecisionCacheEnabled) {
+            decisionKey = generateDecisionCacheKey(requestHeaders, requestPayload, additionalParams);
+            response = ConsentValidationCache.getInstance().getDecision(consentId, decisionKey);
         }
-        String enforcementJWTPayload = generateJWT(validationRequest.toString());
+
         JSONObject jsonResponse;
         try {
-            String response = invokeConsentValidationService(enforcementJWTPayload);
-            jsonResponse = new JSONObject(response);
+            if (response == null) {
+                long issuedAt = System.currentTimeMillis();
+                String enforcementJWTPayload = generateJWT(validationRequest.toString());
+                response = invokeConsentValidationService(enforcementJWTPayload);
+                jsonResponse = new JSONObject(response);
+                if (isDecisionCacheEnabled) {
+                    ConsentValidationCache.getInstance().putDecision(consentId, decisionKey, response, issuedAt);
+                }
+            } else {
+                jsonResponse = new JSONObject(response);
+            }
         } catch (IOException | OpenBankingException e) {
             handleError(obapiRequestContext, OpenBankingErrorCodes.CONSENT_VALIDATION_REQUEST_FAILURE, e.getMessage(),
                     OpenBankingErrorCodes.SERVER_ERROR_CODE);
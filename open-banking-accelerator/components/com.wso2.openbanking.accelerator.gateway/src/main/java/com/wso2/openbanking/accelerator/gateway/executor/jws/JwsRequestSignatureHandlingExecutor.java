@@ -37,7 +37,7 @@ import com.nimbusds.jose.util.Base64URL;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
-import com.wso2.openbanking.accelerator.common.identity.retriever.JWKRetriever;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSRegistry;
 import com.wso2.openbanking.accelerator.common.identity.retriever.sp.CommonServiceProviderRetriever;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
@@ -51,8 +51,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.text.ParseException;
@@ -317,8 +315,8 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
         try {
             jwksURI = getJwksUrl(clientID);
 
-            // Get JWKSet from cache or retrieve from onDemand retriever
-            JWKSet jwkSet = getJwkSet(jwksURI, appName);
+            // Get JWKSet from the JWKS registry, which retrieves the set again if the kid has been rotated in
+            JWKSet jwkSet = getJwkSet(jwksURI, jwsObject.getHeader().getKeyID());
 
             // Get public key from JWK used for signing.
             try {
@@ -527,21 +525,14 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
      * Method to retrieve the JWKSet from JWKS URI.
      *
      * @param jwksURI
-     * @param appName
+     * @param kid
      * @return
      * @throws OpenBankingException
      */
     @Generated(message = "Excluded from code coverage since method includes accessing jwks_uri")
-    private JWKSet getJwkSet(String jwksURI, String appName) throws OpenBankingException {
-        JWKSet jwkSet;
-        try {
-            jwkSet = new JWKRetriever().getJWKSet(new URL(jwksURI), appName);
-        } catch (MalformedURLException e) {
-            log.error("Provided JWKS URL is malformed", e);
-            throw new OpenBankingException("The provided JWKS_URI is malformed", e);
-        }
+    private JWKSet getJwkSet(String jwksURI, String kid) throws OpenBankingException {
 
-        return jwkSet;
+        return JWKSRegistry.getInstance().getJWKSet(jwksURI, kid);
     }
 
     /**
@@ -19,11 +19,11 @@
 package com.wso2.openbanking.accelerator.gateway.executor.model;
 
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinition;
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinitionRegistry;
 import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
-import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,6 +57,7 @@ public class OBAPIRequestContext extends RequestContextDTO {
     private String consentId;
     private Map<String, Object> analyticsData;
     private OpenAPI openAPI;
+    private APIDefinition apiDefinition;
 
     public OBAPIRequestContext(RequestContextDTO requestContextDTO,
                                Map<String, String> contextProps, Map<String, Object> analyticsData) {
@@ -76,16 +77,8 @@ public class OBAPIRequestContext extends RequestContextDTO {
         }
 
         String apiId = requestContextDTO.getApiRequestInfo().getApiId();
-        Object cacheObject = GatewayDataHolder.getGatewayCache()
-                .getFromCache(GatewayCacheKey.of(apiId));
-        if (cacheObject == null) {
-            String swaggerDefinition = GatewayUtils.getSwaggerDefinition(apiId);
-            OpenAPIParser parser = new OpenAPIParser();
-            this.openAPI = parser.readContents(swaggerDefinition, null, null).getOpenAPI();
-            GatewayDataHolder.getGatewayCache().addToCache(GatewayCacheKey.of(apiId), this.openAPI);
-        } else {
-            this.openAPI = (OpenAPI) cacheObject;
-        }
+        this.apiDefinition = APIDefinitionRegistry.getInstance().getDefinition(apiId);
+        this.openAPI = apiDefinition.getOpenAPI();
         if (requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.CONTENT_TYPE_TAG) != null) {
             String contentType = requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.CONTENT_TYPE_TAG);
             String httpMethod = requestContextDTO.getMsgInfo().getHttpMethod();
@@ -183,6 +176,16 @@ public class OBAPIRequestContext extends RequestContextDTO {
         this.openAPI = openAPI;
     }
 
+    public APIDefinition getApiDefinition() {
+
+        return apiDefinition;
+    }
+
+    public void setApiDefinition(APIDefinition apiDefinition) {
+
+        this.apiDefinition = apiDefinition;
+    }
+
     public Map<String, Object> getAnalyticsData() {
 
         return analyticsData;
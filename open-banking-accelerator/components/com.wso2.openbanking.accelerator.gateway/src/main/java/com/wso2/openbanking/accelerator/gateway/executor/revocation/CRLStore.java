@@ -0,0 +1,427 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.PublicKey;
+import java.security.cert.CRLException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Store for the CRLs downloaded by the CRL validator, keyed by the CRL distribution point URL and the issuer.
+ * <p>
+ * A CRL is verified and parsed once, and the serial numbers of the revoked certificates are indexed for the
+ * revocation checks. CRLs which are used are downloaded again in the background before their next update, while
+ * CRLs which have not been used since they were downloaded are dropped. When persistence is enabled, downloaded
+ * CRLs are written to the local disk and reused after a restart until their next update.
+ */
+public class CRLStore {
+
+    private static final Log log = LogFactory.getLog(CRLStore.class);
+    private static final long RETRY_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String PERSISTED_CRL_EXTENSION = ".crl";
+    private static volatile CRLStore crlStore;
+
+    private final Map<String, CachedCRL> crls = new ConcurrentHashMap<>();
+    private final Map<String, Object> downloadLocks = new ConcurrentHashMap<>();
+    private final long refreshBeforeNextUpdateMillis;
+    private final File persistenceDirectory;
+    private final ScheduledExecutorService refreshExecutor;
+
+    CRLStore(long refreshBeforeNextUpdateMillis, File persistenceDirectory) {
+
+        this.refreshBeforeNextUpdateMillis = refreshBeforeNextUpdateMillis;
+        this.persistenceDirectory = persistenceDirectory;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ob-crl-store-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return CRLStore object
+     */
+    public static CRLStore getInstance() {
+
+        if (crlStore == null) {
+            synchronized (CRLStore.class) {
+                if (crlStore == null) {
+                    TPPCertValidatorDataHolder dataHolder = TPPCertValidatorDataHolder.getInstance();
+                    File persistenceDirectory = dataHolder.isCRLStorePersistenceEnabled() ?
+                            getDefaultPersistenceDirectory() : null;
+                    crlStore = new CRLStore(TimeUnit.SECONDS.toMillis(
+                            dataHolder.getCRLStoreRefreshBeforeNextUpdate()), persistenceDirectory);
+                }
+            }
+        }
+        return crlStore;
+    }
+
+    /**
+     * Get the CRL of a distribution point. A CRL which is not available in the store, or has passed its next update,
+     * is loaded from the local disk or downloaded. Concurrent requests for the same CRL wait for a single download.
+     *
+     * @param crlUrl     CRL distribution point URL
+     * @param issuerCert issuer certificate of the CRL
+     * @param source     source to download and validate the CRL
+     * @return CRL, or null if the downloaded CRL cannot be used
+     * @throws CertificateValidationException when the CRL cannot be downloaded or is invalid
+     */
+    public CachedCRL getCRL(String crlUrl, X509Certificate issuerCert, CRLSource source)
+            throws CertificateValidationException {
+
+        String key = getKey(crlUrl, issuerCert);
+        CachedCRL cachedCRL = getValidCRL(key, issuerCert);
+        if (cachedCRL != null) {
+            return cachedCRL;
+        }
+
+        synchronized (downloadLocks.computeIfAbsent(key, lockKey -> new Object())) {
+            cachedCRL = getValidCRL(key, issuerCert);
+            if (cachedCRL == null) {
+                cachedCRL = loadPersistedCRL(key, crlUrl, issuerCert, source);
+            }
+            if (cachedCRL == null) {
+                cachedCRL = download(key, crlUrl, issuerCert, source);
+            }
+            return cachedCRL;
+        }
+    }
+
+    private CachedCRL getValidCRL(String key, X509Certificate issuerCert) {
+
+        CachedCRL cachedCRL = crls.get(key);
+        if (cachedCRL != null && cachedCRL.isValidAt(CertificateValidationUtils.getNewDate())
+                && cachedCRL.getIssuerKey().equals(issuerCert.getPublicKey())) {
+            cachedCRL.markAccessed();
+            return cachedCRL;
+        }
+        return null;
+    }
+
+    private CachedCRL download(String key, String crlUrl, X509Certificate issuerCert, CRLSource source)
+            throws CertificateValidationException {
+
+        X509CRL x509CRL = source.download();
+        if (x509CRL == null) {
+            crls.remove(key);
+            return null;
+        }
+        CachedCRL cachedCRL = new CachedCRL(crlUrl, x509CRL, issuerCert.getPublicKey(), source);
+        crls.put(key, cachedCRL);
+        persist(key, x509CRL);
+        scheduleRefresh(key, cachedCRL);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("CRL of %s is stored with %d revoked certificates. Next update: %s",
+                    crlUrl, cachedCRL.getRevokedCount(), cachedCRL.getNextUpdate()));
+        }
+        return cachedCRL;
+    }
+
+    private void scheduleRefresh(String key, CachedCRL cachedCRL) {
+
+        long nextUpdate = cachedCRL.getNextUpdate().getTime();
+        long currentTime = System.currentTimeMillis();
+        if (nextUpdate <= currentTime) {
+            return;
+        }
+        long refreshBefore = Math.min(refreshBeforeNextUpdateMillis,
+                (nextUpdate - cachedCRL.getThisUpdate().getTime()) / 2);
+        long delay = Math.max(nextUpdate - refreshBefore - currentTime, 0);
+        refreshExecutor.schedule(() -> refresh(key, cachedCRL), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(String key, CachedCRL cachedCRL) {
+
+        if (crls.get(key) != cachedCRL) {
+            // CRL has been replaced or removed since the refresh was scheduled
+            return;
+        }
+        if (!cachedCRL.isAccessed()) {
+            if (log.isDebugEnabled()) {
+                log.debug("CRL of " + cachedCRL.getCrlUrl() + " has not been used since it was downloaded. " +
+                        "Removing the CRL from the store");
+            }
+            crls.remove(key, cachedCRL);
+            return;
+        }
+
+        synchronized (downloadLocks.computeIfAbsent(key, lockKey -> new Object())) {
+            if (crls.get(key) != cachedCRL) {
+                return;
+            }
+            try {
+                download(key, cachedCRL.getCrlUrl(), cachedCRL.getSource().getIssuerCertificate(),
+                        cachedCRL.getSource());
+            } catch (CertificateValidationException | RuntimeException e) {
+                log.warn("Error while refreshing the CRL of " + cachedCRL.getCrlUrl(), e);
+                long retryTime = System.currentTimeMillis() + RETRY_INTERVAL_MILLIS;
+                if (retryTime < cachedCRL.getNextUpdate().getTime()) {
+                    refreshExecutor.schedule(() -> refresh(key, cachedCRL), RETRY_INTERVAL_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - Files.newInputStream(crlFile.toPath())
+    // Suppression reason - False Positive : The file name is a hash of the CRL key, within the persistence
+    //                      directory of the server
+    // Suppressed warning count - 1
+    private CachedCRL loadPersistedCRL(String key, String crlUrl, X509Certificate issuerCert, CRLSource source) {
+
+        if (persistenceDirectory == null) {
+            return null;
+        }
+        File crlFile = getPersistedFile(key);
+        if (!crlFile.isFile()) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(crlFile.toPath())) {
+            X509CRL x509CRL = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(inputStream);
+            if (source.isValid(x509CRL)) {
+                CachedCRL cachedCRL = new CachedCRL(crlUrl, x509CRL, issuerCert.getPublicKey(), source);
+                crls.put(key, cachedCRL);
+                scheduleRefresh(key, cachedCRL);
+                if (log.isDebugEnabled()) {
+                    log.debug("CRL of " + crlUrl + " is loaded from the persisted CRL");
+                }
+                return cachedCRL;
+            }
+        } catch (IOException | CertificateException | CRLException | CertificateValidationException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Persisted CRL of " + crlUrl + " cannot be used. Downloading the CRL", e);
+            }
+        }
+        deletePersistedFile(crlFile);
+        return null;
+    }
+
+    private void persist(String key, X509CRL x509CRL) {
+
+        if (persistenceDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(persistenceDirectory.toPath());
+            File tempFile = File.createTempFile("crl", ".tmp", persistenceDirectory);
+            try {
+                Files.write(tempFile.toPath(), x509CRL.getEncoded());
+                Files.move(tempFile.toPath(), getPersistedFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                deletePersistedFile(tempFile);
+            }
+        } catch (IOException | CRLException e) {
+            log.warn("Error while persisting the CRL of " + x509CRL.getIssuerX500Principal().getName(), e);
+        }
+    }
+
+    private File getPersistedFile(String key) {
+
+        return new File(persistenceDirectory, DigestUtils.sha256Hex(key) + PERSISTED_CRL_EXTENSION);
+    }
+
+    private static void deletePersistedFile(File file) {
+
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            log.warn("Unable to delete the file " + file.getName(), e);
+        }
+    }
+
+    private static String getKey(String crlUrl, X509Certificate issuerCert) {
+
+        return issuerCert.getSubjectX500Principal().getName() + "|" + crlUrl;
+    }
+
+    private static File getDefaultPersistenceDirectory() {
+
+        String carbonHome = System.getProperty(OpenBankingConstants.CARBON_HOME);
+        if (carbonHome == null) {
+            log.warn("Carbon home is not available. Downloaded CRLs will not be persisted");
+            return null;
+        }
+        return new File(carbonHome + File.separator + "repository" + File.separator + "data" + File.separator +
+                "ob-crl-store");
+    }
+
+    /**
+     * Source to download a CRL from its distribution point and validate it.
+     */
+    public interface CRLSource {
+
+        /**
+         * Download and validate the CRL.
+         *
+         * @return CRL, or null if the CRL cannot be used
+         * @throws CertificateValidationException when the CRL cannot be downloaded or is invalid
+         */
+        X509CRL download() throws CertificateValidationException;
+
+        /**
+         * Validate a persisted CRL.
+         *
+         * @param x509CRL CRL
+         * @return true if the CRL can be used
+         * @throws CertificateValidationException when the CRL is invalid
+         */
+        boolean isValid(X509CRL x509CRL) throws CertificateValidationException;
+
+        /**
+         * Get the issuer certificate of the CRL.
+         *
+         * @return issuer certificate
+         */
+        X509Certificate getIssuerCertificate();
+    }
+
+    /**
+     * Verified CRL with the serial numbers of the revoked certificates indexed.
+     */
+    public static class CachedCRL {
+
+        private final String crlUrl;
+        private final X500Principal issuer;
+        private final PublicKey issuerKey;
+        private final Date thisUpdate;
+        private final Date nextUpdate;
+        private final Set<BigInteger> revokedSerialNumbers;
+        private final CRLSource source;
+        private volatile boolean accessed;
+
+        CachedCRL(String crlUrl, X509CRL x509CRL, PublicKey issuerKey, CRLSource source) {
+
+            this.crlUrl = crlUrl;
+            this.issuer = x509CRL.getIssuerX500Principal();
+            this.issuerKey = issuerKey;
+            this.thisUpdate = x509CRL.getThisUpdate();
+            this.nextUpdate = x509CRL.getNextUpdate();
+            this.source = source;
+
+            Set<BigInteger> serialNumbers = new HashSet<>();
+            Set<? extends X509CRLEntry> revokedCertificates = x509CRL.getRevokedCertificates();
+            if (revokedCertificates != null) {
+                for (X509CRLEntry entry : revokedCertificates) {
+                    // Entries of indirect CRLs can belong to other issuers
+                    if (entry.getCertificateIssuer() == null || issuer.equals(entry.getCertificateIssuer())) {
+                        serialNumbers.add(entry.getSerialNumber());
+                    }
+                }
+            }
+            this.revokedSerialNumbers = Collections.unmodifiableSet(serialNumbers);
+        }
+
+        /**
+         * Check whether a certificate is revoked.
+         *
+         * @param peerCert certificate
+         * @return true if the certificate is revoked
+         * @throws CertificateValidationException when the certificate is not issued by the issuer of the CRL
+         */
+        public boolean isRevoked(X509Certificate peerCert) throws CertificateValidationException {
+
+            if (!issuer.equals(peerCert.getIssuerX500Principal())) {
+                throw new CertificateValidationException("X509 CRL is not valid. Issuer DN in the peer " +
+                        "certificate: " + peerCert.getIssuerX500Principal() + " does not match with the Issuer DN " +
+                        "in the X509 CRL: " + issuer);
+            }
+            return revokedSerialNumbers.contains(peerCert.getSerialNumber());
+        }
+
+        public String getCrlUrl() {
+
+            return crlUrl;
+        }
+
+        public Date getThisUpdate() {
+
+            return new Date(thisUpdate.getTime());
+        }
+
+        public Date getNextUpdate() {
+
+            return new Date(nextUpdate.getTime());
+        }
+
+        public int getRevokedCount() {
+
+            return revokedSerialNumbers.size();
+        }
+
+        PublicKey getIssuerKey() {
+
+            return issuerKey;
+        }
+
+        CRLSource getSource() {
+
+            return source;
+        }
+
+        boolean isValidAt(Date date) {
+
+            return date.before(nextUpdate);
+        }
+
+        boolean isAccessed() {
+
+            return accessed;
+        }
+
+        void markAccessed() {
+
+            accessed = true;
+        }
+    }
+}
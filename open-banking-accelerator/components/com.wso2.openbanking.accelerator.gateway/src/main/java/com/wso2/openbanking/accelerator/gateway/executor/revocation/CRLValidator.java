@@ -27,8 +27,8 @@ import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHol
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHost;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.bouncycastle.asn1.ASN1InputStream;
@@ -113,7 +113,8 @@ public class CRLValidator implements RevocationValidator {
     }
 
     /**
-     * Get revocation status of a certificate using CRL Url.
+     * Get revocation status of a certificate using CRL Url. CRLs are obtained from the CRL store, which downloads a
+     * CRL only when it is not available or has passed its next update.
      *
      * @param peerCert                          peer certificate
      * @param retryCount                        retry count to connect to CRL Url and get the CRL
@@ -136,10 +137,12 @@ public class CRLValidator implements RevocationValidator {
             if (log.isDebugEnabled()) {
                 log.debug("Trying to get CRL for URL: " + crlUrl);
             }
-            X509CRL x509CRL = downloadCRLFromWeb(crlUrl, retryCount, peerCert, issuerCert,
-                    certificateRevocationProxyEnabled, certificateRevocationProxyHost, certificateRevocationProxyPort);
-            if (x509CRL != null) {
-                return getRevocationStatusFromCRL(x509CRL, peerCert);
+            CRLStore.CachedCRL cachedCRL = CRLStore.getInstance().getCRL(crlUrl, issuerCert,
+                    new DistributionPointCRLSource(crlUrl, retryCount, peerCert, issuerCert,
+                            certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                            certificateRevocationProxyPort));
+            if (cachedCRL != null) {
+                return getRevocationStatusFromCRL(cachedCRL, peerCert);
             }
         }
         throw new CertificateValidationException("Cannot check revocation status with the certificate");
@@ -213,7 +216,8 @@ public class CRLValidator implements RevocationValidator {
         if (log.isDebugEnabled()) {
             log.debug("Certificate revocation check proxy enabled: " + certificateRevocationProxyEnabled);
         }
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
+        try {
+            CloseableHttpClient client = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.REVOCATION_CLIENT);
 
             HttpGet httpGet = new HttpGet(crlURL);
             if (certificateRevocationProxyEnabled) {
@@ -252,22 +256,23 @@ public class CRLValidator implements RevocationValidator {
                         httpSocketTimeout);
             }
 
-            HttpResponse httpResponse = client.execute(httpGet);
-            //Check errors in response:
-            if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
-                throw new CertificateValidationException("Error getting crl response." +
-                        "Response code is " + httpResponse.getStatusLine().getStatusCode());
-            }
-            InputStream in = httpResponse.getEntity().getContent();
+            try (CloseableHttpResponse httpResponse = client.execute(httpGet)) {
+                //Check errors in response:
+                if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
+                    throw new CertificateValidationException("Error getting crl response." +
+                            "Response code is " + httpResponse.getStatusLine().getStatusCode());
+                }
+                InputStream in = httpResponse.getEntity().getContent();
 
-            CertificateFactory cf = CertificateFactory.getInstance("X.509");
-            X509CRL x509CRLDownloaded = (X509CRL) cf.generateCRL(in);
-            if (log.isDebugEnabled()) {
-                log.debug("CRL is downloaded from CRL Url: " + crlURL);
-            }
+                CertificateFactory cf = CertificateFactory.getInstance("X.509");
+                X509CRL x509CRLDownloaded = (X509CRL) cf.generateCRL(in);
+                if (log.isDebugEnabled()) {
+                    log.debug("CRL is downloaded from CRL Url: " + crlURL);
+                }
 
-            if (isValidX509Crl(x509CRLDownloaded, peerCert, issuerCert)) {
-                x509CRL = x509CRLDownloaded;
+                if (isValidX509Crl(x509CRLDownloaded, peerCert, issuerCert)) {
+                    x509CRL = x509CRLDownloaded;
+                }
             }
         } catch (MalformedURLException e) {
             throw new CertificateValidationException("CRL Url is malformed", e);
@@ -292,9 +297,11 @@ public class CRLValidator implements RevocationValidator {
         return x509CRL;
     }
 
-    private static RevocationStatus getRevocationStatusFromCRL(X509CRL x509CRL, X509Certificate peerCert) {
+    private static RevocationStatus getRevocationStatusFromCRL(CRLStore.CachedCRL cachedCRL,
+                                                               X509Certificate peerCert)
+            throws CertificateValidationException {
 
-        if (x509CRL.isRevoked(peerCert)) {
+        if (cachedCRL.isRevoked(peerCert)) {
             return RevocationStatus.REVOKED;
         } else {
             return RevocationStatus.GOOD;
@@ -380,4 +387,50 @@ public class CRLValidator implements RevocationValidator {
 
         return retryCount;
     }
+
+    /**
+     * CRL source which downloads the CRL from a distribution point and validates it against the issuer.
+     */
+    private static class DistributionPointCRLSource implements CRLStore.CRLSource {
+
+        private final String crlUrl;
+        private final int retryCount;
+        private final X509Certificate peerCert;
+        private final X509Certificate issuerCert;
+        private final boolean certificateRevocationProxyEnabled;
+        private final String certificateRevocationProxyHost;
+        private final int certificateRevocationProxyPort;
+
+        DistributionPointCRLSource(String crlUrl, int retryCount, X509Certificate peerCert,
+                                   X509Certificate issuerCert, boolean certificateRevocationProxyEnabled,
+                                   String certificateRevocationProxyHost, int certificateRevocationProxyPort) {
+
+            this.crlUrl = crlUrl;
+            this.retryCount = retryCount;
+            this.peerCert = peerCert;
+            this.issuerCert = issuerCert;
+            this.certificateRevocationProxyEnabled = certificateRevocationProxyEnabled;
+            this.certificateRevocationProxyHost = certificateRevocationProxyHost;
+            this.certificateRevocationProxyPort = certificateRevocationProxyPort;
+        }
+
+        @Override
+        public X509CRL download() throws CertificateValidationException {
+
+            return downloadCRLFromWeb(crlUrl, retryCount, peerCert, issuerCert, certificateRevocationProxyEnabled,
+                    certificateRevocationProxyHost, certificateRevocationProxyPort);
+        }
+
+        @Override
+        public boolean isValid(X509CRL x509CRL) throws CertificateValidationException {
+
+            return isValidX509Crl(x509CRL, peerCert, issuerCert);
+        }
+
+        @Override
+        public X509Certificate getIssuerCertificate() {
+
+            return issuerCert;
+        }
+    }
 }
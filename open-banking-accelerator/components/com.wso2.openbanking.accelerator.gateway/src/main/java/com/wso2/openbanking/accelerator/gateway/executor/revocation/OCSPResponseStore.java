@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import com.wso2.openbanking.accelerator.gateway.reporter.OBExecutorLatencyRecorder;
+import com.wso2.openbanking.accelerator.gateway.reporter.OBLatencyHistogram;
+import com.wso2.openbanking.accelerator.gateway.reporter.OBLatencyMetricSource;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.SingleResp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Store for the OCSP responses received by the OCSP validator, keyed by the certificate ID, which identifies a
+ * certificate by the hashes of the issuer name and key and the serial number.
+ * <p>
+ * Responses are reused until their next update, or until the configured max cache time passes, whichever is earlier.
+ * Responses without a next update are not stored. Only the responses verified by the OCSP validator are given to
+ * the store. Concurrent lookups
+ * of the same certificate wait for a single responder call, and the certificates missing in the store are looked up
+ * with a single request. Latency and error counts are recorded per responder, and are reported by the executor
+ * latency recorder.
+ */
+public class OCSPResponseStore implements OBLatencyMetricSource {
+
+    private static final Log log = LogFactory.getLog(OCSPResponseStore.class);
+    private static final int MAX_RESPONSES = 10000;
+    private static final String OCSP_RESPONDER_METRIC_TYPE = "OCSPResponder";
+    private static final String MILLISECONDS = "ms";
+    private static volatile OCSPResponseStore ocspResponseStore;
+
+    private final Map<CertificateID, CachedResponse> responses = new ConcurrentHashMap<>();
+    private final Map<CertificateID, CompletableFuture<CachedResponse>> pendingLookups = new ConcurrentHashMap<>();
+    private final Map<String, ResponderMetrics> responderMetrics = new ConcurrentHashMap<>();
+    private final long maxCacheTimeMillis;
+
+    OCSPResponseStore(long maxCacheTimeMillis) {
+
+        this.maxCacheTimeMillis = maxCacheTimeMillis;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object. Registers the responder metrics with the executor
+     * latency recorder on creation.
+     *
+     * @return OCSPResponseStore object
+     */
+    public static OCSPResponseStore getInstance() {
+
+        if (ocspResponseStore == null) {
+            synchronized (OCSPResponseStore.class) {
+                if (ocspResponseStore == null) {
+                    OCSPResponseStore store = new OCSPResponseStore(TimeUnit.SECONDS.toMillis(
+                            TPPCertValidatorDataHolder.getInstance().getOCSPResponseStoreMaxCacheTime()));
+                    OBExecutorLatencyRecorder.getInstance().registerMetricSource(store);
+                    ocspResponseStore = store;
+                }
+            }
+        }
+        return ocspResponseStore;
+    }
+
+    /**
+     * Get the responses of the given certificates. Certificates without a valid stored response, and which are not
+     * being looked up by another thread, are looked up together with the given lookup.
+     *
+     * @param certificateIDs IDs of the certificates
+     * @param lookup         lookup to get the responses from the responder
+     * @return responses keyed by the certificate ID, in the order of the given IDs
+     * @throws CertificateValidationException when the responses cannot be retrieved
+     */
+    public Map<CertificateID, SingleResp> getResponses(List<CertificateID> certificateIDs, ResponderLookup lookup)
+            throws CertificateValidationException {
+
+        Map<CertificateID, SingleResp> result = new LinkedHashMap<>();
+        Map<CertificateID, CompletableFuture<CachedResponse>> ownedLookups = new LinkedHashMap<>();
+        Map<CertificateID, CompletableFuture<CachedResponse>> awaitedLookups = new LinkedHashMap<>();
+        Date currentDate = CertificateValidationUtils.getNewDate();
+
+        for (CertificateID certificateID : certificateIDs) {
+            CachedResponse cachedResponse = responses.get(certificateID);
+            if (cachedResponse != null && cachedResponse.isValidAt(currentDate)) {
+                result.put(certificateID, cachedResponse.getSingleResponse());
+                continue;
+            }
+            CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> pendingLookup = pendingLookups.putIfAbsent(certificateID, future);
+            if (pendingLookup == null) {
+                ownedLookups.put(certificateID, future);
+            } else {
+                awaitedLookups.put(certificateID, pendingLookup);
+            }
+        }
+
+        if (!ownedLookups.isEmpty()) {
+            lookup(ownedLookups, lookup);
+        }
+        for (Map.Entry<CertificateID, CompletableFuture<CachedResponse>> entry : ownedLookups.entrySet()) {
+            result.put(entry.getKey(), getSingleResponse(entry.getValue()));
+        }
+        for (Map.Entry<CertificateID, CompletableFuture<CachedResponse>> entry : awaitedLookups.entrySet()) {
+            result.put(entry.getKey(), getSingleResponse(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Get the metrics of a responder.
+     *
+     * @param responderUrl URL of the responder
+     * @return metrics of the responder
+     */
+    public ResponderMetrics getResponderMetrics(String responderUrl) {
+
+        ResponderMetrics metrics = responderMetrics.get(responderUrl);
+        if (metrics == null) {
+            metrics = responderMetrics.computeIfAbsent(responderUrl, key -> new ResponderMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the metrics of all the responders.
+     *
+     * @return metrics sorted by the responder URL
+     */
+    public Map<String, ResponderMetrics> getResponderMetrics() {
+
+        return new TreeMap<>(responderMetrics);
+    }
+
+    @Override
+    public String getMetricType() {
+
+        return OCSP_RESPONDER_METRIC_TYPE;
+    }
+
+    @Override
+    public String getUnit() {
+
+        return MILLISECONDS;
+    }
+
+    @Override
+    public Map<String, OBLatencyHistogram> getLatencyHistograms() {
+
+        Map<String, OBLatencyHistogram> latencyHistograms = new TreeMap<>();
+        responderMetrics.forEach((responderUrl, metrics) -> latencyHistograms.put(responderUrl, metrics.getLatency()));
+        return latencyHistograms;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        responderMetrics.forEach((responderUrl, metrics) -> errorCounts.put(responderUrl, metrics.getErrorCount()));
+        return errorCounts;
+    }
+
+    private void lookup(Map<CertificateID, CompletableFuture<CachedResponse>> ownedLookups, ResponderLookup lookup)
+            throws CertificateValidationException {
+
+        try {
+            BasicOCSPResp basicResponse = lookup.lookup(new ArrayList<>(ownedLookups.keySet()));
+            Date maxExpiry = new Date(CertificateValidationUtils.getNewDate().getTime() + maxCacheTimeMillis);
+            for (Map.Entry<CertificateID, CompletableFuture<CachedResponse>> entry : ownedLookups.entrySet()) {
+                SingleResp singleResponse = basicResponse == null ? null :
+                        getSingleResponse(basicResponse, entry.getKey());
+                CachedResponse cachedResponse = singleResponse == null ? null :
+                        new CachedResponse(basicResponse, singleResponse, maxExpiry);
+                if (cachedResponse != null && cachedResponse.getExpiry() != null) {
+                    store(entry.getKey(), cachedResponse);
+                }
+                entry.getValue().complete(cachedResponse);
+            }
+        } catch (CertificateValidationException | RuntimeException e) {
+            ownedLookups.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            ownedLookups.forEach(pendingLookups::remove);
+        }
+    }
+
+    private void store(CertificateID certificateID, CachedResponse cachedResponse) {
+
+        if (responses.size() >= MAX_RESPONSES) {
+            Date currentDate = CertificateValidationUtils.getNewDate();
+            responses.values().removeIf(response -> !response.isValidAt(currentDate));
+            if (responses.size() >= MAX_RESPONSES) {
+                log.debug("OCSP response store is full. Response is not stored");
+                return;
+            }
+        }
+        responses.put(certificateID, cachedResponse);
+    }
+
+    /**
+     * Get the response of a certificate from a basic OCSP response. Certificate IDs are compared by their hashes and
+     * serial number, since responders may encode the hash algorithm parameters differently from the request.
+     *
+     * @param basicResponse basic OCSP response
+     * @param certificateID ID of the certificate
+     * @return response of the certificate, or null if not available
+     */
+    static SingleResp getSingleResponse(BasicOCSPResp basicResponse, CertificateID certificateID) {
+
+        for (SingleResp singleResponse : basicResponse.getResponses()) {
+            CertificateID respondedID = singleResponse.getCertID();
+            if (certificateID.getHashAlgOID().equals(respondedID.getHashAlgOID())
+                    && Arrays.equals(certificateID.getIssuerNameHash(), respondedID.getIssuerNameHash())
+                    && Arrays.equals(certificateID.getIssuerKeyHash(), respondedID.getIssuerKeyHash())
+                    && certificateID.getSerialNumber().equals(respondedID.getSerialNumber())) {
+                return singleResponse;
+            }
+        }
+        return null;
+    }
+
+    private static SingleResp getSingleResponse(CompletableFuture<CachedResponse> future)
+            throws CertificateValidationException {
+
+        try {
+            CachedResponse cachedResponse = future.get();
+            return cachedResponse == null ? null : cachedResponse.getSingleResponse();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CertificateValidationException("Interrupted while waiting for the OCSP response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CertificateValidationException) {
+                throw (CertificateValidationException) e.getCause();
+            }
+            throw new CertificateValidationException("Error while retrieving the OCSP response", e.getCause());
+        }
+    }
+
+    /**
+     * Lookup of the responses of a set of certificates from a responder.
+     */
+    @FunctionalInterface
+    public interface ResponderLookup {
+
+        /**
+         * Get the response of the given certificates with a single request.
+         *
+         * @param certificateIDs IDs of the certificates
+         * @return basic OCSP response
+         * @throws CertificateValidationException when the response cannot be retrieved
+         */
+        BasicOCSPResp lookup(List<CertificateID> certificateIDs) throws CertificateValidationException;
+    }
+
+    /**
+     * Latency and error counts of the calls to a responder.
+     */
+    public static class ResponderMetrics {
+
+        private final OBLatencyHistogram latency = new OBLatencyHistogram();
+        private final LongAdder errorCount = new LongAdder();
+
+        /**
+         * Record a successful call.
+         *
+         * @param latencyMillis latency of the call in milliseconds
+         */
+        public void recordSuccess(long latencyMillis) {
+
+            latency.recordValue(latencyMillis);
+        }
+
+        /**
+         * Record a failed call.
+         */
+        public void recordError() {
+
+            errorCount.increment();
+        }
+
+        /**
+         * Latency of the successful calls in milliseconds.
+         *
+         * @return latency histogram
+         */
+        public OBLatencyHistogram getLatency() {
+
+            return latency;
+        }
+
+        public long getErrorCount() {
+
+            return errorCount.sum();
+        }
+    }
+
+    /**
+     * Response of a certificate with the signed response it belongs to.
+     */
+    public static class CachedResponse {
+
+        private final BasicOCSPResp basicResponse;
+        private final SingleResp singleResponse;
+        private final Date expiry;
+
+        CachedResponse(BasicOCSPResp basicResponse, SingleResp singleResponse, Date maxExpiry) {
+
+            this.basicResponse = basicResponse;
+            this.singleResponse = singleResponse;
+            Date nextUpdate = singleResponse.getNextUpdate();
+            this.expiry = nextUpdate == null || nextUpdate.before(maxExpiry) ? nextUpdate : maxExpiry;
+        }
+
+        public BasicOCSPResp getBasicResponse() {
+
+            return basicResponse;
+        }
+
+        public SingleResp getSingleResponse() {
+
+            return singleResponse;
+        }
+
+        public Date getNextUpdate() {
+
+            return singleResponse.getNextUpdate();
+        }
+
+        /**
+         * Time until which the response is reused, which is the next update of the response capped by the max cache
+         * time of the store.
+         *
+         * @return expiry of the response, or null if the response has no next update
+         */
+        public Date getExpiry() {
+
+            return expiry;
+        }
+
+        boolean isValidAt(Date date) {
+
+            return expiry != null && date.before(expiry);
+        }
+    }
+}
@@ -27,8 +27,8 @@ import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHol
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHost;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
@@ -40,9 +40,12 @@ import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
 import org.bouncycastle.asn1.ocsp.OCSPResponseStatus;
 import org.bouncycastle.asn1.x509.AccessDescription;
 import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
 import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.CertException;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.ocsp.BasicOCSPResp;
 import org.bouncycastle.cert.ocsp.CertificateID;
@@ -53,19 +56,28 @@ import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 import org.bouncycastle.cert.ocsp.SingleResp;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentVerifierProvider;
 import org.bouncycastle.operator.DigestCalculatorProvider;
 import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.security.Provider;
 import java.security.Security;
 import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is used to verify a certificate is revoked or not by using the Online Certificate Status Protocol published
@@ -75,8 +87,9 @@ public class OCSPValidator implements RevocationValidator {
 
     private static final Log log = LogFactory.getLog(OCSPValidator.class);
 
-    private static final String BC = "BC";
     private final int retryCount;
+    private static volatile Provider bouncyCastleProvider;
+    private static volatile DigestCalculatorProvider digestCalculatorProvider;
     private static int httpConnectTimeout;
     private static int httpConnectionRequestTimeout;
     private static int httpSocketTimeout;
@@ -123,32 +136,86 @@ public class OCSPValidator implements RevocationValidator {
     }
 
     /**
-     * This method generates an OCSP Request to be sent to an OCSP endpoint.
+     * Get the BC provider, which is registered only if it is not registered already.
+     *
+     * @return BC provider
+     */
+    private static Provider getBouncyCastleProvider() {
+
+        if (bouncyCastleProvider == null) {
+            synchronized (OCSPValidator.class) {
+                if (bouncyCastleProvider == null) {
+                    Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+                    if (provider == null) {
+                        provider = new BouncyCastleProvider();
+                        Security.addProvider(provider);
+                    }
+                    bouncyCastleProvider = provider;
+                }
+            }
+        }
+        return bouncyCastleProvider;
+    }
+
+    /**
+     * Get the BC digest calculator provider, which is created once.
+     *
+     * @return digest calculator provider
+     * @throws OperatorCreationException when the digest calculator provider cannot be created
+     */
+    private static DigestCalculatorProvider getDigestCalculatorProvider() throws OperatorCreationException {
+
+        if (digestCalculatorProvider == null) {
+            synchronized (OCSPValidator.class) {
+                if (digestCalculatorProvider == null) {
+                    digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder()
+                            .setProvider(getBouncyCastleProvider()).build();
+                }
+            }
+        }
+        return digestCalculatorProvider;
+    }
+
+    /**
+     * This method generates the ID which identifies a certificate in an OCSP request or response.
      *
      * @param issuerCert   is the Certificate of the Issuer of the peer certificate we are interested in
      * @param serialNumber of the peer certificate
-     * @return generated OCSP request
+     * @return certificate ID
      * @throws CertificateValidationException certificateRevocationValidationException
      */
-    private static OCSPReq generateOCSPRequest(X509Certificate issuerCert, BigInteger serialNumber)
+    private static CertificateID generateCertificateID(X509Certificate issuerCert, BigInteger serialNumber)
             throws CertificateValidationException {
 
-        // Add provider BC
-        Security.addProvider(new BouncyCastleProvider());
         try {
-
-            byte[] issuerCertEnc = issuerCert.getEncoded();
-            X509CertificateHolder certificateHolder = new X509CertificateHolder(issuerCertEnc);
-            DigestCalculatorProvider digCalcProv = new JcaDigestCalculatorProviderBuilder().setProvider(BC).build();
+            X509CertificateHolder certificateHolder = new X509CertificateHolder(issuerCert.getEncoded());
 
             // CertID structure is used to uniquely identify certificates that are the subject of
             // an OCSP request or response and has an ASN.1 definition. CertID structure is defined in RFC 2560
-            CertificateID id = new CertificateID(digCalcProv.get(CertificateID.HASH_SHA1), certificateHolder,
+            return new CertificateID(getDigestCalculatorProvider().get(CertificateID.HASH_SHA1), certificateHolder,
                     serialNumber);
+        } catch (CertificateEncodingException | IOException | OCSPException | OperatorCreationException e) {
+            throw new CertificateValidationException("Cannot generate OSCP Request with the given certificate with " +
+                    "serial num: " + serialNumber, e);
+        }
+    }
 
+    /**
+     * This method generates an OCSP Request to be sent to an OCSP endpoint.
+     *
+     * @param certificateIDs IDs of the certificates to request the status of
+     * @return generated OCSP request
+     * @throws CertificateValidationException certificateRevocationValidationException
+     */
+    private static OCSPReq generateOCSPRequest(List<CertificateID> certificateIDs)
+            throws CertificateValidationException {
+
+        try {
             // basic request generation with nonce
             OCSPReqBuilder builder = new OCSPReqBuilder();
-            builder.addRequest(id);
+            for (CertificateID certificateID : certificateIDs) {
+                builder.addRequest(certificateID);
+            }
 
             // create details for nonce extension. The nonce extension is used to bind a request to a response to
             // prevent replay attacks. As the name implies, the nonce value is something that the client should only
@@ -160,14 +227,14 @@ public class OCSPValidator implements RevocationValidator {
                     new DEROctetString(nonce.toByteArray()))));
 
             return builder.build();
-        } catch (CertificateEncodingException | IOException | OCSPException | OperatorCreationException e) {
-            throw new CertificateValidationException("Cannot generate OSCP Request with the given certificate with " +
-                    "serial num: " + serialNumber, e);
+        } catch (OCSPException e) {
+            throw new CertificateValidationException("Cannot generate OSCP Request with the given certificates", e);
         }
     }
 
     /**
-     * Get revocation status of a certificate using OCSP Url.
+     * Get revocation status of a certificate using OCSP Url. Responses are obtained from the OCSP response store,
+     * which calls the responder only when a valid response is not available.
      *
      * @param peerCert                          peer certificate
      * @param issuerCert                        issuer certificate of peer
@@ -186,9 +253,69 @@ public class OCSPValidator implements RevocationValidator {
                                                            int certificateRevocationProxyPort)
             throws CertificateValidationException {
 
-        OCSPReq request = generateOCSPRequest(issuerCert, peerCert.getSerialNumber());
+        return getOCSPRevocationStatuses(Collections.singletonList(peerCert), issuerCert, retryCount, locations,
+                certificateRevocationProxyEnabled, certificateRevocationProxyHost, certificateRevocationProxyPort)
+                .get(peerCert.getSerialNumber());
+    }
+
+    /**
+     * Get revocation statuses of a set of certificates of the same issuer using OCSP Url. The certificates without a
+     * valid stored response are requested from the responder with a single request.
+     *
+     * @param peerCerts                         peer certificates
+     * @param issuerCert                        issuer certificate of the peers
+     * @param retryCount                        retry count to connect to OCSP Url and get the OCSP response
+     * @param locations                         AIA locations
+     * @param certificateRevocationProxyEnabled whether certificate revocation proxy enabled in the config
+     * @param certificateRevocationProxyHost    certificate revocation proxy host
+     * @param certificateRevocationProxyPort    certificate revocation proxy port
+     * @return Revocation statuses keyed by the serial number of the certificate
+     * @throws CertificateValidationException certificateValidationException
+     */
+    public static Map<BigInteger, RevocationStatus> getOCSPRevocationStatuses(
+            List<X509Certificate> peerCerts, X509Certificate issuerCert, int retryCount, List<String> locations,
+            boolean certificateRevocationProxyEnabled, String certificateRevocationProxyHost,
+            int certificateRevocationProxyPort) throws CertificateValidationException {
+
+        Map<CertificateID, BigInteger> serialNumbers = new LinkedHashMap<>();
+        for (X509Certificate peerCert : peerCerts) {
+            serialNumbers.put(generateCertificateID(issuerCert, peerCert.getSerialNumber()),
+                    peerCert.getSerialNumber());
+        }
+        Map<CertificateID, SingleResp> responses = OCSPResponseStore.getInstance().getResponses(
+                new ArrayList<>(serialNumbers.keySet()), certificateIDs -> getBasicOCSPResponse(certificateIDs,
+                        issuerCert, retryCount, locations, certificateRevocationProxyEnabled,
+                        certificateRevocationProxyHost, certificateRevocationProxyPort));
+
+        Map<BigInteger, RevocationStatus> revocationStatuses = new LinkedHashMap<>();
+        for (Map.Entry<CertificateID, BigInteger> entry : serialNumbers.entrySet()) {
+            SingleResp response = responses.get(entry.getKey());
+            if (response == null) {
+                throw new CertificateValidationException("Cant get Revocation Status from OCSP using any of the " +
+                        "OCSP Urls for certificate with serial num:" + entry.getValue());
+            }
+            revocationStatuses.put(entry.getValue(), getRevocationStatusFromOCSP(response));
+        }
+        return revocationStatuses;
+    }
+
+    /**
+     * Get the basic OCSP response of a set of certificates from the first AIA location which responds with the
+     * statuses of all the certificates, signed by the issuer or by a responder authorized by the issuer.
+     */
+    private static BasicOCSPResp getBasicOCSPResponse(List<CertificateID> certificateIDs,
+                                                      X509Certificate issuerCert, int retryCount,
+                                                      List<String> locations,
+                                                      boolean certificateRevocationProxyEnabled,
+                                                      String certificateRevocationProxyHost,
+                                                      int certificateRevocationProxyPort)
+            throws CertificateValidationException {
+
+        OCSPReq request = generateOCSPRequest(certificateIDs);
         for (String serviceUrl : locations) {
-            SingleResp[] responses;
+            OCSPResponseStore.ResponderMetrics metrics = OCSPResponseStore.getInstance()
+                    .getResponderMetrics(serviceUrl);
+            long startTime = System.nanoTime();
             try {
                 if (log.isDebugEnabled()) {
                     log.debug("Trying to get OCSP Response from : " + serviceUrl);
@@ -198,23 +325,95 @@ public class OCSPValidator implements RevocationValidator {
                         certificateRevocationProxyPort);
                 if (OCSPResponseStatus.SUCCESSFUL != ocspResponse.getStatus()) {
                     log.debug("OCSP Response is not successfully received.");
+                    metrics.recordError();
                     continue;
                 }
+                metrics.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
 
                 BasicOCSPResp basicResponse = (BasicOCSPResp) ocspResponse.getResponseObject();
-                responses = (basicResponse == null) ? null : basicResponse.getResponses();
+                if (basicResponse == null || !containsAll(basicResponse, certificateIDs)) {
+                    continue;
+                }
+                if (isSignatureValid(basicResponse, issuerCert)) {
+                    return basicResponse;
+                }
+                log.debug("Signature of the OCSP Response cannot be verified with the issuer certificate.");
+                metrics.recordError();
             } catch (OCSPException | CertificateValidationException e) {
                 // On any error, consider the other AIA locations as well.
                 log.debug("Certificate revocation check failed due to an exception", e);
-                continue;
+                metrics.recordError();
             }
+        }
+        return null;
+    }
+
+    private static boolean containsAll(BasicOCSPResp basicResponse, List<CertificateID> certificateIDs) {
+
+        for (CertificateID certificateID : certificateIDs) {
+            if (OCSPResponseStore.getSingleResponse(basicResponse, certificateID) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verify the signature of a basic OCSP response. As per RFC 6960, the response must be signed either by the
+     * issuer of the certificates, or by a responder certificate issued by the issuer for OCSP signing.
+     *
+     * @param basicResponse basic OCSP response
+     * @param issuerCert    issuer certificate of the certificates in the response
+     * @return true if the signature is valid
+     */
+    static boolean isSignatureValid(BasicOCSPResp basicResponse, X509Certificate issuerCert) {
 
-            if (responses != null && responses.length == 1) {
-                return getRevocationStatusFromOCSP(responses[0]);
+        try {
+            JcaContentVerifierProviderBuilder verifierProviderBuilder = new JcaContentVerifierProviderBuilder()
+                    .setProvider(getBouncyCastleProvider());
+            ContentVerifierProvider issuerVerifier = verifierProviderBuilder.build(issuerCert.getPublicKey());
+            if (isSignedBy(basicResponse, issuerVerifier)) {
+                return true;
             }
+            Date currentDate = CertificateValidationUtils.getNewDate();
+            for (X509CertificateHolder responderCert : basicResponse.getCerts()) {
+                if (isAuthorizedResponder(responderCert, issuerVerifier, currentDate)
+                        && isSignedBy(basicResponse, verifierProviderBuilder.build(responderCert))) {
+                    return true;
+                }
+            }
+        } catch (OperatorCreationException | CertificateException e) {
+            log.debug("Error while verifying the signature of the OCSP Response", e);
+        }
+        return false;
+    }
+
+    private static boolean isSignedBy(BasicOCSPResp basicResponse, ContentVerifierProvider verifierProvider) {
+
+        try {
+            return basicResponse.isSignatureValid(verifierProvider);
+        } catch (OCSPException e) {
+            log.debug("OCSP Response is not signed by the given certificate", e);
+            return false;
+        }
+    }
+
+    private static boolean isAuthorizedResponder(X509CertificateHolder responderCert,
+                                                 ContentVerifierProvider issuerVerifier, Date currentDate) {
+
+        if (!responderCert.hasExtensions() || !responderCert.isValidOn(currentDate)) {
+            return false;
+        }
+        ExtendedKeyUsage extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responderCert.getExtensions());
+        if (extendedKeyUsage == null || !extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning)) {
+            return false;
+        }
+        try {
+            return responderCert.isSignatureValid(issuerVerifier);
+        } catch (CertException e) {
+            log.debug("OCSP responder certificate is not issued by the issuer certificate", e);
+            return false;
         }
-        throw new CertificateValidationException("Cant get Revocation Status from OCSP using any of the OCSP Urls " +
-                "for certificate with serial num:" + peerCert.getSerialNumber());
     }
 
     private static List<String> getOcspUrlsFromAuthorityInfoAccess(AuthorityInformationAccess
@@ -280,7 +479,8 @@ public class OCSPValidator implements RevocationValidator {
         if (log.isDebugEnabled()) {
             log.debug("Certificate revocation check proxy enabled: " + certificateRevocationProxyEnabled);
         }
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
+        try {
+            CloseableHttpClient client = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.REVOCATION_CLIENT);
             HttpPost httpPost = new HttpPost(serviceUrl);
 
             if (certificateRevocationProxyEnabled) {
@@ -321,17 +521,17 @@ public class OCSPValidator implements RevocationValidator {
             }
 
             setRequestProperties(request.getEncoded(), httpPost);
-            HttpResponse httpResponse = client.execute(httpPost);
-
-            //Check errors in response, if response status code is not 200 (success) range, throws exception
-            // eg: if response code is 200 (success) or 201 (accepted) return true,
-            //     if response code is 404 (not found) or 500 throw exception
-            if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
-                throw new CertificateValidationException("Error getting ocsp response." +
-                        "Response code is " + httpResponse.getStatusLine().getStatusCode());
+            try (CloseableHttpResponse httpResponse = client.execute(httpPost)) {
+                //Check errors in response, if response status code is not 200 (success) range, throws exception
+                // eg: if response code is 200 (success) or 201 (accepted) return true,
+                //     if response code is 404 (not found) or 500 throw exception
+                if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
+                    throw new CertificateValidationException("Error getting ocsp response." +
+                            "Response code is " + httpResponse.getStatusLine().getStatusCode());
+                }
+                InputStream in = httpResponse.getEntity().getContent();
+                ocspResp = new OCSPResp(in);
             }
-            InputStream in = httpResponse.getEntity().getContent();
-            ocspResp = new OCSPResp(in);
         } catch (IOException e) {
             if (log.isDebugEnabled()) {
                 log.debug("Certificate revocation check failed due to an exception", e);
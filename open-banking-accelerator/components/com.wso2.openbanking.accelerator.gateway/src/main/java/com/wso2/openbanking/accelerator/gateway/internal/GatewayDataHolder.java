@@ -35,8 +35,12 @@ import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
 import org.wso2.carbon.base.ServerConfiguration;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -62,6 +66,15 @@ public class GatewayDataHolder {
     private boolean isAPIMAnalyticsEnabled;
     private boolean isOBDataPublishingEnabled;
     private String workerThreadCount;
+    private boolean isConsentValidationCacheEnabled;
+    private int consentValidationCacheTimeToLive;
+    private List<String> consentValidationCacheKeyHeaders = Collections.emptyList();
+    private int apiDefinitionRefreshInterval = 300;
+    private int inFlightContextMaxEntries = 10000;
+    private int inFlightContextTimeToLive = 300;
+    private boolean isExecutorMetricsEnabled = true;
+    private long executorSlowPhaseThreshold;
+    private int executorMetricsReportInterval;
 
     private GatewayDataHolder() {
 
@@ -136,6 +149,23 @@ public class GatewayDataHolder {
             setAPIMAnalyticsEnabled((String) configurations.get(DataPublishingConstants.APIM_ANALYTICS_ENABLED));
             setOBDataPublishingEnabled((String) configurations.get(DataPublishingConstants.DATA_PUBLISHING_ENABLED));
             setWorkerThreadCount((String) configurations.get(DataPublishingConstants.WORKER_THREAD_COUNT));
+            setConsentValidationCacheEnabled((String) configurations
+                    .get(GatewayConstants.CONSENT_VALIDATION_CACHE_ENABLED));
+            setConsentValidationCacheTimeToLive((String) configurations
+                    .get(GatewayConstants.CONSENT_VALIDATION_CACHE_TIME_TO_LIVE));
+            setConsentValidationCacheKeyHeaders(configurations
+                    .get(GatewayConstants.CONSENT_VALIDATION_CACHE_KEY_HEADERS));
+            setApiDefinitionRefreshInterval((String) configurations
+                    .get(GatewayConstants.API_DEFINITION_REFRESH_INTERVAL));
+            setInFlightContextMaxEntries((String) configurations
+                    .get(GatewayConstants.IN_FLIGHT_CONTEXT_MAX_ENTRIES));
+            setInFlightContextTimeToLive((String) configurations
+                    .get(GatewayConstants.IN_FLIGHT_CONTEXT_TIME_TO_LIVE));
+            setExecutorMetricsEnabled((String) configurations.get(GatewayConstants.EXECUTOR_METRICS_ENABLED));
+            setExecutorSlowPhaseThreshold((String) configurations
+                    .get(GatewayConstants.EXECUTOR_SLOW_PHASE_THRESHOLD));
+            setExecutorMetricsReportInterval((String) configurations
+                    .get(GatewayConstants.EXECUTOR_METRICS_REPORT_INTERVAL));
         }
     }
 
@@ -342,4 +372,131 @@ public class GatewayDataHolder {
 
         return workerThreadCount;
     }
+
+    public boolean isConsentValidationCacheEnabled() {
+
+        return isConsentValidationCacheEnabled;
+    }
+
+    public void setConsentValidationCacheEnabled(String consentValidationCacheEnabled) {
+
+        isConsentValidationCacheEnabled = Boolean.parseBoolean(consentValidationCacheEnabled);
+    }
+
+    public int getConsentValidationCacheTimeToLive() {
+
+        return consentValidationCacheTimeToLive;
+    }
+
+    public void setConsentValidationCacheTimeToLive(String timeToLive) {
+
+        this.consentValidationCacheTimeToLive = timeToLive == null ? 30 : Integer.parseInt(timeToLive.trim());
+    }
+
+    public List<String> getConsentValidationCacheKeyHeaders() {
+
+        return consentValidationCacheKeyHeaders;
+    }
+
+    /**
+     * Set the request headers included in the consent validation cache key. Header names are kept in lower case
+     * since header lookups are case insensitive.
+     *
+     * @param keyHeaders single header name or a list of header names
+     */
+    public void setConsentValidationCacheKeyHeaders(Object keyHeaders) {
+
+        List<String> headers = new ArrayList<>();
+        if (keyHeaders instanceof List) {
+            for (Object header : (List) keyHeaders) {
+                headers.add(header.toString().trim().toLowerCase(Locale.ENGLISH));
+            }
+        } else if (keyHeaders instanceof String) {
+            headers.add(((String) keyHeaders).trim().toLowerCase(Locale.ENGLISH));
+        }
+        Collections.sort(headers);
+        this.consentValidationCacheKeyHeaders = Collections.unmodifiableList(headers);
+    }
+
+    public int getApiDefinitionRefreshInterval() {
+
+        return apiDefinitionRefreshInterval;
+    }
+
+    /**
+     * Set the interval in seconds at which the deployed API definitions are synced from the publisher.
+     *
+     * @param refreshInterval refresh interval in seconds
+     */
+    public void setApiDefinitionRefreshInterval(String refreshInterval) {
+
+        this.apiDefinitionRefreshInterval = refreshInterval == null ? 300 : Integer.parseInt(refreshInterval.trim());
+    }
+
+    public int getInFlightContextMaxEntries() {
+
+        return inFlightContextMaxEntries;
+    }
+
+    public void setInFlightContextMaxEntries(String maxEntries) {
+
+        this.inFlightContextMaxEntries = maxEntries == null ? 10000 : Integer.parseInt(maxEntries.trim());
+    }
+
+    public int getInFlightContextTimeToLive() {
+
+        return inFlightContextTimeToLive;
+    }
+
+    /**
+     * Set the time in seconds after which the context of an exchange without a response is discarded.
+     *
+     * @param timeToLive time to live in seconds
+     */
+    public void setInFlightContextTimeToLive(String timeToLive) {
+
+        this.inFlightContextTimeToLive = timeToLive == null ? 300 : Integer.parseInt(timeToLive.trim());
+    }
+
+    public boolean isExecutorMetricsEnabled() {
+
+        return isExecutorMetricsEnabled;
+    }
+
+    public void setExecutorMetricsEnabled(String executorMetricsEnabled) {
+
+        this.isExecutorMetricsEnabled = executorMetricsEnabled == null ||
+                Boolean.parseBoolean(executorMetricsEnabled.trim());
+    }
+
+    public long getExecutorSlowPhaseThreshold() {
+
+        return executorSlowPhaseThreshold;
+    }
+
+    /**
+     * Set the executor time in milliseconds of a phase above which the per executor breakdown is logged.
+     * Zero disables the slow phase logging.
+     *
+     * @param slowPhaseThreshold threshold in milliseconds
+     */
+    public void setExecutorSlowPhaseThreshold(String slowPhaseThreshold) {
+
+        this.executorSlowPhaseThreshold = slowPhaseThreshold == null ? 0 : Long.parseLong(slowPhaseThreshold.trim());
+    }
+
+    public int getExecutorMetricsReportInterval() {
+
+        return executorMetricsReportInterval;
+    }
+
+    /**
+     * Set the interval in seconds at which the executor latency summary is logged. Zero disables the report.
+     *
+     * @param reportInterval report interval in seconds
+     */
+    public void setExecutorMetricsReportInterval(String reportInterval) {
+
+        this.executorMetricsReportInterval = reportInterval == null ? 0 : Integer.parseInt(reportInterval.trim());
+    }
 }
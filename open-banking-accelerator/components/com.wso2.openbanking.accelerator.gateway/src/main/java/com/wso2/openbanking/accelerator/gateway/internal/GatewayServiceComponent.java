@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.gateway.internal;
 
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinitionRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
@@ -44,12 +45,14 @@ public class GatewayServiceComponent {
     @Activate
     protected void activate(ComponentContext context) {
 
+        APIDefinitionRegistry.getInstance().start();
         log.debug("Open banking gateway component is activated ");
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        APIDefinitionRegistry.getInstance().stop();
         log.debug("Open banking gateway component is deactivated ");
     }
 
@@ -45,11 +45,14 @@ public class TPPCertValidatorDataHolder {
     private int connectTimeout;
     private int connectionRequestTimeout;
     private int socketTimeout;
+    private int crlStoreRefreshBeforeNextUpdate;
+    private int ocspResponseStoreMaxCacheTime;
 
     private boolean psd2RoleValidationEnabled;
     private boolean certificateRevocationProxyEnabled;
     private boolean transportCertIssuerValidationEnabled;
     private boolean certificateRevocationValidationEnabled;
+    private boolean crlStorePersistenceEnabled;
 
     private String tppValidationServiceImpl;
     private String certificateRevocationProxyHost;
@@ -317,6 +320,81 @@ public class TPPCertValidatorDataHolder {
         }
     }
 
+    /**
+     * Check if the CRLs downloaded by the CRL validator are persisted to the local disk, to be reused after a
+     * restart.
+     *
+     * @return true if the CRLs are persisted. Default value has been set to true.
+     */
+    public boolean isCRLStorePersistenceEnabled() {
+
+        return crlStorePersistenceEnabled;
+    }
+
+    public void setCRLStorePersistenceEnabled() {
+
+        Object isPersistenceEnabled = this.openBankingConfigurationService.
+                getConfigurations().get(OpenBankingConstants.CRL_STORE_PERSISTENCE_ENABLED);
+        if (isPersistenceEnabled != null) {
+            this.crlStorePersistenceEnabled = Boolean.parseBoolean((String) isPersistenceEnabled);
+        } else {
+            this.crlStorePersistenceEnabled = true;
+        }
+    }
+
+    /**
+     * Get the time in seconds before the next update of a CRL, at which the CRL is refreshed in the background.
+     *
+     * @return refresh time before the next update of a CRL. Default value has been set to 300 seconds.
+     */
+    public int getCRLStoreRefreshBeforeNextUpdate() {
+
+        return crlStoreRefreshBeforeNextUpdate;
+    }
+
+    public void setCRLStoreRefreshBeforeNextUpdate() {
+
+        try {
+            Object refreshBeforeNextUpdate = this.openBankingConfigurationService.getConfigurations()
+                    .get(OpenBankingConstants.CRL_STORE_REFRESH_BEFORE_NEXT_UPDATE);
+            if (refreshBeforeNextUpdate != null) {
+                this.crlStoreRefreshBeforeNextUpdate = Integer.parseInt((String) refreshBeforeNextUpdate);
+            } else {
+                this.crlStoreRefreshBeforeNextUpdate = 300;
+            }
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the CRL store refresh before next update " +
+                    "value in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the maximum time in seconds to reuse an OCSP response. Responses are reused until their next update or
+     * until this time passes, whichever is earlier.
+     *
+     * @return maximum cache time of an OCSP response. Default value has been set to 3600 seconds.
+     */
+    public int getOCSPResponseStoreMaxCacheTime() {
+
+        return ocspResponseStoreMaxCacheTime;
+    }
+
+    public void setOCSPResponseStoreMaxCacheTime() {
+
+        try {
+            Object maxCacheTime = this.openBankingConfigurationService.getConfigurations()
+                    .get(OpenBankingConstants.OCSP_RESPONSE_STORE_MAX_CACHE_TIME);
+            if (maxCacheTime != null) {
+                this.ocspResponseStoreMaxCacheTime = Integer.parseInt((String) maxCacheTime);
+            } else {
+                this.ocspResponseStoreMaxCacheTime = 3600;
+            }
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the OCSP response store max cache time " +
+                    "value in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
     /**
      * Get the certificate revocation validation manager implementation class to validate the revocation status
      * of a certificate.
@@ -471,6 +549,9 @@ public class TPPCertValidatorDataHolder {
         setConnectTimeout();
         setConnectionRequestTimeout();
         setSocketTimeout();
+        setCRLStorePersistenceEnabled();
+        setCRLStoreRefreshBeforeNextUpdate();
+        setOCSPResponseStoreMaxCacheTime();
 
     }
 }
@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.reporter;
+
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.data.publisher.common.util.OBDataPublisherUtil;
+import com.wso2.openbanking.accelerator.gateway.executor.core.AbstractRequestRouter;
+import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of the gateway executors in microseconds, per executor, phase and route.
+ * <p>
+ * Executors are instantiated per route, hence histograms are kept per executor instance and the route of an
+ * executor is resolved from the executor map of the request router only when the histograms are read. The total
+ * executor time of a phase is compared against the configured threshold, and the per executor breakdown of slower
+ * phases is logged. The histograms, and the histograms of the registered {@link OBLatencyMetricSource}s, are logged
+ * and published to the latency stream of the analytics data publisher at the configured report interval.
+ */
+public class OBExecutorLatencyRecorder {
+
+    private static final Log log = LogFactory.getLog(OBExecutorLatencyRecorder.class);
+    private static final String UNKNOWN_ROUTE = "Unknown";
+    private static final String GATEWAY_LATENCY_INPUT_STREAM = "GatewayLatencyInputStream";
+    private static final String GATEWAY_LATENCY_STREAM_VERSION = "1.0.0";
+    private static final String EXECUTOR_METRIC_TYPE = "Executor";
+    private static final String MICROSECONDS = "us";
+    private static volatile OBExecutorLatencyRecorder obExecutorLatencyRecorder;
+
+    private final Map<OpenBankingGatewayExecutor, OBLatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+    private final List<OBLatencyMetricSource> metricSources = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<long[]> durationBuffer = ThreadLocal.withInitial(() -> new long[16]);
+    private final boolean enabled;
+    private final long slowPhaseThresholdNanos;
+
+    /**
+     * Executor phases.
+     */
+    public enum Phase {
+        PRE_REQUEST, POST_REQUEST, PRE_RESPONSE, POST_RESPONSE
+    }
+
+    OBExecutorLatencyRecorder(boolean enabled, long slowPhaseThresholdMillis) {
+
+        this.enabled = enabled;
+        this.slowPhaseThresholdNanos = slowPhaseThresholdMillis > 0 ?
+                TimeUnit.MILLISECONDS.toNanos(slowPhaseThresholdMillis) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object. Starts the periodic report if configured.
+     *
+     * @return OBExecutorLatencyRecorder object
+     */
+    public static OBExecutorLatencyRecorder getInstance() {
+
+        if (obExecutorLatencyRecorder == null) {
+            synchronized (OBExecutorLatencyRecorder.class) {
+                if (obExecutorLatencyRecorder == null) {
+                    GatewayDataHolder dataHolder = GatewayDataHolder.getInstance();
+                    OBExecutorLatencyRecorder recorder = new OBExecutorLatencyRecorder(
+                            dataHolder.isExecutorMetricsEnabled(), dataHolder.getExecutorSlowPhaseThreshold());
+                    if (recorder.isEnabled() && dataHolder.getExecutorMetricsReportInterval() > 0) {
+                        recorder.startReporter(dataHolder.getExecutorMetricsReportInterval());
+                    }
+                    obExecutorLatencyRecorder = recorder;
+                }
+            }
+        }
+        return obExecutorLatencyRecorder;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get a buffer of the calling thread to hold the executor durations of a phase.
+     *
+     * @param size number of executors of the phase
+     * @return duration buffer
+     */
+    public long[] getDurationBuffer(int size) {
+
+        long[] buffer = durationBuffer.get();
+        if (buffer.length < size) {
+            buffer = new long[size];
+            durationBuffer.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Record the time taken by an executor for a phase.
+     *
+     * @param executor      executor
+     * @param phase         phase
+     * @param durationNanos duration in nanoseconds
+     */
+    public void record(OpenBankingGatewayExecutor executor, Phase phase, long durationNanos) {
+
+        OBLatencyHistogram[] executorHistograms = histograms.get(executor);
+        if (executorHistograms == null) {
+            executorHistograms = histograms.computeIfAbsent(executor, key -> createHistograms());
+        }
+        executorHistograms[phase.ordinal()].recordValue(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    /**
+     * Log the per executor breakdown of a phase if the phase exceeded the slow phase threshold.
+     *
+     * @param executors     executors of the phase
+     * @param phase         phase
+     * @param durations     durations of the executors in nanoseconds, in the order of the executors
+     * @param durationNanos total duration of the phase in nanoseconds
+     * @param messageId     message ID of the exchange
+     */
+    public void recordPhase(List<OpenBankingGatewayExecutor> executors, Phase phase, long[] durations,
+                            long durationNanos, String messageId) {
+
+        if (durationNanos < slowPhaseThresholdNanos) {
+            return;
+        }
+        StringBuilder breakdown = new StringBuilder();
+        for (int i = 0; i < executors.size(); i++) {
+            breakdown.append(i == 0 ? "" : ", ").append(executors.get(i).getClass().getSimpleName()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMicros(durations[i])).append("us");
+        }
+        log.warn(String.format("Slow %s phase for message %s took %dus. Executor breakdown: [%s]", phase,
+                String.valueOf(messageId).replaceAll("[\r\n]", ""), TimeUnit.NANOSECONDS.toMicros(durationNanos),
+                breakdown));
+    }
+
+    /**
+     * Register a source of latency metrics to be reported with the executor latencies.
+     *
+     * @param metricSource latency metric source
+     */
+    public void registerMetricSource(OBLatencyMetricSource metricSource) {
+
+        metricSources.add(metricSource);
+    }
+
+    /**
+     * Get the recorded histograms keyed by route, executor and phase.
+     *
+     * @return histograms sorted by key
+     */
+    public Map<String, OBLatencyHistogram> getHistograms() {
+
+        Map<OpenBankingGatewayExecutor, String> routes = getRoutes();
+        Map<String, OBLatencyHistogram> histogramsByName = new TreeMap<>();
+        for (Map.Entry<OpenBankingGatewayExecutor, OBLatencyHistogram[]> entry : histograms.entrySet()) {
+            String route = routes.getOrDefault(entry.getKey(), UNKNOWN_ROUTE);
+            for (Phase phase : Phase.values()) {
+                OBLatencyHistogram histogram = entry.getValue()[phase.ordinal()];
+                if (histogram.getTotalCount() > 0) {
+                    histogramsByName.put(route + "/" + entry.getKey().getClass().getName() + "/" + phase,
+                            histogram);
+                }
+            }
+        }
+        return histogramsByName;
+    }
+
+    /**
+     * Log a summary of the recorded histograms and the histograms of the registered metric sources, and publish the
+     * histograms if data publishing is enabled.
+     */
+    void report() {
+
+        boolean publish = GatewayDataHolder.getInstance().isOBDataPublishingEnabled();
+        long timestamp = System.currentTimeMillis();
+        for (Map.Entry<String, OBLatencyHistogram> entry : getHistograms().entrySet()) {
+            OBLatencyHistogram histogram = entry.getValue();
+            log.info(String.format("Executor latency %s: count=%d, mean=%.1fus, p50=%dus, p99=%dus, " +
+                            "p999=%dus, max=%dus", entry.getKey(), histogram.getTotalCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue()));
+            if (publish) {
+                publishLatencyData(getLatencyData(EXECUTOR_METRIC_TYPE, entry.getKey(), MICROSECONDS, histogram,
+                        0, timestamp));
+            }
+        }
+        for (OBLatencyMetricSource metricSource : metricSources) {
+            String unit = metricSource.getUnit();
+            Map<String, Long> errorCounts = metricSource.getErrorCounts();
+            for (Map.Entry<String, OBLatencyHistogram> entry : metricSource.getLatencyHistograms().entrySet()) {
+                OBLatencyHistogram histogram = entry.getValue();
+                long errorCount = errorCounts.getOrDefault(entry.getKey(), 0L);
+                log.info(String.format("%s latency %s: count=%d, errors=%d, mean=%.1f%s, p50=%d%s, p99=%d%s, " +
+                                "max=%d%s", metricSource.getMetricType(), entry.getKey().replaceAll("[\r\n]", ""),
+                        histogram.getTotalCount(), errorCount, histogram.getMean(), unit,
+                        histogram.getValueAtPercentile(50), unit, histogram.getValueAtPercentile(99), unit,
+                        histogram.getMaxValue(), unit));
+                if (publish) {
+                    publishLatencyData(getLatencyData(metricSource.getMetricType(), entry.getKey(), unit, histogram,
+                            errorCount, timestamp));
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the event of a histogram for the latency stream. Counts and percentiles cover all the values recorded
+     * since the server started.
+     *
+     * @param metricType type of the metric
+     * @param metricName name of the metric
+     * @param unit       unit of the recorded values
+     * @param histogram  latency histogram
+     * @param errorCount number of errors
+     * @param timestamp  time of the report
+     * @return latency stream event
+     */
+    static Map<String, Object> getLatencyData(String metricType, String metricName, String unit,
+                                              OBLatencyHistogram histogram, long errorCount, long timestamp) {
+
+        Map<String, Object> latencyData = new HashMap<>();
+        latencyData.put("metricType", metricType);
+        latencyData.put("metricName", metricName);
+        latencyData.put("unit", unit);
+        latencyData.put("count", histogram.getTotalCount());
+        latencyData.put("errorCount", errorCount);
+        latencyData.put("mean", histogram.getMean());
+        latencyData.put("p50", histogram.getValueAtPercentile(50));
+        latencyData.put("p99", histogram.getValueAtPercentile(99));
+        latencyData.put("p999", histogram.getValueAtPercentile(99.9));
+        latencyData.put("max", histogram.getMaxValue());
+        latencyData.put("timestamp", timestamp);
+        return latencyData;
+    }
+
+    @Generated(message = "Ignoring since it requires the data publisher")
+    protected void publishLatencyData(Map<String, Object> latencyData) {
+
+        OBDataPublisherUtil.publishData(GATEWAY_LATENCY_INPUT_STREAM, GATEWAY_LATENCY_STREAM_VERSION, latencyData);
+    }
+
+    private static OBLatencyHistogram[] createHistograms() {
+
+        OBLatencyHistogram[] executorHistograms = new OBLatencyHistogram[Phase.values().length];
+        for (int i = 0; i < executorHistograms.length; i++) {
+            executorHistograms[i] = new OBLatencyHistogram();
+        }
+        return executorHistograms;
+    }
+
+    private Map<OpenBankingGatewayExecutor, String> getRoutes() {
+
+        Map<OpenBankingGatewayExecutor, String> routes = new IdentityHashMap<>();
+        AbstractRequestRouter requestRouter = GatewayDataHolder.getInstance().getRequestRouter();
+        if (requestRouter != null && requestRouter.getExecutorMap() != null) {
+            for (Map.Entry<String, List<OpenBankingGatewayExecutor>> route :
+                    requestRouter.getExecutorMap().entrySet()) {
+                if (route.getValue() != null) {
+                    route.getValue().forEach(executor -> routes.put(executor, route.getKey()));
+                }
+            }
+        }
+        return routes;
+    }
+
+    private void startReporter(int reportInterval) {
+
+        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ob-executor-latency-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleAtFixedRate(() -> {
+            try {
+                report();
+            } catch (RuntimeException e) {
+                log.error("Error while reporting executor latencies", e);
+            }
+        }, reportInterval, reportInterval, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.reporter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free latency histogram with log-linear buckets.
+ * <p>
+ * Values below 32 are counted exactly. Larger values are counted in 16 buckets per power of two, which keeps the
+ * relative error of a reported percentile within 1/16. Recording a value does not allocate.
+ */
+public class OBLatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 36;
+    static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = getBucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a value. Negative values are recorded as zero and values above the supported range are recorded as the
+     * maximum supported value.
+     *
+     * @param value value to record
+     */
+    public void recordValue(long value) {
+
+        long boundedValue = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts.incrementAndGet(getBucketIndex(boundedValue));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(boundedValue);
+        long currentMax = maxValue.get();
+        while (boundedValue > currentMax && !maxValue.compareAndSet(currentMax, boundedValue)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    public long getTotalCount() {
+
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+
+        return maxValue.get();
+    }
+
+    public double getMean() {
+
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * Get the value at the given percentile. The highest value of the bucket holding the percentile is returned.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return value at the percentile, or zero if no values are recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= target) {
+                return Math.min(getHighestValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    static int getBucketIndex(long value) {
+
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >> shift);
+    }
+
+    static long getHighestValue(int bucketIndex) {
+
+        if (bucketIndex < LINEAR_BUCKETS) {
+            return bucketIndex;
+        }
+        int shift = bucketIndex / SUB_BUCKETS - 1;
+        long subBucket = bucketIndex - (long) shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
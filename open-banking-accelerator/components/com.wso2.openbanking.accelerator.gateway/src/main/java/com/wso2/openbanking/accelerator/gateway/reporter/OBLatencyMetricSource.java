@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.reporter;
+
+import java.util.Map;
+
+/**
+ * Source of latency metrics reported with the executor latencies by the {@link OBExecutorLatencyRecorder}.
+ * <p>
+ * Components recording latencies outside the executors register a source with the recorder, so that the recorder
+ * does not depend on the components it reports.
+ */
+public interface OBLatencyMetricSource {
+
+    /**
+     * Type of the metrics of the source, used to tell the metrics of different sources apart.
+     *
+     * @return metric type
+     */
+    String getMetricType();
+
+    /**
+     * Unit of the recorded latencies, ex: ms.
+     *
+     * @return unit
+     */
+    String getUnit();
+
+    /**
+     * Get the latency histograms of the source.
+     *
+     * @return latency histograms keyed by the metric name
+     */
+    Map<String, OBLatencyHistogram> getLatencyHistograms();
+
+    /**
+     * Get the error counts of the source.
+     *
+     * @return error counts keyed by the metric name
+     */
+    Map<String, Long> getErrorCounts();
+}
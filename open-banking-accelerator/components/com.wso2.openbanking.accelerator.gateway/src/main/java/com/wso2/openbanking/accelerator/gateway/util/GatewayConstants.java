@@ -41,6 +41,7 @@ public class GatewayConstants {
     public static final String BEARER_TAG = "Bearer ";
     public static final String PUBLISHER_API_PATH = "api/am/publisher/apis/";
     public static final String SWAGGER_ENDPOINT = "/swagger";
+    public static final int PUBLISHER_API_LIST_LIMIT = 100;
     public static final String REGULATORY_CUSTOM_PROP = "x-wso2-regulatory-api";
     public static final String API_TYPE_CUSTOM_PROP = "x-wso2-api-type";
     public static final String IS_RETURN_RESPONSE = "isReturnResponse";
@@ -82,6 +83,17 @@ public class GatewayConstants {
     public static final String GATEWAY_CACHE_EXPIRY = "Gateway.Cache.GatewayCache.CacheAccessExpiry";
     public static final String GATEWAY_CACHE_MODIFIEDEXPIRY = "Gateway.Cache.GatewayCache.CacheModifiedExpiry";
     public static final String GATEWAY_THROTTLE_DATAPUBLISHER = "Gateway.CustomThrottleDataPublisher";
+    public static final String CONSENT_VALIDATION_CACHE_ENABLED = "Gateway.Cache.ConsentValidationCache.Enabled";
+    public static final String CONSENT_VALIDATION_CACHE_TIME_TO_LIVE =
+            "Gateway.Cache.ConsentValidationCache.CacheTimeToLive";
+    public static final String CONSENT_VALIDATION_CACHE_KEY_HEADERS =
+            "Gateway.Cache.ConsentValidationCache.KeyHeaders.Header";
+    public static final String API_DEFINITION_REFRESH_INTERVAL = "Gateway.APIDefinitions.RefreshInterval";
+    public static final String IN_FLIGHT_CONTEXT_MAX_ENTRIES = "Gateway.InFlightContextStore.MaxEntries";
+    public static final String IN_FLIGHT_CONTEXT_TIME_TO_LIVE = "Gateway.InFlightContextStore.TimeToLive";
+    public static final String EXECUTOR_METRICS_ENABLED = "Gateway.ExecutorMetrics.Enabled";
+    public static final String EXECUTOR_SLOW_PHASE_THRESHOLD = "Gateway.ExecutorMetrics.SlowPhaseThreshold";
+    public static final String EXECUTOR_METRICS_REPORT_INTERVAL = "Gateway.ExecutorMetrics.ReportInterval";
 
     public static final String CUSTOMER_CARE_OFFICER_SCOPE = "consents:read_all";
 
@@ -94,6 +106,12 @@ public class GatewayConstants {
     public static final String RESPONSE_CACHE_KEY = "Response";
     public static final String TRUE = "true";
     public static final String IDEMPOTENCY_KEY_CACHE_KEY = "Idempotency_Key";
+    public static final String REQUEST_DIGEST_CACHE_KEY = "Request_Digest";
+    public static final String IDEMPOTENCY_STATUS_CACHE_KEY = "Status";
+    public static final String RESERVED_TIME_CACHE_KEY = "Reserved_Time";
+    public static final String IDEMPOTENCY_IN_FLIGHT = "InFlight";
+    public static final String IDEMPOTENCY_RESERVED = "Idempotency_Reserved";
+    public static final String IDEMPOTENCY_RESERVATION_CACHE_KEY = "Idempotency_Reservation_Key";
 
     // Error constants
     public static final String INVALID_CLIENT = "invalid_client";
@@ -22,12 +22,14 @@ import com.nimbusds.jose.JOSEObjectType;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.Payload;
 import com.nimbusds.jose.util.Base64URL;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.identity.IdentityConstants;
 import com.wso2.openbanking.accelerator.common.identity.retriever.ServerIdentityRetriever;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyRegistry;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.exception.OpenBankingExecutorException;
 import org.apache.commons.lang.StringUtils;
@@ -125,6 +127,28 @@ public class GatewaySignatureHandlingUtils {
         }
     }
 
+    /**
+     * Returns the signer of the signing key, shared by all the signing requests.
+     *
+     * @param algorithm signing algorithm
+     * @return JWSSigner signer of the signing key
+     * @throws OpenBankingExecutorException throws OpenBanking Exception
+     */
+    @Generated(message = "Excluding from unit tests since there is a call to a method " +
+            "in Common Module")
+    public static JWSSigner getSigner(JWSAlgorithm algorithm) throws OpenBankingExecutorException {
+
+        Optional<String> signingKeyAlias = IdentityConstants.PRIMARY_SIGNING_CERT_ALIAS;
+        if (!signingKeyAlias.isPresent()) {
+            throw new OpenBankingExecutorException("Signing key is not present");
+        }
+        try {
+            return SigningKeyRegistry.getInstance().getSigner(signingKeyAlias.get(), algorithm);
+        } catch (OpenBankingException e) {
+            throw new OpenBankingExecutorException("Unable to load primary signing certificate", e);
+        }
+    }
+
     @Generated(message = "Excluding from unit tests since a signer is required to create a valid JWSObject")
     public static String createDetachedJws(String serializedJws) {
 
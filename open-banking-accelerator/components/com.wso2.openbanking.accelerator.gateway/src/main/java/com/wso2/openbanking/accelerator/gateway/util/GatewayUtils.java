@@ -23,14 +23,12 @@ import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.util.Base64URL;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
 import com.wso2.openbanking.accelerator.common.util.Generated;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinition;
 import com.wso2.openbanking.accelerator.gateway.executor.exception.OpenBankingExecutorException;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
@@ -58,6 +56,7 @@ import org.apache.synapse.core.axis2.Axis2Sender;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.apache.synapse.transport.passthru.PassThroughConstants;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.XML;
@@ -67,9 +66,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.security.PrivateKey;
-import java.security.interfaces.ECPrivateKey;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -192,29 +188,75 @@ public class GatewayUtils {
     @Generated(message = "Cannot test without running APIM. Integration test will be written for this")
     public static String getSwaggerDefinition(String apiId) {
 
+        try {
+            return getFromPublisher(apiId + GatewayConstants.SWAGGER_ENDPOINT);
+        } catch (IOException | OpenBankingException e) {
+            throw new OpenBankingRuntimeException("Failed to retrieve swagger definition from API", e);
+        }
+    }
+
+    /**
+     * Method to obtain the IDs of all the APIs from publisher API.
+     *
+     * @return list of API IDs
+     */
+    @Generated(message = "Cannot test without running APIM. Integration test will be written for this")
+    public static List<String> getAPIIds() {
+
+        List<String> apiIds = new ArrayList<>();
+        int offset = 0;
+        try {
+            while (true) {
+                JSONObject apiList = new JSONObject(getFromPublisher("?limit=" +
+                        GatewayConstants.PUBLISHER_API_LIST_LIMIT + "&offset=" + offset));
+                JSONArray apis = apiList.optJSONArray("list");
+                if (apis == null || apis.length() == 0) {
+                    break;
+                }
+                for (int i = 0; i < apis.length(); i++) {
+                    apiIds.add(apis.getJSONObject(i).getString("id"));
+                }
+                offset += apis.length();
+                JSONObject pagination = apiList.optJSONObject("pagination");
+                if (pagination == null || offset >= pagination.optInt("total", 0)) {
+                    break;
+                }
+            }
+        } catch (IOException | OpenBankingException | JSONException e) {
+            throw new OpenBankingRuntimeException("Failed to retrieve the API list from publisher API", e);
+        }
+        return apiIds;
+    }
+
+    /**
+     * Invoke a publisher API resource with the API key validator credentials.
+     *
+     * @param resourcePath resource path relative to the publisher APIs path
+     * @return response payload
+     */
+    @Generated(message = "Cannot test without running APIM. Integration test will be written for this")
+    private static String getFromPublisher(String resourcePath) throws IOException, OpenBankingException {
+
         String publisherHostName =
                 GatewayDataHolder.getInstance().getOpenBankingConfigurationService()
                         .getConfigurations()
                         .get(GatewayConstants.PUBLISHER_HOSTNAME).toString();
 
+        // Query parameters are appended to the APIs collection itself
+        String apisPath = resourcePath.startsWith("?") ?
+                StringUtils.removeEnd(GatewayConstants.PUBLISHER_API_PATH, "/") : GatewayConstants.PUBLISHER_API_PATH;
         String publisherAPIURL = publisherHostName.endsWith("/") ?
-                publisherHostName + GatewayConstants.PUBLISHER_API_PATH + apiId + GatewayConstants.SWAGGER_ENDPOINT :
-                publisherHostName + "/" + GatewayConstants.PUBLISHER_API_PATH + apiId +
-                        GatewayConstants.SWAGGER_ENDPOINT;
+                publisherHostName + apisPath + resourcePath :
+                publisherHostName + "/" + apisPath + resourcePath;
 
         HttpGet httpGet = new HttpGet(publisherAPIURL);
         String userName = getAPIMgtConfig(GatewayConstants.API_KEY_VALIDATOR_USERNAME);
         String password = getAPIMgtConfig(GatewayConstants.API_KEY_VALIDATOR_PASSWORD);
 
         httpGet.setHeader(GatewayConstants.AUTH_HEADER, GatewayUtils.getBasicAuthHeader(userName, password));
-        HttpResponse response = null;
-        try {
-            response = GatewayDataHolder.getHttpClient().execute(httpGet);
-            InputStream in = response.getEntity().getContent();
-            return IOUtils.toString(in, String.valueOf(StandardCharsets.UTF_8));
-        } catch (IOException | OpenBankingException e) {
-            throw new OpenBankingRuntimeException("Failed to retrieve swagger definition from API", e);
-        }
+        HttpResponse response = GatewayDataHolder.getHttpClient().execute(httpGet);
+        InputStream in = response.getEntity().getContent();
+        return IOUtils.toString(in, String.valueOf(StandardCharsets.UTF_8));
     }
 
     /**
@@ -360,64 +402,43 @@ public class GatewayUtils {
 
         String detachedJWS;
 
-        Optional<Key> signingKey;
-
         // Get from config parser
         JWSAlgorithm algorithm = GatewaySignatureHandlingUtils.getSigningAlgorithm();
 
-        // Get signing certificate of ASPSP from keystore
-        signingKey = GatewaySignatureHandlingUtils.getSigningKey();
+        // Get the shared signer of the signing certificate of ASPSP
+        JWSSigner signer = GatewaySignatureHandlingUtils.getSigner(algorithm);
 
-        if (signingKey.isPresent()) {
-            // Create a new JWSSigner
-            JWSSigner signer;
-            Key privateKey = signingKey.get();
+        // Retrieve kid or empty string for signingKeyId
+        String signingKeyId = GatewaySignatureHandlingUtils.getSigningKeyId();
 
-            // Retrieve kid or empty string for signingKeyId
-            String signingKeyId = GatewaySignatureHandlingUtils.getSigningKeyId();
+        if (StringUtils.isBlank(signingKeyId)) {
+            throw new OpenBankingExecutorException("The kid is not present to sign.");
+        }
 
-            if (StringUtils.isBlank(signingKeyId)) {
-                throw new OpenBankingExecutorException("The kid is not present to sign.");
-            }
+        JWSHeader jwsHeader = GatewaySignatureHandlingUtils.constructJWSHeader(signingKeyId,
+                criticalParameters, algorithm);
+        JWSObject jwsObject = GatewaySignatureHandlingUtils.constructJWSObject(jwsHeader,
+                payloadString);
 
-            JWSHeader jwsHeader = GatewaySignatureHandlingUtils.constructJWSHeader(signingKeyId,
-                    criticalParameters, algorithm);
-            JWSObject jwsObject = GatewaySignatureHandlingUtils.constructJWSObject(jwsHeader,
-                    payloadString);
-
-            if (privateKey.getAlgorithm().equals("RSA")) {
-                // If the signing key is an RSA Key
-                signer = new RSASSASigner((PrivateKey) privateKey);
-            } else if (privateKey.getAlgorithm().equals("EC")) {
-                // If the signing key is an EC Key
-                signer = new ECDSASigner((ECPrivateKey) privateKey);
+        try {
+            // Check if payload is b64 encoded or un-encoded
+            if (GatewaySignatureHandlingUtils.isB64HeaderVerifiable(jwsObject)) {
+                // b64=true
+                jwsObject.sign(signer);
+                String serializedJws = jwsObject.serialize();
+                detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(serializedJws);
             } else {
-                throw new JOSEException("The \"" + privateKey.getAlgorithm() +
-                        "\" algorithm is not supported by the Solution");
-            }
-
-            try {
-                // Check if payload is b64 encoded or un-encoded
-                if (GatewaySignatureHandlingUtils.isB64HeaderVerifiable(jwsObject)) {
-                    // b64=true
-                    jwsObject.sign(signer);
-                    String serializedJws = jwsObject.serialize();
-                    detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(serializedJws);
-                } else {
-                    // b64=false
-                    // Produces the signature with un-encoded payload.
-                    // which is the encoded header + ".." + the encoded signature
-                    Base64URL signature = signer.sign(jwsHeader,
-                            GatewaySignatureHandlingUtils.getSigningInput(jwsHeader, payloadString));
-                    detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(jwsHeader, signature);
-                }
-            } catch (JOSEException | UnsupportedEncodingException e) {
-                throw new OpenBankingExecutorException("Unable to compute JWS signature", e);
+                // b64=false
+                // Produces the signature with un-encoded payload.
+                // which is the encoded header + ".." + the encoded signature
+                Base64URL signature = signer.sign(jwsHeader,
+                        GatewaySignatureHandlingUtils.getSigningInput(jwsHeader, payloadString));
+                detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(jwsHeader, signature);
             }
-            return detachedJWS;
-        } else {
-            throw new OpenBankingExecutorException("Signing key is not present");
+        } catch (JOSEException | UnsupportedEncodingException e) {
+            throw new OpenBankingExecutorException("Unable to compute JWS signature", e);
         }
+        return detachedJWS;
     }
 
     /**
@@ -476,7 +497,7 @@ public class GatewayUtils {
 
     /**
      * Retrieve security definitions defined in the swagger.
-     * This method will return cached values if present, else will read swagger and cache the result.
+     * This method will return the values precomputed for the API if present, else will read the swagger.
      *
      * @param obApiRequestContext ob api request context
      * @return list of allowed auth flows for the elected resource
@@ -484,23 +505,16 @@ public class GatewayUtils {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public static List<String> getAllowedOAuthFlows(OBAPIRequestContext obApiRequestContext) {
 
-        List<String> oauthFlows = new ArrayList<>();
         String httpMethod = obApiRequestContext.getMsgInfo().getHttpMethod();
-        String cacheKey = obApiRequestContext.getMsgInfo().getElectedResource() + ":" + httpMethod;
-        GatewayCacheKey apiSecurityCacheKey = GatewayCacheKey.of(cacheKey);
-
-        try {
-            oauthFlows =
-                    (List<String>) GatewayDataHolder.getGatewayCache().getFromCacheOrRetrieve(apiSecurityCacheKey,
-                            () -> {
-                                OpenAPI openAPI = obApiRequestContext.getOpenAPI();
-                                String electedResource = obApiRequestContext.getMsgInfo().getElectedResource();
-                                return getAllowedOAuthFlowsFromSwagger(openAPI, electedResource, httpMethod);
-                            });
-        } catch (OpenBankingException e) {
-            log.error("Unable to cache or retrieve from API Security Cache", e);
+        String electedResource = obApiRequestContext.getMsgInfo().getElectedResource();
+        APIDefinition apiDefinition = obApiRequestContext.getApiDefinition();
+        if (apiDefinition != null && apiDefinition.getOpenAPI() == obApiRequestContext.getOpenAPI()) {
+            List<String> oauthFlows = apiDefinition.getAllowedOAuthFlows(electedResource, httpMethod);
+            if (oauthFlows != null) {
+                return oauthFlows;
+            }
         }
-        return oauthFlows;
+        return getAllowedOAuthFlowsFromSwagger(obApiRequestContext.getOpenAPI(), electedResource, httpMethod);
     }
 
     /**
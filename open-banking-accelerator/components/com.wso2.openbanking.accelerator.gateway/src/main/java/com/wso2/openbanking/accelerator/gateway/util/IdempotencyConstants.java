@@ -31,6 +31,8 @@ public class IdempotencyConstants {
             "Gateway.Cache.IdempotencyValidationCache.CacheTimeToLive";
     public static final String IDEMPOTENCY_KEY_HEADER = "Gateway.Idempotency.IdempotencyKeyHeader";
     public static final String IDEMPOTENCY_IS_ENABLED = "Gateway.Idempotency.IsEnabled";
+    public static final String IDEMPOTENCY_IN_FLIGHT_WAIT_TIME = "Gateway.Idempotency.InFlightWaitTime";
+    public static final String IDEMPOTENCY_IN_FLIGHT_TIMEOUT = "Gateway.Idempotency.InFlightTimeout";
 
     public static final String HTTP_STATUS = "httpStatus";
     public static final String PAYLOAD = "payload";
@@ -46,7 +48,10 @@ public class IdempotencyConstants {
                 "Error while handling Idempotency check.:Header." + getPathIdemKey();;
         public static final String EXECUTOR_IDEMPOTENCY_KEY_FRAUDULENT =
                 "Idempotency check failed.:Header." + getPathIdemKey();
+        public static final String EXECUTOR_IDEMPOTENCY_KEY_IN_FLIGHT =
+                "A request with the same idempotency key is being processed.:Header." + getPathIdemKey();
         public static final String HEADER_INVALID = "Header Invalid";
+        public static final String REQUEST_CONFLICT = "Request Conflict";
         public static final String IDEMPOTENCY_HANDLE_ERROR =
                 "Error occurred while handling the idempotency available request";
 
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.api;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for API definition registry.
+ */
+public class APIDefinitionRegistryTest {
+
+    private static final String API_ID = "8f1b3a2c-api";
+    private static final String OTHER_API_ID = "4d7e9f0a-api";
+
+    private final Map<String, String> swaggerDefinitions = new HashMap<>();
+    private final AtomicInteger retrievalCount = new AtomicInteger();
+    private List<String> apiIds;
+    private APIDefinitionRegistry registry;
+
+    @BeforeMethod
+    public void init() {
+
+        swaggerDefinitions.clear();
+        swaggerDefinitions.put(API_ID, getSwagger("consent"));
+        swaggerDefinitions.put(OTHER_API_ID, getSwagger("non-regulatory"));
+        retrievalCount.set(0);
+        apiIds = new ArrayList<>(Arrays.asList(API_ID, OTHER_API_ID));
+        registry = new APIDefinitionRegistry(apiId -> {
+            retrievalCount.incrementAndGet();
+            String swagger = swaggerDefinitions.get(apiId);
+            if (swagger == null) {
+                throw new OpenBankingRuntimeException("Failed to retrieve swagger definition from API");
+            }
+            return swagger;
+        }, () -> apiIds);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+
+        registry.stop();
+    }
+
+    @Test
+    public void testPrecomputedLookups() {
+
+        APIDefinition definition = registry.getDefinition(API_ID);
+
+        Assert.assertEquals(definition.getApiId(), API_ID);
+        Assert.assertEquals(definition.getApiType(), "consent");
+        Assert.assertEquals(definition.getOpenAPI().getInfo().getTitle(), "TestAPI");
+        Assert.assertEquals(definition.getAllowedOAuthFlows("/accounts", "GET"),
+                Collections.singletonList("authorization_code"));
+        Assert.assertEquals(definition.getAllowedOAuthFlows("/accounts", "get"),
+                Collections.singletonList("authorization_code"));
+        Assert.assertEquals(definition.getAllowedOAuthFlows("/consents", "POST"),
+                Collections.singletonList("client_credentials"));
+        Assert.assertNull(definition.getAllowedOAuthFlows("/consents", "DELETE"));
+        Assert.assertNull(definition.getAllowedOAuthFlows("/unknown", "GET"));
+    }
+
+    @Test
+    public void testDefinitionIsLoadedOnce() {
+
+        APIDefinition definition = registry.getDefinition(API_ID);
+
+        Assert.assertSame(registry.getDefinition(API_ID), definition);
+        Assert.assertEquals(retrievalCount.get(), 1);
+    }
+
+    @Test
+    public void testRefreshReplacesOnlyChangedDefinitions() {
+
+        APIDefinition definition = registry.getDefinition(API_ID);
+
+        registry.refresh(API_ID);
+        Assert.assertSame(registry.getDefinition(API_ID), definition);
+
+        swaggerDefinitions.put(API_ID, getSwagger("non-regulatory"));
+        registry.refresh(API_ID);
+        APIDefinition refreshedDefinition = registry.getDefinition(API_ID);
+        Assert.assertNotSame(refreshedDefinition, definition);
+        Assert.assertEquals(refreshedDefinition.getApiType(), "non-regulatory");
+    }
+
+    @Test
+    public void testRefreshAllSyncsDeployedAPIs() {
+
+        registry.refreshAll();
+        Assert.assertEquals(retrievalCount.get(), 2);
+
+        registry.getDefinition(API_ID);
+        registry.getDefinition(OTHER_API_ID);
+        Assert.assertEquals(retrievalCount.get(), 2);
+
+        apiIds.remove(OTHER_API_ID);
+        registry.refreshAll();
+        registry.getDefinition(OTHER_API_ID);
+        Assert.assertEquals(retrievalCount.get(), 4);
+    }
+
+    @Test(expectedExceptions = OpenBankingRuntimeException.class)
+    public void testUnavailableDefinition() {
+
+        registry.getDefinition("unknown-api");
+    }
+
+    private String getSwagger(String apiType) {
+
+        return "openapi: 3.0.1\n" +
+                "info:\n" +
+                "  title: TestAPI\n" +
+                "  version: \"1.0.0\"\n" +
+                "paths:\n" +
+                "  /accounts:\n" +
+                "    get:\n" +
+                "      responses:\n" +
+                "        200:\n" +
+                "          description: Accounts retrieval success\n" +
+                "      security:\n" +
+                "      - PSUOAuth2Security:\n" +
+                "        - accounts\n" +
+                "      - default:\n" +
+                "        - accounts\n" +
+                "  /consents:\n" +
+                "    post:\n" +
+                "      responses:\n" +
+                "        201:\n" +
+                "          description: Consent creation success\n" +
+                "      security:\n" +
+                "      - TPPOAuth2Security:\n" +
+                "        - accounts\n" +
+                "components:\n" +
+                "  securitySchemes:\n" +
+                "    TPPOAuth2Security:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        clientCredentials:\n" +
+                "          tokenUrl: https://authserver.example/token\n" +
+                "          scopes:\n" +
+                "            accounts: Ability to read Accounts information\n" +
+                "    PSUOAuth2Security:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        authorizationCode:\n" +
+                "          authorizationUrl: https://authserver.example/authorization\n" +
+                "          tokenUrl: https://authserver.example/token\n" +
+                "          scopes:\n" +
+                "            accounts: Ability to read Accounts information\n" +
+                "    default:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        implicit:\n" +
+                "          authorizationUrl: https://test.com\n" +
+                "          scopes:\n" +
+                "            accounts: Ability to read Accounts information\n" +
+                "x-wso2-api-type: " + apiType + "\n";
+    }
+}
@@ -17,6 +17,7 @@
  */
 package com.wso2.openbanking.accelerator.gateway.executor.core;
 
+import com.wso2.openbanking.accelerator.gateway.api.APIDefinition;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.executor.test.util.TestUtil;
@@ -26,9 +27,11 @@ import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import org.wso2.carbon.apimgt.common.gateway.dto.APIRequestInfoDTO;
 import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -116,4 +119,67 @@ public class DefaultRequestRouterTest {
         Assert.assertNotNull(defaultRequestRouter.getExecutorsForRequest(obapiRequestContext));
         Assert.assertNotNull(defaultRequestRouter.getExecutorsForResponse(obapiResponseContext));
     }
+
+    @Test(priority = 3)
+    public void testRoutesAreResolvedPerAPIDefinition() {
+
+        OBAPIRequestContext obapiRequestContext = Mockito.mock(OBAPIRequestContext.class);
+        OBAPIResponseContext obapiResponseContext = Mockito.mock(OBAPIResponseContext.class);
+        MsgInfoDTO msgInfoDTO = new MsgInfoDTO();
+        msgInfoDTO.setResource("/accounts/1234");
+        msgInfoDTO.setElectedResource("/accounts/{AccountId}");
+        APIRequestInfoDTO apiRequestInfoDTO = new APIRequestInfoDTO();
+        apiRequestInfoDTO.setApiId("test-api-id");
+        apiRequestInfoDTO.setContext("/open-banking/v3.1/aisp");
+        OpenAPI regulatoryAPI = new OpenAPI();
+        regulatoryAPI.setExtensions(new HashMap<>());
+        Mockito.when(obapiRequestContext.getApiDefinition())
+                .thenReturn(new APIDefinition("test-api-id", "digest-1", regulatoryAPI));
+        Mockito.when(obapiRequestContext.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
+        Mockito.when(obapiRequestContext.getMsgInfo()).thenReturn(msgInfoDTO);
+        Mockito.when(obapiResponseContext.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
+        Mockito.when(obapiResponseContext.getMsgInfo()).thenReturn(msgInfoDTO);
+        Mockito.when(obapiResponseContext.getContextProps()).thenReturn(new HashMap<>());
+
+        List<OpenBankingGatewayExecutor> defaultExecutors = defaultRequestRouter.getExecutorMap().get("Default");
+        Assert.assertEquals(defaultRequestRouter.getExecutorsForRequest(obapiRequestContext), defaultExecutors);
+        Assert.assertEquals(defaultRequestRouter.getExecutorsForResponse(obapiResponseContext), defaultExecutors);
+
+        // Route is resolved again once the API definition is updated
+        OpenAPI nonRegulatoryAPI = new OpenAPI();
+        Map<String, Object> extensions = new HashMap<>();
+        extensions.put(GatewayConstants.API_TYPE_CUSTOM_PROP, GatewayConstants.API_TYPE_NON_REGULATORY);
+        nonRegulatoryAPI.setExtensions(extensions);
+        Mockito.when(obapiRequestContext.getApiDefinition())
+                .thenReturn(new APIDefinition("test-api-id", "digest-2", nonRegulatoryAPI));
+        Assert.assertEquals(defaultRequestRouter.getExecutorsForRequest(obapiRequestContext).size(), 0);
+        Mockito.verify(obapiRequestContext).addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP,
+                GatewayConstants.API_TYPE_NON_REGULATORY);
+    }
+
+    @Test(priority = 3)
+    public void testDCRRoutesAreResolvedWithAPIContext() {
+
+        OBAPIRequestContext obapiRequestContext = Mockito.mock(OBAPIRequestContext.class);
+        OBAPIResponseContext obapiResponseContext = Mockito.mock(OBAPIResponseContext.class);
+        MsgInfoDTO msgInfoDTO = new MsgInfoDTO();
+        msgInfoDTO.setResource("/open-banking/v3.3/register/1234");
+        msgInfoDTO.setElectedResource("/{ClientId}");
+        APIRequestInfoDTO apiRequestInfoDTO = new APIRequestInfoDTO();
+        apiRequestInfoDTO.setApiId("test-dcr-api-id");
+        apiRequestInfoDTO.setContext("/open-banking/v3.3/register");
+        OpenAPI dcrAPI = new OpenAPI();
+        dcrAPI.setExtensions(new HashMap<>());
+        Mockito.when(obapiRequestContext.getApiDefinition())
+                .thenReturn(new APIDefinition("test-dcr-api-id", "digest-1", dcrAPI));
+        Mockito.when(obapiRequestContext.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
+        Mockito.when(obapiRequestContext.getMsgInfo()).thenReturn(msgInfoDTO);
+        Mockito.when(obapiResponseContext.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
+        Mockito.when(obapiResponseContext.getMsgInfo()).thenReturn(msgInfoDTO);
+        Mockito.when(obapiResponseContext.getContextProps()).thenReturn(new HashMap<>());
+
+        List<OpenBankingGatewayExecutor> dcrExecutors = defaultRequestRouter.getExecutorMap().get("DCR");
+        Assert.assertEquals(defaultRequestRouter.getExecutorsForRequest(obapiRequestContext), dcrExecutors);
+        Assert.assertEquals(defaultRequestRouter.getExecutorsForResponse(obapiResponseContext), dcrExecutors);
+    }
 }
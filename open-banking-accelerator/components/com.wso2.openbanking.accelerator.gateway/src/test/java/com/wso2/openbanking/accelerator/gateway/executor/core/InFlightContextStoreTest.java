@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.core;
+
+import com.wso2.openbanking.accelerator.gateway.cache.GatewayCache;
+import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test for in-flight context store.
+ */
+public class InFlightContextStoreTest {
+
+    @Test
+    public void testContextIsCarriedAcrossPhases() {
+
+        InFlightContextStore store = new InFlightContextStore(10, 60000, Mockito.mock(GatewayCache.class));
+        Map<String, String> contextProps = new HashMap<>();
+        contextProps.put("consentId", "1234");
+        Map<String, Object> analyticsData = new HashMap<>();
+        analyticsData.put("apiName", "AccountsAPI");
+
+        store.put("msg-1", contextProps, analyticsData);
+        InFlightContextStore.Entry entry = store.get("msg-1");
+        Assert.assertEquals(entry.getContextProps(), contextProps);
+        Assert.assertEquals(entry.getAnalyticsData(), analyticsData);
+        Assert.assertEquals(store.getLiveEntryCount(), 1);
+
+        // Later phases keep the creation time of the exchange
+        store.put("msg-1", new HashMap<>(), new HashMap<>());
+        Assert.assertEquals(store.get("msg-1").getCreatedTime(), entry.getCreatedTime());
+        Assert.assertTrue(store.get("msg-1").getContextProps().isEmpty());
+
+        store.remove("msg-1");
+        Assert.assertNull(store.get("msg-1"));
+        Assert.assertEquals(store.getLiveEntryCount(), 0);
+    }
+
+    @Test
+    public void testStoreIsBounded() {
+
+        GatewayCache fallbackCache = Mockito.mock(GatewayCache.class);
+        InFlightContextStore store = new InFlightContextStore(2, 60000, fallbackCache);
+        store.put("msg-1", new HashMap<>(), new HashMap<>());
+        store.put("msg-2", new HashMap<>(), new HashMap<>());
+        Assert.assertNull(store.get("msg-3"));
+        Mockito.verify(fallbackCache, Mockito.never()).getFromCache(Mockito.any(GatewayCacheKey.class));
+
+        Map<String, String> contextProps = new HashMap<>();
+        contextProps.put("consentId", "1234");
+        store.put("msg-3", contextProps, new HashMap<>());
+        Assert.assertEquals(store.getLiveEntryCount(), 2);
+        Assert.assertEquals(store.getFallbackEntryCount(), 1);
+
+        // Context of the exchange is stored in the gateway cache instead
+        GatewayCacheKey contextKey = GatewayCacheKey.of("msg-3" + GatewayConstants.CONTEXT_PROP_CACHE_KEY);
+        Mockito.verify(fallbackCache).addToCache(contextKey, contextProps);
+        Mockito.when(fallbackCache.getFromCache(contextKey)).thenReturn(contextProps);
+        Assert.assertEquals(store.get("msg-3").getContextProps(), contextProps);
+        Assert.assertTrue(store.get("msg-3").getAnalyticsData().isEmpty());
+        store.remove("msg-3");
+        Mockito.verify(fallbackCache).removeFromCache(contextKey);
+
+        // Existing exchanges can still be updated
+        store.put("msg-1", new HashMap<>(), new HashMap<>());
+        Assert.assertEquals(store.getFallbackEntryCount(), 1);
+        store.remove("msg-1");
+        Mockito.verify(fallbackCache, Mockito.never()).removeFromCache(
+                GatewayCacheKey.of("msg-1" + GatewayConstants.CONTEXT_PROP_CACHE_KEY));
+    }
+
+    @Test
+    public void testSweepRemovesOrphanedEntries() throws InterruptedException {
+
+        InFlightContextStore store = new InFlightContextStore(10, 50, Mockito.mock(GatewayCache.class));
+        store.put("msg-1", new HashMap<>(), new HashMap<>());
+        Thread.sleep(100);
+        store.put("msg-2", new HashMap<>(), new HashMap<>());
+
+        store.sweep();
+        Assert.assertNull(store.get("msg-1"));
+        Assert.assertNotNull(store.get("msg-2"));
+        Assert.assertEquals(store.getOrphanedEntryCount(), 1);
+        Assert.assertEquals(store.getLiveEntryCount(), 1);
+    }
+}
@@ -120,9 +120,13 @@ public class OpenBankingIdempotencyHandlingExecutorTests extends PowerMockTestCa
         when(obapiResponseContextMock.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
         when(apiRequestInfoDTO.getConsumerKey()).thenReturn(sampleConsumerKey);
 
+        OpenBankingIdempotencyHandlingExecutorImpl openBankingIdempotencyHandlingExecutorImpl =
+                new OpenBankingIdempotencyHandlingExecutorImpl();
+        String requestDigest = openBankingIdempotencyHandlingExecutorImpl.getRequestDigest(sampleResponsePayload);
+
         // Mocking context props
         Map<String, String> contextProps = new HashMap<>();
-        contextProps.put(GatewayConstants.REQUEST_CACHE_KEY, sampleResponsePayload);
+        contextProps.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY, requestDigest);
         contextProps.put(GatewayConstants.IDEMPOTENCY_KEY_CACHE_KEY, sampleIdempotencyKey);
         when(obapiResponseContextMock.getContextProps()).thenReturn(contextProps);
 
@@ -136,13 +140,11 @@ public class OpenBankingIdempotencyHandlingExecutorTests extends PowerMockTestCa
         // Mocking elected resource
         when(msgInfoDTO.getResource()).thenReturn(sampleElectedResource);
 
-        OpenBankingIdempotencyHandlingExecutorImpl openBankingIdempotencyHandlingExecutorImpl =
-                new OpenBankingIdempotencyHandlingExecutorImpl();
         openBankingIdempotencyHandlingExecutorImpl.postProcessResponse(obapiResponseContextMock);
 
         String cacheKey = sampleConsumerKey + "_" + sampleElectedResource + "_" + sampleIdempotencyKey;
         HashMap<String, String> expectedFromCache = new HashMap<>();
-        expectedFromCache.put(GatewayConstants.REQUEST_CACHE_KEY, sampleResponsePayload);
+        expectedFromCache.put(GatewayConstants.REQUEST_DIGEST_CACHE_KEY, requestDigest);
         expectedFromCache.put(GatewayConstants.RESPONSE_CACHE_KEY, sampleResponsePayload);
         expectedFromCache.put(GatewayConstants.CREATED_TIME_CACHE_KEY, sampleCreatedTime);
 
@@ -185,6 +187,86 @@ public class OpenBankingIdempotencyHandlingExecutorTests extends PowerMockTestCa
                 new OpenBankingIdempotencyHandlingExecutorImpl();
         openBankingIdempotencyHandlingExecutorImpl.postProcessRequest(obapiRequestContextMock);
 
+        // Cached response is returned for the repeated request
+        Mockito.verify(obapiRequestContextMock).setModifiedPayload(sampleResponsePayload);
+    }
+
+    @Test(priority = 3)
+    public void testConcurrentRequestWithSameIdempotencyKey() {
+
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.putAll(getDistributedCachingMockConfigurations());
+        configuration.putAll(getIdempotencyMockConfigurations());
+        Mockito.when(openBankingConfigParser.getConfiguration()).thenReturn(configuration);
+
+        PowerMockito.mockStatic(OpenBankingConfigParser.class);
+        PowerMockito.when(OpenBankingConfigParser.getInstance())
+                .thenReturn(openBankingConfigParser);
+
+        OpenBankingIdempotencyHandlingExecutorImpl openBankingIdempotencyHandlingExecutorImpl =
+                new OpenBankingIdempotencyHandlingExecutorImpl();
+        String inFlightIdempotencyKey = "c0a9a8f4-5d0d-4c1f-a3a4-7d1c3e1b6a10";
+
+        OBAPIRequestContext firstRequest = getRequestContextMock(inFlightIdempotencyKey,
+                "{\"amount\":\"10.00\",\"currency\":\"EUR\"}");
+        openBankingIdempotencyHandlingExecutorImpl.postProcessRequest(firstRequest);
+        Assert.assertEquals(firstRequest.getContextProps().get(GatewayConstants.IDEMPOTENCY_RESERVED),
+                GatewayConstants.TRUE);
+
+        // Same payload with a different field order, while the first request is in flight
+        OBAPIRequestContext secondRequest = getRequestContextMock(inFlightIdempotencyKey,
+                "{\"currency\":\"EUR\", \"amount\":\"10.00\"}");
+        openBankingIdempotencyHandlingExecutorImpl.postProcessRequest(secondRequest);
+        Mockito.verify(secondRequest).setError(true);
+        Assert.assertEquals(secondRequest.getErrors().get(0).getHttpStatusCode(), "409");
+        Assert.assertNull(secondRequest.getContextProps().get(GatewayConstants.IDEMPOTENCY_RESERVED));
+    }
+
+    @Test(priority = 4)
+    public void testReservationIsReleasedForFailedRequest() {
+
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.putAll(getDistributedCachingMockConfigurations());
+        configuration.putAll(getIdempotencyMockConfigurations());
+        Mockito.when(openBankingConfigParser.getConfiguration()).thenReturn(configuration);
+
+        PowerMockito.mockStatic(OpenBankingConfigParser.class);
+        PowerMockito.when(OpenBankingConfigParser.getInstance())
+                .thenReturn(openBankingConfigParser);
+
+        OpenBankingIdempotencyHandlingExecutorImpl openBankingIdempotencyHandlingExecutorImpl =
+                new OpenBankingIdempotencyHandlingExecutorImpl();
+        String failedIdempotencyKey = "5b0c0fe4-1f6e-4a7b-9a52-2f1f1c4e8d21";
+        String payload = "{\"amount\":\"10.00\",\"currency\":\"EUR\"}";
+
+        OBAPIRequestContext firstRequest = getRequestContextMock(failedIdempotencyKey, payload);
+        openBankingIdempotencyHandlingExecutorImpl.postProcessRequest(firstRequest);
+        Assert.assertEquals(firstRequest.getContextProps().get(GatewayConstants.IDEMPOTENCY_RESERVED),
+                GatewayConstants.TRUE);
+
+        // A later executor failed the first request, hence the retry is not rejected as in flight
+        OpenBankingIdempotencyHandlingExecutor.releaseReservation(firstRequest.getContextProps());
+        OBAPIRequestContext retry = getRequestContextMock(failedIdempotencyKey, payload);
+        openBankingIdempotencyHandlingExecutorImpl.postProcessRequest(retry);
+        Mockito.verify(retry, Mockito.never()).setError(true);
+        Assert.assertEquals(retry.getContextProps().get(GatewayConstants.IDEMPOTENCY_RESERVED),
+                GatewayConstants.TRUE);
+    }
+
+    private OBAPIRequestContext getRequestContextMock(String idempotencyKey, String payload) {
+
+        OBAPIRequestContext requestContext = Mockito.mock(OBAPIRequestContext.class);
+        MsgInfoDTO requestMsgInfo = Mockito.mock(MsgInfoDTO.class);
+        Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put(idempotencyCacheKeyHeader, idempotencyKey);
+        when(requestMsgInfo.getHeaders()).thenReturn(requestHeaders);
+        when(requestMsgInfo.getResource()).thenReturn(sampleElectedResource);
+        when(requestContext.getMsgInfo()).thenReturn(requestMsgInfo);
+        when(requestContext.getApiRequestInfo()).thenReturn(apiRequestInfoDTO);
+        when(requestContext.getRequestPayload()).thenReturn(payload);
+        when(requestContext.getContextProps()).thenReturn(new HashMap<>());
+        when(requestContext.getErrors()).thenReturn(new ArrayList<>());
+        return requestContext;
     }
 
     private Map<String, Object> getDistributedCachingMockConfigurations() {
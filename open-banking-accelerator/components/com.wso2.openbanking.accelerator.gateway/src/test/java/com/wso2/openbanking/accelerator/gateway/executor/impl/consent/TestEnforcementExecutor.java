@@ -33,6 +33,7 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -107,4 +108,46 @@ public class TestEnforcementExecutor {
                 "400");
     }
 
+    @Test
+    public void testDecisionCacheKeyIgnoresNonKeyHeaders() {
+
+        GatewayDataHolder.getInstance().setConsentValidationCacheKeyHeaders(Arrays.asList("x-fapi-financial-id"));
+        Map<String, Object> additionalParams = new HashMap<>();
+        additionalParams.put(ConsentEnforcementExecutor.ELECTED_RESOURCE_TAG, "/accounts");
+        additionalParams.put(ConsentEnforcementExecutor.CLIENT_ID_TAG, "clientId");
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-fapi-financial-id", "financialId");
+        headers.put("x-fapi-interaction-id", "interaction-1");
+        Map<String, String> otherHeaders = new HashMap<>();
+        otherHeaders.put("X-Fapi-Financial-Id", "financialId");
+        otherHeaders.put("x-fapi-interaction-id", "interaction-2");
+
+        Assert.assertEquals(consentEnforcementExecutor.generateDecisionCacheKey(headers, null, additionalParams),
+                consentEnforcementExecutor.generateDecisionCacheKey(otherHeaders, null, additionalParams));
+    }
+
+    @Test
+    public void testDecisionCacheKeyCoversValidationInputs() {
+
+        GatewayDataHolder.getInstance().setConsentValidationCacheKeyHeaders(Arrays.asList("x-fapi-financial-id"));
+        Map<String, Object> additionalParams = new HashMap<>();
+        additionalParams.put(ConsentEnforcementExecutor.ELECTED_RESOURCE_TAG, "/accounts");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-fapi-financial-id", "financialId");
+        String key = consentEnforcementExecutor.generateDecisionCacheKey(headers, TestConstants.CUSTOM_PAYLOAD,
+                additionalParams);
+
+        Map<String, String> changedHeaders = new HashMap<>();
+        changedHeaders.put("x-fapi-financial-id", "otherFinancialId");
+        Assert.assertNotEquals(consentEnforcementExecutor.generateDecisionCacheKey(changedHeaders,
+                TestConstants.CUSTOM_PAYLOAD, additionalParams), key);
+        Assert.assertNotEquals(consentEnforcementExecutor.generateDecisionCacheKey(headers, null,
+                additionalParams), key);
+
+        Map<String, Object> changedParams = new HashMap<>(additionalParams);
+        changedParams.put(ConsentEnforcementExecutor.ELECTED_RESOURCE_TAG, "/accounts/{AccountId}");
+        Assert.assertNotEquals(consentEnforcementExecutor.generateDecisionCacheKey(headers,
+                TestConstants.CUSTOM_PAYLOAD, changedParams), key);
+    }
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.executor.util.TestValidationUtil;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.internal.WhiteboxImpl;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for CRL store.
+ */
+@PrepareForTest({CertificateValidationUtils.class})
+@PowerMockIgnore({"javax.security.auth.x500.*", "jdk.internal.reflect.*"})
+public class CRLStoreTest extends PowerMockTestCase {
+
+    private static final String CRL_URL = "http://crl.example.com/issuing-ca.crl";
+
+    private X509CRL x509CRL;
+    private X509Certificate issuerCertificate;
+
+    @BeforeClass
+    public void initClass() throws Exception {
+
+        try (InputStream inputStream = Files.newInputStream(Paths.get("src/test/resources/test_crl_entries.pem"))) {
+            x509CRL = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(inputStream);
+        }
+        issuerCertificate = TestValidationUtil.getTestEidasCertificateIssuer();
+    }
+
+    @BeforeMethod
+    public void initMethods() throws Exception {
+
+        // Date needs to be an old date than X509 next update date
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getNewDate())
+                .thenReturn(new SimpleDateFormat("dd/MM/yyyy").parse("17/03/2021"));
+    }
+
+    @Test
+    public void testCRLIsDownloadedOnce() throws Exception {
+
+        CRLStore crlStore = new CRLStore(0, null);
+        TestCRLSource source = new TestCRLSource(x509CRL);
+
+        CRLStore.CachedCRL cachedCRL = crlStore.getCRL(CRL_URL, issuerCertificate, source);
+        Assert.assertSame(crlStore.getCRL(CRL_URL, issuerCertificate, source), cachedCRL);
+        Assert.assertEquals(source.downloadCount.get(), 1);
+        Assert.assertTrue(cachedCRL.getRevokedCount() > 0);
+
+        X509CRLEntry revokedEntry = x509CRL.getRevokedCertificates().iterator().next();
+        Assert.assertTrue(cachedCRL.isRevoked(mockCertificate(revokedEntry.getSerialNumber())));
+        Assert.assertFalse(cachedCRL.isRevoked(mockCertificate(BigInteger.valueOf(-1))));
+    }
+
+    @Test(expectedExceptions = CertificateValidationException.class)
+    public void testCertificateOfOtherIssuer() throws Exception {
+
+        CRLStore.CachedCRL cachedCRL = new CRLStore(0, null).getCRL(CRL_URL, issuerCertificate,
+                new TestCRLSource(x509CRL));
+        cachedCRL.isRevoked(TestValidationUtil.getExpiredSelfCertificate());
+    }
+
+    @Test
+    public void testExpiredCRLIsDownloadedAgain() throws Exception {
+
+        CRLStore crlStore = new CRLStore(0, null);
+        TestCRLSource source = new TestCRLSource(x509CRL);
+        crlStore.getCRL(CRL_URL, issuerCertificate, source);
+
+        PowerMockito.when(CertificateValidationUtils.getNewDate())
+                .thenReturn(new SimpleDateFormat("dd/MM/yyyy").parse("19/03/2021"));
+        crlStore.getCRL(CRL_URL, issuerCertificate, source);
+        Assert.assertEquals(source.downloadCount.get(), 2);
+    }
+
+    @Test
+    public void testUnusedCRLIsRemovedOnRefresh() throws Exception {
+
+        CRLStore crlStore = new CRLStore(0, null);
+        TestCRLSource source = new TestCRLSource(x509CRL);
+        String key = WhiteboxImpl.invokeMethod(CRLStore.class, "getKey", CRL_URL, issuerCertificate);
+
+        // CRL which has not been used since the download is removed
+        CRLStore.CachedCRL cachedCRL = crlStore.getCRL(CRL_URL, issuerCertificate, source);
+        WhiteboxImpl.invokeMethod(crlStore, "refresh", key, cachedCRL);
+        Assert.assertEquals(source.downloadCount.get(), 1);
+        Assert.assertNotSame(crlStore.getCRL(CRL_URL, issuerCertificate, source), cachedCRL);
+        Assert.assertEquals(source.downloadCount.get(), 2);
+
+        // CRL which has been used is downloaded again
+        cachedCRL = crlStore.getCRL(CRL_URL, issuerCertificate, source);
+        WhiteboxImpl.invokeMethod(crlStore, "refresh", key, cachedCRL);
+        Assert.assertEquals(source.downloadCount.get(), 3);
+        Assert.assertNotSame(crlStore.getCRL(CRL_URL, issuerCertificate, source), cachedCRL);
+        Assert.assertEquals(source.downloadCount.get(), 3);
+    }
+
+    @Test
+    public void testPersistedCRLIsReused() throws Exception {
+
+        File persistenceDirectory = Files.createTempDirectory("ob-crl-store").toFile();
+        persistenceDirectory.deleteOnExit();
+
+        TestCRLSource source = new TestCRLSource(x509CRL);
+        new CRLStore(0, persistenceDirectory).getCRL(CRL_URL, issuerCertificate, source);
+        File[] persistedFiles = persistenceDirectory.listFiles();
+        Assert.assertNotNull(persistedFiles);
+        Assert.assertEquals(persistedFiles.length, 1);
+        persistedFiles[0].deleteOnExit();
+
+        // CRL is loaded from the disk after a restart
+        TestCRLSource restartedSource = new TestCRLSource(x509CRL);
+        Assert.assertNotNull(new CRLStore(0, persistenceDirectory).getCRL(CRL_URL, issuerCertificate,
+                restartedSource));
+        Assert.assertEquals(restartedSource.downloadCount.get(), 0);
+
+        // Persisted CRL which is no longer valid is downloaded again
+        restartedSource.valid = false;
+        Assert.assertNotNull(new CRLStore(0, persistenceDirectory).getCRL(CRL_URL, issuerCertificate,
+                restartedSource));
+        Assert.assertEquals(restartedSource.downloadCount.get(), 1);
+    }
+
+    private X509Certificate mockCertificate(BigInteger serialNumber) {
+
+        X509Certificate certificate = Mockito.mock(X509Certificate.class);
+        Mockito.doReturn(x509CRL.getIssuerX500Principal()).when(certificate).getIssuerX500Principal();
+        Mockito.doReturn(serialNumber).when(certificate).getSerialNumber();
+        return certificate;
+    }
+
+    /**
+     * CRL source which returns the given CRL.
+     */
+    private class TestCRLSource implements CRLStore.CRLSource {
+
+        private final X509CRL x509CRL;
+        private final AtomicInteger downloadCount = new AtomicInteger();
+        private boolean valid = true;
+
+        TestCRLSource(X509CRL x509CRL) {
+
+            this.x509CRL = x509CRL;
+        }
+
+        @Override
+        public X509CRL download() {
+
+            downloadCount.incrementAndGet();
+            return x509CRL;
+        }
+
+        @Override
+        public boolean isValid(X509CRL x509CRL) {
+
+            return valid;
+        }
+
+        @Override
+        public X509Certificate getIssuerCertificate() {
+
+            return issuerCertificate;
+        }
+    }
+}
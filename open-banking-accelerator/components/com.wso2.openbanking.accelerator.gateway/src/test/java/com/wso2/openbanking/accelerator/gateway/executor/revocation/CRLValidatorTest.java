@@ -37,6 +37,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.Whitebox;
 import org.powermock.reflect.internal.WhiteboxImpl;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -53,6 +54,7 @@ import java.security.PublicKey;
 import java.security.cert.CRLException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
 import java.security.cert.X509Certificate;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
@@ -84,6 +86,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
 
     @BeforeMethod
     public void initMethods() throws IOException, OpenBankingException {
+        Whitebox.setInternalState(CRLStore.class, "crlStore", new CRLStore(0, null));
+
         StatusLine statusLineMock = Mockito.mock(StatusLine.class);
         Mockito.doReturn(HttpStatus.SC_OK).when(statusLineMock).getStatusCode();
 
@@ -102,7 +106,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doReturn(httpResponseMock).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
     }
 
     @Test
@@ -125,6 +130,26 @@ public class CRLValidatorTest extends PowerMockTestCase {
 
     }
 
+    @Test(description = "when CRL is stored, then CRL should not be downloaded again")
+    public void testStoredCRLIsReused() throws Exception {
+        TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
+        PowerMockito.mockStatic(TPPCertValidatorDataHolder.class);
+        PowerMockito.when(TPPCertValidatorDataHolder.getInstance()).thenReturn(tppCertValidatorDataHolder);
+
+        // Date needs to be an old date than X509 next update date
+        Date dateMock = new SimpleDateFormat("dd/MM/yyyy").parse("17/03/2021");
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getNewDate()).thenReturn(dateMock);
+
+        RevocationStatus status = this.crlValidator.checkRevocationStatus(eidasPeerCertificate,
+                eidasPeerCertificateIssuer);
+        Assert.assertSame(this.crlValidator.checkRevocationStatus(eidasPeerCertificate, eidasPeerCertificateIssuer),
+                status);
+
+        PowerMockito.verifyStatic(Mockito.times(1));
+        HTTPClientUtils.getSharedHttpsClient(Mockito.anyString());
+    }
+
     @Test(description = "when valid proxy provided, then X509URL should not be null")
     public void testDownloadCRLFromWebWithProxy() throws Exception {
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
@@ -171,7 +196,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doReturn(httpResponseMock).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -188,7 +214,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(IOException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -205,7 +232,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(CertificateException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -222,7 +250,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(CRLException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -239,7 +268,8 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(MalformedURLException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -303,11 +333,16 @@ public class CRLValidatorTest extends PowerMockTestCase {
 
     @Test(description = "when certificate is revoked, then return revoked revocation status")
     public void testGetRevocationStatusFromCRLWithRevokedCert() throws Exception {
+        X509CRLEntry x509CRLEntryMock = Mockito.mock(X509CRLEntry.class);
+        Mockito.doReturn(eidasPeerCertificate.getSerialNumber()).when(x509CRLEntryMock).getSerialNumber();
         X509CRL x509CRLMock = Mockito.mock(X509CRL.class);
-        Mockito.doReturn(true).when(x509CRLMock).isRevoked(eidasPeerCertificate);
+        Mockito.doReturn(eidasPeerCertificate.getIssuerX500Principal()).when(x509CRLMock).getIssuerX500Principal();
+        Mockito.doReturn(Collections.singleton(x509CRLEntryMock)).when(x509CRLMock).getRevokedCertificates();
+        CRLStore.CachedCRL cachedCRL = new CRLStore.CachedCRL("http://crl.example.com", x509CRLMock,
+                eidasPeerCertificateIssuer.getPublicKey(), null);
 
         RevocationStatus actual = WhiteboxImpl.invokeMethod(this.crlValidator, "getRevocationStatusFromCRL",
-                x509CRLMock, eidasPeerCertificate);
+                cachedCRL, eidasPeerCertificate);
 
         Assert.assertSame(actual, RevocationStatus.REVOKED);
     }
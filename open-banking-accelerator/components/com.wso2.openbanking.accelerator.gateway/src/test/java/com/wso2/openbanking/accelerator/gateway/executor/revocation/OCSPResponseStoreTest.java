@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.TestValidationUtil;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for OCSP response store.
+ */
+public class OCSPResponseStoreTest {
+
+    private static final long MAX_CACHE_TIME_MILLIS = TimeUnit.HOURS.toMillis(2);
+
+    private CertificateID firstCertificateID;
+    private CertificateID secondCertificateID;
+
+    @BeforeClass
+    public void init() throws Exception {
+
+        X509CertificateHolder issuer = new X509CertificateHolder(
+                TestValidationUtil.getTestEidasCertificateIssuer().getEncoded());
+        firstCertificateID = new CertificateID(new JcaDigestCalculatorProviderBuilder().build()
+                .get(CertificateID.HASH_SHA1), issuer, BigInteger.ONE);
+        secondCertificateID = new CertificateID(new JcaDigestCalculatorProviderBuilder().build()
+                .get(CertificateID.HASH_SHA1), issuer, BigInteger.TEN);
+    }
+
+    @Test
+    public void testResponseIsStoredUntilNextUpdate() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        AtomicInteger lookupCount = new AtomicInteger();
+        Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        OCSPResponseStore.ResponderLookup lookup = certificateIDs -> {
+            lookupCount.incrementAndGet();
+            return mockBasicResponse(nextUpdate, certificateIDs.toArray(new CertificateID[0]));
+        };
+
+        SingleResp response = store.getResponses(Collections.singletonList(firstCertificateID), lookup)
+                .get(firstCertificateID);
+        Assert.assertNotNull(response);
+        Assert.assertSame(store.getResponses(Collections.singletonList(firstCertificateID), lookup)
+                .get(firstCertificateID), response);
+        Assert.assertEquals(lookupCount.get(), 1);
+    }
+
+    @Test
+    public void testResponseIsNotStoredBeyondMaxCacheTime() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(0);
+        AtomicInteger lookupCount = new AtomicInteger();
+        Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        OCSPResponseStore.ResponderLookup lookup = certificateIDs -> {
+            lookupCount.incrementAndGet();
+            return mockBasicResponse(nextUpdate, certificateIDs.toArray(new CertificateID[0]));
+        };
+
+        store.getResponses(Collections.singletonList(firstCertificateID), lookup);
+        Thread.sleep(5);
+        store.getResponses(Collections.singletonList(firstCertificateID), lookup);
+        Assert.assertEquals(lookupCount.get(), 2);
+    }
+
+    @Test
+    public void testResponseWithoutNextUpdateIsNotStored() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        AtomicInteger lookupCount = new AtomicInteger();
+        OCSPResponseStore.ResponderLookup lookup = certificateIDs -> {
+            lookupCount.incrementAndGet();
+            return mockBasicResponse(null, certificateIDs.toArray(new CertificateID[0]));
+        };
+
+        store.getResponses(Collections.singletonList(firstCertificateID), lookup);
+        store.getResponses(Collections.singletonList(firstCertificateID), lookup);
+        Assert.assertEquals(lookupCount.get(), 2);
+    }
+
+    @Test
+    public void testMissingCertificatesAreLookedUpTogether() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        List<List<CertificateID>> lookups = new ArrayList<>();
+        Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        OCSPResponseStore.ResponderLookup lookup = certificateIDs -> {
+            lookups.add(certificateIDs);
+            return mockBasicResponse(nextUpdate, certificateIDs.toArray(new CertificateID[0]));
+        };
+
+        store.getResponses(Collections.singletonList(firstCertificateID), lookup);
+        Map<CertificateID, SingleResp> responses = store.getResponses(
+                Arrays.asList(firstCertificateID, secondCertificateID), lookup);
+
+        Assert.assertEquals(responses.size(), 2);
+        Assert.assertNotNull(responses.get(firstCertificateID));
+        Assert.assertNotNull(responses.get(secondCertificateID));
+        Assert.assertEquals(lookups.size(), 2);
+        Assert.assertEquals(lookups.get(1), Collections.singletonList(secondCertificateID));
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalesced() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        AtomicInteger lookupCount = new AtomicInteger();
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        OCSPResponseStore.ResponderLookup lookup = certificateIDs -> {
+            lookupCount.incrementAndGet();
+            lookupStarted.countDown();
+            try {
+                releaseLookup.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mockBasicResponse(null, certificateIDs.toArray(new CertificateID[0]));
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<CertificateID, SingleResp>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executorService.submit(() ->
+                        store.getResponses(Collections.singletonList(firstCertificateID), lookup)));
+            }
+            Assert.assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            releaseLookup.countDown();
+
+            for (Future<Map<CertificateID, SingleResp>> result : results) {
+                Assert.assertNotNull(result.get(5, TimeUnit.SECONDS).get(firstCertificateID));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(lookupCount.get(), 1);
+    }
+
+    @Test
+    public void testFailedLookupIsNotStored() throws Exception {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        try {
+            store.getResponses(Collections.singletonList(firstCertificateID), certificateIDs -> {
+                throw new CertificateValidationException("Responder unavailable");
+            });
+            Assert.fail("Failed lookup should be rethrown");
+        } catch (CertificateValidationException e) {
+            Assert.assertEquals(e.getMessage(), "Responder unavailable");
+        }
+
+        Map<CertificateID, SingleResp> responses = store.getResponses(
+                Collections.singletonList(firstCertificateID), certificateIDs -> null);
+        Assert.assertTrue(responses.containsKey(firstCertificateID));
+        Assert.assertNull(responses.get(firstCertificateID));
+    }
+
+    @Test
+    public void testResponderMetrics() {
+
+        OCSPResponseStore store = new OCSPResponseStore(MAX_CACHE_TIME_MILLIS);
+        store.getResponderMetrics("http://ocsp.example.com").recordSuccess(20);
+        store.getResponderMetrics("http://ocsp.example.com").recordError();
+
+        OCSPResponseStore.ResponderMetrics metrics = store.getResponderMetrics().get("http://ocsp.example.com");
+        Assert.assertEquals(metrics.getLatency().getTotalCount(), 1);
+        Assert.assertEquals(metrics.getLatency().getMaxValue(), 20);
+        Assert.assertEquals(metrics.getErrorCount(), 1);
+        Assert.assertEquals(store.getLatencyHistograms().get("http://ocsp.example.com").getTotalCount(), 1);
+        Assert.assertEquals(store.getErrorCounts().get("http://ocsp.example.com").longValue(), 1L);
+    }
+
+    private static BasicOCSPResp mockBasicResponse(Date nextUpdate, CertificateID... certificateIDs) {
+
+        SingleResp[] singleResponses = new SingleResp[certificateIDs.length];
+        for (int i = 0; i < certificateIDs.length; i++) {
+            SingleResp singleResponse = Mockito.mock(SingleResp.class);
+            Mockito.doReturn(certificateIDs[i]).when(singleResponse).getCertID();
+            Mockito.doReturn(nextUpdate).when(singleResponse).getNextUpdate();
+            singleResponses[i] = singleResponse;
+        }
+        BasicOCSPResp basicResponse = Mockito.mock(BasicOCSPResp.class);
+        Mockito.doReturn(singleResponses).when(basicResponse).getResponses();
+        return basicResponse;
+    }
+}
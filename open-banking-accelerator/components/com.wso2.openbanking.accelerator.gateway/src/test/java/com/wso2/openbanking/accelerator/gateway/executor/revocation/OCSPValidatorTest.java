@@ -30,11 +30,25 @@ import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
 import org.bouncycastle.cert.ocsp.CertificateStatus;
 import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.RespID;
 import org.bouncycastle.cert.ocsp.RevokedStatus;
 import org.bouncycastle.cert.ocsp.SingleResp;
 import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -48,10 +62,18 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test for OCSP validator.
@@ -93,9 +115,14 @@ public class OCSPValidatorTest extends PowerMockTestCase {
 
     @Test(description = "when valid certificate provided, then OCSP object should return")
     public void testGenerateOCSPRequestWithValidCert() throws Exception {
+        CertificateID certificateID = WhiteboxImpl.invokeMethod(this.ocspValidator,
+                "generateCertificateID", testPeerCertificateIssuer, expiredPeerCertificate.getSerialNumber());
         OCSPReq ocspRequest = WhiteboxImpl.invokeMethod(this.ocspValidator,
-                "generateOCSPRequest", testPeerCertificateIssuer, expiredPeerCertificate.getSerialNumber());
+                "generateOCSPRequest", Collections.singletonList(certificateID));
         Assert.assertNotNull(ocspRequest);
+        Assert.assertEquals(ocspRequest.getRequestList().length, 1);
+        Assert.assertEquals(ocspRequest.getRequestList()[0].getCertID().getSerialNumber(),
+                expiredPeerCertificate.getSerialNumber());
     }
 
     @Test
@@ -117,7 +144,8 @@ public class OCSPValidatorTest extends PowerMockTestCase {
         CloseableHttpClient closeableHttpClientMock = Mockito.mock(CloseableHttpClient.class);
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         Mockito.when(tppCertValidatorDataHolder.isCertificateRevocationProxyEnabled()).thenReturn(true);
         Mockito.when(tppCertValidatorDataHolder.getCertificateRevocationProxyHost()).thenReturn(" ");
@@ -150,7 +178,8 @@ public class OCSPValidatorTest extends PowerMockTestCase {
         Mockito.doReturn(httpResponseMock).when(closeableHttpClientMock).execute(Mockito.any(HttpPost.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         Mockito.doReturn(true).when(tppCertValidatorDataHolder).isCertificateRevocationProxyEnabled();
         Mockito.doReturn("localhost").when(tppCertValidatorDataHolder).getCertificateRevocationProxyHost();
@@ -171,7 +200,8 @@ public class OCSPValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(IOException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpPost.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getSharedHttpsClient(Mockito.anyString()))
+                .thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolderMock = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -221,4 +251,85 @@ public class OCSPValidatorTest extends PowerMockTestCase {
 
         Assert.assertSame(revocationStatus, RevocationStatus.UNKNOWN);
     }
+
+    @Test(description = "when response is signed by the issuer, then signature should be valid")
+    public void testResponseSignedByIssuerIsVerified() throws Exception {
+        KeyPair issuerKeyPair = generateKeyPair();
+        X509Certificate issuerCert = generateCertificate("CN=Test Issuer", issuerKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), false);
+
+        Assert.assertTrue(OCSPValidator.isSignatureValid(generateBasicResponse(issuerKeyPair, issuerCert),
+                issuerCert));
+    }
+
+    @Test(description = "when response is signed by an unknown key, then signature should be invalid")
+    public void testResponseSignedByUnknownKeyIsRejected() throws Exception {
+        KeyPair issuerKeyPair = generateKeyPair();
+        KeyPair otherKeyPair = generateKeyPair();
+        X509Certificate issuerCert = generateCertificate("CN=Test Issuer", issuerKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), false);
+        X509Certificate otherCert = generateCertificate("CN=Test Issuer", otherKeyPair.getPublic(),
+                "CN=Test Issuer", otherKeyPair.getPrivate(), true);
+
+        Assert.assertFalse(OCSPValidator.isSignatureValid(generateBasicResponse(otherKeyPair, otherCert),
+                issuerCert));
+    }
+
+    @Test(description = "when response is signed by a responder authorized by the issuer, then signature should be " +
+            "valid")
+    public void testResponseSignedByAuthorizedResponderIsVerified() throws Exception {
+        KeyPair issuerKeyPair = generateKeyPair();
+        KeyPair responderKeyPair = generateKeyPair();
+        X509Certificate issuerCert = generateCertificate("CN=Test Issuer", issuerKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), false);
+        X509Certificate responderCert = generateCertificate("CN=Test Responder", responderKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), true);
+
+        Assert.assertTrue(OCSPValidator.isSignatureValid(generateBasicResponse(responderKeyPair, responderCert),
+                issuerCert));
+    }
+
+    @Test(description = "when responder certificate is not issued for OCSP signing, then signature should be invalid")
+    public void testResponseSignedByResponderWithoutOCSPSigningIsRejected() throws Exception {
+        KeyPair issuerKeyPair = generateKeyPair();
+        KeyPair responderKeyPair = generateKeyPair();
+        X509Certificate issuerCert = generateCertificate("CN=Test Issuer", issuerKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), false);
+        X509Certificate responderCert = generateCertificate("CN=Test Responder", responderKeyPair.getPublic(),
+                "CN=Test Issuer", issuerKeyPair.getPrivate(), false);
+
+        Assert.assertFalse(OCSPValidator.isSignatureValid(generateBasicResponse(responderKeyPair, responderCert),
+                issuerCert));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static X509Certificate generateCertificate(String subject, PublicKey publicKey, String issuer,
+                                                       PrivateKey signingKey, boolean ocspSigning) throws Exception {
+        Date notBefore = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        Date notAfter = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(new X500Name(issuer),
+                BigInteger.valueOf(System.nanoTime()), notBefore, notAfter, new X500Name(subject), publicKey);
+        if (ocspSigning) {
+            certificateBuilder.addExtension(Extension.extendedKeyUsage, false,
+                    new ExtendedKeyUsage(KeyPurposeId.id_kp_OCSPSigning));
+        }
+        return new JcaX509CertificateConverter().getCertificate(
+                certificateBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signingKey)));
+    }
+
+    private static BasicOCSPResp generateBasicResponse(KeyPair signerKeyPair, X509Certificate signerCert)
+            throws Exception {
+        X509CertificateHolder signerCertHolder = new JcaX509CertificateHolder(signerCert);
+        CertificateID certificateID = new CertificateID(new JcaDigestCalculatorProviderBuilder().build()
+                .get(CertificateID.HASH_SHA1), signerCertHolder, BigInteger.ONE);
+        BasicOCSPRespBuilder responseBuilder = new BasicOCSPRespBuilder(new RespID(signerCertHolder.getSubject()));
+        responseBuilder.addResponse(certificateID, CertificateStatus.GOOD);
+        return responseBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").build(signerKeyPair.getPrivate()),
+                new X509CertificateHolder[]{signerCertHolder}, new Date());
+    }
 }
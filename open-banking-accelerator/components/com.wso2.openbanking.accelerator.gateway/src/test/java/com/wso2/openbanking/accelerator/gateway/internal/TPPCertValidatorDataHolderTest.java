@@ -67,5 +67,8 @@ public class TPPCertValidatorDataHolderTest {
         Assert.assertNotNull(tppCertValidatorDataHolder.getCertificateRevocationValidationExcludedIssuers());
         Assert.assertNull(tppCertValidatorDataHolder.getTPPValidationServiceImpl());
         Assert.assertEquals(tppCertValidatorDataHolder.getCertificateRevocationProxyHost(), "PROXY_HOSTNAME");
+        Assert.assertFalse(tppCertValidatorDataHolder.isCRLStorePersistenceEnabled());
+        Assert.assertEquals(tppCertValidatorDataHolder.getCRLStoreRefreshBeforeNextUpdate(), 600);
+        Assert.assertEquals(tppCertValidatorDataHolder.getOCSPResponseStoreMaxCacheTime(), 1800);
     }
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.reporter;
+
+import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
+import com.wso2.openbanking.accelerator.gateway.executor.test.executor.MockOBExecutor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for executor latency recorder and latency histogram.
+ */
+public class OBExecutorLatencyRecorderTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+
+        OBLatencyHistogram histogram = new OBLatencyHistogram();
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+
+        for (int value = 1; value <= 1000; value++) {
+            histogram.recordValue(value);
+        }
+        Assert.assertEquals(histogram.getTotalCount(), 1000);
+        Assert.assertEquals(histogram.getMaxValue(), 1000);
+        Assert.assertEquals(histogram.getMean(), 500.5);
+        assertWithinBucketError(histogram.getValueAtPercentile(50), 500);
+        assertWithinBucketError(histogram.getValueAtPercentile(99), 990);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 1000);
+    }
+
+    @Test
+    public void testHistogramBounds() {
+
+        OBLatencyHistogram histogram = new OBLatencyHistogram();
+        histogram.recordValue(-5);
+        histogram.recordValue(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+        Assert.assertEquals(histogram.getMaxValue(), OBLatencyHistogram.MAX_VALUE);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), OBLatencyHistogram.MAX_VALUE);
+    }
+
+    @Test
+    public void testRecordPerExecutorAndPhase() {
+
+        OBExecutorLatencyRecorder recorder = new OBExecutorLatencyRecorder(true, 0);
+        OpenBankingGatewayExecutor executor = new MockOBExecutor();
+
+        recorder.record(executor, OBExecutorLatencyRecorder.Phase.PRE_REQUEST, TimeUnit.MILLISECONDS.toNanos(2));
+        recorder.record(executor, OBExecutorLatencyRecorder.Phase.PRE_REQUEST, TimeUnit.MILLISECONDS.toNanos(4));
+        recorder.record(executor, OBExecutorLatencyRecorder.Phase.POST_RESPONSE, TimeUnit.MICROSECONDS.toNanos(10));
+
+        Map<String, OBLatencyHistogram> histograms = recorder.getHistograms();
+        Assert.assertEquals(histograms.size(), 2);
+        OBLatencyHistogram preRequest = histograms.get("Unknown/" + MockOBExecutor.class.getName() + "/PRE_REQUEST");
+        Assert.assertEquals(preRequest.getTotalCount(), 2);
+        Assert.assertEquals(preRequest.getMaxValue(), 4000);
+        OBLatencyHistogram postResponse =
+                histograms.get("Unknown/" + MockOBExecutor.class.getName() + "/POST_RESPONSE");
+        Assert.assertEquals(postResponse.getValueAtPercentile(50), 10);
+    }
+
+    @Test
+    public void testSlowPhaseBreakdown() {
+
+        OBExecutorLatencyRecorder recorder = new OBExecutorLatencyRecorder(true, 1);
+        long[] durations = recorder.getDurationBuffer(1);
+        durations[0] = TimeUnit.MILLISECONDS.toNanos(5);
+
+        // Buffer of the thread is reused
+        Assert.assertSame(recorder.getDurationBuffer(1), durations);
+        recorder.recordPhase(Collections.singletonList(new MockOBExecutor()),
+                OBExecutorLatencyRecorder.Phase.PRE_REQUEST, durations, TimeUnit.MILLISECONDS.toNanos(5),
+                "test-message-id");
+    }
+
+    @Test
+    public void testLatencyData() {
+
+        OBLatencyHistogram histogram = new OBLatencyHistogram();
+        histogram.recordValue(10);
+        histogram.recordValue(30);
+
+        Map<String, Object> latencyData = OBExecutorLatencyRecorder.getLatencyData("Executor", "Unknown/" +
+                MockOBExecutor.class.getName() + "/PRE_REQUEST", "us", histogram, 0, 1000L);
+        Assert.assertEquals(latencyData.get("metricType"), "Executor");
+        Assert.assertEquals(latencyData.get("unit"), "us");
+        Assert.assertEquals(latencyData.get("count"), 2L);
+        Assert.assertEquals(latencyData.get("errorCount"), 0L);
+        Assert.assertEquals(latencyData.get("mean"), 20.0);
+        Assert.assertEquals(latencyData.get("max"), 30L);
+        Assert.assertEquals(latencyData.get("timestamp"), 1000L);
+    }
+
+    private void assertWithinBucketError(long actual, long expected) {
+
+        Assert.assertTrue(actual >= expected && actual <= expected + expected / 16,
+                String.format("%d is not within the bucket of %d", actual, expected));
+    }
+}
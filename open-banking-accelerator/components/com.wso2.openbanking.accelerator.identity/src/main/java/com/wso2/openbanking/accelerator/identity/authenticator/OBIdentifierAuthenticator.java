@@ -21,17 +21,16 @@ import com.wso2.openbanking.accelerator.common.exception.OBThrottlerException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.identity.authenticator.constants.IdentifierHandlerConstants;
+import com.wso2.openbanking.accelerator.identity.authenticator.session.InProcessSessionDataResolver;
+import com.wso2.openbanking.accelerator.identity.authenticator.session.RemoteSessionDataResolver;
+import com.wso2.openbanking.accelerator.identity.authenticator.session.SessionDataResolver;
 import com.wso2.openbanking.accelerator.identity.authenticator.util.OBIdentifierAuthUtil;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
-import com.wso2.openbanking.accelerator.identity.util.HTTPClientUtils;
 import com.wso2.openbanking.accelerator.identity.util.IdentityCommonHelper;
 import com.wso2.openbanking.accelerator.throttler.service.OBThrottleService;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
 import org.json.JSONObject;
 import org.wso2.carbon.identity.application.authentication.framework.AbstractApplicationAuthenticator;
 import org.wso2.carbon.identity.application.authentication.framework.AuthenticatorFlowStatus;
@@ -57,17 +56,12 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.SessionDataCache;
 import org.wso2.carbon.identity.oauth.cache.SessionDataCacheEntry;
 import org.wso2.carbon.identity.oauth.cache.SessionDataCacheKey;
-import org.wso2.carbon.user.api.RealmConfiguration;
 import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.core.UserCoreConstants;
-import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -431,67 +425,41 @@ public class OBIdentifierAuthenticator extends AbstractApplicationAuthenticator
 
     /**
      * To get session details from SessionDataKey.
-     * authRequestURL need be configured in the IAM deployment.toml file.
+     * Session data is read from the authentication request cache of this server by default. If the session data
+     * resolver is configured as Remote, it is retrieved from the authRequestURL configured in the IAM
+     * deployment.toml file.
      * @param sessionDataKey session data key
      * @return session data
      * @throws OpenBankingException openbanking exception
      */
     public String getSessionData(String sessionDataKey) throws OpenBankingException {
 
-        BufferedReader reader = null;
-        String authRequestURL = null;
-        RealmConfiguration realmConfig = null;
+        JSONObject sessionData = getSessionDataResolver().getSessionData(sessionDataKey);
+        if (sessionData == null) {
+            return null;
+        }
+        appendRedirectUri(sessionData);
+        return sessionData.toString();
+    }
 
-        //Read authenticator configs
+    /**
+     * Get the resolver of the session data configured for the authenticator.
+     *
+     * @return session data resolver
+     */
+    protected SessionDataResolver getSessionDataResolver() {
+
+        String authRequestURL = null;
+        String resolverType = null;
         Map<String, String> parameterMap = getAuthenticatorConfig().getParameterMap();
         if (parameterMap != null) {
             authRequestURL = parameterMap.get(IdentifierHandlerConstants.AUTH_REQ_URL);
+            resolverType = parameterMap.get(IdentifierHandlerConstants.SESSION_DATA_RESOLVER);
         }
-        try {
-            realmConfig = IdentityExtensionsDataHolder.getInstance().getRealmService()
-                    .getBootstrapRealm().getUserStoreManager().getRealmConfiguration();
-        } catch (UserStoreException e) {
-            throw new OpenBankingException("Error while retrieving session data", e);
-        }
-        String adminUsername = realmConfig.getAdminUserName();
-        char[] adminPassword = realmConfig.getAdminPassword().toCharArray();
-
-        String credentials = adminUsername + ":" + String.valueOf(adminPassword);
-        credentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
-            HttpGet dataRequest = new HttpGet(authRequestURL + sessionDataKey);
-            dataRequest.addHeader(IdentifierHandlerConstants.ACCEPT_HEADER,
-                    IdentifierHandlerConstants.ACCEPT_HEADER_VALUE);
-            dataRequest.addHeader(IdentifierHandlerConstants.AUTH_HEADER, "Basic " + credentials);
-            CloseableHttpResponse dataResponse = client.execute(dataRequest);
-
-            reader = new BufferedReader(new InputStreamReader(dataResponse.getEntity()
-                    .getContent(), "UTF-8"));
-            String inputLine;
-            StringBuffer buffer = new StringBuffer();
-            while ((inputLine = reader.readLine()) != null) {
-                buffer.append(inputLine);
-            }
-
-            if (dataResponse.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
-                return null;
-            } else {
-                JSONObject sessionData = new JSONObject(buffer.toString());
-                appendRedirectUri(sessionData);
-                return sessionData.toString();
-            }
-        } catch (IOException e) {
-            throw new OpenBankingException("Error while retrieving session data", e);
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    log.error("Error while closing buffered reader", e);
-                }
-            }
+        if (IdentifierHandlerConstants.REMOTE_SESSION_DATA_RESOLVER.equalsIgnoreCase(resolverType)) {
+            return new RemoteSessionDataResolver(authRequestURL);
         }
+        return new InProcessSessionDataResolver();
     }
 
     /**
@@ -37,4 +37,6 @@ public class IdentifierHandlerConstants {
     public static final String ACCEPT_HEADER = "accept";
     public static final String ACCEPT_HEADER_VALUE = "application/json";
     public static final String AUTH_HEADER = "Authorization";
+    public static final String SESSION_DATA_RESOLVER = "sessionDataResolver";
+    public static final String REMOTE_SESSION_DATA_RESOLVER = "Remote";
 }
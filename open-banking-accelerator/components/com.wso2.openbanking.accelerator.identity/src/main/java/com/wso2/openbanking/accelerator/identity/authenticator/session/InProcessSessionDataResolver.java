@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.authenticator.session;
+
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationRequestCacheEntry;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+
+import java.util.Map;
+
+/**
+ * Session data resolver which reads the authentication request of a session data key from the authentication
+ * request cache of this server, which falls back to the session data store on a cache miss.
+ * <p>
+ * The session data has the same format as the response of the authentication data API. Parameters with a single
+ * value are added as strings and parameters with multiple values are added as arrays.
+ */
+public class InProcessSessionDataResolver implements SessionDataResolver {
+
+    private final AuthenticationRequestStore authenticationRequestStore;
+
+    @Generated(message = "Excluding from code coverage since it requires the authentication framework")
+    public InProcessSessionDataResolver() {
+
+        this(sessionDataKey -> {
+            AuthenticationRequestCacheEntry cacheEntry =
+                    FrameworkUtils.getAuthenticationRequestFromCache(sessionDataKey);
+            if (cacheEntry == null || cacheEntry.getAuthenticationRequest() == null) {
+                return null;
+            }
+            return cacheEntry.getAuthenticationRequest().getRequestQueryParams();
+        });
+    }
+
+    public InProcessSessionDataResolver(AuthenticationRequestStore authenticationRequestStore) {
+
+        this.authenticationRequestStore = authenticationRequestStore;
+    }
+
+    @Override
+    public JSONObject getSessionData(String sessionDataKey) {
+
+        Map<String, String[]> requestParameters = authenticationRequestStore.getRequestParameters(sessionDataKey);
+        if (requestParameters == null) {
+            return null;
+        }
+
+        JSONObject sessionData = new JSONObject();
+        for (Map.Entry<String, String[]> parameter : requestParameters.entrySet()) {
+            String[] values = parameter.getValue();
+            if (parameter.getKey() == null || values == null || values.length == 0) {
+                continue;
+            }
+            if (values.length == 1) {
+                sessionData.put(parameter.getKey(), values[0]);
+            } else {
+                sessionData.put(parameter.getKey(), new JSONArray(values));
+            }
+        }
+        return sessionData;
+    }
+
+    /**
+     * Store of the authentication requests of the session data keys.
+     */
+    @FunctionalInterface
+    public interface AuthenticationRequestStore {
+
+        /**
+         * Get the parameters of the authentication request of a session data key.
+         *
+         * @param sessionDataKey session data key
+         * @return request parameters, or null if the authentication request is not available
+         */
+        Map<String, String[]> getRequestParameters(String sessionDataKey);
+    }
+}
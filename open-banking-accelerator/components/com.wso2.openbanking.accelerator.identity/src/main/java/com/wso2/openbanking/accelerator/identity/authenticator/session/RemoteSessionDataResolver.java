@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.authenticator.session;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.identity.authenticator.constants.IdentifierHandlerConstants;
+import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
+import com.wso2.openbanking.accelerator.identity.util.HTTPClientUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.json.JSONObject;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.core.UserStoreException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Session data resolver which retrieves the session data from the authentication data API, authenticating with the
+ * credentials of the admin user. Used when the authentication request is not available in this server.
+ */
+public class RemoteSessionDataResolver implements SessionDataResolver {
+
+    private static final Log log = LogFactory.getLog(RemoteSessionDataResolver.class);
+
+    private final String authRequestURL;
+
+    public RemoteSessionDataResolver(String authRequestURL) {
+
+        this.authRequestURL = authRequestURL;
+    }
+
+    @Override
+    public JSONObject getSessionData(String sessionDataKey) throws OpenBankingException {
+
+        BufferedReader reader = null;
+        RealmConfiguration realmConfig;
+        try {
+            realmConfig = IdentityExtensionsDataHolder.getInstance().getRealmService()
+                    .getBootstrapRealm().getUserStoreManager().getRealmConfiguration();
+        } catch (UserStoreException e) {
+            throw new OpenBankingException("Error while retrieving session data", e);
+        }
+        String adminUsername = realmConfig.getAdminUserName();
+        char[] adminPassword = realmConfig.getAdminPassword().toCharArray();
+
+        String credentials = adminUsername + ":" + String.valueOf(adminPassword);
+        credentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+        HttpGet dataRequest = new HttpGet(authRequestURL + sessionDataKey);
+        dataRequest.addHeader(IdentifierHandlerConstants.ACCEPT_HEADER,
+                IdentifierHandlerConstants.ACCEPT_HEADER_VALUE);
+        dataRequest.addHeader(IdentifierHandlerConstants.AUTH_HEADER, "Basic " + credentials);
+        CloseableHttpClient client = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.SESSION_DATA_CLIENT);
+        try (CloseableHttpResponse dataResponse = client.execute(dataRequest)) {
+
+            reader = new BufferedReader(new InputStreamReader(dataResponse.getEntity()
+                    .getContent(), "UTF-8"));
+            String inputLine;
+            StringBuffer buffer = new StringBuffer();
+            while ((inputLine = reader.readLine()) != null) {
+                buffer.append(inputLine);
+            }
+
+            if (dataResponse.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            } else {
+                return new JSONObject(buffer.toString());
+            }
+        } catch (IOException e) {
+            throw new OpenBankingException("Error while retrieving session data", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    log.error("Error while closing buffered reader", e);
+                }
+            }
+        }
+    }
+}
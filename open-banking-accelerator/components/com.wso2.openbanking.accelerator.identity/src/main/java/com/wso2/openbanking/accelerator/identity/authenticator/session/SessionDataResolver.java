@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.authenticator.session;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.json.JSONObject;
+
+/**
+ * Resolver of the authentication request parameters of a session data key, used by the OB identifier authenticator.
+ */
+public interface SessionDataResolver {
+
+    /**
+     * Get the session data of a session data key.
+     *
+     * @param sessionDataKey session data key
+     * @return authentication request parameters of the session, or null if the session data is not available
+     * @throws OpenBankingException when the session data cannot be retrieved
+     */
+    JSONObject getSessionData(String sessionDataKey) throws OpenBankingException;
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the service provider metadata snapshots by client ID.
+ * <p>
+ * Snapshots are read without locking. A missing or expired snapshot is loaded by the calling thread. Snapshots are
+ * kept for the identity cache modified expiry, and are invalidated when the application is updated or deleted on
+ * this node. A snapshot loaded while an invalidation happens is returned but not stored.
+ */
+public class SPMetadataCache {
+
+    private static volatile SPMetadataCache spMetadataCache;
+
+    private final Map<String, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final LongSupplier timeToLiveMillis;
+
+    SPMetadataCache(LongSupplier timeToLiveMillis) {
+
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return SPMetadataCache object
+     */
+    public static SPMetadataCache getInstance() {
+
+        if (spMetadataCache == null) {
+            synchronized (SPMetadataCache.class) {
+                if (spMetadataCache == null) {
+                    spMetadataCache = new SPMetadataCache(() -> TimeUnit.MINUTES.toMillis(
+                            IdentityExtensionsDataHolder.getInstance().getIdentityCacheModifiedExpiry()));
+                }
+            }
+        }
+        return spMetadataCache;
+    }
+
+    /**
+     * Get the metadata snapshot of a client, loading it if not available in the cache.
+     *
+     * @param clientId client ID
+     * @param loader   loader of the snapshot
+     * @return snapshot of the client, or null if the service provider is not available
+     * @throws OpenBankingException when the snapshot cannot be loaded
+     */
+    public SPMetadataSnapshot getSnapshot(String clientId, SnapshotLoader loader) throws OpenBankingException {
+
+        long currentTime = System.currentTimeMillis();
+        CachedSnapshot cachedSnapshot = snapshots.get(clientId);
+        if (cachedSnapshot != null && currentTime < cachedSnapshot.expiryTime) {
+            return cachedSnapshot.snapshot;
+        }
+
+        long invalidations = invalidationCount.get();
+        SPMetadataSnapshot snapshot = loader.load(clientId);
+        long timeToLive = timeToLiveMillis.getAsLong();
+        if (snapshot != null && timeToLive > 0) {
+            CachedSnapshot newSnapshot = new CachedSnapshot(snapshot, currentTime + timeToLive);
+            snapshots.put(clientId, newSnapshot);
+            if (invalidationCount.get() != invalidations) {
+                snapshots.remove(clientId, newSnapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Invalidate the snapshot of a client.
+     *
+     * @param clientId client ID
+     */
+    public void invalidate(String clientId) {
+
+        invalidationCount.incrementAndGet();
+        snapshots.remove(clientId);
+    }
+
+    /**
+     * Invalidate the snapshots of the OAuth2 clients of a service provider. All the snapshots are invalidated if the
+     * service provider does not have the client IDs.
+     *
+     * @param serviceProvider service provider
+     */
+    public void invalidate(ServiceProvider serviceProvider) {
+
+        boolean invalidated = false;
+        InboundAuthenticationConfig inboundAuthenticationConfig = serviceProvider.getInboundAuthenticationConfig();
+        if (inboundAuthenticationConfig != null
+                && inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs() != null) {
+            for (InboundAuthenticationRequestConfig requestConfig :
+                    inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs()) {
+                if (IdentityApplicationConstants.OAuth2.NAME.equals(requestConfig.getInboundAuthType())
+                        && requestConfig.getInboundAuthKey() != null) {
+                    invalidate(requestConfig.getInboundAuthKey());
+                    invalidated = true;
+                }
+            }
+        }
+        if (!invalidated) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidate all the snapshots.
+     */
+    public void invalidateAll() {
+
+        invalidationCount.incrementAndGet();
+        snapshots.clear();
+    }
+
+    /**
+     * Loader of the metadata snapshot of a client.
+     */
+    @FunctionalInterface
+    public interface SnapshotLoader {
+
+        SPMetadataSnapshot load(String clientId) throws OpenBankingException;
+    }
+
+    /**
+     * Snapshot with the time it expires.
+     */
+    private static class CachedSnapshot {
+
+        private final SPMetadataSnapshot snapshot;
+        private final long expiryTime;
+
+        CachedSnapshot(SPMetadataSnapshot snapshot, long expiryTime) {
+
+            this.snapshot = snapshot;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.cache;
+
+import com.wso2.openbanking.accelerator.identity.util.IdentityCommonConstants;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.wso2.carbon.identity.openidconnect.model.Constants.JWKS_URI;
+
+/**
+ * Immutable snapshot of the service provider metadata of a client.
+ */
+public final class SPMetadataSnapshot {
+
+    private static final String SOFTWARE_PROPERTY_PREFIX = "software_";
+
+    private final String clientId;
+    private final Map<String, String> properties;
+    private final Map<String, String> softwareStatementProperties;
+    private final Boolean regulatory;
+    private final String jwksUri;
+
+    private SPMetadataSnapshot(String clientId, Map<String, String> properties) {
+
+        this.clientId = clientId;
+        this.properties = Collections.unmodifiableMap(properties);
+
+        Map<String, String> softwareProperties = new HashMap<>();
+        properties.forEach((name, value) -> {
+            if (name.startsWith(SOFTWARE_PROPERTY_PREFIX)) {
+                softwareProperties.put(name, value);
+            }
+        });
+        this.softwareStatementProperties = Collections.unmodifiableMap(softwareProperties);
+
+        String regulatoryProperty = properties.get(IdentityCommonConstants.REGULATORY_COMPLIANCE);
+        this.regulatory = regulatoryProperty == null ? null : Boolean.parseBoolean(regulatoryProperty);
+        this.jwksUri = properties.get(JWKS_URI);
+    }
+
+    /**
+     * Create a snapshot of the metadata of a service provider.
+     *
+     * @param clientId        client ID of the service provider
+     * @param serviceProvider service provider
+     * @return snapshot of the metadata
+     */
+    public static SPMetadataSnapshot of(String clientId, ServiceProvider serviceProvider) {
+
+        Map<String, String> properties = new HashMap<>();
+        ServiceProviderProperty[] spProperties = serviceProvider.getSpProperties();
+        if (spProperties != null) {
+            for (ServiceProviderProperty spProperty : spProperties) {
+                if (spProperty.getName() != null && spProperty.getValue() != null) {
+                    properties.put(spProperty.getName(), spProperty.getValue());
+                }
+            }
+        }
+        return new SPMetadataSnapshot(clientId, properties);
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    /**
+     * Get a service provider property.
+     *
+     * @param name name of the property
+     * @return value of the property, or null if not available
+     */
+    public String getProperty(String name) {
+
+        return properties.get(name);
+    }
+
+    public Map<String, String> getProperties() {
+
+        return properties;
+    }
+
+    /**
+     * Properties of the service provider registered from the software statement.
+     *
+     * @return properties with the software prefix
+     */
+    public Map<String, String> getSoftwareStatementProperties() {
+
+        return softwareStatementProperties;
+    }
+
+    public boolean isRegulatoryPropertyPresent() {
+
+        return regulatory != null;
+    }
+
+    public boolean isRegulatory() {
+
+        return Boolean.TRUE.equals(regulatory);
+    }
+
+    public String getJwksUri() {
+
+        return jwksUri;
+    }
+}
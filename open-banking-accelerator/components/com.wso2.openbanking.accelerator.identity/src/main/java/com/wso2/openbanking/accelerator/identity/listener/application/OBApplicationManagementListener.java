@@ -20,6 +20,7 @@ package com.wso2.openbanking.accelerator.identity.listener.application;
 
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.identity.cache.SPMetadataCache;
 import com.wso2.openbanking.accelerator.identity.dcr.validation.DCRCommonConstants;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.identity.util.IdentityCommonUtil;
@@ -132,6 +133,14 @@ public class OBApplicationManagementListener extends AbstractApplicationMgtListe
         return true;
     }
 
+    @Override
+    public boolean doPostUpdateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        SPMetadataCache.getInstance().invalidate(serviceProvider);
+        return true;
+    }
+
     @Override
     public boolean doPostGetServiceProvider(ServiceProvider serviceProvider, String applicationName,
                                             String tenantDomain) throws IdentityApplicationManagementException {
@@ -166,6 +175,7 @@ public class OBApplicationManagementListener extends AbstractApplicationMgtListe
     public boolean doPostDeleteApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
             throws IdentityApplicationManagementException {
 
+        SPMetadataCache.getInstance().invalidate(serviceProvider);
         try {
             identityExtensionsDataHolder.getAbstractApplicationUpdater()
                     .doPostDeleteApplication(serviceProvider, tenantDomain, userName);
@@ -23,11 +23,18 @@ import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.RSADecrypter;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSRegistry;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.identity.push.auth.extension.request.validator.constants.PushAuthRequestConstants;
@@ -54,7 +61,6 @@ import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
-import org.wso2.carbon.identity.oauth2.validators.jwt.JWKSBasedJWTValidator;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
 import org.wso2.carbon.idp.mgt.IdentityProviderManager;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
@@ -70,7 +76,6 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -436,11 +441,8 @@ public class PushAuthRequestValidatorUtils {
             log.debug("Validating from JWKS URI");
 
             // Validate from JWKS Uri
-            String alg = jwt.getHeader().getAlgorithm().getName();
-            Map<String, Object> options = new HashMap<>();
             try {
-                isVerified = new JWKSBasedJWTValidator().validateSignature(jwt.getParsedString(), jwksUri,
-                        alg, options);
+                isVerified = isSignatureVerified(jwt, jwksUri);
             } catch (IdentityOAuth2Exception exception) {
                 log.error("Unable to validate JWT using JWKS URL", exception);
                 String errorMessage = getCustomSignatureValidationErrorMessage(exception);
@@ -456,6 +458,24 @@ public class PushAuthRequestValidatorUtils {
         }
     }
 
+    /**
+     * Validate signature of a signed JWT against the keys of a JWKS URI, sourced from the shared JWKS registry.
+     */
+    @Generated(message = "Excluding from code coverage since it requires an external https call")
+    private static boolean isSignatureVerified(SignedJWT signedJWT, String jwksUri) throws IdentityOAuth2Exception {
+
+        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        JWKSource<SecurityContext> jwkSource = JWKSRegistry.getInstance().getJWKSource(jwksUri);
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(signedJWT.getHeader().getAlgorithm(),
+                jwkSource));
+        try {
+            jwtProcessor.process(signedJWT, null);
+            return true;
+        } catch (BadJOSEException | JOSEException e) {
+            throw new IdentityOAuth2Exception("Signature validation failed for the provided JWT", e);
+        }
+    }
+
     /**
      * Validate signature of a sign JWT against a given certificate.
      */
@@ -65,6 +65,8 @@ public class HTTPClientUtils {
     public static final String HTTPS_PROTOCOL = "https";
     private static final String[] SUPPORTED_HTTP_PROTOCOLS = {"TLSv1.2"};
     private static final Log log = LogFactory.getLog(HTTPClientUtils.class);
+    public static final String SESSION_DATA_CLIENT = "SessionData";
+    public static final String CONSENT_ENDPOINT_CLIENT = "ConsentEndpoint";
 
     /**
      * Get closeable https client.
@@ -89,6 +91,20 @@ public class HTTPClientUtils {
         return HttpClients.custom().setConnectionManager(connectionManager).build();
     }
 
+    /**
+     * Get the long-lived pooled https client of the given purpose, shared by all the callers of the same client name.
+     * Closing the shared client has no effect. Responses should be closed to release the connection to the pool.
+     *
+     * @param clientName name of the client
+     * @return Shared closeable https client
+     * @throws OpenBankingException OpenBankingException exception
+     */
+    @Generated(message = "Unit testable components are covered")
+    public static CloseableHttpClient getSharedHttpsClient(String clientName) throws OpenBankingException {
+
+        return com.wso2.openbanking.accelerator.common.util.HTTPClientUtils.getSharedHttpsClient(clientName);
+    }
+
     /**
      * create a SSL Connection Socket Factory.
      *
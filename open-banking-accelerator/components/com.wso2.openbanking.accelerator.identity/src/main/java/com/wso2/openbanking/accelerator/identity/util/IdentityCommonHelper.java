@@ -93,6 +93,28 @@ public class IdentityCommonHelper {
         return "";
     }
 
+    /**
+     * Utility method to get the service provider of an application.
+     *
+     * @param clientId ClientId of the application
+     * @return the service provider, or null if not available
+     * @throws OpenBankingException
+     */
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    public ServiceProvider getServiceProvider(String clientId) throws OpenBankingException {
+
+        try {
+            return IdentityExtensionsDataHolder.getInstance().getApplicationManagementService()
+                    .getServiceProviderByClientId(clientId, IdentityApplicationConstants.OAuth2.NAME,
+                            ServiceProviderUtils.getSpTenantDomain(clientId));
+        } catch (IdentityApplicationManagementException e) {
+            log.error(String.format("Error occurred while retrieving OAuth2 application data for clientId %s",
+                    clientId), e);
+            throw new OpenBankingException("Error occurred while retrieving OAuth2 application data for clientId"
+                    , e);
+        }
+    }
+
     /**
      * Utility method get the application property from SP Meta Data.
      *
@@ -28,19 +28,18 @@ import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyRegistry;
 import com.wso2.openbanking.accelerator.common.util.Generated;
-import com.wso2.openbanking.accelerator.identity.cache.IdentityCache;
-import com.wso2.openbanking.accelerator.identity.cache.IdentityCacheKey;
+import com.wso2.openbanking.accelerator.identity.cache.SPMetadataCache;
+import com.wso2.openbanking.accelerator.identity.cache.SPMetadataSnapshot;
 import com.wso2.openbanking.accelerator.identity.dcr.validation.DCRCommonConstants;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
-import org.wso2.carbon.core.util.KeyStoreManager;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
 import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -75,6 +74,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -85,7 +85,7 @@ import javax.servlet.http.HttpServletRequest;
 public class IdentityCommonUtil {
 
     private static final Log log = LogFactory.getLog(IdentityCommonUtil.class);
-    private static IdentityCache identityCache;
+    private static final Map<String, TrustStoreVerifier> trustStoreVerifiers = new ConcurrentHashMap<>();
 
     /**
      * Get the configured certificate header name.
@@ -121,14 +121,14 @@ public class IdentityCommonUtil {
     }
 
     /**
-     * Cache regulatory property if exists.
+     * Get the regulatory property of an application from the SP metadata snapshot.
      *
      * @param clientId clientId ClientId of the application
-     * @return the regulatory property from cache if exists or from sp metadata
+     * @return the regulatory property from the snapshot
      * @throws OpenBankingException
      */
-    @Generated(message = "Excluding from code coverage since it requires a cache initialization/service call")
-    public static synchronized boolean getRegulatoryFromSPMetaData(String clientId) throws OpenBankingException {
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    public static boolean getRegulatoryFromSPMetaData(String clientId) throws OpenBankingException {
 
         if (StringUtils.isNotEmpty(clientId)) {
             // Skip My account and Console service providers with non opaque clientIds
@@ -137,21 +137,9 @@ public class IdentityCommonUtil {
                 return false;
             }
 
-            if (identityCache == null) {
-                log.debug("Creating new Identity cache");
-                identityCache = new IdentityCache();
-            }
-
-            IdentityCacheKey identityCacheKey = IdentityCacheKey.of(clientId
-                    .concat("_").concat(OpenBankingConstants.REGULATORY));
-            Object regulatoryProperty = null;
-
-            regulatoryProperty = identityCache.getFromCacheOrRetrieve(identityCacheKey,
-                    () -> new IdentityCommonHelper().getAppPropertyFromSPMetaData(clientId,
-                            IdentityCommonConstants.REGULATORY_COMPLIANCE));
-
-            if (regulatoryProperty != null) {
-                return Boolean.parseBoolean(regulatoryProperty.toString());
+            SPMetadataSnapshot spMetadataSnapshot = getSPMetadataSnapshot(clientId);
+            if (spMetadataSnapshot != null && spMetadataSnapshot.isRegulatoryPropertyPresent()) {
+                return spMetadataSnapshot.isRegulatory();
             } else {
                 throw new OpenBankingException("Unable to retrieve regulatory property from sp metadata");
             }
@@ -160,6 +148,22 @@ public class IdentityCommonUtil {
         }
     }
 
+    /**
+     * Get the SP metadata snapshot of an application, from the SP metadata cache if available.
+     *
+     * @param clientId ClientId of the application
+     * @return the SP metadata snapshot, or null if the application is not available
+     * @throws OpenBankingException when the application cannot be retrieved
+     */
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    public static SPMetadataSnapshot getSPMetadataSnapshot(String clientId) throws OpenBankingException {
+
+        return SPMetadataCache.getInstance().getSnapshot(clientId, id -> {
+            ServiceProvider serviceProvider = new IdentityCommonHelper().getServiceProvider(id);
+            return serviceProvider == null ? null : SPMetadataSnapshot.of(id, serviceProvider);
+        });
+    }
+
     public static ServiceProviderProperty getServiceProviderProperty(String spPropertyName, String spPropertyValue) {
 
         ServiceProviderProperty serviceProviderProperty = new ServiceProviderProperty();
@@ -171,16 +175,21 @@ public class IdentityCommonUtil {
 
     /**
      * Sign a string body using the carbon default key pair.
-     * Skipped in unit tests since @KeystoreManager cannot be mocked
+     * The signer of the default key is shared from the signing key registry.
+     * Skipped in unit tests since the server keystore is not available
      *
      * @param body the body that needs to be signed as a string
      * @return string value of the signed JWT
-     * @throws Exception error if the tenant is invalid
+     * @throws Exception error if the default key is not available
      */
     public static String signJWTWithDefaultKey(String body) throws Exception {
-        KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(-1234);
-        Key privateKey = keyStoreManager.getDefaultPrivateKey();
-        return generateJWT(body, privateKey);
+
+        if (body == null) {
+            log.debug("Null value passed for payload. Cannot generate JWT");
+            throw new OpenBankingRuntimeException("Payload and key cannot be null");
+        }
+        JWSSigner signer = SigningKeyRegistry.getInstance().getDefaultSigner(JWSAlgorithm.RS256);
+        return generateJWT(body, signer);
     }
 
     /**
@@ -195,9 +204,33 @@ public class IdentityCommonUtil {
     public static boolean validateJWTSignatureWithPublicKey(String jwtString, String alias)
             throws OpenBankingException {
 
+        JWSVerifier verifier = getTrustStoreVerifier(alias);
+        try {
+            return SignedJWT.parse(jwtString).verify(verifier);
+        } catch (JOSEException | ParseException e) {
+            throw new OpenBankingException("Error occurred while validating JWT signature");
+        }
+
+    }
+
+    /**
+     * Get the verifier of a certificate in the truststore. Verifiers are created once per alias and are reused
+     * until the truststore is replaced.
+     *
+     * @param alias alias in the trust store
+     * @return verifier of the certificate
+     * @throws OpenBankingException when the certificate is not available
+     */
+    private static JWSVerifier getTrustStoreVerifier(String alias) throws OpenBankingException {
+
+        KeyStore trustStore;
         Certificate certificate;
         try {
-            KeyStore trustStore = getTrustStore();
+            trustStore = getTrustStore();
+            TrustStoreVerifier trustStoreVerifier = trustStoreVerifiers.get(alias);
+            if (trustStoreVerifier != null && trustStoreVerifier.trustStore == trustStore) {
+                return trustStoreVerifier.verifier;
+            }
             certificate = trustStore.getCertificate(alias);
         } catch (Exception e) {
             throw new OpenBankingException("Error while retrieving certificate from truststore");
@@ -207,14 +240,13 @@ public class IdentityCommonUtil {
             throw new OpenBankingException("Certificate not found for provided alias");
         }
         PublicKey publicKey = certificate.getPublicKey();
-
-        try {
-            JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
-            return SignedJWT.parse(jwtString).verify(verifier);
-        } catch (JOSEException | ParseException e) {
+        if (!(publicKey instanceof RSAPublicKey)) {
             throw new OpenBankingException("Error occurred while validating JWT signature");
         }
 
+        JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
+        trustStoreVerifiers.put(alias, new TrustStoreVerifier(trustStore, verifier));
+        return verifier;
     }
 
     /**
@@ -262,7 +294,18 @@ public class IdentityCommonUtil {
             throw new OpenBankingRuntimeException("Private key should be an instance of RSAPrivateKey");
         }
 
-        JWSSigner signer = new RSASSASigner((RSAPrivateKey) privateKey);
+        return generateJWT(payload, new RSASSASigner((RSAPrivateKey) privateKey));
+    }
+
+    /**
+     * Util method to generate a RS256 signed JWT using a payload and a signer.
+     *
+     * @param payload The payload body to be signed
+     * @param signer  The RSA signer
+     * @return String signed JWT
+     */
+    private static String generateJWT(String payload, JWSSigner signer) {
+
         JWSHeader.Builder headerBuilder = new JWSHeader.Builder(JWSAlgorithm.RS256);
 
         SignedJWT signedJWT = null;
@@ -433,4 +476,18 @@ public class IdentityCommonUtil {
         return OAuthProblemException.error(errorCode).description(message).state(state);
     }
 
+    /**
+     * Verifier of a truststore certificate with the truststore it was created from.
+     */
+    private static class TrustStoreVerifier {
+
+        private final KeyStore trustStore;
+        private final JWSVerifier verifier;
+
+        TrustStoreVerifier(KeyStore trustStore, JWSVerifier verifier) {
+
+            this.trustStore = trustStore;
+            this.verifier = verifier;
+        }
+    }
 }
@@ -20,6 +20,8 @@ package com.wso2.openbanking.accelerator.identity.authenticator;
 
 import com.wso2.openbanking.accelerator.common.exception.OBThrottlerException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.identity.authenticator.session.InProcessSessionDataResolver;
+import com.wso2.openbanking.accelerator.identity.authenticator.session.RemoteSessionDataResolver;
 import com.wso2.openbanking.accelerator.identity.authenticator.util.OBIdentifierAuthenticatorTestData;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.identity.util.HTTPClientUtils;
@@ -80,6 +82,7 @@ import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Unit test cases for the OB Identifier Authenticator.
@@ -1144,6 +1147,7 @@ public class OBIdentifierAuthenticatorTest {
         AuthenticatorConfig authenticatorConfig = new AuthenticatorConfig();
         Map<String, String> paramMap = new HashMap<>();
         paramMap.put("authRequestURL", "someURL");
+        paramMap.put("sessionDataResolver", "Remote");
 
         authenticatorConfig.setParameterMap(paramMap);
 
@@ -1171,7 +1175,7 @@ public class OBIdentifierAuthenticatorTest {
         BufferedReader bufferedReader = mock(BufferedReader.class);
         StatusLine statusLine = mock(StatusLine.class);
         final HttpGet[] httpGet = {mock(HttpGet.class)};
-        when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClient);
+        when(HTTPClientUtils.getSharedHttpsClient(anyString())).thenReturn(closeableHttpClient);
 
         doAnswer(new Answer<Object>() {
             @Override
@@ -1201,6 +1205,7 @@ public class OBIdentifierAuthenticatorTest {
         AuthenticatorConfig authenticatorConfig = new AuthenticatorConfig();
         Map<String, String> paramMap = new HashMap<>();
         paramMap.put("authRequestURL", "someURL");
+        paramMap.put("sessionDataResolver", "Remote");
 
         authenticatorConfig.setParameterMap(paramMap);
 
@@ -1218,6 +1223,25 @@ public class OBIdentifierAuthenticatorTest {
         obIdentifierAuthenticator.getSessionData(dummySessionDataKey);
     }
 
+    @Test
+    public void getSessionDataResolverTestCase() throws Exception {
+
+        AuthenticatorConfig authenticatorConfig = new AuthenticatorConfig();
+        Map<String, String> paramMap = new HashMap<>();
+        paramMap.put("authRequestURL", "someURL");
+        authenticatorConfig.setParameterMap(paramMap);
+
+        mockStatic(FileBasedConfigurationBuilder.class);
+        mockFileBasedConfigurationBuilder = mock(FileBasedConfigurationBuilder.class);
+        when(FileBasedConfigurationBuilder.getInstance()).thenReturn(mockFileBasedConfigurationBuilder);
+        when(mockFileBasedConfigurationBuilder.getAuthenticatorBean(anyString())).thenReturn(authenticatorConfig);
+
+        assertTrue(obIdentifierAuthenticator.getSessionDataResolver() instanceof InProcessSessionDataResolver);
+
+        paramMap.put("sessionDataResolver", "Remote");
+        assertTrue(obIdentifierAuthenticator.getSessionDataResolver() instanceof RemoteSessionDataResolver);
+    }
+
     @ObjectFactory
     public IObjectFactory getObjectFactory() {
 
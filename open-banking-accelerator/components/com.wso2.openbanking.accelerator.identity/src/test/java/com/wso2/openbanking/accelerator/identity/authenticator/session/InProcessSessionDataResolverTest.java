@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.authenticator.session;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test for in-process session data resolver.
+ */
+public class InProcessSessionDataResolverTest {
+
+    private static final String SESSION_DATA_KEY = "c0d8bc43-5a52-4e3b-9b4a-6f1e9a0c1d2e";
+
+    private Map<String, Map<String, String[]>> authenticationRequests;
+    private InProcessSessionDataResolver resolver;
+
+    @BeforeMethod
+    public void init() {
+
+        authenticationRequests = new HashMap<>();
+        resolver = new InProcessSessionDataResolver(authenticationRequests::get);
+    }
+
+    @Test
+    public void testGetSessionData() {
+
+        Map<String, String[]> requestParameters = new HashMap<>();
+        requestParameters.put("client_id", new String[]{"iYpRm64b2vmvmKDhdL6KZD9z6fca"});
+        requestParameters.put("redirect_uri", new String[]{"https://www.google.com/redirects/redirect1"});
+        requestParameters.put("scope", new String[]{"openid", "accounts"});
+        requestParameters.put("state", new String[0]);
+        authenticationRequests.put(SESSION_DATA_KEY, requestParameters);
+
+        JSONObject sessionData = resolver.getSessionData(SESSION_DATA_KEY);
+
+        Assert.assertEquals(sessionData.getString("client_id"), "iYpRm64b2vmvmKDhdL6KZD9z6fca");
+        Assert.assertEquals(sessionData.getString("redirect_uri"), "https://www.google.com/redirects/redirect1");
+        Assert.assertEquals(sessionData.getJSONArray("scope").length(), 2);
+        Assert.assertEquals(sessionData.getJSONArray("scope").getString(1), "accounts");
+        Assert.assertFalse(sessionData.has("state"));
+    }
+
+    @Test
+    public void testGetSessionDataOfUnknownKey() {
+
+        Assert.assertNull(resolver.getSessionData(SESSION_DATA_KEY));
+    }
+}
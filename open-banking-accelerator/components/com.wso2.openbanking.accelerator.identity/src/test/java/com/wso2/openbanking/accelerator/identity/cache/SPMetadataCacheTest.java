@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for SP metadata cache.
+ */
+public class SPMetadataCacheTest {
+
+    private static final String CLIENT_ID = "iYpRm64b2vmvmKDhdL6KZD9z6fca";
+    private static final long TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(60);
+    private static final int THREAD_COUNT = 8;
+    private static final int CLIENT_COUNT = 4;
+
+    private ApplicationManagementService applicationManagementService;
+    private SPMetadataCache.SnapshotLoader loader;
+
+    @BeforeMethod
+    public void init() throws IdentityApplicationManagementException {
+
+        applicationManagementService = Mockito.mock(ApplicationManagementService.class);
+        Mockito.when(applicationManagementService.getServiceProviderByClientId(Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString())).thenAnswer(invocation ->
+                getServiceProvider((String) invocation.getArguments()[0]));
+        loader = clientId -> {
+            try {
+                ServiceProvider serviceProvider = applicationManagementService.getServiceProviderByClientId(
+                        clientId, IdentityApplicationConstants.OAuth2.NAME, "carbon.super");
+                return serviceProvider == null ? null : SPMetadataSnapshot.of(clientId, serviceProvider);
+            } catch (IdentityApplicationManagementException e) {
+                throw new OpenBankingException("Error while retrieving the service provider", e);
+            }
+        };
+    }
+
+    @Test
+    public void testSnapshotOfServiceProvider() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> TIME_TO_LIVE_MILLIS);
+        SPMetadataSnapshot snapshot = cache.getSnapshot(CLIENT_ID, loader);
+
+        Assert.assertEquals(snapshot.getClientId(), CLIENT_ID);
+        Assert.assertTrue(snapshot.isRegulatoryPropertyPresent());
+        Assert.assertTrue(snapshot.isRegulatory());
+        Assert.assertEquals(snapshot.getJwksUri(), "https://localhost:8243/jwks");
+        Assert.assertEquals(snapshot.getSoftwareStatementProperties().size(), 1);
+        Assert.assertEquals(snapshot.getSoftwareStatementProperties().get("software_id"), "software-" + CLIENT_ID);
+        Assert.assertEquals(snapshot.getProperty("software_id"), "software-" + CLIENT_ID);
+    }
+
+    @Test
+    public void testSnapshotIsCachedAcrossThreads() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> TIME_TO_LIVE_MILLIS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(executorService.submit((Callable<Boolean>) () -> {
+                    start.await();
+                    boolean regulatory = true;
+                    for (int j = 0; j < 10000; j++) {
+                        regulatory &= cache.getSnapshot("client-" + (j % CLIENT_COUNT), loader).isRegulatory();
+                    }
+                    return regulatory;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Each thread loads a snapshot at most once, before the snapshot is cached
+        for (int i = 0; i < CLIENT_COUNT; i++) {
+            Mockito.verify(applicationManagementService, Mockito.atMost(THREAD_COUNT))
+                    .getServiceProviderByClientId(Mockito.eq("client-" + i), Mockito.anyString(),
+                            Mockito.anyString());
+        }
+    }
+
+    @Test
+    public void testSnapshotIsInvalidatedByServiceProvider() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> TIME_TO_LIVE_MILLIS);
+        cache.getSnapshot(CLIENT_ID, loader);
+        cache.getSnapshot("other-client", loader);
+
+        cache.invalidate(getServiceProvider(CLIENT_ID));
+        cache.getSnapshot(CLIENT_ID, loader);
+        cache.getSnapshot("other-client", loader);
+
+        Mockito.verify(applicationManagementService, Mockito.times(2))
+                .getServiceProviderByClientId(Mockito.eq(CLIENT_ID), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(applicationManagementService, Mockito.times(1))
+                .getServiceProviderByClientId(Mockito.eq("other-client"), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testAllSnapshotsAreInvalidatedWithoutClientId() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> TIME_TO_LIVE_MILLIS);
+        cache.getSnapshot(CLIENT_ID, loader);
+
+        cache.invalidate(new ServiceProvider());
+        cache.getSnapshot(CLIENT_ID, loader);
+
+        Mockito.verify(applicationManagementService, Mockito.times(2))
+                .getServiceProviderByClientId(Mockito.eq(CLIENT_ID), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testSnapshotLoadedDuringInvalidationIsNotCached() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> TIME_TO_LIVE_MILLIS);
+        SPMetadataSnapshot snapshot = cache.getSnapshot(CLIENT_ID, clientId -> {
+            SPMetadataSnapshot loadedSnapshot = loader.load(clientId);
+            cache.invalidate(clientId);
+            return loadedSnapshot;
+        });
+        Assert.assertNotNull(snapshot);
+
+        cache.getSnapshot(CLIENT_ID, loader);
+        Mockito.verify(applicationManagementService, Mockito.times(2))
+                .getServiceProviderByClientId(Mockito.eq(CLIENT_ID), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testSnapshotIsNotCachedWithoutTimeToLive() throws Exception {
+
+        SPMetadataCache cache = new SPMetadataCache(() -> 0);
+        cache.getSnapshot(CLIENT_ID, loader);
+        cache.getSnapshot(CLIENT_ID, loader);
+
+        Mockito.verify(applicationManagementService, Mockito.times(2))
+                .getServiceProviderByClientId(Mockito.eq(CLIENT_ID), Mockito.anyString(), Mockito.anyString());
+    }
+
+    private static ServiceProvider getServiceProvider(String clientId) {
+
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setSpProperties(new ServiceProviderProperty[]{
+                getProperty("regulatory", "true"),
+                getProperty("jwksURI", "https://localhost:8243/jwks"),
+                getProperty("software_id", "software-" + clientId)});
+
+        InboundAuthenticationRequestConfig requestConfig = new InboundAuthenticationRequestConfig();
+        requestConfig.setInboundAuthType(IdentityApplicationConstants.OAuth2.NAME);
+        requestConfig.setInboundAuthKey(clientId);
+        InboundAuthenticationConfig inboundAuthenticationConfig = new InboundAuthenticationConfig();
+        inboundAuthenticationConfig.setInboundAuthenticationRequestConfigs(
+                new InboundAuthenticationRequestConfig[]{requestConfig});
+        serviceProvider.setInboundAuthenticationConfig(inboundAuthenticationConfig);
+        return serviceProvider;
+    }
+
+    private static ServiceProviderProperty getProperty(String name, String value) {
+
+        ServiceProviderProperty property = new ServiceProviderProperty();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+}
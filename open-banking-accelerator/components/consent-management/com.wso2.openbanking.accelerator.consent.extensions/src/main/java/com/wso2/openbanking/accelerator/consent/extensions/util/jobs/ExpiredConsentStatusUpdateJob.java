@@ -21,11 +21,7 @@ package com.wso2.openbanking.accelerator.consent.extensions.util.jobs;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
-import com.wso2.openbanking.accelerator.consent.mgt.dao.constants.ConsentMgtDAOConstants;
-import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
-import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
-import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.quartz.DisallowConcurrentExecution;
@@ -35,14 +31,22 @@ import org.quartz.JobExecutionException;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduled Task to read and update expired consents in the DB
- * 1) Read the consents which has a expiry time attribute from the DB.
- * 2) Check if expired, and collect expired consents
- * 3) Update the expired statues in DB
- * 4) Notify state change to relevant handler.
+ * 1) Read a page of consents in the eligible statuses whose expiry time attribute is due from the DB.
+ * 2) Update the expired statues, audit records and amendment history of the page in DB as batches.
+ * 3) Notify state change to relevant handler.
+ * 4) Continue with the page after the last consent of the current page.
+ * <p>
+ * The due consents are found through the IDX_OB_CONSENT_ATTRIBUTE_KEY (ATT_KEY, ATT_VALUE) index. The expiry time
+ * attribute is compared by its length and then as a string with the current epoch second, so only expiry times in
+ * epoch seconds are expired.
+ * <p>
+ * The consents can be split into partitions by the consent ID, so that the job of each node sweeps a disjoint range
+ * of consents.
  */
 @DisallowConcurrentExecution
 public class ExpiredConsentStatusUpdateJob implements Job {
@@ -52,6 +56,8 @@ public class ExpiredConsentStatusUpdateJob implements Job {
             OpenBankingConfigParser.getInstance().getStatusWordingForExpiredConsents();
     private static final String expirationEligibleConsentStatuses =
             OpenBankingConfigParser.getInstance().getEligibleStatusesForConsentExpiry();
+    // Consent IDs are partitioned by the first two hexadecimal characters
+    private static final int PARTITION_KEY_SPACE = 256;
 
     /**
      * Method used to enforce periodic statues update of consents.
@@ -61,7 +67,9 @@ public class ExpiredConsentStatusUpdateJob implements Job {
      */
     public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
         try {
-            updateExpiredStatues();
+            OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+            updateExpiredStatues(configParser.getConsentExpirationPartitionIndex(),
+                    configParser.getConsentExpirationPartitionCount());
         } catch (ConsentManagementException e) {
             log.error("Error occurred while updating status for expired consents", e);
         }
@@ -69,89 +77,81 @@ public class ExpiredConsentStatusUpdateJob implements Job {
     }
 
     /**
-     * Method to update statues of consents.
+     * Method to update statues of all the expired consents.
      */
     public static void updateExpiredStatues() throws ConsentManagementException {
 
-        log.debug("Expired Consent Status Update Scheduled Task is executing.");
-        // get consents which has a expiry time attribute
-        ArrayList<DetailedConsentResource> consentsEligibleForExpiration =
-                ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
-                        .getConsentsEligibleForExpiration(expirationEligibleConsentStatuses);
-        // filter out expired consents and change the status of expired consents
-        for (DetailedConsentResource consentResource : consentsEligibleForExpiration) {
-            if (isExpired(consentResource)) {
-                String updatedConsentId = updateConsentExpiredStatus(consentResource);
-                if (log.isDebugEnabled()) {
-                    log.debug("Expired status updated for consent : " + updatedConsentId);
-                }
-            }
-        }
-        log.debug("Expired Consent Status Update Scheduled Task is finished.");
+        updateExpiredStatues(0, 1);
     }
 
     /**
-     * Check if the consents is expired based on the consent attribute value.
+     * Method to update statues of the expired consents of a partition.
      *
-     * @param detailedConsentResource
-     * @return
+     * @param partitionIndex index of the partition to update, starting from zero
+     * @param partitionCount number of partitions the consents are split into
+     * @return number of expired consents
      */
-    private static boolean isExpired(DetailedConsentResource detailedConsentResource) {
+    public static int updateExpiredStatues(int partitionIndex, int partitionCount) throws ConsentManagementException {
 
-        Map<String, String> consentAttributes = detailedConsentResource.getConsentAttributes();
-        if (consentAttributes.containsKey(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE)) {
-            // Read the UTC expiry timestamp in long
-            long expiryTimestamp = Long.parseLong(
-                    consentAttributes.get(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE));
-            // Compare with current UTC timestamp in long
-            Instant instant = Instant.now();
-            long currentTimeStampSeconds = instant.getEpochSecond();
-            if (currentTimeStampSeconds >= expiryTimestamp) {
-                log.info("Consent " + detailedConsentResource.getConsentID() + " is identified as expired based on the "
-                        + "given consent expiration time : " + expiryTimestamp);
-                return true;
-            }
+        if (partitionCount < 1 || partitionCount > PARTITION_KEY_SPACE || partitionIndex < 0
+                || partitionIndex >= partitionCount) {
+            throw new ConsentManagementException(String.format("Invalid consent expiration partition %d of %d",
+                    partitionIndex, partitionCount));
         }
-        return false;
+        log.debug("Expired Consent Status Update Scheduled Task is executing.");
+        long startTime = System.nanoTime();
+        ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance().getConsentCoreService();
+        int pageSize = Math.max(1, OpenBankingConfigParser.getInstance().getConsentExpirationPageSize());
+        long expiryTimestamp = Instant.now().getEpochSecond();
+
+        String lastConsentId = getPartitionBoundary(partitionIndex, partitionCount);
+        String upperConsentId = getPartitionBoundary(partitionIndex + 1, partitionCount);
+        int expiredCount = 0;
+        int failedCount = 0;
+        ArrayList<String> expiredConsentIds;
+        do {
+            expiredConsentIds = consentCoreService.getExpiringConsentIds(expirationEligibleConsentStatuses,
+                    expiryTimestamp, lastConsentId, upperConsentId, pageSize);
+            if (expiredConsentIds.isEmpty()) {
+                break;
+            }
+            try {
+                expiredCount += consentCoreService.expireConsents(expiredConsentIds, expiredConsentStatus);
+            } catch (ConsentManagementException e) {
+                log.error("Error occurred while updating status for a page of expired consents. Retrying the " +
+                        "consents of the page one by one", e);
+                for (String consentId : expiredConsentIds) {
+                    try {
+                        expiredCount += consentCoreService.expireConsents(
+                                new ArrayList<>(Collections.singletonList(consentId)), expiredConsentStatus);
+                    } catch (ConsentManagementException ex) {
+                        failedCount++;
+                        log.error("Error occurred while updating status for consentId : " + consentId, ex);
+                    }
+                }
+            }
+            lastConsentId = expiredConsentIds.get(expiredConsentIds.size() - 1);
+        } while (expiredConsentIds.size() == pageSize);
+
+        log.info(String.format("Expired Consent Status Update Scheduled Task expired %d consents of partition %d " +
+                        "of %d in %d ms. Failed to expire %d consents.", expiredCount, partitionIndex, partitionCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), failedCount));
+        return expiredCount;
     }
 
     /**
-     * Update the expired consents in DB.
+     * Get the consent ID at the given boundary of the partitions. A partition contains the consent IDs after the
+     * boundary of the partition and up to the boundary of the next partition.
      *
-     * @param detailedConsentResource
-     * @return
+     * @param boundaryIndex  index of the boundary
+     * @param partitionCount number of partitions
+     * @return consent ID at the boundary, or null for the start of the first and the end of the last partition
      */
-    private static String updateConsentExpiredStatus(DetailedConsentResource detailedConsentResource) {
+    static String getPartitionBoundary(int boundaryIndex, int partitionCount) {
 
-        try {
-            ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
-                    .updateConsentStatus(detailedConsentResource.getConsentID(), expiredConsentStatus);
-
-            //since the consent status is changed during the consent expiration, the previous status will be saved
-            //in the consent history to properly back-track the previous status held in the consent
-            storeConsentStateChangeInConsentHistory(detailedConsentResource);
-
-        } catch (ConsentManagementException e) {
-            log.error("Error occurred while updating status for consentId : " +
-                    detailedConsentResource.getConsentID(), e);
-        }
-        return detailedConsentResource.getConsentID();
-    }
-
-    private static void storeConsentStateChangeInConsentHistory(DetailedConsentResource detailedConsentResource)
-            throws ConsentManagementException {
-
-        if (OpenBankingConfigParser.getInstance().isConsentAmendmentHistoryEnabled()) {
-
-            ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance().getConsentCoreService();
-            ConsentHistoryResource consentHistoryResource = new ConsentHistoryResource();
-            consentHistoryResource.setTimestamp(System.currentTimeMillis() / 1000);
-            consentHistoryResource.setReason(ConsentCoreServiceConstants.AMENDMENT_REASON_CONSENT_EXPIRATION);
-            consentHistoryResource.setDetailedConsentResource(detailedConsentResource);
-
-            consentCoreService.storeConsentAmendmentHistory(detailedConsentResource.getConsentID(),
-                    consentHistoryResource, null);
+        if (boundaryIndex <= 0 || boundaryIndex >= partitionCount) {
+            return null;
         }
+        return String.format("%02x", boundaryIndex * PARTITION_KEY_SPACE / partitionCount);
     }
-
 }
@@ -30,17 +30,15 @@ import com.wso2.openbanking.accelerator.consent.extensions.validate.model.Consen
 import com.wso2.openbanking.accelerator.consent.extensions.validate.util.ConsentValidatorUtil;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.AuthorizationResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
-import net.minidev.json.JSONArray;
+import com.wso2.openbanking.accelerator.consent.mgt.service.cache.CompiledConsent;
 import net.minidev.json.JSONObject;
-import net.minidev.json.parser.JSONParser;
-import net.minidev.json.parser.ParseException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpStatus;
 
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Set;
 
 /**
  * Consent validator default implementation.
@@ -62,14 +60,15 @@ public class DefaultConsentValidator implements ConsentValidator {
     public void validate(ConsentValidateData consentValidateData, ConsentValidationResult consentValidationResult)
             throws ConsentException {
 
-        String uri = consentValidateData.getRequestPath();
-        JSONObject receiptJSON;
-        try {
-            receiptJSON = (JSONObject) (new JSONParser(JSONParser.MODE_PERMISSIVE)).
-                    parse(consentValidateData.getComprehensiveConsent().getReceipt());
-
-        } catch (ParseException e) {
-            log.error(e.getMessage());
+        // Use the compiled consent of the validation endpoint, which holds the receipt parsed once for the consent
+        CompiledConsent compiledConsent = consentValidateData.getCompiledConsent();
+        if (compiledConsent == null
+                || compiledConsent.getDetailedConsent() != consentValidateData.getComprehensiveConsent()) {
+            compiledConsent = CompiledConsent.of(consentValidateData.getComprehensiveConsent());
+        }
+        JSONObject receiptJSON = compiledConsent.getReceipt();
+        if (receiptJSON == null) {
+            log.error("Unable to parse the receipt of the consent");
             throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, "Exception occurred while validating" +
                     " permissions");
         }
@@ -109,13 +108,13 @@ public class DefaultConsentValidator implements ConsentValidator {
 
         switch (requestType) {
             case ConsentExtensionConstants.ACCOUNTS:
-                validateAccountSubmission(consentValidateData, receiptJSON, consentValidationResult);
+                validateAccountSubmission(consentValidateData, compiledConsent, consentValidationResult);
                 break;
             case ConsentExtensionConstants.PAYMENTS:
                 validatePaymentSubmission(consentValidateData, receiptJSON, consentValidationResult);
                 break;
             case ConsentExtensionConstants.FUNDSCONFIRMATIONS:
-                validateFundsConfirmationSubmission(consentValidateData, receiptJSON, consentValidationResult);
+                validateFundsConfirmationSubmission(consentValidateData, compiledConsent, consentValidationResult);
                 break;
             default:
                 log.error(ErrorConstants.INVALID_CONSENT_TYPE);
@@ -130,12 +129,13 @@ public class DefaultConsentValidator implements ConsentValidator {
      * Validate Account Retrieval Request.
      *
      * @param consentValidateData     Object with request data
+     * @param compiledConsent         Compiled consent
      * @param consentValidationResult Validation result object to return
      */
-    private void validateAccountSubmission(ConsentValidateData consentValidateData, JSONObject receiptJSON,
+    private void validateAccountSubmission(ConsentValidateData consentValidateData, CompiledConsent compiledConsent,
                                                   ConsentValidationResult consentValidationResult) {
 
-        JSONArray permissions = (JSONArray) ((JSONObject) receiptJSON.get("Data")).get("Permissions");
+        Set<String> permissions = compiledConsent.getPermissions();
 
         // Perform URI Validation.
         String uri = consentValidateData.getRequestPath();
@@ -164,7 +164,7 @@ public class DefaultConsentValidator implements ConsentValidator {
             return;
         }
 
-        if (isConsentExpired(((JSONObject) receiptJSON.get("Data")).getAsString("ExpirationDateTime"))) {
+        if (isConsentExpired(compiledConsent, "Error occurred while parsing the expiration date")) {
             consentValidationResult.setErrorMessage(CONSENT_EXPIRED_ERROR);
             consentValidationResult.setErrorCode("00011");
             consentValidationResult.setHttpCode(401);
@@ -298,31 +298,26 @@ public class DefaultConsentValidator implements ConsentValidator {
         consentValidationResult.setValid(true);
     }
 
-    private boolean isConsentExpired(String expDateVal) throws ConsentException {
+    private static boolean isConsentExpired(CompiledConsent compiledConsent, String parseErrorMessage)
+            throws ConsentException {
 
-        if (expDateVal != null && !expDateVal.isEmpty()) {
-            try {
-                OffsetDateTime expDate = OffsetDateTime.parse(expDateVal);
-                return OffsetDateTime.now().isAfter(expDate);
-            } catch (DateTimeParseException e) {
-                log.error("Error occurred while parsing the expiration date : " + expDateVal);
-                throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR,
-                        "Error occurred while parsing the expiration date");
-            }
-        } else {
-            return false;
+        if (compiledConsent.isExpirationDateTimeInvalid()) {
+            log.error(parseErrorMessage + " : " + compiledConsent.getExpirationDateTimeValue());
+            throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, parseErrorMessage);
         }
-
+        OffsetDateTime expirationDateTime = compiledConsent.getExpirationDateTime();
+        return expirationDateTime != null && OffsetDateTime.now().isAfter(expirationDateTime);
     }
 
     /**
      * Validate Funds Confirmation Retrieval Request.
      *
      * @param consentValidateData     Object with request data
+     * @param compiledConsent         Compiled consent
      * @param consentValidationResult Validation result object to return
      */
     private static void validateFundsConfirmationSubmission(ConsentValidateData consentValidateData,
-                                                            JSONObject receiptJSON,
+                                                            CompiledConsent compiledConsent,
                                                             ConsentValidationResult consentValidationResult) {
 
         // Perform URI Validation.
@@ -344,9 +339,7 @@ public class DefaultConsentValidator implements ConsentValidator {
         }
 
         //Validate whether the consent is expired
-        if (ConsentValidatorUtil
-                .isConsentExpired(((JSONObject) receiptJSON.get(ConsentExtensionConstants.DATA))
-                        .getAsString(ConsentExtensionConstants.EXPIRATION_DATE))) {
+        if (isConsentExpired(compiledConsent, ErrorConstants.EXP_DATE_PARSE_ERROR)) {
             consentValidationResult.setErrorMessage(ErrorConstants.CONSENT_EXPIRED_ERROR);
             consentValidationResult.setErrorCode(ErrorConstants.FIELD_INVALID);
             consentValidationResult.setHttpCode(400);
@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.consent.extensions.validate.model;
 
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.service.cache.CompiledConsent;
 import net.minidev.json.JSONObject;
 
 import java.util.Map;
@@ -37,6 +38,7 @@ public class ConsentValidateData {
     private String clientId;
     private Map<String, String> resourceParams;
     private DetailedConsentResource comprehensiveConsent;
+    private CompiledConsent compiledConsent;
     private TreeMap<String, String> headersMap;
 
     public ConsentValidateData(JSONObject headers, JSONObject payload, String requestPath, String consentId,
@@ -83,6 +85,26 @@ public class ConsentValidateData {
         this.comprehensiveConsent = comprehensiveConsent;
     }
 
+    /**
+     * Get the compiled consent of the comprehensive consent. The compiled consent is shared between validation
+     * requests, hence neither the compiled consent nor the comprehensive consent must be modified.
+     *
+     * @return compiled consent, or null if not compiled
+     */
+    public CompiledConsent getCompiledConsent() {
+        return compiledConsent;
+    }
+
+    /**
+     * Set the comprehensive consent with its compiled consent.
+     *
+     * @param compiledConsent compiled consent
+     */
+    public void setCompiledConsent(CompiledConsent compiledConsent) {
+        this.compiledConsent = compiledConsent;
+        this.comprehensiveConsent = compiledConsent == null ? null : compiledConsent.getDetailedConsent();
+    }
+
     public String getConsentId() {
         return consentId;
     }
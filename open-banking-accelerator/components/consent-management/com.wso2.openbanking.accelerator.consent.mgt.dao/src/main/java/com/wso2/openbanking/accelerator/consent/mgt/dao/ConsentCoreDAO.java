@@ -29,6 +29,7 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 
@@ -371,6 +372,20 @@ public interface ConsentCoreDAO {
                                                       Long fromTime, Long toTime, Integer limit, Integer offset)
             throws OBConsentDataRetrievalException;
 
+    /**
+     * This method is used to search a page of detailed consents for the given search criteria. Consents are ordered
+     * by the updated time and the consent_id in descending order, and the next page is searched by setting the last
+     * consent of the current page as the cursor of the criteria. Consent attributes, authorization resources and
+     * consent mapping resources are retrieved for the whole page at once, only if they are included in the criteria.
+     *
+     * @param connection connection object
+     * @param searchCriteria search criteria of the page
+     * @return a page of detailed consent resources matching the search criteria
+     * @throws OBConsentDataRetrievalException thrown if any error occur
+     */
+    ArrayList<DetailedConsentResource> searchConsents(Connection connection, ConsentSearchCriteria searchCriteria)
+            throws OBConsentDataRetrievalException;
+
     /**
      * This method is used to search authorization resources using following optional parameters. If all the input
      * parameters are null, all the relevant authorization resources will be returned.
@@ -451,6 +466,29 @@ public interface ConsentCoreDAO {
                                                            String statusesEligibleForExpiration)
             throws OBConsentDataRetrievalException;
 
+    /**
+     * This method is used to retrieve a page of consent_ids of the consents in the given statuses, whose expiration
+     * time consent attribute is at or before the given timestamp, ordered by the consent_id. The next page is
+     * retrieved by passing the last consent_id of the current page.
+     * <p>
+     * The attribute value is not cast to a number. It must have the same length as the timestamp and is then
+     * compared as a string, so that the range is read from the IDX_OB_CONSENT_ATTRIBUTE_KEY (ATT_KEY, ATT_VALUE)
+     * index.
+     *
+     * @param connection connection object
+     * @param statusesEligibleForExpiration comma separated consent statuses eligible for expiration
+     * @param expiryTimestamp expiration timestamp in epoch seconds
+     * @param lastConsentID last consent_id of the previous page (exclusive), null to start from the first consent
+     * @param upperConsentID last consent_id of the range to retrieve (inclusive), null to retrieve until the end
+     * @param limit maximum number of consent_ids in the page
+     * @return returns a page of consent_ids of the expired consents
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    ArrayList<String> getExpiringConsentIds(Connection connection, String statusesEligibleForExpiration,
+                                            long expiryTimestamp, String lastConsentID, String upperConsentID,
+                                            int limit)
+            throws OBConsentDataRetrievalException;
+
     /**
      * This method is used to delete the consent details completely from consent database.
      * This include deletion of consent attributes, auth resources, consent mappings, audit records and consent file.
@@ -491,4 +529,155 @@ public interface ConsentCoreDAO {
                                                                                 Integer limit, Integer offset,
                                                                                 boolean fetchFromRetentionTable)
             throws OBConsentDataRetrievalException;
+
+    /**
+     * This method is used to retrieve a page of consent_ids in consent table, ordered by the consent_id. The next
+     * page is retrieved by passing the last consent_id of the current page.
+     *
+     * @param connection connection object
+     * @param fetchFromRetentionTable boolean value to fetch from retention tables (temporary purged data)
+     * @param lastConsentID last consent_id of the previous page, null to retrieve the first page
+     * @param limit maximum number of consent_ids in the page
+     * @return returns a page of consent_ids in consent table.
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    ArrayList<String> getListOfConsentIds(Connection connection, boolean fetchFromRetentionTable,
+                                          String lastConsentID, int limit)
+            throws OBConsentDataRetrievalException;
+
+    /**
+     * This method is used to retrieve the detailed consent resources of a list of consents. The consents, attributes,
+     * authorization resources and mapping resources are each retrieved with a single query.
+     *
+     * @param connection connection object
+     * @param consentIDs consent IDs of the detailed consent resources needed to be retrieved
+     * @param fetchFromRetentionTables boolean value to fetch from retention tables (temporary purged data)
+     * @return returns the detailed consent resources of the existing consents, ordered by the consent ID
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    ArrayList<DetailedConsentResource> getDetailedConsentResources(Connection connection, List<String> consentIDs,
+                                                                   boolean fetchFromRetentionTables)
+            throws OBConsentDataRetrievalException;
+
+    /**
+     * This method is used to retrieve the consent files of a list of consents with a single query.
+     *
+     * @param connection connection object
+     * @param consentIDs consent IDs of the files needed to be retrieved
+     * @param fetchFromRetentionTables boolean value to fetch from retention tables (temporary purged data)
+     * @return returns the consent files of the consents which have a file
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    ArrayList<ConsentFile> getConsentFiles(Connection connection, List<String> consentIDs,
+                                           boolean fetchFromRetentionTables)
+            throws OBConsentDataRetrievalException;
+
+    /**
+     * This method is used to store a list of consent resources in the database as a single batch. Consent IDs and
+     * times are generated only for the resources which do not have them.
+     *
+     * @param connection connection object
+     * @param consentResources consent resources with all required data
+     * @return returns the number of stored consent resources
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentResources(Connection connection, List<ConsentResource> consentResources)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to store a list of authorization resources in the database as a single batch.
+     *
+     * @param connection connection object
+     * @param authorizationResources authorization resources with all required data
+     * @return returns the number of stored authorization resources
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeAuthorizationResources(Connection connection, List<AuthorizationResource> authorizationResources)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to store a list of consent mapping resources in the database as a single batch.
+     *
+     * @param connection connection object
+     * @param consentMappingResources consent mapping resources with all required data
+     * @return returns the number of stored consent mapping resources
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentMappingResources(Connection connection, List<ConsentMappingResource> consentMappingResources)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to store a list of consent status audit records in the database as a single batch.
+     *
+     * @param connection connection object
+     * @param consentStatusAuditRecords consent status audit records with all required data
+     * @return returns the number of stored consent status audit records
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentStatusAuditRecords(Connection connection, List<ConsentStatusAuditRecord> consentStatusAuditRecords)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to update the status of a list of consents as a single batch. A consent is updated only if
+     * it is still in the given current status, hence a consent changed by another request is not overwritten.
+     *
+     * @param connection connection object
+     * @param currentConsentStatuses current statuses of the consents, keyed by the consent ID
+     * @param newConsentStatus the status that should be updated
+     * @return returns the consent IDs of the updated consents
+     * @throws OBConsentDataUpdationException thrown if a database error occur
+     */
+    List<String> updateConsentStatuses(Connection connection, Map<String, String> currentConsentStatuses,
+                                       String newConsentStatus)
+            throws OBConsentDataUpdationException;
+
+    /**
+     * This method is used to store the amendment history of a list of consents as a single batch. The changed values
+     * of each history resource are stored against its consent ID.
+     *
+     * @param connection connection object
+     * @param consentHistoryResources consent history resources with the history ID, consent ID, timestamp, reason
+     *                                and the changed values
+     * @param consentDataType consent data type of the changed values
+     * @return returns the number of stored consent amendment history records
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentAmendmentHistories(Connection connection, List<ConsentHistoryResource> consentHistoryResources,
+                                       String consentDataType)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to store the consent attributes of a list of consents in the database as a single batch.
+     *
+     * @param connection connection object
+     * @param consentAttributesList consent attributes objects with consent ID and attributes map
+     * @return returns the number of stored consent attributes
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentAttributesList(Connection connection, List<ConsentAttributes> consentAttributesList)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to store a list of consent files in the database as a single batch.
+     *
+     * @param connection connection object
+     * @param consentFiles consent file resources with consent ID and the file content
+     * @return returns the number of stored consent files
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    int storeConsentFiles(Connection connection, List<ConsentFile> consentFiles)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to delete the consent details of a list of consents completely from consent database, using
+     * a single batch per table.
+     *
+     * @param connection connection object
+     * @param consentIDs consent IDs
+     * @param executeOnRetentionTables boolean value to execute query on retention tables (temporary purged data)
+     * @return true if all the consents are deleted
+     * @throws OBConsentDataDeletionException thrown if a database error occurs
+     */
+    boolean deleteConsentData(Connection connection, List<String> consentIDs, boolean executeOnRetentionTables)
+            throws OBConsentDataDeletionException;
 }
@@ -122,6 +122,7 @@ public class ConsentMgtDAOConstants {
     public static final String TABLE_OB_CONSENT_MAPPING = "OB_CONSENT_MAPPING";
     public static final String TABLE_OB_CONSENT_ATTRIBUTE = "OB_CONSENT_ATTRIBUTE";
     public static final String TABLE_OB_CONSENT_FILE = "OB_CONSENT_FILE";
+    public static final String TABLE_OB_CONSENT_STATUS_AUDIT = "OB_CONSENT_STATUS_AUDIT";
 
     // Categorizations of the consent data according to the consent db tables to be used in CA history processing
     public static final String TYPE_CONSENT_BASIC_DATA = "ConsentData";
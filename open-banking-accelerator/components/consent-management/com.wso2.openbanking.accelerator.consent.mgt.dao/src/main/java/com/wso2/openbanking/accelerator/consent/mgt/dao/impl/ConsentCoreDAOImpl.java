@@ -30,6 +30,7 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.queries.ConsentMgtCommonDBQueries;
@@ -44,6 +45,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -1221,6 +1223,292 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public ArrayList<DetailedConsentResource> searchConsents(Connection connection,
+                                                             ConsentSearchCriteria searchCriteria)
+            throws OBConsentDataRetrievalException {
+
+        List<Object> parameters = new ArrayList<>();
+        String whereClause = constructConsentSearchPageWhereClause(searchCriteria, parameters);
+        String searchConsentsPageStatement = sqlStatements.getSearchConsentsPagePreparedStatement(whereClause);
+        Map<String, DetailedConsentResource> detailedConsentResources = new LinkedHashMap<>();
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(searchConsentsPageStatement)) {
+
+            log.debug("Setting parameters to prepared statement to search a page of consents");
+
+            int parameterIndex = 0;
+            for (Object parameter : parameters) {
+                if (parameter instanceof Long) {
+                    preparedStatement.setLong(++parameterIndex, (Long) parameter);
+                } else {
+                    preparedStatement.setString(++parameterIndex, (String) parameter);
+                }
+            }
+            preparedStatement.setInt(++parameterIndex, searchCriteria.getLimit());
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+                    setConsentDataToDetailedConsentResource(resultSet, detailedConsentResource);
+                    detailedConsentResource.setConsentAttributes(new HashMap<>());
+                    detailedConsentResource.setAuthorizationResources(new ArrayList<>());
+                    detailedConsentResource.setConsentMappingResources(new ArrayList<>());
+                    detailedConsentResources.put(detailedConsentResource.getConsentID(), detailedConsentResource);
+                }
+            }
+
+            if (!detailedConsentResources.isEmpty()) {
+                List<String> consentIDs = new ArrayList<>(detailedConsentResources.keySet());
+                if (searchCriteria.isIncludeAttributes()) {
+                    setConsentAttributesToDetailedConsents(connection, consentIDs, detailedConsentResources,
+                            false);
+                }
+                if (searchCriteria.isIncludeAuthorizationResources()) {
+                    setAuthorizationResourcesToDetailedConsents(connection, consentIDs, detailedConsentResources,
+                            false);
+                }
+                if (searchCriteria.isIncludeMappingResources()) {
+                    setConsentMappingResourcesToDetailedConsents(connection, consentIDs, detailedConsentResources,
+                            false);
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+        }
+        return new ArrayList<>(detailedConsentResources.values());
+    }
+
+    @Override
+    public ArrayList<DetailedConsentResource> getDetailedConsentResources(Connection connection,
+                                                                          List<String> consentIDs,
+                                                                          boolean fetchFromRetentionTables)
+            throws OBConsentDataRetrievalException {
+
+        Map<String, DetailedConsentResource> detailedConsentResources = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(consentIDs)) {
+            return new ArrayList<>();
+        }
+        String statement = sqlStatements.getGetConsentResourcesPreparedStatement(
+                ConsentDAOUtils.constructInCondition("CONSENT_ID", consentIDs.size()), fetchFromRetentionTables);
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+
+            log.debug("Setting parameters to prepared statement to retrieve detailed consent resources");
+            setStringParameters(preparedStatement, consentIDs);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+                    setConsentDataToDetailedConsentResource(resultSet, detailedConsentResource);
+                    detailedConsentResource.setConsentAttributes(new HashMap<>());
+                    detailedConsentResource.setAuthorizationResources(new ArrayList<>());
+                    detailedConsentResource.setConsentMappingResources(new ArrayList<>());
+                    detailedConsentResources.put(detailedConsentResource.getConsentID(), detailedConsentResource);
+                }
+            }
+
+            if (!detailedConsentResources.isEmpty()) {
+                List<String> retrievedConsentIDs = new ArrayList<>(detailedConsentResources.keySet());
+                setConsentAttributesToDetailedConsents(connection, retrievedConsentIDs, detailedConsentResources,
+                        fetchFromRetentionTables);
+                setAuthorizationResourcesToDetailedConsents(connection, retrievedConsentIDs,
+                        detailedConsentResources, fetchFromRetentionTables);
+                setConsentMappingResourcesToDetailedConsents(connection, retrievedConsentIDs,
+                        detailedConsentResources, fetchFromRetentionTables);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Retrieved %d detailed consent resources of %d consent IDs",
+                        detailedConsentResources.size(), consentIDs.size()));
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.DETAILED_CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants
+                    .DETAILED_CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
+        }
+        return new ArrayList<>(detailedConsentResources.values());
+    }
+
+    @Override
+    public ArrayList<ConsentFile> getConsentFiles(Connection connection, List<String> consentIDs,
+                                                  boolean fetchFromRetentionTables)
+            throws OBConsentDataRetrievalException {
+
+        ArrayList<ConsentFile> consentFiles = new ArrayList<>();
+        if (CollectionUtils.isEmpty(consentIDs)) {
+            return consentFiles;
+        }
+        String statement = sqlStatements.getGetConsentFilesPreparedStatement(
+                ConsentDAOUtils.constructInCondition("CONSENT_ID", consentIDs.size()), fetchFromRetentionTables);
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+
+            log.debug("Setting parameters to prepared statement to retrieve consent file resources");
+            setStringParameters(preparedStatement, consentIDs);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    ConsentFile consentFile = new ConsentFile();
+                    consentFile.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                    consentFile.setConsentFile(resultSet.getString(ConsentMgtDAOConstants.CONSENT_FILE));
+                    consentFiles.add(consentFile);
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_FILE_RETRIEVE_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_FILE_RETRIEVE_ERROR_MSG, e);
+        }
+        return consentFiles;
+    }
+
+    /**
+     * Construct the where clause of a consent search page and collect the parameters of the clause in order.
+     *
+     * @param searchCriteria search criteria of the page
+     * @param parameters     list to collect the String and Long parameters of the where clause
+     * @return where clause, or an empty string if there are no conditions
+     */
+    private String constructConsentSearchPageWhereClause(ConsentSearchCriteria searchCriteria,
+                                                         List<Object> parameters) {
+
+        List<String> conditions = new ArrayList<>();
+        addInCondition("OBC.CONSENT_ID", searchCriteria.getConsentIDs(), conditions, parameters);
+        addInCondition("OBC.CLIENT_ID", searchCriteria.getClientIDs(), conditions, parameters);
+        addInCondition("OBC.CONSENT_TYPE", searchCriteria.getConsentTypes(), conditions, parameters);
+        addInCondition("OBC.CURRENT_STATUS", searchCriteria.getConsentStatuses(), conditions, parameters);
+        if (CollectionUtils.isNotEmpty(searchCriteria.getUserIDs())) {
+            conditions.add("EXISTS (SELECT 1 FROM OB_CONSENT_AUTH_RESOURCE OCAR WHERE " +
+                    "OCAR.CONSENT_ID = OBC.CONSENT_ID AND " +
+                    ConsentDAOUtils.constructInCondition("OCAR.USER_ID", searchCriteria.getUserIDs().size()) + ")");
+            parameters.addAll(searchCriteria.getUserIDs());
+        }
+        if (searchCriteria.getFromTime() != null) {
+            conditions.add("OBC.UPDATED_TIME >= ?");
+            parameters.add(searchCriteria.getFromTime());
+        }
+        if (searchCriteria.getToTime() != null) {
+            conditions.add("OBC.UPDATED_TIME <= ?");
+            parameters.add(searchCriteria.getToTime());
+        }
+        if (searchCriteria.hasCursor()) {
+            conditions.add("(OBC.UPDATED_TIME < ? OR (OBC.UPDATED_TIME = ? AND OBC.CONSENT_ID < ?))");
+            parameters.add(searchCriteria.getLastUpdatedTime());
+            parameters.add(searchCriteria.getLastUpdatedTime());
+            parameters.add(searchCriteria.getLastConsentID());
+        }
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+    }
+
+    private void addInCondition(String column, List<String> values, List<String> conditions,
+                                List<Object> parameters) {
+
+        if (CollectionUtils.isNotEmpty(values)) {
+            conditions.add(ConsentDAOUtils.constructInCondition(column, values.size()));
+            parameters.addAll(values);
+        }
+    }
+
+    /**
+     * Set the consent attributes of a page of consents, retrieved with a single query.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources of the page keyed by the consent ID
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @throws SQLException thrown if a database error occurs
+     */
+    private void setConsentAttributesToDetailedConsents(Connection connection, List<String> consentIDs,
+                                                        Map<String, DetailedConsentResource> detailedConsentResources,
+                                                        boolean fetchFromRetentionTables)
+            throws SQLException {
+
+        String statement = sqlStatements.getSearchConsentAttributesPreparedStatement(
+                ConsentDAOUtils.constructInCondition("CONSENT_ID", consentIDs.size()), fetchFromRetentionTables);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+            setStringParameters(preparedStatement, consentIDs);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                            .getConsentAttributes().put(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY),
+                                    resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the authorization resources of a page of consents, retrieved with a single query.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources of the page keyed by the consent ID
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @throws SQLException thrown if a database error occurs
+     */
+    private void setAuthorizationResourcesToDetailedConsents(Connection connection, List<String> consentIDs,
+                                                             Map<String, DetailedConsentResource>
+                                                                     detailedConsentResources,
+                                                             boolean fetchFromRetentionTables)
+            throws SQLException {
+
+        String statement = sqlStatements.getSearchConsentAuthorizationResourcesPreparedStatement(
+                ConsentDAOUtils.constructInCondition("CONSENT_ID", consentIDs.size()), fetchFromRetentionTables);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+            setStringParameters(preparedStatement, consentIDs);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    AuthorizationResource authorizationResource = new AuthorizationResource();
+                    authorizationResource.setAuthorizationID(resultSet.getString(ConsentMgtDAOConstants.AUTH_ID));
+                    authorizationResource.setConsentID(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                    authorizationResource.setUserID(resultSet.getString(ConsentMgtDAOConstants.USER_ID));
+                    authorizationResource.setAuthorizationStatus(resultSet
+                            .getString(ConsentMgtDAOConstants.AUTH_STATUS));
+                    authorizationResource.setAuthorizationType(resultSet.getString(ConsentMgtDAOConstants.AUTH_TYPE));
+                    authorizationResource.setUpdatedTime(resultSet.getLong(ConsentMgtDAOConstants.UPDATED_TIME));
+                    detailedConsentResources.get(authorizationResource.getConsentID()).getAuthorizationResources()
+                            .add(authorizationResource);
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the consent mapping resources of a page of consents, retrieved with a single query.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources of the page keyed by the consent ID
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @throws SQLException thrown if a database error occurs
+     */
+    private void setConsentMappingResourcesToDetailedConsents(Connection connection, List<String> consentIDs,
+                                                              Map<String, DetailedConsentResource>
+                                                                      detailedConsentResources,
+                                                              boolean fetchFromRetentionTables)
+            throws SQLException {
+
+        String statement = sqlStatements.getSearchConsentMappingResourcesPreparedStatement(
+                ConsentDAOUtils.constructInCondition("OCAR.CONSENT_ID", consentIDs.size()), fetchFromRetentionTables);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+            setStringParameters(preparedStatement, consentIDs);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                            .getConsentMappingResources().add(getConsentMappingResourceWithData(resultSet));
+                }
+            }
+        }
+    }
+
+    private void setStringParameters(PreparedStatement preparedStatement, List<String> values) throws SQLException {
+
+        int parameterIndex = 0;
+        for (String value : values) {
+            preparedStatement.setString(++parameterIndex, value);
+        }
+    }
+
     @Override
     public ArrayList<AuthorizationResource> searchConsentAuthorizations(Connection connection, String consentID,
                                                                         String userID)
@@ -1906,6 +2194,54 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public ArrayList<String> getExpiringConsentIds(Connection connection, String statusesEligibleForExpiration,
+                                                   long expiryTimestamp, String lastConsentID, String upperConsentID,
+                                                   int limit)
+            throws OBConsentDataRetrievalException {
+
+        List<String> statusesEligibleForExpirationList = Arrays.stream(statusesEligibleForExpiration.split(","))
+                .filter(status -> !status.isEmpty())
+                .collect(Collectors.toList());
+
+        String statusesEligibleForExpirationCondition = ConsentDAOUtils.constructStatusesEligibleForExpirationCondition(
+                statusesEligibleForExpirationList);
+        String expiringConsentIdsStatement = sqlStatements.getExpiringConsentIdsPagePreparedStatement(
+                statusesEligibleForExpirationCondition, lastConsentID != null, upperConsentID != null);
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(expiringConsentIdsStatement)) {
+
+            log.debug("Setting parameters to prepared statement to fetch expired consents");
+
+            int parameterIndex = 0;
+            preparedStatement.setString(++parameterIndex, ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE);
+            for (String status : statusesEligibleForExpirationList) {
+                preparedStatement.setString(++parameterIndex, status);
+            }
+            String expiryTime = String.valueOf(expiryTimestamp);
+            preparedStatement.setString(++parameterIndex, expiryTime);
+            preparedStatement.setInt(++parameterIndex, expiryTime.length());
+            if (lastConsentID != null) {
+                preparedStatement.setString(++parameterIndex, lastConsentID);
+            }
+            if (upperConsentID != null) {
+                preparedStatement.setString(++parameterIndex, upperConsentID);
+            }
+            preparedStatement.setInt(++parameterIndex, limit);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    consentIDs.add(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while searching expired consents", e);
+            throw new OBConsentDataRetrievalException("Error occurred while searching expired consents", e);
+        }
+        return consentIDs;
+    }
+
     @Override
     public boolean deleteConsentData(Connection connection, String consentID, boolean executeOnRetentionTables)
             throws OBConsentDataDeletionException {
@@ -2087,6 +2423,307 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         return retrievedAuditRecords;
     }
 
+    @Override
+    public ArrayList<String> getListOfConsentIds(Connection connection, boolean fetchFromRetentionTable,
+                                                 String lastConsentID, int limit)
+            throws OBConsentDataRetrievalException {
+
+        String getConsentIdsPrepStatement = sqlStatements.getConsentIdsPagePreparedStatement(fetchFromRetentionTable,
+                lastConsentID != null);
+        ArrayList<String> consentIDs = new ArrayList<>();
+
+        try (PreparedStatement getConsentIdsPreparedStmt =
+                     connection.prepareStatement(getConsentIdsPrepStatement)) {
+
+            int parameterIndex = 0;
+            if (lastConsentID != null) {
+                getConsentIdsPreparedStmt.setString(++parameterIndex, lastConsentID);
+            }
+            getConsentIdsPreparedStmt.setInt(++parameterIndex, limit);
+
+            try (ResultSet resultSet = getConsentIdsPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    consentIDs.add(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID));
+                }
+            } catch (SQLException e) {
+                log.error("Error occurred while reading consent_id page", e);
+                throw new OBConsentDataRetrievalException("Error occurred while retrieving consent consent IDs list",
+                        e);
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_RESOURCE_RETRIEVE_ERROR_MSG, e);
+        }
+        return consentIDs;
+    }
+
+    @Override
+    public int storeConsentResources(Connection connection, List<ConsentResource> consentResources)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreConsentPreparedStatement(), consentResources,
+                (preparedStatement, consentResource) -> {
+                    long currentTime = System.currentTimeMillis() / 1000;
+                    preparedStatement.setString(1, StringUtils.isEmpty(consentResource.getConsentID()) ?
+                            UUID.randomUUID().toString() : consentResource.getConsentID());
+                    preparedStatement.setString(2, consentResource.getReceipt());
+                    preparedStatement.setLong(3, consentResource.getCreatedTime() == 0 ? currentTime :
+                            consentResource.getCreatedTime());
+                    preparedStatement.setLong(4, consentResource.getUpdatedTime() == 0 ? currentTime :
+                            consentResource.getUpdatedTime());
+                    preparedStatement.setString(5, consentResource.getClientID());
+                    preparedStatement.setString(6, consentResource.getConsentType());
+                    preparedStatement.setString(7, consentResource.getCurrentStatus());
+                    preparedStatement.setLong(8, consentResource.getConsentFrequency());
+                    preparedStatement.setLong(9, consentResource.getValidityPeriod());
+                    preparedStatement.setBoolean(10, consentResource.isRecurringIndicator());
+                    preparedStatement.addBatch();
+                }, ConsentMgtDAOConstants.CONSENT_RESOURCE_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public int storeAuthorizationResources(Connection connection, List<AuthorizationResource> authorizationResources)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreAuthorizationPreparedStatement(),
+                authorizationResources, (preparedStatement, authorizationResource) -> {
+                    preparedStatement.setString(1, StringUtils.isEmpty(authorizationResource.getAuthorizationID()) ?
+                            UUID.randomUUID().toString() : authorizationResource.getAuthorizationID());
+                    preparedStatement.setString(2, authorizationResource.getConsentID());
+                    preparedStatement.setString(3, authorizationResource.getAuthorizationType());
+                    preparedStatement.setString(4, authorizationResource.getUserID());
+                    preparedStatement.setString(5, authorizationResource.getAuthorizationStatus());
+                    preparedStatement.setLong(6, authorizationResource.getUpdatedTime() == 0 ?
+                            System.currentTimeMillis() / 1000 : authorizationResource.getUpdatedTime());
+                    preparedStatement.addBatch();
+                }, ConsentMgtDAOConstants.AUTHORIZATION_RESOURCE_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public int storeConsentMappingResources(Connection connection,
+                                            List<ConsentMappingResource> consentMappingResources)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreConsentMappingPreparedStatement(),
+                consentMappingResources, (preparedStatement, consentMappingResource) -> {
+                    preparedStatement.setString(1, StringUtils.isEmpty(consentMappingResource.getMappingID()) ?
+                            UUID.randomUUID().toString() : consentMappingResource.getMappingID());
+                    preparedStatement.setString(2, consentMappingResource.getAuthorizationID());
+                    preparedStatement.setString(3, consentMappingResource.getAccountID());
+                    preparedStatement.setString(4, consentMappingResource.getPermission());
+                    preparedStatement.setString(5, consentMappingResource.getMappingStatus());
+                    preparedStatement.addBatch();
+                }, ConsentMgtDAOConstants.CONSENT_MAPPING_RESOURCE_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public int storeConsentStatusAuditRecords(Connection connection,
+                                              List<ConsentStatusAuditRecord> consentStatusAuditRecords)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreConsentStatusAuditRecordPreparedStatement(),
+                consentStatusAuditRecords, (preparedStatement, auditRecord) -> {
+                    preparedStatement.setString(1, StringUtils.isEmpty(auditRecord.getStatusAuditID()) ?
+                            UUID.randomUUID().toString() : auditRecord.getStatusAuditID());
+                    preparedStatement.setString(2, auditRecord.getConsentID());
+                    preparedStatement.setString(3, auditRecord.getCurrentStatus());
+                    preparedStatement.setLong(4, auditRecord.getActionTime() == 0 ?
+                            System.currentTimeMillis() / 1000 : auditRecord.getActionTime());
+                    preparedStatement.setString(5, auditRecord.getReason());
+                    preparedStatement.setString(6, auditRecord.getActionBy());
+                    preparedStatement.setString(7, auditRecord.getPreviousStatus());
+                    preparedStatement.addBatch();
+                }, ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public int storeConsentAttributesList(Connection connection, List<ConsentAttributes> consentAttributesList)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreConsentAttributesPreparedStatement(),
+                consentAttributesList, (preparedStatement, consentAttributes) -> {
+                    for (Map.Entry<String, String> entry : consentAttributes.getConsentAttributes().entrySet()) {
+                        preparedStatement.setString(1, consentAttributes.getConsentID());
+                        preparedStatement.setString(2, entry.getKey());
+                        preparedStatement.setString(3, entry.getValue());
+                        preparedStatement.addBatch();
+                    }
+                }, ConsentMgtDAOConstants.CONSENT_ATTRIBUTES_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public int storeConsentFiles(Connection connection, List<ConsentFile> consentFiles)
+            throws OBConsentDataInsertionException {
+
+        return executeInsertionBatch(connection, sqlStatements.getStoreConsentFilePreparedStatement(), consentFiles,
+                (preparedStatement, consentFile) -> {
+                    preparedStatement.setString(1, consentFile.getConsentID());
+                    preparedStatement.setString(2, consentFile.getConsentFile());
+                    preparedStatement.addBatch();
+                }, ConsentMgtDAOConstants.CONSENT_FILE_STORE_ERROR_MSG);
+    }
+
+    @Override
+    public boolean deleteConsentData(Connection connection, List<String> consentIDs, boolean executeOnRetentionTables)
+            throws OBConsentDataDeletionException {
+
+        if (consentIDs.isEmpty()) {
+            return true;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Deleting consent details of %d consents", consentIDs.size()));
+        }
+
+        // Child tables are deleted before the consent table, in the same order as the single consent deletion
+        List<String> deleteChildPrepStatements = Arrays.asList(
+                sqlStatements.getDeleteConsentAttributeByConsentIdPreparedStatement(executeOnRetentionTables),
+                sqlStatements.getDeleteConsentFileResourcePreparedStatement(executeOnRetentionTables),
+                sqlStatements.getDeleteConsentMappingByAuthIdPreparedStatement(executeOnRetentionTables),
+                sqlStatements.getDeleteAuthorizationResourcePreparedStatement(executeOnRetentionTables),
+                sqlStatements.getDeleteConsentStatusAuditRecordsPreparedStatement(executeOnRetentionTables));
+
+        try {
+            for (String deleteChildPrepStatement : deleteChildPrepStatements) {
+                executeDeletionBatch(connection, deleteChildPrepStatement, consentIDs);
+            }
+            int[] results = executeDeletionBatch(connection,
+                    sqlStatements.getDeleteConsentPreparedStatement(executeOnRetentionTables), consentIDs);
+
+            // A value of 0 means a consent was not found and -3 means the batch execution is failed
+            return results.length == consentIDs.size() &&
+                    IntStream.of(results).noneMatch(value -> value == 0 || value == -3);
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_DATA_DELETE_ERROR_MSG, e);
+            throw new OBConsentDataDeletionException(ConsentMgtDAOConstants.CONSENT_DATA_DELETE_ERROR_MSG, e);
+        }
+    }
+
+    /**
+     * Execute an insertion batch built from the given resources.
+     *
+     * @param connection     connection object
+     * @param prepStatement  insertion prepared statement
+     * @param resources      resources to insert
+     * @param batchBuilder   adds the rows of a resource to the batch
+     * @param errorMessage   error message to use if the insertion fails
+     * @return number of inserted rows
+     * @throws OBConsentDataInsertionException thrown if a database error occur or an insertion failure
+     */
+    @Override
+    public List<String> updateConsentStatuses(Connection connection, Map<String, String> currentConsentStatuses,
+                                              String newConsentStatus)
+            throws OBConsentDataUpdationException {
+
+        List<String> consentIDs = new ArrayList<>(currentConsentStatuses.keySet());
+        if (consentIDs.isEmpty()) {
+            return consentIDs;
+        }
+        int[] result;
+        long updatedTime = System.currentTimeMillis() / 1000;
+
+        try (PreparedStatement updateConsentStatusPreparedStmt = connection.prepareStatement(
+                sqlStatements.getUpdateConsentStatusIfCurrentStatusPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to update consent statuses");
+
+            for (String consentID : consentIDs) {
+                updateConsentStatusPreparedStmt.setString(1, newConsentStatus);
+                updateConsentStatusPreparedStmt.setLong(2, updatedTime);
+                updateConsentStatusPreparedStmt.setString(3, consentID);
+                updateConsentStatusPreparedStmt.setString(4, currentConsentStatuses.get(consentID));
+                updateConsentStatusPreparedStmt.addBatch();
+            }
+            result = updateConsentStatusPreparedStmt.executeBatch();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+            throw new OBConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+        }
+
+        // -3 means the batch execution is failed
+        if (IntStream.of(result).anyMatch(value -> value == Statement.EXECUTE_FAILED)) {
+            throw new OBConsentDataUpdationException("Failed to update consent statuses properly.");
+        }
+        // 0 means the consent is not in the given current status anymore, hence it is not updated
+        List<String> updatedConsentIDs = new ArrayList<>();
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != 0) {
+                updatedConsentIDs.add(consentIDs.get(i));
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("Status of consent %s is changed by another request. Hence the consent " +
+                        "status is not updated", consentIDs.get(i).replaceAll("[\r\n]", "")));
+            }
+        }
+        return updatedConsentIDs;
+    }
+
+    @Override
+    public int storeConsentAmendmentHistories(Connection connection,
+                                              List<ConsentHistoryResource> consentHistoryResources,
+                                              String consentDataType)
+            throws OBConsentDataInsertionException {
+
+        String tableID = generateConsentTableId(consentDataType);
+        return executeInsertionBatch(connection, sqlStatements.getInsertConsentHistoryPreparedStatement(),
+                consentHistoryResources, (preparedStatement, consentHistoryResource) -> {
+                    preparedStatement.setString(1, tableID);
+                    preparedStatement.setString(2, consentHistoryResource.getConsentID());
+                    preparedStatement.setString(3, consentHistoryResource.getHistoryID());
+                    preparedStatement.setString(4,
+                            JSONValue.toJSONString(consentHistoryResource.getChangedAttributesJsonDataMap()));
+                    preparedStatement.setString(5, consentHistoryResource.getReason());
+                    preparedStatement.setLong(6, consentHistoryResource.getTimestamp());
+                    preparedStatement.addBatch();
+                }, "Error while storing consent amendment history");
+    }
+
+    private <T> int executeInsertionBatch(Connection connection, String prepStatement, List<T> resources,
+                                          BatchBuilder<T> batchBuilder, String errorMessage)
+            throws OBConsentDataInsertionException {
+
+        if (resources.isEmpty()) {
+            return 0;
+        }
+        int[] result;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(prepStatement)) {
+            for (T resource : resources) {
+                batchBuilder.addToBatch(preparedStatement, resource);
+            }
+            result = preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            log.error(errorMessage, e);
+            throw new OBConsentDataInsertionException(errorMessage, e);
+        }
+
+        // An array with value -3 means the batch execution is failed
+        if (IntStream.of(result).anyMatch(value -> value == -3)) {
+            throw new OBConsentDataInsertionException(errorMessage);
+        }
+        return result.length;
+    }
+
+    private int[] executeDeletionBatch(Connection connection, String prepStatement, List<String> consentIDs)
+            throws SQLException {
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(prepStatement)) {
+            for (String consentID : consentIDs) {
+                preparedStatement.setString(1, consentID);
+                preparedStatement.addBatch();
+            }
+            return preparedStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Adds the rows of a resource to an insertion batch.
+     *
+     * @param <T> resource type
+     */
+    @FunctionalInterface
+    private interface BatchBuilder<T> {
+
+        void addToBatch(PreparedStatement preparedStatement, T resource) throws SQLException;
+    }
+
     /**
      * Generate the tableID based on the type of the consent data record to be stored in consent history table.
      *
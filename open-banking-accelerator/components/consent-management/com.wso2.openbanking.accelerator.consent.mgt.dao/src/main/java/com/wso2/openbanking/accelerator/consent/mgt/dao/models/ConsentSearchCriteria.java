@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.mgt.dao.models;
+
+import java.util.ArrayList;
+
+/**
+ * Model for the criteria of a consent search page.
+ * <p>
+ * Consents are ordered by the updated time and the consent ID, in descending order. The next page is searched by
+ * setting the updated time and the consent ID of the last consent of the current page as the cursor. Consent
+ * attributes, authorization resources and consent mapping resources are included in the results unless excluded.
+ */
+public class ConsentSearchCriteria {
+
+    private ArrayList<String> consentIDs;
+    private ArrayList<String> clientIDs;
+    private ArrayList<String> consentTypes;
+    private ArrayList<String> consentStatuses;
+    private ArrayList<String> userIDs;
+    private Long fromTime;
+    private Long toTime;
+    private Long lastUpdatedTime;
+    private String lastConsentID;
+    private int limit;
+    private boolean includeAttributes = true;
+    private boolean includeAuthorizationResources = true;
+    private boolean includeMappingResources = true;
+
+    public ConsentSearchCriteria() {
+
+    }
+
+    public ConsentSearchCriteria(int limit) {
+
+        this.limit = limit;
+    }
+
+    public ArrayList<String> getConsentIDs() {
+
+        return consentIDs;
+    }
+
+    public void setConsentIDs(ArrayList<String> consentIDs) {
+
+        this.consentIDs = consentIDs;
+    }
+
+    public ArrayList<String> getClientIDs() {
+
+        return clientIDs;
+    }
+
+    public void setClientIDs(ArrayList<String> clientIDs) {
+
+        this.clientIDs = clientIDs;
+    }
+
+    public ArrayList<String> getConsentTypes() {
+
+        return consentTypes;
+    }
+
+    public void setConsentTypes(ArrayList<String> consentTypes) {
+
+        this.consentTypes = consentTypes;
+    }
+
+    public ArrayList<String> getConsentStatuses() {
+
+        return consentStatuses;
+    }
+
+    public void setConsentStatuses(ArrayList<String> consentStatuses) {
+
+        this.consentStatuses = consentStatuses;
+    }
+
+    public ArrayList<String> getUserIDs() {
+
+        return userIDs;
+    }
+
+    public void setUserIDs(ArrayList<String> userIDs) {
+
+        this.userIDs = userIDs;
+    }
+
+    public Long getFromTime() {
+
+        return fromTime;
+    }
+
+    public void setFromTime(Long fromTime) {
+
+        this.fromTime = fromTime;
+    }
+
+    public Long getToTime() {
+
+        return toTime;
+    }
+
+    public void setToTime(Long toTime) {
+
+        this.toTime = toTime;
+    }
+
+    public Long getLastUpdatedTime() {
+
+        return lastUpdatedTime;
+    }
+
+    public String getLastConsentID() {
+
+        return lastConsentID;
+    }
+
+    /**
+     * Set the cursor of the page, which is the updated time and the consent ID of the last consent of the previous
+     * page.
+     *
+     * @param lastUpdatedTime updated time of the last consent of the previous page
+     * @param lastConsentID   consent ID of the last consent of the previous page
+     */
+    public void setCursor(Long lastUpdatedTime, String lastConsentID) {
+
+        this.lastUpdatedTime = lastUpdatedTime;
+        this.lastConsentID = lastConsentID;
+    }
+
+    /**
+     * Set the cursor of the page after the given consent.
+     *
+     * @param lastConsent last consent of the previous page
+     */
+    public void setCursor(DetailedConsentResource lastConsent) {
+
+        setCursor(lastConsent.getUpdatedTime(), lastConsent.getConsentID());
+    }
+
+    public boolean hasCursor() {
+
+        return lastUpdatedTime != null && lastConsentID != null;
+    }
+
+    public int getLimit() {
+
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+
+        this.limit = limit;
+    }
+
+    public boolean isIncludeAttributes() {
+
+        return includeAttributes;
+    }
+
+    public void setIncludeAttributes(boolean includeAttributes) {
+
+        this.includeAttributes = includeAttributes;
+    }
+
+    public boolean isIncludeAuthorizationResources() {
+
+        return includeAuthorizationResources;
+    }
+
+    public void setIncludeAuthorizationResources(boolean includeAuthorizationResources) {
+
+        this.includeAuthorizationResources = includeAuthorizationResources;
+    }
+
+    public boolean isIncludeMappingResources() {
+
+        return includeMappingResources;
+    }
+
+    public void setIncludeMappingResources(boolean includeMappingResources) {
+
+        this.includeMappingResources = includeMappingResources;
+    }
+}
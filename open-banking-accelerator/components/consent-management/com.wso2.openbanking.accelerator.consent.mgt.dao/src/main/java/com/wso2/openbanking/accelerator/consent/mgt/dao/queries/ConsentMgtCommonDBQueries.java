@@ -66,6 +66,11 @@ public class ConsentMgtCommonDBQueries {
         return "UPDATE OB_CONSENT SET CURRENT_STATUS = ?, UPDATED_TIME = ? WHERE CONSENT_ID = ?";
     }
 
+    public String getUpdateConsentStatusIfCurrentStatusPreparedStatement() {
+
+        return "UPDATE OB_CONSENT SET CURRENT_STATUS = ?, UPDATED_TIME = ? WHERE CONSENT_ID = ? AND CURRENT_STATUS = ?";
+    }
+
     public String getUpdateConsentMappingStatusPreparedStatement() {
 
         return "UPDATE OB_CONSENT_MAPPING SET MAPPING_STATUS = ? WHERE MAPPING_ID = ?";
@@ -235,6 +240,106 @@ public class ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    /**
+     * SQL query for search a page of consents, ordered by the updated time and the consent_id in descending order.
+     * @param whereClause conditions of the page, including the cursor
+     * @return
+     */
+    public String getSearchConsentsPagePreparedStatement(String whereClause) {
+
+        return getSearchConsentsPageQuery(whereClause) + " LIMIT ?";
+    }
+
+    /**
+     * SQL query for search consents, ordered by the updated time and the consent_id in descending order, without
+     * limiting the number of rows.
+     * @param whereClause conditions of the page, including the cursor
+     * @return
+     */
+    protected String getSearchConsentsPageQuery(String whereClause) {
+
+        return "SELECT OBC.CONSENT_ID, RECEIPT, CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS, CONSENT_FREQUENCY, " +
+                "VALIDITY_TIME, RECURRING_INDICATOR, OBC.CREATED_TIME AS CONSENT_CREATED_TIME, " +
+                "OBC.UPDATED_TIME AS CONSENT_UPDATED_TIME FROM OB_CONSENT OBC " + whereClause +
+                " ORDER BY OBC.UPDATED_TIME DESC, OBC.CONSENT_ID DESC";
+    }
+
+    /**
+     * SQL query for get the consent resources of a list of consents.
+     * @param consentIdCondition consent_id condition
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @return
+     */
+    public String getGetConsentResourcesPreparedStatement(String consentIdCondition,
+                                                          boolean fetchFromRetentionTables) {
+
+        return "SELECT CONSENT_ID, RECEIPT, CLIENT_ID, CONSENT_TYPE, CURRENT_STATUS, CONSENT_FREQUENCY, " +
+                "VALIDITY_TIME, RECURRING_INDICATOR, CREATED_TIME AS CONSENT_CREATED_TIME, " +
+                "UPDATED_TIME AS CONSENT_UPDATED_TIME FROM " + getTablePrefix(fetchFromRetentionTables) +
+                "OB_CONSENT WHERE " + consentIdCondition + " ORDER BY CONSENT_ID";
+    }
+
+    /**
+     * SQL query for get the consent files of a list of consents.
+     * @param consentIdCondition consent_id condition
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @return
+     */
+    public String getGetConsentFilesPreparedStatement(String consentIdCondition, boolean fetchFromRetentionTables) {
+
+        return "SELECT CONSENT_ID, CONSENT_FILE FROM " + getTablePrefix(fetchFromRetentionTables) +
+                "OB_CONSENT_FILE WHERE " + consentIdCondition;
+    }
+
+    /**
+     * SQL query for get the consent attributes of a list of consents.
+     * @param consentIdCondition consent_id condition
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @return
+     */
+    public String getSearchConsentAttributesPreparedStatement(String consentIdCondition,
+                                                              boolean fetchFromRetentionTables) {
+
+        return "SELECT CONSENT_ID, ATT_KEY, ATT_VALUE FROM " + getTablePrefix(fetchFromRetentionTables) +
+                "OB_CONSENT_ATTRIBUTE WHERE " + consentIdCondition;
+    }
+
+    /**
+     * SQL query for get the authorization resources of a list of consents.
+     * @param consentIdCondition consent_id condition
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @return
+     */
+    public String getSearchConsentAuthorizationResourcesPreparedStatement(String consentIdCondition,
+                                                                          boolean fetchFromRetentionTables) {
+
+        return "SELECT AUTH_ID, CONSENT_ID, AUTH_TYPE, USER_ID, AUTH_STATUS, UPDATED_TIME " +
+                "FROM " + getTablePrefix(fetchFromRetentionTables) + "OB_CONSENT_AUTH_RESOURCE WHERE " +
+                consentIdCondition + " ORDER BY AUTH_ID";
+    }
+
+    /**
+     * SQL query for get the consent mapping resources of a list of consents.
+     * @param consentIdCondition consent_id condition on the OCAR.CONSENT_ID column
+     * @param fetchFromRetentionTables whether to fetch from the retention tables (temporary purged data)
+     * @return
+     */
+    public String getSearchConsentMappingResourcesPreparedStatement(String consentIdCondition,
+                                                                    boolean fetchFromRetentionTables) {
+
+        String tablePrefix = getTablePrefix(fetchFromRetentionTables);
+        return "SELECT OCM.MAPPING_ID, OCM.AUTH_ID, OCM.ACCOUNT_ID, OCM.PERMISSION, OCM.MAPPING_STATUS, " +
+                "OCAR.CONSENT_ID FROM " + tablePrefix + "OB_CONSENT_MAPPING OCM " +
+                "JOIN " + tablePrefix + "OB_CONSENT_AUTH_RESOURCE OCAR ON OCM.AUTH_ID = OCAR.AUTH_ID " +
+                "WHERE " + consentIdCondition + " ORDER BY OCM.MAPPING_ID";
+    }
+
+    private static String getTablePrefix(boolean fetchFromRetentionTables) {
+
+        // table prefix is to fetch from the consent retention data (purged data) tables. (if enabled)
+        return fetchFromRetentionTables ? ConsentMgtDAOConstants.RETENTION_TABLE_NAME_PREFIX : "";
+    }
+
     public String getGetConsentWithConsentAttributesPreparedStatement() {
 
         return "SELECT OB_CONSENT.CONSENT_ID, RECEIPT, CREATED_TIME, UPDATED_TIME, CLIENT_ID, CONSENT_TYPE, " +
@@ -312,6 +417,54 @@ public class ConsentMgtCommonDBQueries {
                 " WHERE  CA.ATT_KEY = ? AND OBC.CURRENT_STATUS IN " + statusesEligibleForExpirationCondition;
     }
 
+    /**
+     * SQL query for get a page of consent_ids of the consents whose expiration time attribute is due, ordered by the
+     * consent_id.
+     * @param statusesEligibleForExpirationCondition
+     * @param afterConsentId whether the query starts after a consent_id
+     * @param upToConsentId whether the query ends at a consent_id
+     * @return
+     */
+    public String getExpiringConsentIdsPagePreparedStatement(String statusesEligibleForExpirationCondition,
+                                                             boolean afterConsentId, boolean upToConsentId) {
+
+        return getExpiringConsentIdsPageQuery(statusesEligibleForExpirationCondition, afterConsentId,
+                upToConsentId) + " LIMIT ?";
+    }
+
+    /**
+     * SQL query for get consent_ids of the consents whose expiration time attribute is due, ordered by the
+     * consent_id, without limiting the number of rows. The attribute value is compared as a string with a timestamp
+     * of the same length, so that the IDX_OB_CONSENT_ATTRIBUTE_KEY (ATT_KEY, ATT_VALUE) index can be used for the
+     * range. Values of a different length (ex: timestamps in milliseconds) are not compared.
+     * @param statusesEligibleForExpirationCondition
+     * @param afterConsentId whether the query starts after a consent_id
+     * @param upToConsentId whether the query ends at a consent_id
+     * @return
+     */
+    protected String getExpiringConsentIdsPageQuery(String statusesEligibleForExpirationCondition,
+                                                    boolean afterConsentId, boolean upToConsentId) {
+
+        return "SELECT CA.CONSENT_ID " +
+                " FROM   OB_CONSENT_ATTRIBUTE CA " +
+                " JOIN   OB_CONSENT OBC " +
+                " ON     CA.CONSENT_ID = OBC.CONSENT_ID " +
+                " WHERE  CA.ATT_KEY = ? AND OBC.CURRENT_STATUS IN " + statusesEligibleForExpirationCondition +
+                " AND    CA.ATT_VALUE <= ? AND " + getLengthFunction() + "(CA.ATT_VALUE) = ?" +
+                (afterConsentId ? " AND CA.CONSENT_ID > ?" : "") +
+                (upToConsentId ? " AND CA.CONSENT_ID <= ?" : "") +
+                " ORDER BY CA.CONSENT_ID";
+    }
+
+    /**
+     * Name of the function to get the length of a string.
+     * @return
+     */
+    protected String getLengthFunction() {
+
+        return "LENGTH";
+    }
+
     public String getInsertConsentHistoryPreparedStatement() {
 
         return "INSERT INTO OB_CONSENT_HISTORY (TABLE_ID, RECORD_ID, HISTORY_ID, CHANGED_VALUES, " +
@@ -429,6 +582,34 @@ public class ConsentMgtCommonDBQueries {
         return "SELECT CONSENT_ID FROM " + tablePrefix + "OB_CONSENT";
     }
 
+    /**
+     * SQL query for get a page of consent_ids ordered by the consent_id, starting after the given consent_id.
+     * @param fetchFromRetentionTables
+     * @param afterConsentId whether the page starts after a consent_id
+     * @return
+     */
+    public String getConsentIdsPagePreparedStatement(boolean fetchFromRetentionTables, boolean afterConsentId) {
+
+        return getConsentIdsPageQuery(fetchFromRetentionTables, afterConsentId) + " LIMIT ?";
+    }
+
+    /**
+     * SQL query for get consent_ids ordered by the consent_id, without limiting the number of rows.
+     * @param fetchFromRetentionTables
+     * @param afterConsentId whether the query starts after a consent_id
+     * @return
+     */
+    protected String getConsentIdsPageQuery(boolean fetchFromRetentionTables, boolean afterConsentId) {
+
+        // table prefix is to fetch from the consent retention data (purged data) tables. (if enabled)
+        String tablePrefix = "";
+        if (fetchFromRetentionTables) {
+            tablePrefix = ConsentMgtDAOConstants.RETENTION_TABLE_NAME_PREFIX;
+        }
+        return "SELECT CONSENT_ID FROM " + tablePrefix + "OB_CONSENT" +
+                (afterConsentId ? " WHERE CONSENT_ID > ?" : "") + " ORDER BY CONSENT_ID";
+    }
+
     /**
      * SQL query for get consent status audit records by consentIds.
      * @param whereClause conditions
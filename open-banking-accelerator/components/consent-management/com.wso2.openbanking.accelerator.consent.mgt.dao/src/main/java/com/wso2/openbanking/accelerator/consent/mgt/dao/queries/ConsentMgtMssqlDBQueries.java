@@ -188,6 +188,33 @@ public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    @Override
+    public String getSearchConsentsPagePreparedStatement(String whereClause) {
+
+        return getSearchConsentsPageQuery(whereClause) + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String getConsentIdsPagePreparedStatement(boolean fetchFromRetentionTables, boolean afterConsentId) {
+
+        return getConsentIdsPageQuery(fetchFromRetentionTables, afterConsentId) +
+                " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String getExpiringConsentIdsPagePreparedStatement(String statusesEligibleForExpirationCondition,
+                                                             boolean afterConsentId, boolean upToConsentId) {
+
+        return getExpiringConsentIdsPageQuery(statusesEligibleForExpirationCondition, afterConsentId,
+                upToConsentId) + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    protected String getLengthFunction() {
+
+        return "LEN";
+    }
+
     /**
      * Util method to get the limit offset order for differentiate oracle and mssql pagination.
      * @return is limit is before in prepared statement than offset
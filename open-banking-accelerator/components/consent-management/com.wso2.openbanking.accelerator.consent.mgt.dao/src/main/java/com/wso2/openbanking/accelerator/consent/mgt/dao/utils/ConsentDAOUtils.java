@@ -40,6 +40,8 @@ public class ConsentDAOUtils {
     private static final String PLACEHOLDER = "?";
     private static final String LEFT_PARENTHESIS = "(";
     private static final String RIGHT_PARENTHESIS = ")";
+    // Oracle only allows 1000 values to be used in a SQL "IN" clause
+    private static final int MAX_IN_CLAUSE_VALUES = 1000;
     private static final Map<String, String> DB_OPERATORS_MAP = new HashMap<String, String>() {
         {
             put(ConsentMgtDAOConstants.IN, "IN");
@@ -255,6 +257,30 @@ public class ConsentDAOUtils {
         return statusesEligibleForExpirationFilterBuilder.toString();
     }
 
+    /**
+     * Method to construct an "IN" condition for the given column. Values are split into multiple "IN" clauses joined
+     * with "OR" if the number of values exceeds the limit of a single "IN" clause.
+     *
+     * @param column     column name
+     * @param valueCount number of values
+     * @return "IN" condition with placeholders for the values
+     */
+    public static String constructInCondition(String column, int valueCount) {
+
+        StringBuilder conditionBuilder = new StringBuilder(LEFT_PARENTHESIS);
+        for (int start = 0; start < valueCount; start += MAX_IN_CLAUSE_VALUES) {
+            if (start > 0) {
+                conditionBuilder.append(SPACE).append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.OR)).append(SPACE);
+            }
+            int end = Math.min(valueCount, start + MAX_IN_CLAUSE_VALUES);
+            conditionBuilder.append(column).append(SPACE).append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.IN))
+                    .append(SPACE).append(LEFT_PARENTHESIS)
+                    .append(StringUtils.repeat(PLACEHOLDER, COMMA, end - start))
+                    .append(RIGHT_PARENTHESIS);
+        }
+        return conditionBuilder.append(RIGHT_PARENTHESIS).toString();
+    }
+
     public static String constructConsentHistoryPreparedStatement(int recordIdCount) {
 
         StringBuilder whereClauseBuilder = new StringBuilder();
@@ -30,6 +30,7 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.queries.ConsentMgtCommonDBQueries;
@@ -47,6 +48,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -1975,6 +1978,127 @@ public class OBConsentMgtDAOTests {
                 null, null, null, null, null, null);
     }
 
+    @Test
+    public void testSearchConsentsWithCursor() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> firstPage;
+        ArrayList<DetailedConsentResource> secondPage;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+
+            ConsentSearchCriteria searchCriteria = new ConsentSearchCriteria(2);
+            searchCriteria.setConsentIDs(consentIDs);
+            firstPage = consentCoreDAO.searchConsents(connection, searchCriteria);
+
+            searchCriteria.setCursor(firstPage.get(firstPage.size() - 1));
+            secondPage = consentCoreDAO.searchConsents(connection, searchCriteria);
+        }
+
+        Assert.assertEquals(firstPage.size(), 2);
+        Assert.assertEquals(secondPage.size(), 1);
+
+        List<String> searchedConsentIDs = new ArrayList<>();
+        for (DetailedConsentResource resource : firstPage) {
+            searchedConsentIDs.add(resource.getConsentID());
+        }
+        searchedConsentIDs.add(secondPage.get(0).getConsentID());
+        Assert.assertTrue(searchedConsentIDs.containsAll(consentIDs));
+
+        for (DetailedConsentResource resource : secondPage) {
+            Assert.assertEquals(resource.getAuthorizationResources().size(), 2);
+            Assert.assertFalse(resource.getConsentMappingResources().isEmpty());
+            Assert.assertEquals(resource.getConsentAttributes().size(),
+                    ConsentMgtDAOTestData.SAMPLE_CONSENT_ATTRIBUTES_MAP.size());
+            for (AuthorizationResource authResource : resource.getAuthorizationResources()) {
+                Assert.assertEquals(authResource.getConsentID(), resource.getConsentID());
+            }
+        }
+    }
+
+    @Test
+    public void testSearchConsentsWithoutChildResources() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+
+            ConsentSearchCriteria searchCriteria = new ConsentSearchCriteria(10);
+            searchCriteria.setConsentIDs(consentIDs);
+            searchCriteria.setClientIDs(ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST);
+            searchCriteria.setIncludeAttributes(false);
+            searchCriteria.setIncludeMappingResources(false);
+            detailedConsentResources = consentCoreDAO.searchConsents(connection, searchCriteria);
+        }
+
+        Assert.assertEquals(detailedConsentResources.size(), consentIDs.size());
+        for (DetailedConsentResource resource : detailedConsentResources) {
+            Assert.assertEquals(resource.getAuthorizationResources().size(), 2);
+            Assert.assertTrue(resource.getConsentMappingResources().isEmpty());
+            Assert.assertTrue(resource.getConsentAttributes().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGetDetailedConsentResourcesAndConsentFiles() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        ArrayList<ConsentFile> consentFiles;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            ConsentFile consentFile = new ConsentFile();
+            consentFile.setConsentID(consentIDs.get(0));
+            consentFile.setConsentFile(ConsentMgtDAOTestData.SAMPLE_CONSENT_FILE);
+            consentCoreDAO.storeConsentFile(connection, consentFile);
+
+            List<String> requestedConsentIDs = new ArrayList<>(consentIDs);
+            requestedConsentIDs.add(UUID.randomUUID().toString());
+            detailedConsentResources = consentCoreDAO.getDetailedConsentResources(connection, requestedConsentIDs,
+                    false);
+            consentFiles = consentCoreDAO.getConsentFiles(connection, requestedConsentIDs, false);
+        }
+
+        Assert.assertEquals(detailedConsentResources.size(), consentIDs.size());
+        for (DetailedConsentResource resource : detailedConsentResources) {
+            Assert.assertTrue(consentIDs.contains(resource.getConsentID()));
+            Assert.assertEquals(resource.getAuthorizationResources().size(), 2);
+            Assert.assertFalse(resource.getConsentMappingResources().isEmpty());
+            Assert.assertEquals(resource.getConsentAttributes().size(),
+                    ConsentMgtDAOTestData.SAMPLE_CONSENT_ATTRIBUTES_MAP.size());
+        }
+        Assert.assertEquals(consentFiles.size(), 1);
+        Assert.assertEquals(consentFiles.get(0).getConsentID(), consentIDs.get(0));
+        Assert.assertEquals(consentFiles.get(0).getConsentFile(), ConsentMgtDAOTestData.SAMPLE_CONSENT_FILE);
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testGetDetailedConsentResourcesSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getDetailedConsentResources(mockedConnection,
+                Arrays.asList(ConsentMgtDAOTestData.SAMPLE_CONSENT_ID), false);
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testGetConsentFilesSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getConsentFiles(mockedConnection, Arrays.asList(ConsentMgtDAOTestData.SAMPLE_CONSENT_ID),
+                true);
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testSearchConsentsWithCriteriaSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.searchConsents(mockedConnection, new ConsentSearchCriteria(10));
+    }
+
     @Test (expectedExceptions = OBConsentDataRetrievalException.class)
     public void testSearchConsentsPreparedResultSetError() throws Exception {
 
@@ -2259,6 +2383,111 @@ public class OBConsentMgtDAOTests {
         consentCoreDAO.getExpiringConsents(mockedConnection, "Authorized,awaitingAuthorisation");
     }
 
+    @Test
+    public void testGetExpiringConsentIds() throws Exception {
+
+        ArrayList<String> expiredConsentIds;
+        ArrayList<String> consentIdsAfterExpiredConsent;
+        ArrayList<String> consentIdsUpToExpiredConsent;
+        String expiredConsentId;
+        String validConsentId;
+        String millisecondsConsentId;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            expiredConsentId = storeConsentWithExpiryTime(connection, "1632918113");
+            validConsentId = storeConsentWithExpiryTime(connection, "9999999999");
+            millisecondsConsentId = storeConsentWithExpiryTime(connection, "1632918113000");
+
+            expiredConsentIds = consentCoreDAO.getExpiringConsentIds(connection,
+                    "Authorized,awaitingAuthorisation", System.currentTimeMillis() / 1000, null, null, 1000);
+            consentIdsAfterExpiredConsent = consentCoreDAO.getExpiringConsentIds(connection,
+                    "Authorized,awaitingAuthorisation", System.currentTimeMillis() / 1000, expiredConsentId, null,
+                    1000);
+            consentIdsUpToExpiredConsent = consentCoreDAO.getExpiringConsentIds(connection,
+                    "Authorized,awaitingAuthorisation", System.currentTimeMillis() / 1000, null, expiredConsentId,
+                    1000);
+        }
+        Assert.assertTrue(expiredConsentIds.contains(expiredConsentId));
+        Assert.assertFalse(expiredConsentIds.contains(validConsentId));
+        Assert.assertFalse(expiredConsentIds.contains(millisecondsConsentId));
+        Assert.assertFalse(consentIdsAfterExpiredConsent.contains(expiredConsentId));
+        Assert.assertTrue(consentIdsUpToExpiredConsent.contains(expiredConsentId));
+        for (String consentId : consentIdsUpToExpiredConsent) {
+            Assert.assertTrue(consentId.compareTo(expiredConsentId) <= 0);
+        }
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testGetExpiringConsentIdsSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getExpiringConsentIds(mockedConnection, "Authorized", System.currentTimeMillis() / 1000,
+                null, null, 10);
+    }
+
+    @Test
+    public void testUpdateConsentStatusesAndStoreConsentAmendmentHistories() throws Exception {
+
+        String historyId = UUID.randomUUID().toString();
+        String consentId;
+        ConsentResource updatedConsentResource;
+        Map<String, ConsentHistoryResource> consentHistory;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            consentId = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource()).getConsentID();
+
+            Assert.assertEquals(consentCoreDAO.updateConsentStatuses(connection,
+                    Collections.singletonMap(consentId, ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS),
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS), Arrays.asList(consentId));
+            updatedConsentResource = consentCoreDAO.getConsentResource(connection, consentId);
+
+            ConsentHistoryResource consentHistoryResource = new ConsentHistoryResource(consentId, historyId);
+            consentHistoryResource.setTimestamp(System.currentTimeMillis() / 1000);
+            consentHistoryResource.setReason("ConsentExpiration");
+            consentHistoryResource.setChangedAttributesJsonDataMap(Collections.singletonMap(
+                    ConsentMgtDAOConstants.CURRENT_STATUS, ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS));
+            Assert.assertEquals(consentCoreDAO.storeConsentAmendmentHistories(connection,
+                    Arrays.asList(consentHistoryResource), ConsentMgtDAOConstants.TYPE_CONSENT_BASIC_DATA), 1);
+            consentHistory = consentCoreDAO.retrieveConsentAmendmentHistory(connection, Arrays.asList(consentId));
+        }
+        Assert.assertEquals(updatedConsentResource.getCurrentStatus(), ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+        Assert.assertTrue(consentHistory.containsKey(historyId));
+    }
+
+    @Test
+    public void testUpdateConsentStatusesWithChangedStatus() throws Exception {
+
+        List<String> updatedConsentIds;
+        ConsentResource consentResource;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            String consentId = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource()).getConsentID();
+
+            Map<String, String> currentConsentStatuses = new LinkedHashMap<>();
+            currentConsentStatuses.put(consentId, "revoked");
+            currentConsentStatuses.put(UUID.randomUUID().toString(), ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS);
+            updatedConsentIds = consentCoreDAO.updateConsentStatuses(connection, currentConsentStatuses,
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+            consentResource = consentCoreDAO.getConsentResource(connection, consentId);
+        }
+        Assert.assertTrue(updatedConsentIds.isEmpty());
+        Assert.assertEquals(consentResource.getCurrentStatus(), ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS);
+    }
+
+    private String storeConsentWithExpiryTime(Connection connection, String expiryTime) throws Exception {
+
+        ConsentResource consentResource = consentCoreDAO.storeConsentResource(connection,
+                ConsentMgtDAOTestData.getSampleTestConsentResource());
+        ConsentAttributes consentAttributesResource = ConsentMgtDAOTestData
+                .getSampleTestConsentAttributesObject(consentResource.getConsentID());
+        consentAttributesResource.getConsentAttributes().put(
+                ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE, expiryTime);
+        consentCoreDAO.storeConsentAttributes(connection, consentAttributesResource);
+        return consentResource.getConsentID();
+    }
+
     @DataProvider(name = "storeConsentHistoryDataProvider")
     public Object[][] storeConsentHistoryData() {
 
@@ -2543,4 +2772,101 @@ public class OBConsentMgtDAOTests {
         consentCoreDAO.getListOfConsentIds(mockedConnection, false);
 
     }
+
+    @Test
+    public void testGetListOfConsentIdsPage() throws Exception {
+
+        ArrayList<String> firstPage;
+        ArrayList<String> secondPage;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+
+            List<ConsentResource> consentResources = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                consentResources.add(ConsentMgtDAOTestData.getSampleStoredTestConsentResource());
+            }
+            Assert.assertEquals(consentCoreDAO.storeConsentResources(connection, consentResources), 3);
+            firstPage = consentCoreDAO.getListOfConsentIds(connection, false, null, 2);
+            secondPage = consentCoreDAO.getListOfConsentIds(connection, false, firstPage.get(1), 2);
+        }
+        Assert.assertEquals(firstPage.size(), 2);
+        Assert.assertTrue(firstPage.get(0).compareTo(firstPage.get(1)) < 0);
+        Assert.assertFalse(secondPage.isEmpty());
+        Assert.assertFalse(secondPage.contains(firstPage.get(0)) || secondPage.contains(firstPage.get(1)));
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testGetListOfConsentIdsPageSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getListOfConsentIds(mockedConnection, false, null, 10);
+    }
+
+    @Test
+    public void testStoreAndDeleteConsentDataBatch() throws Exception {
+
+        List<String> consentIds = new ArrayList<>();
+        List<ConsentResource> consentResources = new ArrayList<>();
+        List<AuthorizationResource> authorizationResources = new ArrayList<>();
+        List<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+        List<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+        List<ConsentAttributes> consentAttributes = new ArrayList<>();
+        List<ConsentFile> consentFiles = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            ConsentResource consentResource = ConsentMgtDAOTestData.getSampleStoredTestConsentResource();
+            String consentId = consentResource.getConsentID();
+            consentIds.add(consentId);
+            consentResources.add(consentResource);
+
+            AuthorizationResource authorizationResource =
+                    ConsentMgtDAOTestData.getSampleTestAuthorizationResource(consentId);
+            authorizationResource.setAuthorizationID(UUID.randomUUID().toString());
+            authorizationResources.add(authorizationResource);
+            consentMappingResources.add(ConsentMgtDAOTestData
+                    .getSampleTestConsentMappingResource(authorizationResource.getAuthorizationID()));
+            consentStatusAuditRecords.add(ConsentMgtDAOTestData.getSampleTestConsentStatusAuditRecord(consentId,
+                    consentResource.getCurrentStatus()));
+            consentAttributes.add(ConsentMgtDAOTestData.getSampleTestConsentAttributesObject(consentId));
+            ConsentFile consentFile = ConsentMgtDAOTestData
+                    .getSampleConsentFileObject(ConsentMgtDAOTestData.SAMPLE_CONSENT_FILE);
+            consentFile.setConsentID(consentId);
+            consentFiles.add(consentFile);
+        }
+
+        boolean isDeleted;
+        ArrayList<String> remainingConsentIds;
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+
+            Assert.assertEquals(consentCoreDAO.storeConsentResources(connection, consentResources), 2);
+            Assert.assertEquals(consentCoreDAO.storeAuthorizationResources(connection, authorizationResources), 2);
+            Assert.assertEquals(consentCoreDAO.storeConsentMappingResources(connection, consentMappingResources), 2);
+            Assert.assertEquals(consentCoreDAO.storeConsentStatusAuditRecords(connection,
+                    consentStatusAuditRecords), 2);
+            Assert.assertEquals(consentCoreDAO.storeConsentAttributesList(connection, consentAttributes),
+                    2 * ConsentMgtDAOTestData.SAMPLE_CONSENT_ATTRIBUTES_MAP.size());
+            Assert.assertEquals(consentCoreDAO.storeConsentFiles(connection, consentFiles), 2);
+
+            isDeleted = consentCoreDAO.deleteConsentData(connection, consentIds, false);
+            remainingConsentIds = consentCoreDAO.getListOfConsentIds(connection, false);
+        }
+        Assert.assertTrue(isDeleted);
+        Assert.assertFalse(remainingConsentIds.contains(consentIds.get(0)));
+        Assert.assertFalse(remainingConsentIds.contains(consentIds.get(1)));
+    }
+
+    @Test (expectedExceptions = OBConsentDataInsertionException.class)
+    public void testStoreConsentResourcesSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.storeConsentResources(mockedConnection,
+                Arrays.asList(ConsentMgtDAOTestData.getSampleStoredTestConsentResource()));
+    }
+
+    @Test (expectedExceptions = OBConsentDataDeletionException.class)
+    public void testDeleteConsentDataBatchSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.deleteConsentData(mockedConnection, Arrays.asList("consent-1", "consent-2"), false);
+    }
 }
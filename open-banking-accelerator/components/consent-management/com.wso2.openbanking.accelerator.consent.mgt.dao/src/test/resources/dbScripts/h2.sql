@@ -65,6 +65,8 @@ CREATE TABLE IF NOT EXISTS OB_CONSENT_ATTRIBUTE (
   CONSTRAINT FK_OB_CONSENT_ATTRIBUTE FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_OB_CONSENT_ATTRIBUTE_KEY ON OB_CONSENT_ATTRIBUTE (ATT_KEY, ATT_VALUE);
+
 CREATE TABLE IF NOT EXISTS OB_CONSENT_HISTORY (
   TABLE_ID VARCHAR(10) NOT NULL,
   RECORD_ID VARCHAR(255) NOT NULL,
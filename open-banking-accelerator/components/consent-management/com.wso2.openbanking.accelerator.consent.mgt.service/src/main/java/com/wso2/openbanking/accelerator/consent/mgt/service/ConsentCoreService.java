@@ -25,6 +25,7 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 
@@ -505,6 +506,19 @@ public interface ConsentCoreService {
                                                               boolean fetchFromRetentionDatabase)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to search a page of detailed consents for the given search criteria. Consents are ordered
+     * by the updated time and the consent ID in descending order. The next page is searched by setting the last
+     * consent of the current page as the cursor of the search criteria. Consent attributes, authorization resources
+     * and consent mapping resources are only retrieved if they are included in the search criteria.
+     *
+     * @param searchCriteria search criteria of the page
+     * @return a page of detailed consent resources matching the search criteria
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    ArrayList<DetailedConsentResource> searchDetailedConsents(ConsentSearchCriteria searchCriteria)
+            throws ConsentManagementException;
+
     /**
      * This method is used to bind user and accounts to the consent.
      *
@@ -602,6 +616,33 @@ public interface ConsentCoreService {
     ArrayList<DetailedConsentResource> getConsentsEligibleForExpiration(String statusesEligibleForExpiration)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to fetch a page of consent IDs of the consents in the given statuses whose expiration time
+     * consent attribute is at or before the given timestamp, ordered by the consent ID.
+     *
+     * @param statusesEligibleForExpiration comma separated consent statuses eligible for expiration
+     * @param expiryTimestamp expiration timestamp in epoch seconds
+     * @param lastConsentID last consent ID of the previous page (exclusive), null to start from the first consent
+     * @param upperConsentID last consent ID of the range to fetch (inclusive), null to fetch until the end
+     * @param limit maximum number of consent IDs in the page
+     * @return a page of consent IDs of the expired consents
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    ArrayList<String> getExpiringConsentIds(String statusesEligibleForExpiration, long expiryTimestamp,
+                                            String lastConsentID, String upperConsentID, int limit)
+            throws ConsentManagementException;
+
+    /**
+     * This method is used to update the status of a list of expired consents in a single transaction. The status
+     * updates, audit records and the consent amendment history (if enabled) are stored as batches.
+     *
+     * @param consentIDs IDs of the expired consents
+     * @param expiredConsentStatus status of expired consents
+     * @return the number of expired consents
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    int expireConsents(ArrayList<String> consentIDs, String expiredConsentStatus) throws ConsentManagementException;
+
     /**
      * This method is used to update the status of an authorization resource by providing the authorization Id and
      * the new authorization status.
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.mgt.service.cache;
+
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consent compiled for consent validation, with the receipt parsed once.
+ * <p>
+ * Holds the detailed consent together with the parsed receipt, the parsed expiration date time, the permissions and
+ * the accounts of the active account mappings. A compiled consent is shared between the validation requests of the
+ * consent, hence neither the detailed consent nor the parsed receipt must be modified.
+ */
+public class CompiledConsent {
+
+    private static final String DATA = "Data";
+    private static final String PERMISSIONS = "Permissions";
+    private static final String EXPIRATION_DATE_TIME = "ExpirationDateTime";
+
+    private final DetailedConsentResource detailedConsent;
+    private final JSONObject receipt;
+    private final String expirationDateTimeValue;
+    private final OffsetDateTime expirationDateTime;
+    private final Set<String> permissions;
+    private final List<String> accountIds;
+
+    private CompiledConsent(DetailedConsentResource detailedConsent, JSONObject receipt,
+                            String expirationDateTimeValue, OffsetDateTime expirationDateTime, Set<String> permissions,
+                            List<String> accountIds) {
+
+        this.detailedConsent = detailedConsent;
+        this.receipt = receipt;
+        this.expirationDateTimeValue = expirationDateTimeValue;
+        this.expirationDateTime = expirationDateTime;
+        this.permissions = permissions;
+        this.accountIds = accountIds;
+    }
+
+    /**
+     * Compile a detailed consent.
+     *
+     * @param detailedConsent detailed consent
+     * @return compiled consent
+     */
+    public static CompiledConsent of(DetailedConsentResource detailedConsent) {
+
+        JSONObject receipt = parseReceipt(detailedConsent.getReceipt());
+        JSONObject data = receipt != null && receipt.get(DATA) instanceof JSONObject ?
+                (JSONObject) receipt.get(DATA) : null;
+
+        String expirationDateTimeValue = data == null ? null : data.getAsString(EXPIRATION_DATE_TIME);
+        OffsetDateTime expirationDateTime = parseDateTime(expirationDateTimeValue);
+
+        Set<String> permissions = new HashSet<>();
+        if (data != null && data.get(PERMISSIONS) instanceof JSONArray) {
+            for (Object permission : (JSONArray) data.get(PERMISSIONS)) {
+                if (permission != null) {
+                    permissions.add(permission.toString());
+                }
+            }
+        }
+
+        List<String> accountIds = new ArrayList<>();
+        if (detailedConsent.getConsentMappingResources() != null) {
+            for (ConsentMappingResource mappingResource : detailedConsent.getConsentMappingResources()) {
+                if (ConsentCoreServiceConstants.ACTIVE_MAPPING_STATUS.equals(mappingResource.getMappingStatus())
+                        && !accountIds.contains(mappingResource.getAccountID())) {
+                    accountIds.add(mappingResource.getAccountID());
+                }
+            }
+        }
+
+        return new CompiledConsent(detailedConsent, receipt, expirationDateTimeValue, expirationDateTime,
+                Collections.unmodifiableSet(permissions), Collections.unmodifiableList(accountIds));
+    }
+
+    public String getConsentId() {
+
+        return detailedConsent.getConsentID();
+    }
+
+    /**
+     * Get the version of the consent, which is the time the consent was last updated.
+     *
+     * @return version of the consent
+     */
+    public long getVersion() {
+
+        return detailedConsent.getUpdatedTime();
+    }
+
+    public DetailedConsentResource getDetailedConsent() {
+
+        return detailedConsent;
+    }
+
+    /**
+     * Get the parsed receipt.
+     *
+     * @return parsed receipt, or null if the receipt is not a JSON object
+     */
+    public JSONObject getReceipt() {
+
+        return receipt;
+    }
+
+    /**
+     * Get the expiration date time of the receipt data as given in the receipt.
+     *
+     * @return expiration date time value, or null if not available
+     */
+    public String getExpirationDateTimeValue() {
+
+        return expirationDateTimeValue;
+    }
+
+    /**
+     * Get the parsed expiration date time of the receipt data.
+     *
+     * @return expiration date time, or null if not available or invalid
+     */
+    public OffsetDateTime getExpirationDateTime() {
+
+        return expirationDateTime;
+    }
+
+    /**
+     * Check whether the expiration date time of the receipt data is given but cannot be parsed.
+     *
+     * @return true if the expiration date time is invalid
+     */
+    public boolean isExpirationDateTimeInvalid() {
+
+        return expirationDateTime == null && expirationDateTimeValue != null && !expirationDateTimeValue.isEmpty();
+    }
+
+    public Set<String> getPermissions() {
+
+        return permissions;
+    }
+
+    public List<String> getAccountIds() {
+
+        return accountIds;
+    }
+
+    /**
+     * Parse a date time. An invalid date time is not parsed, so that validators can report it.
+     */
+    private static OffsetDateTime parseDateTime(String dateTime) {
+
+        if (dateTime == null || dateTime.isEmpty()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(dateTime);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static JSONObject parseReceipt(String receipt) {
+
+        if (receipt == null) {
+            return null;
+        }
+        try {
+            Object parsedReceipt = new JSONParser(JSONParser.MODE_PERMISSIVE).parse(receipt);
+            return parsedReceipt instanceof JSONObject ? (JSONObject) parsedReceipt : null;
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.mgt.service.cache;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedTopic;
+import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the compiled consents used for consent validation, by consent ID.
+ * <p>
+ * Compiled consents are read without locking. A missing or expired compiled consent is loaded by the calling thread.
+ * Compiled consents are kept for the configured time to live (in seconds), and are invalidated when the consent is
+ * changed. A compiled consent loaded while an invalidation happens is returned but not stored, and a compiled
+ * consent is never replaced by an older version of the consent. Expired compiled consents are removed at most once a
+ * minute, and the number of compiled consents is bounded by the capacity configured for the cache.
+ * <p>
+ * Changes made on other nodes are received through the consent state change topic of the distributed cache. Hence
+ * the cache is only used when distributed caching is enabled. Changes which are not notified as consent state
+ * changes are published to the topic with the {@code invalidate...InCluster} methods.
+ */
+public class CompiledConsentCache {
+
+    private static final Log log = LogFactory.getLog(CompiledConsentCache.class);
+    private static final String CACHE_NAME = "OPEN_BANKING_COMPILED_CONSENT_CACHE";
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int DEFAULT_CAPACITY = 10000;
+    private static volatile CompiledConsentCache compiledConsentCache;
+
+    private final Map<String, CachedConsent> consents = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final LongSupplier timeToLiveMillis;
+    private final int capacity;
+    private volatile long lastPruneTime = System.currentTimeMillis();
+    private final OpenBankingDistributedTopic stateChangeTopic =
+            new OpenBankingDistributedTopic(OpenBankingDistributedCacheConstants.CONSENT_STATE_CHANGE_TOPIC);
+    private volatile boolean active;
+
+    CompiledConsentCache(LongSupplier timeToLiveMillis) {
+
+        this(timeToLiveMillis, DEFAULT_CAPACITY);
+    }
+
+    CompiledConsentCache(LongSupplier timeToLiveMillis, int capacity) {
+
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.capacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+        this.active = true;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object. Registers the consent state change listener on
+     * creation.
+     *
+     * @return CompiledConsentCache object
+     */
+    public static CompiledConsentCache getInstance() {
+
+        if (compiledConsentCache == null) {
+            synchronized (CompiledConsentCache.class) {
+                if (compiledConsentCache == null) {
+                    CompiledConsentCache cache = new CompiledConsentCache(() -> TimeUnit.SECONDS.toMillis(
+                            OpenBankingConfigParser.getInstance().getConsentValidationModelCacheTimeToLive()),
+                            OpenBankingConfigParser.getInstance().getCacheCapacity(CACHE_NAME));
+                    cache.registerStateChangeListener();
+                    compiledConsentCache = cache;
+                }
+            }
+        }
+        return compiledConsentCache;
+    }
+
+    /**
+     * Get the compiled consent of a consent, loading it if not available in the cache.
+     *
+     * @param consentId consent ID
+     * @param loader    loader of the compiled consent
+     * @return compiled consent, or null if the consent is not available
+     * @throws ConsentManagementException when the consent cannot be loaded
+     */
+    public CompiledConsent getCompiledConsent(String consentId, CompiledConsentLoader loader)
+            throws ConsentManagementException {
+
+        long currentTime = System.currentTimeMillis();
+        CachedConsent cachedConsent = consents.get(consentId);
+        if (cachedConsent != null && currentTime < cachedConsent.expiryTime) {
+            return cachedConsent.compiledConsent;
+        }
+
+        pruneIfRequired(currentTime);
+        long invalidations = invalidationCount.get();
+        CompiledConsent compiledConsent = loader.load(consentId);
+        long timeToLive = timeToLiveMillis.getAsLong();
+        if (compiledConsent != null && active && timeToLive > 0 && hasCapacity(consentId, currentTime)) {
+            CachedConsent newConsent = new CachedConsent(compiledConsent, currentTime + timeToLive);
+            CachedConsent storedConsent = consents.merge(consentId, newConsent, (oldConsent, loadedConsent) ->
+                    loadedConsent.compiledConsent.getVersion() < oldConsent.compiledConsent.getVersion() ?
+                            oldConsent : loadedConsent);
+            if (storedConsent == newConsent && invalidationCount.get() != invalidations) {
+                consents.remove(consentId, newConsent);
+            }
+        }
+        return compiledConsent;
+    }
+
+    /**
+     * Invalidate the compiled consent of a consent.
+     *
+     * @param consentId consent ID
+     */
+    public void invalidate(String consentId) {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Invalidating compiled consent of consent %s",
+                    consentId.replaceAll("[\r\n]", "")));
+        }
+        invalidationCount.incrementAndGet();
+        consents.remove(consentId);
+    }
+
+    /**
+     * Invalidate all the compiled consents. Used when the changed consents are not known.
+     */
+    public void invalidateAll() {
+
+        invalidationCount.incrementAndGet();
+        consents.clear();
+    }
+
+    /**
+     * Invalidate the compiled consent of a consent on this node, and publish the change to the other nodes.
+     *
+     * @param consentId consent ID
+     */
+    public void invalidateInCluster(String consentId) {
+
+        invalidate(consentId);
+        publish(consentId);
+    }
+
+    /**
+     * Invalidate all the compiled consents on this node, and publish the change to the other nodes. Used when the
+     * changed consents are not known.
+     */
+    public void invalidateAllInCluster() {
+
+        invalidateAll();
+        publish(OpenBankingDistributedCacheConstants.ALL_CONSENTS_CHANGED_MESSAGE);
+    }
+
+    /**
+     * Whether compiled consents are stored. The cache is inactive when consent changes of other nodes cannot be
+     * received.
+     *
+     * @return true if active
+     */
+    public boolean isActive() {
+
+        return active;
+    }
+
+    void onStateChange(String message) {
+
+        if (OpenBankingDistributedCacheConstants.ALL_CONSENTS_CHANGED_MESSAGE.equals(message)) {
+            invalidateAll();
+        } else {
+            invalidate(message);
+        }
+    }
+
+    /**
+     * Whether a compiled consent of a consent can be stored. Expired compiled consents are removed first when the
+     * capacity is reached.
+     *
+     * @param consentId   consent ID
+     * @param currentTime current time in milliseconds
+     * @return true if the compiled consent can be stored
+     */
+    private boolean hasCapacity(String consentId, long currentTime) {
+
+        if (consents.size() < capacity || consents.containsKey(consentId)) {
+            return true;
+        }
+        consents.values().removeIf(cachedConsent -> currentTime >= cachedConsent.expiryTime);
+        if (consents.size() < capacity) {
+            return true;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Capacity of the compiled consent cache reached. Compiled consent of consent %s " +
+                    "is not cached", consentId.replaceAll("[\r\n]", "")));
+        }
+        return false;
+    }
+
+    /**
+     * Remove the expired compiled consents, at most once per minute.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    private void pruneIfRequired(long currentTime) {
+
+        if (currentTime - lastPruneTime < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPruneTime = currentTime;
+        consents.values().removeIf(cachedConsent -> currentTime >= cachedConsent.expiryTime);
+    }
+
+    private void publish(String message) {
+
+        try {
+            stateChangeTopic.publish(message);
+        } catch (RuntimeException e) {
+            log.error("Error occurred while publishing the consent change to the distributed cache cluster", e);
+        }
+    }
+
+    private void registerStateChangeListener() {
+
+        this.active = stateChangeTopic.addListener(this::onStateChange);
+        if (!active) {
+            log.debug("Compiled consent cache requires distributed caching to receive consent changes of other " +
+                    "nodes. Hence compiled consents are not cached.");
+        }
+    }
+
+    /**
+     * Loader of the compiled consent of a consent.
+     */
+    @FunctionalInterface
+    public interface CompiledConsentLoader {
+
+        CompiledConsent load(String consentId) throws ConsentManagementException;
+    }
+
+    /**
+     * Compiled consent with the time it expires.
+     */
+    private static class CachedConsent {
+
+        private final CompiledConsent compiledConsent;
+        private final long expiryTime;
+
+        CachedConsent(CompiledConsent compiledConsent, long expiryTime) {
+
+            this.compiledConsent = compiledConsent;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -36,10 +36,12 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.persistence.ConsentStoreInitializer;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
+import com.wso2.openbanking.accelerator.consent.mgt.service.cache.CompiledConsentCache;
 import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
 import com.wso2.openbanking.accelerator.consent.mgt.service.internal.ConsentManagementDataHolder;
 import net.minidev.json.JSONObject;
@@ -64,10 +66,9 @@ import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
 import java.sql.Connection;
-import java.sql.SQLException;
-import java.sql.Savepoint;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -75,6 +76,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Consent core service implementation.
@@ -162,8 +172,9 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
 
                 // Update existing consent statuses and revoke their account mappings
-                updateExistingConsentStatusesAndRevokeAccountMappings(connection, consentCoreDAO, consentResource,
-                        userID, applicableExistingConsentsStatus, newExistingConsentStatus);
+                List<String> updatedConsentIDs = updateExistingConsentStatusesAndRevokeAccountMappings(connection,
+                        consentCoreDAO, consentResource, userID, applicableExistingConsentsStatus,
+                        newExistingConsentStatus);
 
                 // Create a new consent, audit record and authorization resource if allowed
                 DetailedConsentResource storedDetailedConsentResource =
@@ -172,6 +183,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit the transaction
                 DatabaseUtil.commitTransaction(connection);
+                updatedConsentIDs.forEach(CompiledConsentCache.getInstance()::invalidateInCluster);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return storedDetailedConsentResource;
             } catch (OBConsentDataRetrievalException e) {
@@ -255,6 +267,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataRetrievalException e) {
@@ -404,6 +417,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 //Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
             } catch (OBConsentDataRetrievalException e) {
                 log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
@@ -468,6 +482,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                                 consentStatusesList, userIDsList, null, null, null, null);
 
                 // Revoke existing consents and create audit records
+                List<String> revokedConsentIDs = new ArrayList<>();
                 for (DetailedConsentResource resource : retrievedDetailedConsentResources) {
                     String previousConsentStatus = resource.getCurrentStatus();
 
@@ -477,6 +492,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                                 resource.getConsentID().replaceAll("[\r\n]", ""));
                     }
                     consentCoreDAO.updateConsentStatus(connection, resource.getConsentID(), revokedConsentStatus);
+                    revokedConsentIDs.add(resource.getConsentID());
 
                     if (shouldRevokeTokens) {
                         revokeTokens(resource, userID);
@@ -511,6 +527,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 //Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                revokedConsentIDs.forEach(CompiledConsentCache.getInstance()::invalidateInCluster);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataRetrievalException e) {
@@ -605,6 +622,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                 }
                 isConsentAttributesStored = consentCoreDAO.storeConsentAttributes(connection, consentAttributesObject);
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
             } catch (OBConsentDataInsertionException e) {
                 log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
                 DatabaseUtil.rollbackTransaction(connection);
@@ -782,6 +800,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataDeletionException e) {
@@ -940,6 +959,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataRetrievalException e) {
@@ -1035,6 +1055,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataRetrievalException e) {
@@ -1118,6 +1139,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
                         consentCoreDAO.storeAuthorizationResource(connection, authorizationResource);
 
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(authorizationResource.getConsentID());
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return storedAuthorizationResource;
             } catch (OBConsentDataInsertionException e) {
@@ -1168,6 +1190,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                // Consents of the changed authorization or mappings are not known
+                CompiledConsentCache.getInstance().invalidateAllInCluster();
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return storedConsentMappingResources;
             } catch (OBConsentDataInsertionException e) {
@@ -1201,6 +1225,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                // Consents of the changed authorization or mappings are not known
+                CompiledConsentCache.getInstance().invalidateAllInCluster();
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataUpdationException e) {
@@ -1234,6 +1260,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                // Consents of the changed authorization or mappings are not known
+                CompiledConsentCache.getInstance().invalidateAllInCluster();
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataUpdationException e) {
@@ -1333,6 +1361,41 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         return detailedConsentResources;
     }
 
+    @Override
+    public ArrayList<DetailedConsentResource> searchDetailedConsents(ConsentSearchCriteria searchCriteria)
+            throws ConsentManagementException {
+
+        if (searchCriteria == null || searchCriteria.getLimit() <= 0) {
+            log.error("Search criteria with a positive limit is not provided");
+            throw new ConsentManagementException("Cannot proceed since a search criteria with a positive limit is " +
+                    "not provided");
+        }
+
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+
+                log.debug("Searching a page of detailed consents");
+                detailedConsentResources = consentCoreDAO.searchConsents(connection, searchCriteria);
+
+            } catch (OBConsentDataRetrievalException e) {
+                log.error("Error occurred while searching detailed consents", e);
+                throw new ConsentManagementException("Error occurred while searching detailed consents", e);
+            }
+
+            // Commit transactions
+            DatabaseUtil.commitTransaction(connection);
+            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+        return detailedConsentResources;
+    }
+
     @Override
     public boolean bindUserAccountsToConsent(ConsentResource consentResource, String userID,
                                              String authID, ArrayList<String> accountIDs,
@@ -1425,6 +1488,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transactions
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return true;
             } catch (OBConsentDataInsertionException e) {
@@ -1592,14 +1656,16 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         return detailedConsentResource;
     }
 
-    private void updateExistingConsentStatusesAndRevokeAccountMappings(Connection connection,
-                                                                       ConsentCoreDAO consentCoreDAO,
-                                                                       ConsentResource consentResource, String userID,
-                                                                       String applicableExistingConsentsStatus,
-                                                                       String newExistingConsentStatus)
+    private List<String> updateExistingConsentStatusesAndRevokeAccountMappings(Connection connection,
+                                                                               ConsentCoreDAO consentCoreDAO,
+                                                                               ConsentResource consentResource,
+                                                                               String userID,
+                                                                               String applicableExistingConsentsStatus,
+                                                                               String newExistingConsentStatus)
             throws OBConsentDataRetrievalException, OBConsentDataUpdationException, OBConsentDataInsertionException,
             ConsentManagementException {
 
+        List<String> updatedConsentIDs = new ArrayList<>();
         ArrayList<String> accountMappingIDsList = new ArrayList<>();
         ArrayList<String> clientIDsList = new ArrayList<>();
         clientIDsList.add(consentResource.getClientID());
@@ -1628,6 +1694,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
             }
             consentCoreDAO.updateConsentStatus(connection, resource.getConsentID(),
                     newExistingConsentStatus);
+            updatedConsentIDs.add(resource.getConsentID());
 
             // Create audit record for each consent update
             if (log.isDebugEnabled()) {
@@ -1656,6 +1723,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         log.debug("Deactivating account mappings");
         consentCoreDAO.updateConsentMappingStatus(connection, accountMappingIDsList,
                 ConsentCoreServiceConstants.INACTIVE_MAPPING_STATUS);
+        return updatedConsentIDs;
     }
 
     private void updateAccounts(Connection connection,
@@ -1778,6 +1846,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentID);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return consentResource;
             } catch (OBConsentDataRetrievalException e) {
@@ -1873,6 +1942,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
             // Commit transactions
             DatabaseUtil.commitTransaction(connection);
+            CompiledConsentCache.getInstance().invalidateInCluster(consentID);
             log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
             return newDetailedConsentResource;
         } catch (OBConsentDataRetrievalException e) {
@@ -2182,133 +2252,169 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
     @Override
     public boolean syncRetentionDatabaseWithPurgedConsent() throws ConsentManagementException {
 
-        if (!OpenBankingConfigParser.getInstance().isConsentDataRetentionEnabled()) {
+        OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+        if (!configParser.isConsentDataRetentionEnabled()) {
             log.error("Consent data retention is not enabled, Hence data sync is not possible at the moment");
             throw new ConsentManagementException("Consent data retention is not enabled, " +
                     "Hence data sync is not possible at the moment");
         }
 
+        ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+        ConsentCoreDAO consentRetentionDAO = ConsentStoreInitializer.getInitializedConsentRetentionDAOImpl();
+        int chunkSize = Math.max(1, configParser.getRetentionDataDBSyncChunkSize());
+        int workerCount = Math.max(1, configParser.getRetentionDataDBSyncWorkerCount());
+
+        /* Chunks are synced on a bounded pool of workers, each with its own connections. When all workers are busy,
+           the chunk is synced on the calling thread, which also stops reading further chunks. */
+        ExecutorService syncWorkers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount), runnable -> {
+                    Thread thread = new Thread(runnable, "ob-retention-db-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        RetentionSyncStatistics statistics = new RetentionSyncStatistics();
+        List<Future<?>> chunkResults = new ArrayList<>();
+
+        // Consent DB connection used to read the consent_id pages of the temporary retention tables.
         Connection consentDBConnection = DatabaseUtil.getDBConnection();
-        Connection retentionDBConnection = DatabaseUtil.getRetentionDBConnection();
-
         try {
-            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
-            ConsentCoreDAO consentRetentionDAO = ConsentStoreInitializer.getInitializedConsentRetentionDAOImpl();
-
-            // Fetch list of consent_id's to sync from temporary retention tables in consent DB.
-            ArrayList<String> listOfConsentIds = consentCoreDAO.getListOfConsentIds(consentDBConnection, true);
-
-            // Fetch consent data from temporary retention tables in consent DB.
-            log.debug("Fetching consent data from temporary retention tables in consent DB");
-            for (String consentId : listOfConsentIds) {
-                Savepoint retentionDBSavepoint = retentionDBConnection.setSavepoint();
-                Savepoint consentDBSavepoint = consentDBConnection.setSavepoint();
-                try {
-                    // Fetching detailed consent.
-                    DetailedConsentResource detailedConsent =
-                            consentCoreDAO.getDetailedConsentResource(consentDBConnection, consentId, true);
-                    ConsentResource consentResource = new ConsentResource(detailedConsent.getConsentID(),
-                            detailedConsent.getClientID(), detailedConsent.getReceipt(),
-                            detailedConsent.getConsentType(), detailedConsent.getConsentFrequency(),
-                            detailedConsent.getValidityPeriod(), detailedConsent.isRecurringIndicator(),
-                            detailedConsent.getCurrentStatus(), detailedConsent.getCreatedTime(),
-                            detailedConsent.getUpdatedTime());
-
-                    ConsentFile consentFile = null;
-                    ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = null;
-                    try {
-                        // Fetching consent file.
-                        consentFile = consentCoreDAO.getConsentFile(consentDBConnection, consentId, true);
-                    } catch (OBConsentDataRetrievalException e) {
-                        log.error(String.format("Error occurred fetching consent file for consent_id : %s , " +
-                                "Ignoring this as null consent file for given consent_id",
-                                consentId.replaceAll("[\r\n]", "")));
-                    }
-                    try {
-                        // Fetching consent audit records.
-                        ArrayList<String> consentIds = new ArrayList<>();
-                        consentIds.add(consentId);
-                        consentStatusAuditRecords =
-                                consentCoreDAO.getConsentStatusAuditRecordsByConsentId(consentDBConnection, consentIds,
-                                         null, null, true);
-                    } catch (OBConsentDataRetrievalException e) {
-                        log.error(String.format("Error occurred fetching consent audit records for consent_id : %s , " +
-                                "Ignoring this as null consent audit records for given consent_id",
-                                consentId.replaceAll("[\r\n]", "")));
-                    }
-
-                    // Inserting to retention datasource
-                    ConsentResource insertedConsentResources =
-                            consentRetentionDAO.storeConsentResource(retentionDBConnection, consentResource);
-                    if (insertedConsentResources == null) {
-                        throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                DATA_INSERTION_ROLLBACK_ERROR_MSG + " for consent resource");
-                    }
-                    for (AuthorizationResource authResource : detailedConsent.getAuthorizationResources()) {
-                        if (authResource.getAuthorizationID() != null) {
-                            AuthorizationResource storeAuthorizationResource =
-                                    consentRetentionDAO.storeAuthorizationResource(retentionDBConnection, authResource);
-                            if (storeAuthorizationResource == null) {
-                                throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                        DATA_INSERTION_ROLLBACK_ERROR_MSG + " for authorization resources");
-                            }
-                        }
-                    }
-                    for (ConsentMappingResource mappingResource : detailedConsent.getConsentMappingResources()) {
-                        ConsentMappingResource storeConsentMappingResource =
-                                consentRetentionDAO.storeConsentMappingResource(retentionDBConnection, mappingResource);
-                        if (storeConsentMappingResource == null) {
-                            throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                    DATA_INSERTION_ROLLBACK_ERROR_MSG + " for mapping resources");
-                        }
-                    }
-                    if (!detailedConsent.getConsentAttributes().isEmpty()) {
-                        ConsentAttributes consentAttributes = new ConsentAttributes(consentId,
-                                detailedConsent.getConsentAttributes());
-                        if (!consentRetentionDAO.storeConsentAttributes(retentionDBConnection, consentAttributes)) {
-                            throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                    DATA_INSERTION_ROLLBACK_ERROR_MSG + " for consent attributes");
-                        }
-                    }
-                    if (consentFile != null) {
-                        if (!consentRetentionDAO.storeConsentFile(retentionDBConnection, consentFile)) {
-                            throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                    DATA_INSERTION_ROLLBACK_ERROR_MSG + " for consent file");
-                        }
-                    }
-                    if (consentStatusAuditRecords != null) {
-                        for (ConsentStatusAuditRecord auditRecords : consentStatusAuditRecords) {
-                            ConsentStatusAuditRecord storeConsentStatusAuditRecord = consentRetentionDAO
-                                    .storeConsentStatusAuditRecord(retentionDBConnection, auditRecords);
-                            if (storeConsentStatusAuditRecord == null) {
-                                throw new OBConsentDataInsertionException(ConsentCoreServiceConstants.
-                                        DATA_INSERTION_ROLLBACK_ERROR_MSG + " for consent audit records");
-                            }
-                        }
-                    }
-
-                    // Removing consent data from temporary retention table in consent database
-                    boolean consentDeleted = consentCoreDAO.deleteConsentData(consentDBConnection, consentId, true);
-                    if (!consentDeleted) {
-                        throw new OBConsentDataDeletionException(ConsentCoreServiceConstants.
-                                DATA_DELETE_ROLLBACK_ERROR_MSG + " for consent data deletion");
-                    }
-                    // Commit transactions
-                    DatabaseUtil.commitTransaction(retentionDBConnection);
-                    DatabaseUtil.commitTransaction(consentDBConnection);
-                    log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
-                } catch (OBConsentDataRetrievalException | OBConsentDataInsertionException |
-                        OBConsentDataDeletionException e) {
-                    log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
-                    consentDBConnection.rollback(consentDBSavepoint);
-                    retentionDBConnection.rollback(retentionDBSavepoint);
+            String lastConsentId = null;
+            ArrayList<String> consentIds;
+            do {
+                consentIds = consentCoreDAO.getListOfConsentIds(consentDBConnection, true, lastConsentId, chunkSize);
+                if (consentIds.isEmpty()) {
+                    break;
                 }
+                lastConsentId = consentIds.get(consentIds.size() - 1);
+                List<String> chunk = consentIds;
+                chunkResults.add(syncWorkers.submit(() ->
+                        syncRetentionChunk(chunk, consentCoreDAO, consentRetentionDAO, statistics)));
+            } while (consentIds.size() == chunkSize);
+
+            for (Future<?> chunkResult : chunkResults) {
+                chunkResult.get();
             }
+            statistics.report();
             return true;
-        } catch (OBConsentDataRetrievalException | SQLException e) {
+        } catch (OBConsentDataRetrievalException | ExecutionException e) {
             log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
             throw new ConsentManagementException("Error occurred while syncing the retention data in consent " +
                     "database to retention database", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsentManagementException("Interrupted while syncing the retention data in consent " +
+                    "database to retention database", e);
+        } finally {
+            syncWorkers.shutdownNow();
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(consentDBConnection);
+        }
+    }
+
+    /**
+     * Sync a chunk of consents from the temporary retention tables in consent DB to the retention DB. If the chunk
+     * can not be synced as a whole, the consents of the chunk are synced one by one, so that a single faulty consent
+     * does not hold back the rest of the chunk.
+     *
+     * @param consentIds          consent IDs of the chunk
+     * @param consentCoreDAO      consent DAO
+     * @param consentRetentionDAO retention DAO
+     * @param statistics          sync statistics of the run
+     */
+    private void syncRetentionChunk(List<String> consentIds, ConsentCoreDAO consentCoreDAO,
+                                    ConsentCoreDAO consentRetentionDAO, RetentionSyncStatistics statistics) {
+
+        if (storeRetentionChunk(consentIds, consentCoreDAO, consentRetentionDAO, statistics) ||
+                consentIds.size() == 1) {
+            return;
+        }
+        for (String consentId : consentIds) {
+            storeRetentionChunk(Collections.singletonList(consentId), consentCoreDAO, consentRetentionDAO,
+                    statistics);
+        }
+    }
+
+    /**
+     * Copy the consents of a chunk to the retention DB using a batch per table and delete them from the temporary
+     * retention tables in consent DB. Deleted consents are not read again, hence an interrupted sync resumes from the
+     * consents which are not yet synced.
+     *
+     * @return true if the chunk is synced
+     */
+    private boolean storeRetentionChunk(List<String> consentIds, ConsentCoreDAO consentCoreDAO,
+                                        ConsentCoreDAO consentRetentionDAO, RetentionSyncStatistics statistics) {
+
+        Connection consentDBConnection = DatabaseUtil.getDBConnection();
+        Connection retentionDBConnection = DatabaseUtil.getRetentionDBConnection();
+        try {
+            List<ConsentResource> consentResources = new ArrayList<>();
+            List<AuthorizationResource> authorizationResources = new ArrayList<>();
+            List<ConsentMappingResource> consentMappingResources = new ArrayList<>();
+            List<ConsentAttributes> consentAttributes = new ArrayList<>();
+
+            // Fetching detailed consents of the chunk.
+            for (DetailedConsentResource detailedConsent : consentCoreDAO.getDetailedConsentResources(
+                    consentDBConnection, consentIds, true)) {
+                consentResources.add(new ConsentResource(detailedConsent.getConsentID(),
+                        detailedConsent.getClientID(), detailedConsent.getReceipt(),
+                        detailedConsent.getConsentType(), detailedConsent.getConsentFrequency(),
+                        detailedConsent.getValidityPeriod(), detailedConsent.isRecurringIndicator(),
+                        detailedConsent.getCurrentStatus(), detailedConsent.getCreatedTime(),
+                        detailedConsent.getUpdatedTime()));
+                authorizationResources.addAll(detailedConsent.getAuthorizationResources());
+                consentMappingResources.addAll(detailedConsent.getConsentMappingResources());
+                if (!detailedConsent.getConsentAttributes().isEmpty()) {
+                    consentAttributes.add(new ConsentAttributes(detailedConsent.getConsentID(),
+                            detailedConsent.getConsentAttributes()));
+                }
+            }
+
+            // Fetching consent files of the chunk. Consents without a file are not included.
+            List<ConsentFile> consentFiles = consentCoreDAO.getConsentFiles(consentDBConnection, consentIds, true);
+
+            ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+            try {
+                // Fetching consent audit records of the chunk.
+                consentStatusAuditRecords = consentCoreDAO.getConsentStatusAuditRecordsByConsentId(
+                        consentDBConnection, new ArrayList<>(consentIds), null, null, true);
+            } catch (OBConsentDataRetrievalException e) {
+                log.error("Error occurred fetching consent audit records of the chunk, Ignoring this as null " +
+                        "consent audit records for the consents of the chunk");
+            }
+
+            // Inserting to retention datasource
+            Map<String, Integer> storedRows = new LinkedHashMap<>();
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT,
+                    consentRetentionDAO.storeConsentResources(retentionDBConnection, consentResources));
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT_AUTH_RESOURCE,
+                    consentRetentionDAO.storeAuthorizationResources(retentionDBConnection, authorizationResources));
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT_MAPPING,
+                    consentRetentionDAO.storeConsentMappingResources(retentionDBConnection, consentMappingResources));
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT_ATTRIBUTE,
+                    consentRetentionDAO.storeConsentAttributesList(retentionDBConnection, consentAttributes));
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT_FILE,
+                    consentRetentionDAO.storeConsentFiles(retentionDBConnection, consentFiles));
+            storedRows.put(ConsentMgtDAOConstants.TABLE_OB_CONSENT_STATUS_AUDIT,
+                    consentRetentionDAO.storeConsentStatusAuditRecords(retentionDBConnection,
+                            consentStatusAuditRecords));
+
+            // Removing consent data from temporary retention tables in consent database
+            if (!consentCoreDAO.deleteConsentData(consentDBConnection, consentIds, true)) {
+                throw new OBConsentDataDeletionException(ConsentCoreServiceConstants.
+                        DATA_DELETE_ROLLBACK_ERROR_MSG + " for consent data deletion");
+            }
+            // Commit transactions
+            DatabaseUtil.commitTransaction(retentionDBConnection);
+            DatabaseUtil.commitTransaction(consentDBConnection);
+            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            statistics.record(storedRows);
+            return true;
+        } catch (OBConsentDataRetrievalException | OBConsentDataInsertionException |
+                OBConsentDataDeletionException e) {
+            log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(retentionDBConnection);
+            DatabaseUtil.rollbackTransaction(consentDBConnection);
+            return false;
         } finally {
             log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
             DatabaseUtil.closeConnection(consentDBConnection);
@@ -2677,6 +2783,7 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                CompiledConsentCache.getInstance().invalidateInCluster(consentId);
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return updatedConsentResource;
             } catch (OBConsentDataRetrievalException e) {
@@ -2724,6 +2831,155 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         }
     }
 
+    @Override
+    public ArrayList<String> getExpiringConsentIds(String statusesEligibleForExpiration, long expiryTimestamp,
+                                                   String lastConsentID, String upperConsentID, int limit)
+            throws ConsentManagementException {
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                log.debug("Retrieving a page of expired consents.");
+                ArrayList<String> consentIDs = consentCoreDAO.getExpiringConsentIds(connection,
+                        statusesEligibleForExpiration, expiryTimestamp, lastConsentID, upperConsentID, limit);
+                // Commit transactions
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                return consentIDs;
+            } catch (OBConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public int expireConsents(ArrayList<String> consentIDs, String expiredConsentStatus)
+            throws ConsentManagementException {
+
+        if (consentIDs == null || StringUtils.isBlank(expiredConsentStatus)) {
+            log.error("Consent IDs or expired consent status is missing. Cannot proceed.");
+            throw new ConsentManagementException("Cannot proceed without consent IDs or expired consent status.");
+        }
+        if (consentIDs.isEmpty()) {
+            return 0;
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                ArrayList<DetailedConsentResource> existingConsentResources = consentCoreDAO.searchConsents(
+                        connection, consentIDs, null, null, null, null, null, null, null, null);
+
+                boolean isConsentAmendmentHistoryEnabled =
+                        OpenBankingConfigParser.getInstance().isConsentAmendmentHistoryEnabled();
+                long amendedTimestamp = System.currentTimeMillis() / 1000;
+                // Previous consent status is not added in reason because it can be null
+                String auditMessage = "Consent status updated to " + expiredConsentStatus;
+                List<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+                List<ConsentHistoryResource> consentHistoryResources = new ArrayList<>();
+
+                // Consents are updated only if their status is not changed since they were read
+                Map<String, String> currentConsentStatuses = new LinkedHashMap<>();
+                for (DetailedConsentResource existingConsentResource : existingConsentResources) {
+                    currentConsentStatuses.put(existingConsentResource.getConsentID(),
+                            existingConsentResource.getCurrentStatus());
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Updating the status of %d expired consents",
+                            currentConsentStatuses.size()));
+                }
+                Set<String> expiredConsentIDs = new HashSet<>(consentCoreDAO.updateConsentStatuses(connection,
+                        currentConsentStatuses, expiredConsentStatus));
+                List<DetailedConsentResource> expiredConsentResources = existingConsentResources.stream()
+                        .filter(consentResource -> expiredConsentIDs.contains(consentResource.getConsentID()))
+                        .collect(Collectors.toList());
+
+                for (DetailedConsentResource existingConsentResource : expiredConsentResources) {
+                    String consentID = existingConsentResource.getConsentID();
+                    for (AuthorizationResource authResource : existingConsentResource.getAuthorizationResources()) {
+                        ConsentStatusAuditRecord consentStatusAuditRecord = new ConsentStatusAuditRecord();
+                        consentStatusAuditRecord.setConsentID(consentID);
+                        consentStatusAuditRecord.setCurrentStatus(expiredConsentStatus);
+                        consentStatusAuditRecord.setReason(auditMessage);
+                        consentStatusAuditRecord.setActionBy(StringUtils.isNotEmpty(authResource.getUserID()) ?
+                                authResource.getUserID() : null);
+                        consentStatusAuditRecord.setPreviousStatus(existingConsentResource.getCurrentStatus());
+                        consentStatusAuditRecords.add(consentStatusAuditRecord);
+                    }
+
+                    //since the consent status is changed during the consent expiration, the previous status will be
+                    //saved in the consent history to properly back-track the previous status held in the consent
+                    if (isConsentAmendmentHistoryEnabled) {
+                        Map<String, Object> changedConsentData = new HashMap<>();
+                        changedConsentData.put(ConsentMgtDAOConstants.CURRENT_STATUS,
+                                String.valueOf(existingConsentResource.getCurrentStatus()));
+                        changedConsentData.put(ConsentMgtDAOConstants.UPDATED_TIME,
+                                String.valueOf(existingConsentResource.getUpdatedTime()));
+                        ConsentHistoryResource consentHistoryResource =
+                                new ConsentHistoryResource(consentID, String.valueOf(UUID.randomUUID()));
+                        consentHistoryResource.setTimestamp(amendedTimestamp);
+                        consentHistoryResource.setReason(
+                                ConsentCoreServiceConstants.AMENDMENT_REASON_CONSENT_EXPIRATION);
+                        consentHistoryResource.setChangedAttributesJsonDataMap(changedConsentData);
+                        consentHistoryResources.add(consentHistoryResource);
+                    }
+                }
+
+                consentCoreDAO.storeConsentStatusAuditRecords(connection, consentStatusAuditRecords);
+                consentCoreDAO.storeConsentAmendmentHistories(connection, consentHistoryResources,
+                        ConsentMgtDAOConstants.TYPE_CONSENT_BASIC_DATA);
+
+                // Execute state change listeners
+                for (DetailedConsentResource existingConsentResource : expiredConsentResources) {
+                    for (AuthorizationResource authResource : existingConsentResource.getAuthorizationResources()) {
+                        HashMap<String, Object> consentDataMap = new HashMap<>();
+                        consentDataMap.put(ConsentCoreServiceConstants.DETAILED_CONSENT_RESOURCE,
+                                existingConsentResource);
+                        ConsentStateChangeListenerImpl.getInstance().onStateChange(
+                                existingConsentResource.getConsentID(), authResource.getUserID(),
+                                expiredConsentStatus, existingConsentResource.getCurrentStatus(), auditMessage,
+                                existingConsentResource.getClientID(), consentDataMap);
+                    }
+                }
+
+                // Commit transaction
+                DatabaseUtil.commitTransaction(connection);
+                for (DetailedConsentResource expiredConsentResource : expiredConsentResources) {
+                    CompiledConsentCache.getInstance().invalidateInCluster(expiredConsentResource.getConsentID());
+                }
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                return expiredConsentResources.size();
+            } catch (OBConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            } catch (OBConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            } catch (OBConsentDataUpdationException e) {
+                log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Create the audit record of a consent state change and execute the state change listener. The compiled consent
+     * and the consent validation state held in the cluster are invalidated by the caller once the transaction is
+     * committed, so that they are not reloaded from the previous state of the consent.
+     */
     private void postStateChange(Connection connection, ConsentCoreDAO consentCoreDAO, String consentID,
                                  String userID, String newConsentStatus, String previousConsentStatus, String reason,
                                  String clientId, Map<String, Object> consentDataMap)
@@ -2761,6 +3017,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                // Consents of the changed authorization or mappings are not known
+                CompiledConsentCache.getInstance().invalidateAllInCluster();
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return updatedAuthorizationResource;
             } catch (OBConsentDataUpdationException e) {
@@ -2798,6 +3056,8 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
 
                 // Commit transaction
                 DatabaseUtil.commitTransaction(connection);
+                // Consents of the changed authorization or mappings are not known
+                CompiledConsentCache.getInstance().invalidateAllInCluster();
                 log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
                 return;
             } catch (OBConsentDataUpdationException e) {
@@ -2811,4 +3071,31 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         }
     }
 
+    /**
+     * Rows synced to the retention database per table during a retention database sync run.
+     */
+    private static class RetentionSyncStatistics {
+
+        private final long startTime = System.nanoTime();
+        private final Map<String, AtomicLong> syncedRows = new ConcurrentHashMap<>();
+        private final AtomicLong syncedChunks = new AtomicLong();
+
+        void record(Map<String, Integer> storedRows) {
+
+            storedRows.forEach((table, rows) ->
+                    syncedRows.computeIfAbsent(table, key -> new AtomicLong()).addAndGet(rows));
+            syncedChunks.incrementAndGet();
+        }
+
+        void report() {
+
+            double elapsedSeconds = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), 1) / 1000d;
+            log.info(String.format("Retention database sync completed %d chunks in %.1fs", syncedChunks.get(),
+                    elapsedSeconds));
+            for (Map.Entry<String, AtomicLong> entry : syncedRows.entrySet()) {
+                log.info(String.format("Retention database sync of %s: rows=%d, rows/sec=%.1f", entry.getKey(),
+                        entry.getValue().get(), entry.getValue().get() / elapsedSeconds));
+            }
+        }
+    }
 }
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.mgt.service.cache;
+
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for compiled consent cache.
+ */
+public class CompiledConsentCacheTest {
+
+    private static final String CONSENT_ID = "a7f2b2e1-6f6c-4bd1-9a4a-6f5c7e1f0c11";
+    private static final long TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String RECEIPT = "{\"Data\": {\"Permissions\": [\"ReadAccountsDetail\", " +
+            "\"ReadBalances\"], \"ExpirationDateTime\": \"2099-01-01T00:00:00+00:00\"}, \"Risk\": {}}";
+    private static final int THREAD_COUNT = 8;
+
+    private AtomicInteger loadCount;
+    private CompiledConsentCache.CompiledConsentLoader loader;
+
+    @BeforeMethod
+    public void init() {
+
+        loadCount = new AtomicInteger();
+        loader = consentId -> {
+            loadCount.incrementAndGet();
+            return CompiledConsent.of(getDetailedConsent(consentId, RECEIPT, 1));
+        };
+    }
+
+    @Test
+    public void testCompiledConsent() {
+
+        CompiledConsent compiledConsent = CompiledConsent.of(getDetailedConsent(CONSENT_ID, RECEIPT, 10));
+
+        Assert.assertEquals(compiledConsent.getConsentId(), CONSENT_ID);
+        Assert.assertEquals(compiledConsent.getVersion(), 10);
+        Assert.assertNotNull(compiledConsent.getReceipt().get("Risk"));
+        Assert.assertEquals(compiledConsent.getPermissions().size(), 2);
+        Assert.assertTrue(compiledConsent.getPermissions().contains("ReadBalances"));
+        Assert.assertEquals(compiledConsent.getExpirationDateTime(),
+                OffsetDateTime.parse("2099-01-01T00:00:00+00:00"));
+        Assert.assertFalse(compiledConsent.isExpirationDateTimeInvalid());
+        // Only the accounts of the active mappings are included
+        Assert.assertEquals(compiledConsent.getAccountIds(), Arrays.asList("account-1"));
+    }
+
+    @Test
+    public void testCompiledConsentWithInvalidReceipt() {
+
+        CompiledConsent compiledConsent = CompiledConsent.of(getDetailedConsent(CONSENT_ID,
+                "{\"Data\": {\"ExpirationDateTime\": \"invalid\"}}", 1));
+        Assert.assertTrue(compiledConsent.isExpirationDateTimeInvalid());
+        Assert.assertNull(compiledConsent.getExpirationDateTime());
+        Assert.assertTrue(compiledConsent.getPermissions().isEmpty());
+
+        compiledConsent = CompiledConsent.of(getDetailedConsent(CONSENT_ID, "[\"receipt\"]", 1));
+        Assert.assertNull(compiledConsent.getReceipt());
+        Assert.assertFalse(compiledConsent.isExpirationDateTimeInvalid());
+    }
+
+    @Test
+    public void testCompiledConsentIsCached() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        CompiledConsent compiledConsent = cache.getCompiledConsent(CONSENT_ID, loader);
+
+        Assert.assertSame(cache.getCompiledConsent(CONSENT_ID, loader), compiledConsent);
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+    @Test
+    public void testCompiledConsentIsInvalidated() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+
+        cache.invalidate(CONSENT_ID);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 3);
+
+        cache.invalidateAll();
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 5);
+    }
+
+    @Test
+    public void testCompiledConsentIsInvalidatedByStateChangeMessages() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+
+        cache.onStateChange(CONSENT_ID);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 3);
+
+        cache.onStateChange(OpenBankingDistributedCacheConstants.ALL_CONSENTS_CHANGED_MESSAGE);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 5);
+    }
+
+    @Test
+    public void testCompiledConsentLoadedDuringInvalidationIsNotCached() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        CompiledConsent compiledConsent = cache.getCompiledConsent(CONSENT_ID, consentId -> {
+            CompiledConsent loadedConsent = loader.load(consentId);
+            cache.invalidate(consentId);
+            return loadedConsent;
+        });
+        Assert.assertNotNull(compiledConsent);
+
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test
+    public void testCompiledConsentsAreBoundedByCapacity() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS, 1);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent("other-consent", loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 3);
+
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        Assert.assertEquals(loadCount.get(), 3);
+
+        cache.invalidate(CONSENT_ID);
+        cache.getCompiledConsent("other-consent", loader);
+        cache.getCompiledConsent("other-consent", loader);
+        Assert.assertEquals(loadCount.get(), 4);
+    }
+
+    @Test
+    public void testCompiledConsentIsNotCachedWithoutTimeToLive() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> 0);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test
+    public void testMissingConsentIsNotCached() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        Assert.assertNull(cache.getCompiledConsent(CONSENT_ID, consentId -> null));
+        cache.getCompiledConsent(CONSENT_ID, loader);
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+    @Test
+    public void testCompiledConsentIsSharedAcrossThreads() throws Exception {
+
+        CompiledConsentCache cache = new CompiledConsentCache(() -> TIME_TO_LIVE_MILLIS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(executorService.submit((Callable<Boolean>) () -> {
+                    start.await();
+                    boolean permitted = true;
+                    for (int j = 0; j < 10000; j++) {
+                        permitted &= cache.getCompiledConsent(CONSENT_ID, loader).getPermissions()
+                                .contains("ReadAccountsDetail");
+                    }
+                    return permitted;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        // Each thread loads the compiled consent at most once, before it is cached
+        Assert.assertTrue(loadCount.get() <= THREAD_COUNT);
+    }
+
+    private static DetailedConsentResource getDetailedConsent(String consentId, String receipt, long updatedTime) {
+
+        DetailedConsentResource detailedConsent = new DetailedConsentResource();
+        detailedConsent.setConsentID(consentId);
+        detailedConsent.setReceipt(receipt);
+        detailedConsent.setUpdatedTime(updatedTime);
+
+        ArrayList<ConsentMappingResource> mappingResources = new ArrayList<>();
+        mappingResources.add(getMappingResource("account-1", "active"));
+        mappingResources.add(getMappingResource("account-1", "active"));
+        mappingResources.add(getMappingResource("account-2", "inactive"));
+        detailedConsent.setConsentMappingResources(mappingResources);
+        return detailedConsent;
+    }
+
+    private static ConsentMappingResource getMappingResource(String accountId, String mappingStatus) {
+
+        ConsentMappingResource mappingResource = new ConsentMappingResource();
+        mappingResource.setAccountID(accountId);
+        mappingResource.setMappingStatus(mappingStatus);
+        return mappingResource;
+    }
+}
@@ -24,6 +24,7 @@ import com.wso2.openbanking.accelerator.common.event.executor.OBEventQueue;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.ConsentCoreDAO;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.constants.ConsentMgtDAOConstants;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.exceptions.OBConsentDataDeletionException;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.exceptions.OBConsentDataInsertionException;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.exceptions.OBConsentDataRetrievalException;
@@ -34,6 +35,7 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCriteria;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.persistence.ConsentStoreInitializer;
@@ -60,8 +62,11 @@ import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -2151,10 +2156,39 @@ public class OBConsentMgtCoreServiceTests {
         configuration.put(OpenBankingConstants.CONSENT_ID_CLAIM_NAME, "OB_CONSENT_ID");
         Mockito.when(openBankingConfigParserMock.getConfiguration()).thenReturn(configuration);
         Mockito.when(openBankingConfigParserMock.isConsentDataRetentionEnabled()).thenReturn(true);
+        Mockito.when(openBankingConfigParserMock.getRetentionDataDBSyncChunkSize()).thenReturn(100);
+        Mockito.when(openBankingConfigParserMock.getRetentionDataDBSyncWorkerCount()).thenReturn(2);
+        Mockito.when(openBankingConfigParserMock.isConsentAmendmentHistoryEnabled()).thenReturn(true);
         PowerMockito.mockStatic(OpenBankingConfigParser.class);
         PowerMockito.when(OpenBankingConfigParser.getInstance()).thenReturn(openBankingConfigParserMock);
     }
 
+    private ConsentCoreDAO mockRetentionSyncDAO(String... consentIds) throws Exception {
+
+        ConsentCoreDAO retentionSyncDAO = Mockito.mock(ConsentCoreDAO.class);
+        DetailedConsentResource detailedConsent =
+                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
+        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
+
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(consentIds))).when(retentionSyncDAO)
+                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean(), Mockito.anyString(), Mockito.anyInt());
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(detailedConsent))).when(retentionSyncDAO)
+                .getDetailedConsentResources(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(new ConsentFile()))).when(retentionSyncDAO)
+                .getConsentFiles(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
+        Mockito.doReturn(consentStatusAuditRecords).when(retentionSyncDAO)
+                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
+                        Mockito.anyInt(), Mockito.anyBoolean());
+        Mockito.doReturn(true).when(retentionSyncDAO)
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
+
+        PowerMockito.when(ConsentStoreInitializer.getInitializedConsentCoreDAOImpl()).thenReturn(retentionSyncDAO);
+        PowerMockito.when(ConsentStoreInitializer.getInitializedConsentRetentionDAOImpl())
+                .thenReturn(retentionSyncDAO);
+        return retentionSyncDAO;
+    }
+
     @Test
     public void testAmendConsentData() throws Exception {
 
@@ -2367,6 +2401,115 @@ public class OBConsentMgtCoreServiceTests {
                 ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourcesList().get(0).getConsentID());
     }
 
+    @Test
+    public void testSearchDetailedConsentsWithCriteria() throws Exception {
+
+        ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
+        detailedConsentResources.add(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource());
+
+        Mockito.doReturn(detailedConsentResources).when(mockedConsentCoreDAO)
+                .searchConsents(Mockito.any(), Mockito.any(ConsentSearchCriteria.class));
+
+        ConsentSearchCriteria searchCriteria = new ConsentSearchCriteria(10);
+        searchCriteria.setIncludeMappingResources(false);
+        Assert.assertEquals(consentCoreServiceImpl.searchDetailedConsents(searchCriteria), detailedConsentResources);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchDetailedConsentsWithoutLimit() throws Exception {
+
+        consentCoreServiceImpl.searchDetailedConsents(new ConsentSearchCriteria());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchDetailedConsentsWithCriteriaRetrieveError() throws Exception {
+
+        Mockito.doThrow(OBConsentDataRetrievalException.class).when(mockedConsentCoreDAO)
+                .searchConsents(Mockito.any(), Mockito.any(ConsentSearchCriteria.class));
+
+        consentCoreServiceImpl.searchDetailedConsents(new ConsentSearchCriteria(10));
+    }
+
+    @Test
+    public void testGetExpiringConsentIds() throws Exception {
+
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(sampleID))).when(mockedConsentCoreDAO)
+                .getExpiringConsentIds(Mockito.any(), Mockito.anyString(), Mockito.anyLong(), Mockito.any(),
+                        Mockito.any(), Mockito.anyInt());
+        ArrayList<String> expiringConsentIds = consentCoreServiceImpl.getExpiringConsentIds("authorised",
+                System.currentTimeMillis() / 1000, null, null, 100);
+
+        Assert.assertEquals(expiringConsentIds.size(), 1);
+        Assert.assertEquals(expiringConsentIds.get(0), sampleID);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetExpiringConsentIdsDataRetrievalError() throws Exception {
+
+        Mockito.doThrow(new OBConsentDataRetrievalException("Error")).when(mockedConsentCoreDAO)
+                .getExpiringConsentIds(Mockito.any(), Mockito.anyString(), Mockito.anyLong(), Mockito.any(),
+                        Mockito.any(), Mockito.anyInt());
+        consentCoreServiceImpl.getExpiringConsentIds("authorised", System.currentTimeMillis() / 1000, null, null,
+                100);
+    }
+
+    @Test
+    public void testExpireConsents() throws Exception {
+
+        ConsentCoreDAO expirationDAO = mockExpirationDAO();
+
+        Assert.assertEquals(consentCoreServiceImpl.expireConsents(new ArrayList<>(Arrays.asList(sampleID)),
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS), 2);
+        Mockito.verify(expirationDAO).updateConsentStatuses(Mockito.any(), Mockito.eq(Collections.singletonMap(
+                ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID, ConsentMgtServiceTestData.SAMPLE_CURRENT_STATUS)),
+                Mockito.eq(ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS));
+        Mockito.verify(expirationDAO).storeConsentStatusAuditRecords(Mockito.any(), Mockito.anyList());
+        Mockito.verify(expirationDAO).storeConsentAmendmentHistories(Mockito.any(), Mockito.anyList(),
+                Mockito.eq(ConsentMgtDAOConstants.TYPE_CONSENT_BASIC_DATA));
+    }
+
+    @Test
+    public void testExpireConsentsWithChangedStatus() throws Exception {
+
+        ConsentCoreDAO expirationDAO = mockExpirationDAO();
+        Mockito.doReturn(new ArrayList<>()).when(expirationDAO)
+                .updateConsentStatuses(Mockito.any(), Mockito.anyMap(), Mockito.anyString());
+
+        Assert.assertEquals(consentCoreServiceImpl.expireConsents(new ArrayList<>(Arrays.asList(sampleID)),
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS), 0);
+        Mockito.verify(expirationDAO).storeConsentStatusAuditRecords(Mockito.any(),
+                Mockito.eq(new ArrayList<>()));
+    }
+
+    @Test
+    public void testExpireConsentsWithEmptyList() throws Exception {
+
+        Assert.assertEquals(consentCoreServiceImpl.expireConsents(new ArrayList<>(),
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS), 0);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testExpireConsentsDataUpdateError() throws Exception {
+
+        ConsentCoreDAO expirationDAO = mockExpirationDAO();
+        Mockito.doThrow(OBConsentDataUpdationException.class).when(expirationDAO)
+                .updateConsentStatuses(Mockito.any(), Mockito.anyMap(), Mockito.anyString());
+        consentCoreServiceImpl.expireConsents(new ArrayList<>(Arrays.asList(sampleID)),
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS);
+    }
+
+    private ConsentCoreDAO mockExpirationDAO() throws Exception {
+
+        ConsentCoreDAO expirationDAO = Mockito.mock(ConsentCoreDAO.class);
+        Mockito.doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourcesList())
+                .when(expirationDAO).searchConsents(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID)))
+                .when(expirationDAO).updateConsentStatuses(Mockito.any(), Mockito.anyMap(), Mockito.anyString());
+        PowerMockito.when(ConsentStoreInitializer.getInitializedConsentCoreDAOImpl()).thenReturn(expirationDAO);
+        return expirationDAO;
+    }
+
     @Test
     public void testRevokeConsentWithoutReason() throws Exception {
 
@@ -2998,40 +3141,21 @@ public class OBConsentMgtCoreServiceTests {
     @Test
     public void testSyncRetentionDatabaseWithPurgedConsent() throws Exception {
 
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
-
-        ArrayList<String> consentIds = new ArrayList<>();
-        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
-        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
-        consentIds.add(detailedConsent.getConsentID());
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID, "consent-2");
 
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
+        Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        // The consents of the chunk are fetched together
+        Mockito.verify(retentionSyncDAO).getDetailedConsentResources(Mockito.any(),
+                Mockito.eq(Arrays.asList(sampleID, "consent-2")), Mockito.eq(true));
+        Mockito.verify(retentionSyncDAO).getConsentFiles(Mockito.any(),
+                Mockito.eq(Arrays.asList(sampleID, "consent-2")), Mockito.eq(true));
+        Mockito.verify(retentionSyncDAO, Mockito.never())
                 .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(null).when(mockedConsentCoreDAO)
+        Mockito.verify(retentionSyncDAO, Mockito.never())
                 .getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(consentStatusAuditRecords).when(mockedConsentCoreDAO)
-                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
-                        Mockito.anyInt(), Mockito.anyBoolean());
-
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentAttributes(Mockito.any(), any(ConsentAttributes.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentFile(Mockito.any(), any(ConsentFile.class));
-        Mockito.doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
-        Mockito.doReturn(new ConsentStatusAuditRecord()).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(Mockito.any(), any(ConsentStatusAuditRecord.class));
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .deleteConsentData(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-
-        Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO).storeConsentResources(Mockito.any(), Mockito.anyList());
+        Mockito.verify(retentionSyncDAO).storeConsentStatusAuditRecords(Mockito.any(), Mockito.anyList());
+        Mockito.verify(retentionSyncDAO).deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.eq(true));
     }
 
     @Test (expectedExceptions = ConsentManagementException.class)
@@ -3047,187 +3171,121 @@ public class OBConsentMgtCoreServiceTests {
     @Test (expectedExceptions = ConsentManagementException.class)
     public void testSyncRetentionDatabaseWithPurgedConsentConsentListError() throws Exception {
 
-        Mockito.doThrow(OBConsentDataRetrievalException.class)
-                .when(mockedConsentCoreDAO).getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataRetrievalException.class).when(retentionSyncDAO)
+                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean(), Mockito.anyString(), Mockito.anyInt());
         consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent();
     }
 
     @Test
-    public void testSyncRetentionDatabaseWithPurgedConsentFileGetError() throws Exception {
-
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+    public void testSyncRetentionDatabaseWithPurgedConsentAuditGetError() throws Exception {
 
-        ArrayList<String> consentIds = new ArrayList<>();
-        consentIds.add(detailedConsent.getConsentID());
-
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
-                .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doThrow(OBConsentDataRetrievalException.class)
-                .when(mockedConsentCoreDAO).getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doThrow(OBConsentDataRetrievalException.class).when(mockedConsentCoreDAO)
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataRetrievalException.class).when(retentionSyncDAO)
                 .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
                         Mockito.anyInt(), Mockito.anyBoolean());
 
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentAttributes(Mockito.any(), any(ConsentAttributes.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentFile(Mockito.any(), any(ConsentFile.class));
-        Mockito.doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
-        Mockito.doReturn(new ConsentStatusAuditRecord()).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(Mockito.any(), any(ConsentStatusAuditRecord.class));
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .deleteConsentData(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
         Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO).deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.eq(true));
     }
 
     @Test
-    public void testSyncRetentionDatabaseWithPurgedConsentFileStoreError() throws Exception {
+    public void testSyncRetentionDatabaseWithPurgedConsentFileGetError() throws Exception {
 
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataRetrievalException.class).when(retentionSyncDAO)
+                .getConsentFiles(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
 
-        ArrayList<String> consentIds = new ArrayList<>();
-        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
-        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
-        consentIds.add(detailedConsent.getConsentID());
+        Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.never())
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
+    }
 
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
-                .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(new ConsentFile()).when(mockedConsentCoreDAO)
-                .getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(consentStatusAuditRecords).when(mockedConsentCoreDAO)
-                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
-                        Mockito.anyInt(), Mockito.anyBoolean());
+    @Test
+    public void testSyncRetentionDatabaseWithPurgedConsentFileStoreError() throws Exception {
+
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataInsertionException.class).when(retentionSyncDAO)
+                .storeConsentFiles(Mockito.any(), Mockito.anyList());
 
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentAttributes(Mockito.any(), any(ConsentAttributes.class));
-        Mockito.doReturn(false).when(mockedConsentCoreDAO)
-                .storeConsentFile(Mockito.any(), any(ConsentFile.class));
-
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .deleteConsentData(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
         Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.never())
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
     }
 
     @Test
     public void testSyncRetentionDatabaseWithPurgedConsentAuditStoreError() throws Exception {
 
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
-
-        ArrayList<String> consentIds = new ArrayList<>();
-        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
-        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
-        consentIds.add(detailedConsent.getConsentID());
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataInsertionException.class).when(retentionSyncDAO)
+                .storeConsentStatusAuditRecords(Mockito.any(), Mockito.anyList());
 
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
-                .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(new ConsentFile()).when(mockedConsentCoreDAO)
-                .getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(consentStatusAuditRecords).when(mockedConsentCoreDAO)
-                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
-                        Mockito.anyInt(), Mockito.anyBoolean());
-
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentAttributes(Mockito.any(), any(ConsentAttributes.class));
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .storeConsentFile(Mockito.any(), any(ConsentFile.class));
-        Mockito.doReturn(null).when(mockedConsentCoreDAO)
-                .storeConsentStatusAuditRecord(Mockito.any(), any(ConsentStatusAuditRecord.class));
-
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .deleteConsentData(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
         Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.never())
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
     }
 
     @Test
     public void testSyncRetentionDatabaseWithPurgedConsentAttributeStoreError() throws Exception {
 
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
-
-        ArrayList<String> consentIds = new ArrayList<>();
-        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
-        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
-        consentIds.add(detailedConsent.getConsentID());
-
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
-                .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(new ConsentFile()).when(mockedConsentCoreDAO)
-                .getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(consentStatusAuditRecords).when(mockedConsentCoreDAO)
-                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
-                        Mockito.anyInt(), Mockito.anyBoolean());
-
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(new ConsentMappingResource()).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
-        Mockito.doReturn(false).when(mockedConsentCoreDAO)
-                .storeConsentAttributes(Mockito.any(), any(ConsentAttributes.class));
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataInsertionException.class).when(retentionSyncDAO)
+                .storeConsentAttributesList(Mockito.any(), Mockito.anyList());
 
         Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.never())
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
     }
 
     @Test
     public void testSyncRetentionDatabaseWithPurgedConsentMappingStoreError() throws Exception {
 
-        DetailedConsentResource detailedConsent =
-                ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource();
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.doThrow(OBConsentDataInsertionException.class).when(retentionSyncDAO)
+                .storeConsentMappingResources(Mockito.any(), Mockito.anyList());
 
-        ArrayList<String> consentIds = new ArrayList<>();
-        ArrayList<ConsentStatusAuditRecord> consentStatusAuditRecords = new ArrayList<>();
-        consentStatusAuditRecords.add(new ConsentStatusAuditRecord());
-        consentIds.add(detailedConsent.getConsentID());
+        Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.never())
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testSyncRetentionDatabaseWithPurgedConsentPages() throws Exception {
+
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO(sampleID);
+        Mockito.when(OpenBankingConfigParser.getInstance().getRetentionDataDBSyncChunkSize()).thenReturn(1);
+        Mockito.doAnswer(invocation -> {
+            // Keyset pages of a single consent, starting after the last consent of the previous page
+            String lastConsentId = (String) invocation.getArguments()[2];
+            ArrayList<String> consentIds = new ArrayList<>();
+            if (lastConsentId == null) {
+                consentIds.add("consent-1");
+            } else if ("consent-1".equals(lastConsentId)) {
+                consentIds.add("consent-2");
+            }
+            return consentIds;
+        }).when(retentionSyncDAO).getListOfConsentIds(Mockito.any(), Mockito.anyBoolean(), Mockito.anyString(),
+                Mockito.anyInt());
 
-        Mockito.doReturn(consentIds).when(mockedConsentCoreDAO)
-                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean());
-        Mockito.doReturn(detailedConsent).when(mockedConsentCoreDAO)
-                .getDetailedConsentResource(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(new ConsentFile()).when(mockedConsentCoreDAO)
-                .getConsentFile(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
-        Mockito.doReturn(consentStatusAuditRecords).when(mockedConsentCoreDAO)
-                .getConsentStatusAuditRecordsByConsentId(Mockito.any(), any(ArrayList.class), Mockito.anyInt(),
-                        Mockito.anyInt(), Mockito.anyBoolean());
+        Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.times(3))
+                .getListOfConsentIds(Mockito.any(), Mockito.anyBoolean(), Mockito.anyString(), Mockito.anyInt());
+        Mockito.verify(retentionSyncDAO, Mockito.times(2))
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.eq(true));
+    }
 
-        Mockito.doReturn(new ConsentResource()).when(mockedConsentCoreDAO)
-                .storeConsentResource(Mockito.any(), any(ConsentResource.class));
-        Mockito.doReturn(new AuthorizationResource()).when(mockedConsentCoreDAO)
-                .storeAuthorizationResource(Mockito.any(), any(AuthorizationResource.class));
-        Mockito.doReturn(null).when(mockedConsentCoreDAO)
-                .storeConsentMappingResource(Mockito.any(), any(ConsentMappingResource.class));
+    @Test
+    public void testSyncRetentionDatabaseWithPurgedConsentChunkFallback() throws Exception {
+
+        ConsentCoreDAO retentionSyncDAO = mockRetentionSyncDAO("consent-1", "consent-2");
+        // Deleting the chunk fails, while the consents of the chunk can be deleted one by one
+        Mockito.doAnswer(invocation -> ((List) invocation.getArguments()[1]).size() == 1).when(retentionSyncDAO)
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.anyBoolean());
 
-        Mockito.doReturn(true).when(mockedConsentCoreDAO)
-                .deleteConsentData(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean());
         Assert.assertTrue(consentCoreServiceImpl.syncRetentionDatabaseWithPurgedConsent());
+        Mockito.verify(retentionSyncDAO, Mockito.times(3)).storeConsentResources(Mockito.any(), Mockito.anyList());
+        Mockito.verify(retentionSyncDAO, Mockito.times(3))
+                .deleteConsentData(Mockito.any(), Mockito.anyList(), Mockito.eq(true));
     }
 
     @Test (expectedExceptions = ConsentManagementException.class)
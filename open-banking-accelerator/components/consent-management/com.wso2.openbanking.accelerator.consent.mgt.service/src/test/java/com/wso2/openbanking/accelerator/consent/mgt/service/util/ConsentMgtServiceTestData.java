@@ -99,6 +99,8 @@ public class ConsentMgtServiceTestData {
 
     public static final String SAMPLE_CONSUMED_STATUS = "Consumed";
 
+    public static final String SAMPLE_EXPIRED_STATUS = "Expired";
+
     public static final String SAMPLE_AMENDMENT_REASON = "sampleReason";
 
     public static final String SAMPLE_CONSENT_HISTORY_RECEIPT = "{\"validUntil\": \"2020-10-20\", " +
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.cache;
+
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCache;
+import com.wso2.openbanking.accelerator.event.notifications.service.model.OpenNotificationCount;
+
+/**
+ * Cache definition to share the number of OPEN notifications of the clients among the nodes of the cluster.
+ */
+public class OpenNotificationCountCache
+        extends OpenBankingDistributedCache<OpenNotificationCountCacheKey, OpenNotificationCount> {
+
+    // Counts are loaded again from the database after the refresh interval of the counter, which is not longer
+    private static final int CACHE_TIME_TO_LIVE_MINUTES = 1;
+    private static final String cacheName = "OB-Open-Notification-Count-Cache";
+    private static volatile OpenNotificationCountCache openNotificationCountCache;
+
+    /**
+     * Initialize With unique cache name.
+     *
+     * @param cacheName Name of the cache.
+     */
+    private OpenNotificationCountCache(String cacheName) {
+        super(cacheName);
+    }
+
+    /**
+     * Creating a singleton OpenNotificationCountCache object.
+     *
+     * @return OpenNotificationCountCache object.
+     */
+    public static OpenNotificationCountCache getInstance() {
+        if (openNotificationCountCache == null) {
+            synchronized (OpenNotificationCountCache.class) {
+                if (openNotificationCountCache == null) {
+                    openNotificationCountCache = new OpenNotificationCountCache(OpenNotificationCountCache.cacheName);
+                }
+            }
+        }
+        return openNotificationCountCache;
+    }
+
+    /**
+     * Getter for cache time to live in minutes.
+     *
+     * @return cache time to live for Open Banking open notification count cache.
+     */
+    @Override
+    public int getCacheTimeToLiveMinutes() {
+        return CACHE_TIME_TO_LIVE_MINUTES;
+    }
+}
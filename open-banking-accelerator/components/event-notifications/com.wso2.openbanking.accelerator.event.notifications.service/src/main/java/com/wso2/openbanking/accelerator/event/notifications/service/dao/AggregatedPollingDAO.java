@@ -100,4 +100,35 @@ public interface AggregatedPollingDAO {
      * @throws OBEventNotificationException
      */
     boolean getNotificationStatus(String notificationId) throws OBEventNotificationException;
+
+    /**
+     * This method is to update the status of a set of notifications and store the errors of the notifications
+     * updated to ERR, in a single transaction with JDBC batches.
+     * @param notificationStatuses statuses keyed by the notification ID
+     * @param notificationErrors errors to store
+     *
+     * @throws OBEventNotificationException
+     */
+    void updateNotificationStatuses(Map<String, String> notificationStatuses,
+                                    List<NotificationError> notificationErrors) throws OBEventNotificationException;
+
+    /**
+     * This method is to retrieve the notifications of a set of notification IDs.
+     * @param notificationIds
+     *
+     * @return notifications keyed by the notification ID, notifications which do not exist are not included
+     * @throws OBEventNotificationException
+     */
+    Map<String, NotificationDTO> getNotificationsByIds(List<String> notificationIds)
+            throws OBEventNotificationException;
+
+    /**
+     * This method is to retrieve the events of a set of notifications.
+     * @param notificationIds
+     *
+     * @return events keyed by the notification ID, notifications without events are not included
+     * @throws OBEventNotificationException
+     */
+    Map<String, List<NotificationEvent>> getEventsByNotificationIDs(List<String> notificationIds)
+            throws OBEventNotificationException;
 }
@@ -47,6 +47,8 @@ import java.util.Map;
 public class AggregatedPollingDAOImpl implements AggregatedPollingDAO {
 
     private static Log log = LogFactory.getLog(AggregatedPollingDAOImpl.class);
+    // Maximum number of notification IDs in a single IN clause
+    private static final int MAX_IDS_PER_QUERY = 100;
     protected NotificationPollingSqlStatements sqlStatements;
 
 
@@ -441,4 +443,168 @@ public class AggregatedPollingDAOImpl implements AggregatedPollingDAO {
 
         return false;
     }
+
+    @Override
+    public void updateNotificationStatuses(Map<String, String> notificationStatuses,
+                                           List<NotificationError> notificationErrors)
+            throws OBEventNotificationException {
+
+        if (notificationStatuses.isEmpty() && notificationErrors.isEmpty()) {
+            return;
+        }
+        Connection connection = DatabaseUtil.getDBConnection();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Database connection is established for updating %d notifications in the " +
+                    "database. ", notificationStatuses.size()));
+        }
+        try {
+            connection.setAutoCommit(false);
+            Timestamp currentTimeStamp = new Timestamp(new Date().getTime());
+            try (PreparedStatement updateStatusPreparedStatement = connection.prepareStatement(
+                    sqlStatements.updateNotificationStatusQueryById());
+                 PreparedStatement storeErrorPreparedStatement = connection.prepareStatement(
+                         sqlStatements.storeErrorNotificationQuery())) {
+
+                for (Map.Entry<String, String> entry : notificationStatuses.entrySet()) {
+                    updateStatusPreparedStatement.setString(1, entry.getValue());
+                    updateStatusPreparedStatement.setTimestamp(2, currentTimeStamp);
+                    updateStatusPreparedStatement.setString(3, entry.getKey());
+                    updateStatusPreparedStatement.addBatch();
+                }
+                for (NotificationError notificationError : notificationErrors) {
+                    storeErrorPreparedStatement.setString(1, notificationError.getNotificationId());
+                    storeErrorPreparedStatement.setString(2, notificationError.getErrorCode());
+                    storeErrorPreparedStatement.setString(3, notificationError.getErrorDescription());
+                    storeErrorPreparedStatement.addBatch();
+                }
+                if (!notificationStatuses.isEmpty()) {
+                    updateStatusPreparedStatement.executeBatch();
+                }
+                if (!notificationErrors.isEmpty()) {
+                    storeErrorPreparedStatement.executeBatch();
+                }
+                connection.commit();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Updated %d notifications and stored %d error notifications",
+                            notificationStatuses.size(), notificationErrors.size()));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                log.error(String.format(EventNotificationConstants.DB_ERROR_UPDATING,
+                        notificationStatuses.keySet()), e);
+                throw new OBEventNotificationException(String.format(EventNotificationConstants.DB_ERROR_UPDATING,
+                        notificationStatuses.keySet()), e);
+            }
+        } catch (SQLException e) {
+            throw new OBEventNotificationException("Database error while updating notification statuses", e);
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public Map<String, NotificationDTO> getNotificationsByIds(List<String> notificationIds)
+            throws OBEventNotificationException {
+
+        Map<String, NotificationDTO> notifications = new HashMap<>();
+        if (notificationIds.isEmpty()) {
+            return notifications;
+        }
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            for (List<String> ids : partition(notificationIds)) {
+                final String sql = sqlStatements.getNotificationsByNotificationIdsQuery(ids.size());
+                try (PreparedStatement getNotificationsPreparedStatement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        getNotificationsPreparedStatement.setString(i + 1, ids.get(i));
+                    }
+                    try (ResultSet notificationResultSet = getNotificationsPreparedStatement.executeQuery()) {
+                        while (notificationResultSet.next()) {
+                            NotificationDTO notification = new NotificationDTO();
+                            notification.setNotificationId(notificationResultSet.getString
+                                    (EventNotificationConstants.NOTIFICATION_ID));
+                            notification.setClientId(notificationResultSet.getString
+                                    (EventNotificationConstants.CLIENT_ID));
+                            notification.setResourceId(notificationResultSet.getString
+                                    (EventNotificationConstants.RESOURCE_ID));
+                            notification.setStatus(notificationResultSet.getString
+                                    (EventNotificationConstants.STATUS));
+                            Timestamp updatedTimestamp = notificationResultSet.getTimestamp(
+                                    EventNotificationConstants.UPDATED_TIMESTAMP);
+                            if (updatedTimestamp != null) {
+                                notification.setUpdatedTimeStamp(updatedTimestamp.getTime());
+                            }
+                            notifications.put(notification.getNotificationId(), notification);
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new OBEventNotificationException(String.format("Error occurred while retrieving " +
+                            "notifications with IDs : '%s'.", ids), e);
+                }
+            }
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+        return notifications;
+    }
+
+    @Override
+    public Map<String, List<NotificationEvent>> getEventsByNotificationIDs(List<String> notificationIds)
+            throws OBEventNotificationException {
+
+        Map<String, List<NotificationEvent>> events = new HashMap<>();
+        if (notificationIds.isEmpty()) {
+            return events;
+        }
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            for (List<String> ids : partition(notificationIds)) {
+                final String sql = sqlStatements.getEventsByNotificationIdsQuery(ids.size());
+                try (PreparedStatement getEventsPreparedStatement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        getEventsPreparedStatement.setString(i + 1, ids.get(i));
+                    }
+                    try (ResultSet eventsResultSet = getEventsPreparedStatement.executeQuery()) {
+                        while (eventsResultSet.next()) {
+                            NotificationEvent event = new NotificationEvent();
+                            event.setNotificationId(eventsResultSet.getString
+                                    (EventNotificationConstants.NOTIFICATION_ID));
+                            event.setEventType(eventsResultSet.getString
+                                    (EventNotificationConstants.EVENT_TYPE));
+                            event.setEventInformation(EventNotificationServiceUtil.
+                                    getEventJSONFromString(eventsResultSet.getString
+                                            (EventNotificationConstants.EVENT_INFO)));
+                            events.computeIfAbsent(event.getNotificationId(), key -> new ArrayList<>()).add(event);
+                        }
+                    } catch (ParseException e) {
+                        log.error(String.format(EventNotificationConstants.PARSE_ERROR_NOTIFICATION_ID, ids), e);
+                        throw new OBEventNotificationException(String.format(
+                                EventNotificationConstants.PARSE_ERROR_NOTIFICATION_ID, ids), e);
+                    }
+                } catch (SQLException e) {
+                    log.error(String.format(EventNotificationConstants.DB_ERROR_EVENTS_RETRIEVE, ids), e);
+                    throw new OBEventNotificationException(String.format(
+                            EventNotificationConstants.DB_ERROR_EVENTS_RETRIEVE, ids), e);
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Retrieved events for %d notifications", events.size()));
+            }
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+        return events;
+    }
+
+    private static List<List<String>> partition(List<String> notificationIds) {
+
+        List<List<String>> partitions = new ArrayList<>();
+        for (int i = 0; i < notificationIds.size(); i += MAX_IDS_PER_QUERY) {
+            partitions.add(notificationIds.subList(i, Math.min(i + MAX_IDS_PER_QUERY, notificationIds.size())));
+        }
+        return partitions;
+    }
 }
@@ -18,6 +18,8 @@
 
 package com.wso2.openbanking.accelerator.event.notifications.service.dao;
 
+import java.util.Collections;
+
 /**
  * SQL queries to store and retrieve event notifications.
  */
@@ -28,6 +30,12 @@ public class NotificationPollingSqlStatements {
         return "SELECT * FROM OB_NOTIFICATION_EVENT WHERE NOTIFICATION_ID = ?";
     }
 
+    public String getEventsByNotificationIdsQuery(int notificationCount) {
+
+        return "SELECT * FROM OB_NOTIFICATION_EVENT WHERE NOTIFICATION_ID IN (" +
+                getPlaceholders(notificationCount) + ")";
+    }
+
     public String getMaxNotificationsQuery() {
 
         return "SELECT * FROM OB_NOTIFICATION WHERE CLIENT_ID = ? AND STATUS = ? LIMIT ?";
@@ -57,4 +65,14 @@ public class NotificationPollingSqlStatements {
 
         return "SELECT * FROM OB_NOTIFICATION WHERE STATUS = ?";
     }
+
+    public String getNotificationsByNotificationIdsQuery(int notificationCount) {
+
+        return "SELECT * FROM OB_NOTIFICATION WHERE NOTIFICATION_ID IN (" + getPlaceholders(notificationCount) + ")";
+    }
+
+    protected static String getPlaceholders(int count) {
+
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
 }
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.model;
+
+import java.io.Serializable;
+
+/**
+ * Immutable number of OPEN notifications of a client, with the time it was loaded from the database.
+ */
+public class OpenNotificationCount implements Serializable {
+
+    private static final long serialVersionUID = 7441735090247160581L;
+
+    private final int count;
+    private final long loadedTime;
+
+    public OpenNotificationCount(int count, long loadedTime) {
+
+        this.count = count;
+        this.loadedTime = loadedTime;
+    }
+
+    /**
+     * Get the count updated with the notifications created or closed since it was loaded.
+     *
+     * @param delta number of notifications created, negative for closed notifications
+     * @return updated count
+     */
+    public OpenNotificationCount add(int delta) {
+
+        return new OpenNotificationCount(count + delta, loadedTime);
+    }
+
+    public int getCount() {
+
+        return count;
+    }
+
+    public long getLoadedTime() {
+
+        return loadedTime;
+    }
+}
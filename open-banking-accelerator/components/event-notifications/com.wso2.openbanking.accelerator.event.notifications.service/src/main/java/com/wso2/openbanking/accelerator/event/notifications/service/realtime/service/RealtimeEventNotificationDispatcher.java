@@ -0,0 +1,688 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
+import com.wso2.openbanking.accelerator.event.notifications.service.internal.EventNotificationDataHolder;
+import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
+import com.wso2.openbanking.accelerator.event.notifications.service.realtime.model.RealtimeEventNotification;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-lived dispatcher which sends the realtime event notifications in the queue to the callback URLs.
+ * <p>
+ * The queue is drained continuously by a single thread and the notifications are sent by a fixed pool of sender
+ * threads. The number of notifications sent to the same callback URL at the same time is limited, and the
+ * notifications above the limit wait in the order of arrival. Failed notifications are retried after the configured
+ * backoff time with a timer, without holding a sender thread.
+ * <p>
+ * The number of notifications of a callback URL which are waiting for the concurrency limit or being sent is also
+ * limited. The queue is never blocked by a callback URL. Once a callback URL reaches the limit, its next
+ * notifications are rejected and retried after the backoff time, so a slow callback URL neither grows the heap nor
+ * delays the notifications of the other callback URLs. A rejected notification counts as a failed attempt.
+ * <p>
+ * A circuit breaker is kept per callback URL. The circuit is opened when the callback URL keeps failing for longer
+ * than the circuit breaker open timeout, and the notifications of the callback URL are marked as ERROR without
+ * sending until the timeout elapses. A successful notification closes the circuit.
+ * <p>
+ * The dispatcher and per callback URL metrics are logged periodically.
+ */
+public class RealtimeEventNotificationDispatcher {
+
+    private static final Log log = LogFactory.getLog(RealtimeEventNotificationDispatcher.class);
+    private static final long QUEUE_POLL_TIMEOUT_SECONDS = 1;
+    private static final long METRICS_REPORT_INTERVAL_SECONDS = 60;
+    private static volatile RealtimeEventNotificationDispatcher dispatcher;
+
+    private final NotificationSender sender;
+    private final int maxRetries;
+    private final long initialBackoffTimeMillis;
+    private final String backoffFunction;
+    private final long circuitBreakerOpenTimeoutMillis;
+    private final int maxConcurrentDeliveriesPerCallback;
+    private final int maxPendingDeliveriesPerCallback;
+    private final ExecutorService senderExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final Map<String, CallbackState> callbackStates = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final DeliveryLatency deliveryLatency = new DeliveryLatency();
+    private Thread consumerThread;
+
+    RealtimeEventNotificationDispatcher(NotificationSender sender, int threadPoolSize, int maxRetries,
+                                        long initialBackoffTimeMillis, String backoffFunction,
+                                        long circuitBreakerOpenTimeoutMillis,
+                                        int maxConcurrentDeliveriesPerCallback,
+                                        int maxPendingDeliveriesPerCallback) {
+
+        this.sender = sender;
+        this.maxRetries = maxRetries;
+        this.initialBackoffTimeMillis = initialBackoffTimeMillis;
+        this.backoffFunction = getBackoffFunction(backoffFunction);
+        this.circuitBreakerOpenTimeoutMillis = circuitBreakerOpenTimeoutMillis;
+        this.maxConcurrentDeliveriesPerCallback = Math.max(maxConcurrentDeliveriesPerCallback, 1);
+        this.maxPendingDeliveriesPerCallback = Math.max(maxPendingDeliveriesPerCallback,
+                this.maxConcurrentDeliveriesPerCallback);
+        this.senderExecutor = Executors.newFixedThreadPool(Math.max(threadPoolSize, 1),
+                new DaemonThreadFactory("ob-realtime-event-notification-sender"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new DaemonThreadFactory("ob-realtime-event-notification-retry"));
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return RealtimeEventNotificationDispatcher object
+     */
+    public static RealtimeEventNotificationDispatcher getInstance() {
+
+        if (dispatcher == null) {
+            synchronized (RealtimeEventNotificationDispatcher.class) {
+                if (dispatcher == null) {
+                    OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+                    dispatcher = new RealtimeEventNotificationDispatcher(
+                            (callbackUrl, payload, notificationId) -> new RealtimeEventNotificationSenderService(
+                                    callbackUrl, payload, notificationId).send(),
+                            configParser.getEventNotificationThreadpoolSize(),
+                            configParser.getRealtimeEventNotificationMaxRetries(),
+                            TimeUnit.SECONDS.toMillis(
+                                    configParser.getRealtimeEventNotificationInitialBackoffTimeInSeconds()),
+                            configParser.getRealtimeEventNotificationBackoffFunction(),
+                            TimeUnit.SECONDS.toMillis(
+                                    configParser.getRealtimeEventNotificationCircuitBreakerOpenTimeoutInSeconds()),
+                            configParser.getRealtimeEventNotificationMaxConcurrentDeliveriesPerCallback(),
+                            configParser.getRealtimeEventNotificationMaxPendingDeliveriesPerCallback());
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Start draining the realtime event notification queue. Calling this method more than once has no effect.
+     */
+    public synchronized void start() {
+
+        if (consumerThread != null) {
+            return;
+        }
+        consumerThread = new DaemonThreadFactory("ob-realtime-event-notification-dispatcher")
+                .newThread(this::consume);
+        consumerThread.start();
+        retryScheduler.scheduleAtFixedRate(this::reportMetrics, METRICS_REPORT_INTERVAL_SECONDS,
+                METRICS_REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        log.info("Realtime event notification dispatcher started");
+    }
+
+    /**
+     * Stop draining the queue and sending the notifications. Notifications which are not sent remain in the OPEN
+     * state and are loaded to the queue again on the next server start. A stopped dispatcher cannot be started
+     * again, hence the next {@link #getInstance()} call creates a new dispatcher.
+     */
+    public void stop() {
+
+        synchronized (this) {
+            if (consumerThread != null) {
+                consumerThread.interrupt();
+                consumerThread = null;
+            }
+            retryScheduler.shutdownNow();
+            senderExecutor.shutdownNow();
+        }
+        synchronized (RealtimeEventNotificationDispatcher.class) {
+            if (dispatcher == this) {
+                dispatcher = null;
+            }
+        }
+    }
+
+    /**
+     * Dispatch a notification to its callback URL. Does not wait for the callback URL, the notification is retried
+     * later if the callback URL has the maximum number of pending notifications.
+     *
+     * @param notification realtime event notification
+     */
+    public void dispatch(RealtimeEventNotification notification) {
+
+        Delivery delivery = new Delivery(notification.getNotificationId(), notification.getCallbackUrl(),
+                notification.getJsonPayload());
+        dispatch(getCallbackState(delivery.callbackUrl), delivery);
+    }
+
+    private void consume() {
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // The queue is read on each poll since the data holder allows replacing it
+                LinkedBlockingQueue<RealtimeEventNotification> queue = EventNotificationDataHolder.getInstance()
+                        .getRealtimeEventNotificationQueue();
+                RealtimeEventNotification notification = queue.poll(QUEUE_POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (notification != null) {
+                    dispatch(notification);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Error while dispatching the realtime event notification", e);
+            }
+        }
+    }
+
+    private void dispatch(CallbackState callbackState, Delivery delivery) {
+
+        if (callbackState.isCircuitOpen(System.currentTimeMillis())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Circuit breaker open for the realtime event notification with notificationId: "
+                        + delivery.notificationId);
+            }
+            fail(callbackState, delivery);
+            return;
+        }
+        if (!callbackState.backlog.tryAcquire()) {
+            // Waiting for the callback URL would block the notifications of the other callback URLs
+            if (log.isDebugEnabled()) {
+                log.debug("Realtime event notification callback URL has the maximum number of pending notifications."
+                        + " Notification with notificationId: " + delivery.notificationId + " is rejected");
+            }
+            rejectedCount.increment();
+            callbackState.rejectedCount.increment();
+            if (delivery.retryCount < maxRetries) {
+                scheduleRetry(callbackState, delivery);
+            } else {
+                fail(callbackState, delivery);
+            }
+            return;
+        }
+        callbackState.pendingDeliveries.add(delivery);
+        sendPending(callbackState);
+    }
+
+    /**
+     * Send the pending notifications of a callback URL while the concurrency limit of the callback URL allows.
+     * Every sender releases its permit before calling this method, so a notification added to the pending queue
+     * while all the permits are taken is sent by the sender which releases a permit next.
+     */
+    private void sendPending(CallbackState callbackState) {
+
+        while (!callbackState.pendingDeliveries.isEmpty() && callbackState.permits.tryAcquire()) {
+            Delivery delivery = callbackState.pendingDeliveries.poll();
+            if (delivery == null) {
+                callbackState.permits.release();
+                continue;
+            }
+            inFlightCount.incrementAndGet();
+            try {
+                senderExecutor.execute(() -> send(callbackState, delivery));
+            } catch (RejectedExecutionException e) {
+                inFlightCount.decrementAndGet();
+                callbackState.permits.release();
+                callbackState.backlog.release();
+                log.debug("Realtime event notification dispatcher is stopped. Notification is not sent");
+                return;
+            }
+        }
+    }
+
+    private void send(CallbackState callbackState, Delivery delivery) {
+
+        boolean delivered = false;
+        try {
+            delivered = sender.send(delivery.callbackUrl, delivery.payload, delivery.notificationId);
+        } catch (RuntimeException e) {
+            log.error("Real-time event notification with notificationId: " + delivery.notificationId
+                    + " sent failed", e);
+        } finally {
+            inFlightCount.decrementAndGet();
+            callbackState.permits.release();
+            callbackState.backlog.release();
+        }
+
+        long currentTime = System.currentTimeMillis();
+        if (delivered) {
+            callbackState.recordSuccess();
+            callbackState.deliveredCount.increment();
+            deliveredCount.increment();
+            deliveryLatency.record(currentTime - delivery.dispatchedTime);
+            updateNotificationStatus(delivery, EventNotificationConstants.ACK);
+        } else {
+            callbackState.recordFailure(currentTime, circuitBreakerOpenTimeoutMillis);
+            if (delivery.retryCount < maxRetries && !callbackState.isCircuitOpen(currentTime)) {
+                scheduleRetry(callbackState, delivery);
+            } else {
+                fail(callbackState, delivery);
+            }
+        }
+        sendPending(callbackState);
+    }
+
+    private void scheduleRetry(CallbackState callbackState, Delivery delivery) {
+
+        delivery.retryCount++;
+        retryCount.increment();
+        long backoffTimeMillis = getBackoffTimeMillis(delivery.retryCount);
+        if (log.isDebugEnabled()) {
+            log.debug("HTTP request Retry #" + delivery.retryCount + " - waiting for "
+                    + backoffTimeMillis + " ms before trying again");
+        }
+        try {
+            retryScheduler.schedule(() -> dispatch(callbackState, delivery), backoffTimeMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Realtime event notification dispatcher is stopped. Notification is not retried");
+        }
+    }
+
+    private void fail(CallbackState callbackState, Delivery delivery) {
+
+        // If the circuit breaker is opened or the maximum retry count is exceeded,
+        // the notification status will be updated as ERROR.
+        failedCount.increment();
+        callbackState.failedCount.increment();
+        updateNotificationStatus(delivery, EventNotificationConstants.ERROR);
+    }
+
+    private void updateNotificationStatus(Delivery delivery, String status) {
+
+        try {
+            EventPollingStoreInitializer.getAggregatedPollingDAO()
+                    .updateNotificationStatusById(delivery.notificationId, status);
+        } catch (OBEventNotificationException e) {
+            log.error("Failed to update the status of the Real-time event notification with notificationId: "
+                    + delivery.notificationId, e);
+        }
+    }
+
+    /**
+     * Get the waiting time before a retry.
+     *
+     * @param retry retry number, starting from 1
+     * @return waiting time in milliseconds
+     */
+    long getBackoffTimeMillis(int retry) {
+
+        switch (backoffFunction) {
+            case "CONSTANT":
+                // Retries will happen in constant time frames
+                return initialBackoffTimeMillis;
+            case "LINEAR":
+                // Backoff time will be doubled after each retry
+                // nextWaitingTime = 2 x previousWaitingTime
+                return initialBackoffTimeMillis << Math.min(retry - 1, 30);
+            default:
+                // Backoff time will be increased exponentially
+                // nextWaitingTime = startWaitingTime x e^(retryCount)
+                return (long) (initialBackoffTimeMillis * Math.exp(retry - 1));
+        }
+    }
+
+    private static String getBackoffFunction(String backoffFunction) {
+
+        if ("CONSTANT".equals(backoffFunction) || "LINEAR".equals(backoffFunction)
+                || "EX".equals(backoffFunction)) {
+            return backoffFunction;
+        }
+        log.error("Invalid backoff function for the realtime event notification retry policy: "
+                + String.valueOf(backoffFunction).replaceAll("[\r\n]", "") + ". EX backoff function is used");
+        return "EX";
+    }
+
+    private CallbackState getCallbackState(String callbackUrl) {
+
+        CallbackState callbackState = callbackStates.get(callbackUrl);
+        if (callbackState == null) {
+            callbackState = callbackStates.computeIfAbsent(callbackUrl,
+                    key -> new CallbackState(maxConcurrentDeliveriesPerCallback, maxPendingDeliveriesPerCallback));
+        }
+        return callbackState;
+    }
+
+    /**
+     * Log the dispatcher metrics, and the metrics of the callback URLs which have pending notifications, an open
+     * circuit or notifications completed since the last report.
+     */
+    void reportMetrics() {
+
+        try {
+            long currentTime = System.currentTimeMillis();
+            boolean callbackReported = false;
+            for (Map.Entry<String, CallbackState> entry : new TreeMap<>(callbackStates).entrySet()) {
+                CallbackState callbackState = entry.getValue();
+                CallbackMetrics metrics = new CallbackMetrics(callbackState, currentTime);
+                long completedCount = metrics.getDeliveredCount() + metrics.getFailedCount()
+                        + metrics.getRejectedCount();
+                if (metrics.getPendingCount() == 0 && !metrics.isCircuitOpen()
+                        && completedCount == callbackState.reportedCount) {
+                    continue;
+                }
+                callbackState.reportedCount = completedCount;
+                callbackReported = true;
+                log.info(String.format("Realtime event notification callback %s: pending=%d, in-flight=%d, "
+                                + "delivered=%d, failed=%d, rejected=%d, circuit open=%b",
+                        entry.getKey().replaceAll("[\r\n]", ""), metrics.getPendingCount(),
+                        metrics.getInFlightCount(), metrics.getDeliveredCount(), metrics.getFailedCount(),
+                        metrics.getRejectedCount(), metrics.isCircuitOpen()));
+            }
+            if (callbackReported) {
+                log.info(String.format("Realtime event notifications: queued=%d, in-flight=%d, delivered=%d, "
+                                + "failed=%d, rejected=%d, retries=%d, mean delivery latency=%.2f ms, "
+                                + "max delivery latency=%d ms", getQueueDepth(), getInFlightCount(),
+                        getDeliveredCount(), getFailedCount(), getRejectedCount(), getRetryCount(),
+                        deliveryLatency.getMean(), deliveryLatency.getMaxValue()));
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled report running
+            log.error("Error while reporting the realtime event notification metrics", e);
+        }
+    }
+
+    /**
+     * Number of notifications waiting to be sent, in the queue and waiting for the concurrency limit of their
+     * callback URL. Notifications waiting for a retry are not included.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+
+        int queueDepth = EventNotificationDataHolder.getInstance().getRealtimeEventNotificationQueue().size();
+        for (CallbackState callbackState : callbackStates.values()) {
+            queueDepth += callbackState.pendingDeliveries.size();
+        }
+        return queueDepth;
+    }
+
+    public int getInFlightCount() {
+
+        return inFlightCount.get();
+    }
+
+    public long getRetryCount() {
+
+        return retryCount.sum();
+    }
+
+    public long getDeliveredCount() {
+
+        return deliveredCount.sum();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Number of times a notification was rejected since its callback URL had the maximum number of pending
+     * notifications.
+     *
+     * @return rejected count
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Get the metrics of the callback URLs.
+     *
+     * @return metrics sorted by the callback URL
+     */
+    public Map<String, CallbackMetrics> getCallbackMetrics() {
+
+        long currentTime = System.currentTimeMillis();
+        Map<String, CallbackMetrics> callbackMetrics = new TreeMap<>();
+        for (Map.Entry<String, CallbackState> entry : callbackStates.entrySet()) {
+            callbackMetrics.put(entry.getKey(), new CallbackMetrics(entry.getValue(), currentTime));
+        }
+        return callbackMetrics;
+    }
+
+    /**
+     * Time from dispatching a notification until it is sent successfully, including the retries.
+     *
+     * @return delivery latency
+     */
+    public DeliveryLatency getDeliveryLatency() {
+
+        return deliveryLatency;
+    }
+
+    /**
+     * Check whether the circuit breaker of a callback URL is open.
+     *
+     * @param callbackUrl callback URL
+     * @return true if notifications are not sent to the callback URL
+     */
+    public boolean isCircuitOpen(String callbackUrl) {
+
+        CallbackState callbackState = callbackStates.get(callbackUrl);
+        return callbackState != null && callbackState.isCircuitOpen(System.currentTimeMillis());
+    }
+
+    /**
+     * Sender of a notification to a callback URL.
+     */
+    @FunctionalInterface
+    interface NotificationSender {
+
+        boolean send(String callbackUrl, String payload, String notificationId);
+    }
+
+    /**
+     * Count, mean and maximum of the delivery latencies in milliseconds.
+     */
+    public static class DeliveryLatency {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long latencyMillis) {
+
+            count.increment();
+            total.add(latencyMillis);
+            max.accumulate(latencyMillis);
+        }
+
+        public long getTotalCount() {
+
+            return count.sum();
+        }
+
+        public double getMean() {
+
+            long totalCount = count.sum();
+            return totalCount == 0 ? 0 : (double) total.sum() / totalCount;
+        }
+
+        public long getMaxValue() {
+
+            return max.get();
+        }
+    }
+
+    /**
+     * Snapshot of the metrics of a callback URL.
+     */
+    public class CallbackMetrics {
+
+        private final int pendingCount;
+        private final int inFlightCount;
+        private final long deliveredCount;
+        private final long failedCount;
+        private final long rejectedCount;
+        private final boolean circuitOpen;
+
+        CallbackMetrics(CallbackState callbackState, long currentTime) {
+
+            this.pendingCount = maxPendingDeliveriesPerCallback - callbackState.backlog.availablePermits();
+            this.inFlightCount = maxConcurrentDeliveriesPerCallback - callbackState.permits.availablePermits();
+            this.deliveredCount = callbackState.deliveredCount.sum();
+            this.failedCount = callbackState.failedCount.sum();
+            this.rejectedCount = callbackState.rejectedCount.sum();
+            this.circuitOpen = callbackState.isCircuitOpen(currentTime);
+        }
+
+        /**
+         * Number of notifications waiting for the concurrency limit or being sent.
+         *
+         * @return pending count
+         */
+        public int getPendingCount() {
+
+            return pendingCount;
+        }
+
+        public int getInFlightCount() {
+
+            return inFlightCount;
+        }
+
+        public long getDeliveredCount() {
+
+            return deliveredCount;
+        }
+
+        public long getFailedCount() {
+
+            return failedCount;
+        }
+
+        public long getRejectedCount() {
+
+            return rejectedCount;
+        }
+
+        public boolean isCircuitOpen() {
+
+            return circuitOpen;
+        }
+    }
+
+    /**
+     * Concurrency limit, pending notifications, pending notification limit, counters and circuit breaker state of a
+     * callback URL.
+     */
+    private static class CallbackState {
+
+        private final Semaphore permits;
+        // Held from dispatching a notification until it is sent, including the time waiting for the permits
+        private final Semaphore backlog;
+        private final Queue<Delivery> pendingDeliveries = new ConcurrentLinkedQueue<>();
+        private final LongAdder deliveredCount = new LongAdder();
+        private final LongAdder failedCount = new LongAdder();
+        private final LongAdder rejectedCount = new LongAdder();
+        private long failingSince;
+        private long circuitOpenUntil;
+        // Completed count at the last metrics report, only accessed by the scheduler thread
+        private long reportedCount;
+
+        CallbackState(int maxConcurrentDeliveries, int maxPendingDeliveries) {
+
+            this.permits = new Semaphore(maxConcurrentDeliveries);
+            this.backlog = new Semaphore(maxPendingDeliveries);
+        }
+
+        synchronized boolean isCircuitOpen(long currentTime) {
+
+            return currentTime < circuitOpenUntil;
+        }
+
+        synchronized void recordSuccess() {
+
+            failingSince = 0;
+            circuitOpenUntil = 0;
+        }
+
+        synchronized void recordFailure(long currentTime, long openTimeoutMillis) {
+
+            if (failingSince == 0) {
+                failingSince = currentTime;
+            }
+            // Circuit breaker will be opened if the callback keeps failing longer than the open timeout
+            if (currentTime - failingSince >= openTimeoutMillis && currentTime >= circuitOpenUntil) {
+                circuitOpenUntil = currentTime + openTimeoutMillis;
+                log.debug("Circuit breaker opened for a realtime event notification callback URL");
+            }
+        }
+    }
+
+    /**
+     * Notification being sent, with its retry count.
+     */
+    private static class Delivery {
+
+        private final String notificationId;
+        private final String callbackUrl;
+        private final String payload;
+        private final long dispatchedTime = System.currentTimeMillis();
+        private int retryCount;
+
+        Delivery(String notificationId, String callbackUrl, String payload) {
+
+            this.notificationId = notificationId;
+            this.callbackUrl = callbackUrl;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Thread factory of named daemon threads.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        DaemonThreadFactory(String namePrefix) {
+
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -36,7 +36,9 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -58,13 +60,18 @@ public class RealtimeEventNotificationLoaderService implements Runnable {
             List<NotificationDTO> openNotifications = aggregatedPollingDAO.getNotificationsByStatus(
                     EventNotificationConstants.OPEN);
 
+            //Get events of all the open notifications
+            List<String> notificationIds = new ArrayList<>();
             for (NotificationDTO notificationDTO : openNotifications) {
-                //Get events by notificationId
-                List<NotificationEvent> notificationEvents = aggregatedPollingDAO.
-                        getEventsByNotificationID(notificationDTO.getNotificationId());
+                notificationIds.add(notificationDTO.getNotificationId());
+            }
+            Map<String, List<NotificationEvent>> notificationEvents = aggregatedPollingDAO.
+                    getEventsByNotificationIDs(notificationIds);
 
-                Notification responseNotification = eventNotificationGenerator.
-                        generateEventNotificationBody(notificationDTO, notificationEvents);
+            for (NotificationDTO notificationDTO : openNotifications) {
+                Notification responseNotification = eventNotificationGenerator.generateEventNotificationBody(
+                        notificationDTO, notificationEvents.getOrDefault(notificationDTO.getNotificationId(),
+                                new ArrayList<>()));
 
                 String callbackUrl = EventNotificationServiceUtil.getCallbackURL(notificationDTO.getClientId());
 
@@ -21,44 +21,34 @@ package com.wso2.openbanking.accelerator.event.notifications.service.realtime.se
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.HTTPClientUtils;
-import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
-import com.wso2.openbanking.accelerator.event.notifications.service.dao.AggregatedPollingDAO;
-import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
 import com.wso2.openbanking.accelerator.event.notifications.service.internal.EventNotificationComponent;
-import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
 import com.wso2.openbanking.accelerator.event.notifications.service.util.EventNotificationServiceUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.net.URI;
-import java.time.Duration;
-import java.time.LocalTime;
 import java.util.Map;
 
 /**
  * This method is used to send the HTTP requests to the TPP provided callback URL.
- * Exponential backoff and Circuit breaker based retry policy is used to retry failed POST requests.
+ * Each call sends a single POST request with the shared realtime event notification HTTP client. Failed requests
+ * are retried by the {@link RealtimeEventNotificationDispatcher}.
  */
-public class RealtimeEventNotificationSenderService implements Runnable {
+public class RealtimeEventNotificationSenderService {
 
     private static final Log log = LogFactory.getLog(EventNotificationComponent.class);
 
-    private static final OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
-    private static final int MAX_RETRIES = configParser.getRealtimeEventNotificationMaxRetries();
-    private static final int INITIAL_BACKOFF_TIME_IN_SECONDS =
-            configParser.getRealtimeEventNotificationInitialBackoffTimeInSeconds();
-    private static final String BACKOFF_FUNCTION = configParser.getRealtimeEventNotificationBackoffFunction();
-    private static final int CIRCUIT_BREAKER_OPEN_TIMEOUT_IN_SECONDS =
-            configParser.getRealtimeEventNotificationCircuitBreakerOpenTimeoutInSeconds();
-    private static final int TIMEOUT_IN_SECONDS = configParser.getRealtimeEventNotificationTimeoutInSeconds();
+    private static final int TIMEOUT_IN_SECONDS = OpenBankingConfigParser.getInstance()
+            .getRealtimeEventNotificationTimeoutInSeconds();
 
     private CloseableHttpClient httpClient;
     private RealtimeEventNotificationRequestGenerator httpRequestGenerator;
@@ -79,117 +69,48 @@ public class RealtimeEventNotificationSenderService implements Runnable {
         this.payloadJson = payloadJson;
     }
 
-    public void run() {
-        try {
-            postWithRetry();
-        } catch (OBEventNotificationException e) {
-            log.error("Failed to send the Real-time event notification with notificationId: "
-                    + notificationId, e);
-        }
-    }
-
     /**
-     * This method is used to send the HTTP requests to the TPP provided callback URL.
-     * Exponential backoff and Circuit breaker based retry policy is used to retry failed POST requests.
+     * This method is used to send the HTTP request to the TPP provided callback URL.
      *
-     * @throws OBEventNotificationException
+     * @return true if the callback URL accepted the notification
      */
-    private void postWithRetry() throws OBEventNotificationException {
-        AggregatedPollingDAO aggregatedPollingDAO =
-                EventPollingStoreInitializer.getAggregatedPollingDAO();
-        int retryCount = 0;
-        long backoffTimeMs = INITIAL_BACKOFF_TIME_IN_SECONDS * 1000L;
-        boolean circuitBreakerOpen = false;
-        LocalTime startTime = LocalTime.now();
-
-        while (retryCount <= MAX_RETRIES && !circuitBreakerOpen) {
-            try {
-                // This if closure will execute only if the initial POST request is failed.
-                // This includes the retry policy and will execute according to the configurations.
-                if (retryCount > 0) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("HTTP request Retry #" + retryCount + " - waiting for "
-                                + backoffTimeMs + " ms before trying again");
-                    }
-                    Thread.sleep(backoffTimeMs);
-
-                    switch (BACKOFF_FUNCTION) {
-                        case "CONSTANT":
-                            // Backoff time will not be changed
-                            // Retries will happen in constant time frames
-                            break;
-                        case "LINEAR":
-                            // Backoff time will be doubled after each retry
-                            // nextWaitingTime = 2 x previousWaitingTime
-                            backoffTimeMs *= 2;
-                            break;
-                        case "EX":
-                            // Backoff time will be increased exponentially
-                            // nextWaitingTime = startWaitingTime x e^(retryCount)
-                            backoffTimeMs = (long)
-                                    (INITIAL_BACKOFF_TIME_IN_SECONDS
-                                            * 1000 * Math.exp(retryCount));
-                            break;
-                        default:
-                            log.error("Invalid backoff function for the realtime event notification retry policy: "
-                                    + BACKOFF_FUNCTION);
-                            throw new IllegalArgumentException(
-                                    "Invalid backoff function for the realtime event notification retry policy: "
-                                            + BACKOFF_FUNCTION);
-                    }
-                }
-
-                HttpPost httpPost = new HttpPost(URI.create(callbackUrl));
-
-                for (Map.Entry<String, String> entry : httpRequestGenerator.getAdditionalHeaders().entrySet()) {
-                    String headerName = entry.getKey();
-                    String headerValue = entry.getValue();
-                    httpPost.setHeader(headerName, headerValue);
-                }
-
-                httpPost.setEntity(new StringEntity(payloadJson, ContentType.APPLICATION_JSON));
-                RequestConfig requestConfig = RequestConfig.custom()
-                        .setConnectTimeout(TIMEOUT_IN_SECONDS * 1000)
-                        .setConnectionRequestTimeout(TIMEOUT_IN_SECONDS * 1000)
-                        .setSocketTimeout(TIMEOUT_IN_SECONDS * 1000)
-                        .build();
-                httpPost.setConfig(requestConfig);
+    public boolean send() {
 
-                HttpResponse response = httpClient.execute(httpPost);
-                int statusCode = response.getStatusLine().getStatusCode();
-                if (statusCode == HttpStatus.SC_OK) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Real-time event notification with notificationId: " + notificationId
-                                + " sent successfully");
-                    }
-                    aggregatedPollingDAO.updateNotificationStatusById(notificationId, EventNotificationConstants.ACK);
-                    return;
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Real-time event notification with notificationId: " + notificationId
-                                + " sent failed with status code: " + statusCode);
-                    }
-                }
-            } catch (IOException | InterruptedException e) {
-                log.error("Real-time event notification with notificationId: " + notificationId
-                        + " sent failed" + e);
-            }
+        if (httpClient == null) {
+            return false;
+        }
 
-            // Circuit breaker will be opened if the retrying time exceeds the configured circuit breaker timeout.
-            if (Duration.between(startTime, LocalTime.now()).toMillis()
-                    > CIRCUIT_BREAKER_OPEN_TIMEOUT_IN_SECONDS * 1000) {
-                circuitBreakerOpen = true;
+        HttpPost httpPost = new HttpPost(URI.create(callbackUrl));
+        for (Map.Entry<String, String> entry : httpRequestGenerator.getAdditionalHeaders().entrySet()) {
+            httpPost.setHeader(entry.getKey(), entry.getValue());
+        }
+        httpPost.setEntity(new StringEntity(payloadJson, ContentType.APPLICATION_JSON));
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(TIMEOUT_IN_SECONDS * 1000)
+                .setConnectionRequestTimeout(TIMEOUT_IN_SECONDS * 1000)
+                .setSocketTimeout(TIMEOUT_IN_SECONDS * 1000)
+                .build();
+        httpPost.setConfig(requestConfig);
+
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            // Consume the response so that the connection can be reused
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == HttpStatus.SC_OK) {
                 if (log.isDebugEnabled()) {
-                    log.debug("Circuit breaker open for the realtime event notification with notificationId: "
-                            + notificationId);
+                    log.debug("Real-time event notification with notificationId: " + notificationId
+                            + " sent successfully");
                 }
+                return true;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Real-time event notification with notificationId: " + notificationId
+                        + " sent failed with status code: " + statusCode);
             }
-            retryCount++;
+        } catch (IOException e) {
+            log.error("Real-time event notification with notificationId: " + notificationId
+                    + " sent failed", e);
         }
-
-        // If the circuit breaker is opened or the maximum retry count is exceeded,
-        // the notification status will be updated as ERROR.
-        aggregatedPollingDAO.updateNotificationStatusById(notificationId, EventNotificationConstants.ERROR);
-
+        return false;
     }
 }
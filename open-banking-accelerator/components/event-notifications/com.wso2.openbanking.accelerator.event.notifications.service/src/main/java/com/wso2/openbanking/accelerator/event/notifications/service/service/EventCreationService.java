@@ -67,6 +67,7 @@ public class EventCreationService {
         try {
             eventResponse = eventPublisherDAO.persistEventNotification(connection, notification, eventsList);
             DatabaseUtil.commitTransaction(connection);
+            OpenNotificationCounter.getInstance().increment(notification.getClientId());
 
             // Check whether the real time event notification is enabled.
             if (OpenBankingConfigParser.getInstance().isRealtimeEventNotificationEnabled()) {
@@ -36,9 +36,16 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is the event polling service.
@@ -46,6 +53,7 @@ import java.util.Map;
 public class EventPollingService {
 
     private static Log log = LogFactory.getLog(EventPollingService.class);
+    private static volatile ExecutorService signingExecutor;
 
     /**
      * The pollEvents methods will return the Aggregated Polling Response for
@@ -68,20 +76,8 @@ public class EventPollingService {
         //Short polling
         if (eventPollingDTO.getReturnImmediately()) {
 
-            //Update notifications with ack
-            for (String notificationId : eventPollingDTO.getAck()) {
-                aggregatedPollingDAO.updateNotificationStatusById(notificationId, EventNotificationConstants.ACK);
-            }
-
-            //Update notifications with err
-            for (Map.Entry<String, NotificationError> entry: eventPollingDTO.getErrors().entrySet()) {
-                //Check if the notification is in OPEN status
-                if (aggregatedPollingDAO.getNotificationStatus(entry.getKey())) {
-                    aggregatedPollingDAO.updateNotificationStatusById(
-                            entry.getKey(), EventNotificationConstants.ERROR);
-                    aggregatedPollingDAO.storeErrorNotification(entry.getValue());
-                }
-            }
+            //Update notifications with ack and err
+            updateNotificationStatuses(aggregatedPollingDAO, eventPollingDTO);
 
             //Retrieve notifications
             int maxEvents = eventPollingDTO.getMaxEvents();
@@ -117,31 +113,25 @@ public class EventPollingService {
                     }
                     aggregatedPollingResponse.setStatus(EventNotificationConstants.OK);
 
+                    //Get events of all the notifications
+                    List<String> notificationIds = new ArrayList<>();
                     for (NotificationDTO notificationDTO : notificationList) {
-
-                        try {
-                            //Get events by notificationId
-                            List<NotificationEvent> notificationEvents = aggregatedPollingDAO.
-                                    getEventsByNotificationID(notificationDTO.getNotificationId());
-
-                            Notification responseNotification = eventNotificationGenerator.
-                                    generateEventNotificationBody(notificationDTO, notificationEvents);
-                            sets.put(notificationDTO.getNotificationId(),
-                                    eventNotificationGenerator.generateEventNotification(Notification.getJsonNode(
-                                            responseNotification)));
-                            log.info("Retrieved OB event notifications");
-                        } catch (OBEventNotificationException |
-                                 IOException | JOSEException | IdentityOAuth2Exception e) {
-                            log.debug("Error when retrieving OB event notifications.", e);
-                            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e);
-                        }
+                        notificationIds.add(notificationDTO.getNotificationId());
                     }
+                    Map<String, List<NotificationEvent>> notificationEvents = aggregatedPollingDAO.
+                            getEventsByNotificationIDs(notificationIds);
+
+                    sets.putAll(generateEventNotifications(eventNotificationGenerator, notificationList,
+                            notificationEvents));
+                    log.info("Retrieved OB event notifications");
                     aggregatedPollingResponse.setSets(sets);
                 }
             }
 
-            int count = aggregatedPollingDAO.getNotificationCountByClientIdAndStatus(eventPollingDTO.getClientId(),
-                    EventNotificationConstants.OPEN) - aggregatedPollingResponse.getSets().size();
+            String clientId = eventPollingDTO.getClientId();
+            int count = OpenNotificationCounter.getInstance().getCount(clientId, () -> aggregatedPollingDAO
+                    .getNotificationCountByClientIdAndStatus(clientId, EventNotificationConstants.OPEN))
+                    - aggregatedPollingResponse.getSets().size();
 
             aggregatedPollingResponse.setCount(count);
 
@@ -150,4 +140,138 @@ public class EventPollingService {
 
         return null;
     }
+
+    /**
+     * Update the acknowledged notifications to ACK and the OPEN notifications with errors to ERR, with a single
+     * query to get the current statuses and a single transaction to update them.
+     *
+     * @param aggregatedPollingDAO aggregated polling DAO
+     * @param eventPollingDTO      event polling request
+     * @throws OBEventNotificationException
+     */
+    private void updateNotificationStatuses(AggregatedPollingDAO aggregatedPollingDAO,
+                                            EventPollingDTO eventPollingDTO) throws OBEventNotificationException {
+
+        List<String> notificationIds = new ArrayList<>(eventPollingDTO.getAck());
+        notificationIds.addAll(eventPollingDTO.getErrors().keySet());
+        if (notificationIds.isEmpty()) {
+            return;
+        }
+        Map<String, NotificationDTO> notifications = aggregatedPollingDAO.getNotificationsByIds(notificationIds);
+
+        Map<String, String> notificationStatuses = new LinkedHashMap<>();
+        for (String notificationId : eventPollingDTO.getAck()) {
+            notificationStatuses.put(notificationId, EventNotificationConstants.ACK);
+        }
+        List<NotificationError> notificationErrors = new ArrayList<>();
+        for (Map.Entry<String, NotificationError> entry : eventPollingDTO.getErrors().entrySet()) {
+            //Check if the notification is in OPEN status
+            NotificationDTO notification = notifications.get(entry.getKey());
+            if (!notificationStatuses.containsKey(entry.getKey()) && notification != null
+                    && EventNotificationConstants.OPEN.equals(notification.getStatus())) {
+                notificationStatuses.put(entry.getKey(), EventNotificationConstants.ERROR);
+                notificationErrors.add(entry.getValue());
+            }
+        }
+        aggregatedPollingDAO.updateNotificationStatuses(notificationStatuses, notificationErrors);
+
+        for (String notificationId : notificationStatuses.keySet()) {
+            NotificationDTO notification = notifications.get(notificationId);
+            if (notification != null && EventNotificationConstants.OPEN.equals(notification.getStatus())) {
+                OpenNotificationCounter.getInstance().decrement(notification.getClientId());
+            }
+        }
+    }
+
+    /**
+     * Generate the SETs of the notifications. SETs are signed in parallel when the SET signing thread pool size is
+     * greater than 1.
+     *
+     * @param eventNotificationGenerator event notification generator
+     * @param notificationList           notifications
+     * @param notificationEvents         events keyed by the notification ID
+     * @return SETs keyed by the notification ID
+     * @throws OBEventNotificationException
+     */
+    private Map<String, String> generateEventNotifications(EventNotificationGenerator eventNotificationGenerator,
+                                                           List<NotificationDTO> notificationList,
+                                                           Map<String, List<NotificationEvent>> notificationEvents)
+            throws OBEventNotificationException {
+
+        Map<String, String> sets = new HashMap<>();
+        ExecutorService signingExecutor = notificationList.size() > 1 ? getSigningExecutor() : null;
+        if (signingExecutor == null) {
+            for (NotificationDTO notificationDTO : notificationList) {
+                sets.put(notificationDTO.getNotificationId(), generateEventNotification(eventNotificationGenerator,
+                        notificationDTO, notificationEvents));
+            }
+            return sets;
+        }
+
+        Map<String, Future<String>> futures = new LinkedHashMap<>();
+        for (NotificationDTO notificationDTO : notificationList) {
+            futures.put(notificationDTO.getNotificationId(), signingExecutor.submit(() ->
+                    generateEventNotification(eventNotificationGenerator, notificationDTO, notificationEvents)));
+        }
+        try {
+            for (Map.Entry<String, Future<String>> entry : futures.entrySet()) {
+                sets.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OBEventNotificationException) {
+                throw (OBEventNotificationException) e.getCause();
+            }
+            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e.getCause());
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return sets;
+    }
+
+    private static String generateEventNotification(EventNotificationGenerator eventNotificationGenerator,
+                                                    NotificationDTO notificationDTO,
+                                                    Map<String, List<NotificationEvent>> notificationEvents)
+            throws OBEventNotificationException {
+
+        try {
+            Notification responseNotification = eventNotificationGenerator.generateEventNotificationBody(
+                    notificationDTO, notificationEvents.getOrDefault(notificationDTO.getNotificationId(),
+                            new ArrayList<>()));
+            return eventNotificationGenerator.generateEventNotification(Notification.getJsonNode(
+                    responseNotification));
+        } catch (OBEventNotificationException | IOException | JOSEException | IdentityOAuth2Exception e) {
+            log.debug("Error when retrieving OB event notifications.", e);
+            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e);
+        }
+    }
+
+    /**
+     * Get the executor to sign the SETs, which is created on the first call.
+     *
+     * @return executor, or null if the SETs are signed in the polling thread
+     */
+    private static ExecutorService getSigningExecutor() {
+
+        if (signingExecutor == null) {
+            int threadPoolSize = OpenBankingConfigParser.getInstance().getSETSigningThreadPoolSize();
+            if (threadPoolSize <= 1) {
+                return null;
+            }
+            synchronized (EventPollingService.class) {
+                if (signingExecutor == null) {
+                    AtomicInteger threadCount = new AtomicInteger();
+                    signingExecutor = Executors.newFixedThreadPool(threadPoolSize, runnable -> {
+                        Thread thread = new Thread(runnable, "ob-event-notification-signer-"
+                                + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return signingExecutor;
+    }
 }
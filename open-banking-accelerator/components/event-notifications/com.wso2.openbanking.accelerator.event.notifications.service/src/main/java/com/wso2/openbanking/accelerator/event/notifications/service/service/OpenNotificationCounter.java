@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.service;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.cache.OpenNotificationCountCache;
+import com.wso2.openbanking.accelerator.event.notifications.service.cache.OpenNotificationCountCacheKey;
+import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
+import com.wso2.openbanking.accelerator.event.notifications.service.model.OpenNotificationCount;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counter of the OPEN notifications of each client, used for the count of the event polling response.
+ * <p>
+ * When distributed caching is enabled, the counts are shared by the nodes of the cluster in a distributed cache, so
+ * the notifications created and closed by any node are counted. The count of a client is loaded from the database on
+ * the first use, and again after the refresh interval to correct any change not made through the counter. When
+ * distributed caching is disabled, a count kept by a node would miss the changes of the other nodes, so the count is
+ * loaded from the database on each poll.
+ */
+public class OpenNotificationCounter {
+
+    private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static volatile OpenNotificationCounter openNotificationCounter;
+
+    private final OpenNotificationCountCache countCache;
+    private final long refreshIntervalMillis;
+
+    /**
+     * Create the counter.
+     *
+     * @param countCache            distributed cache to share the counts, or null to load the count on each poll
+     * @param refreshIntervalMillis time after which a count is loaded again from the database
+     */
+    OpenNotificationCounter(OpenNotificationCountCache countCache, long refreshIntervalMillis) {
+
+        this.countCache = countCache;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return OpenNotificationCounter object
+     */
+    public static OpenNotificationCounter getInstance() {
+
+        if (openNotificationCounter == null) {
+            synchronized (OpenNotificationCounter.class) {
+                if (openNotificationCounter == null) {
+                    openNotificationCounter = new OpenNotificationCounter(getCountCache(), REFRESH_INTERVAL_MILLIS);
+                }
+            }
+        }
+        return openNotificationCounter;
+    }
+
+    /**
+     * Get the number of OPEN notifications of a client.
+     *
+     * @param clientId client ID
+     * @param loader   loader of the count from the database
+     * @return number of OPEN notifications
+     * @throws OBEventNotificationException when the count cannot be loaded
+     */
+    public int getCount(String clientId, CountLoader loader) throws OBEventNotificationException {
+
+        if (countCache == null) {
+            return loader.load();
+        }
+        OpenNotificationCountCacheKey cacheKey = OpenNotificationCountCacheKey.of(clientId);
+        long currentTime = System.currentTimeMillis();
+        OpenNotificationCount openNotificationCount = countCache.getFromCache(cacheKey);
+        if (openNotificationCount == null || currentTime - openNotificationCount.getLoadedTime()
+                >= refreshIntervalMillis) {
+            openNotificationCount = new OpenNotificationCount(loader.load(), currentTime);
+            countCache.addToCache(cacheKey, openNotificationCount);
+        }
+        return Math.max(openNotificationCount.getCount(), 0);
+    }
+
+    /**
+     * Record a notification created for a client.
+     *
+     * @param clientId client ID
+     */
+    public void increment(String clientId) {
+
+        update(clientId, 1);
+    }
+
+    /**
+     * Record an OPEN notification of a client which is acknowledged or updated with an error.
+     *
+     * @param clientId client ID
+     */
+    public void decrement(String clientId) {
+
+        update(clientId, -1);
+    }
+
+    /**
+     * Update the count of a client in the cluster. Counts which are not loaded yet are left to be loaded from the
+     * database.
+     */
+    private void update(String clientId, int delta) {
+
+        if (countCache != null) {
+            countCache.compute(OpenNotificationCountCacheKey.of(clientId),
+                    (cacheKey, openNotificationCount) -> openNotificationCount == null ? null :
+                            openNotificationCount.add(delta));
+        }
+    }
+
+    private static OpenNotificationCountCache getCountCache() {
+
+        Object distributedCacheEnabled = OpenBankingConfigParser.getInstance().getConfiguration()
+                .get(OpenBankingDistributedCacheConstants.ENABLED);
+        if (distributedCacheEnabled == null || !Boolean.parseBoolean(distributedCacheEnabled.toString())) {
+            return null;
+        }
+        return OpenNotificationCountCache.getInstance();
+    }
+
+    /**
+     * Loader of the number of OPEN notifications of a client from the database.
+     */
+    @FunctionalInterface
+    public interface CountLoader {
+
+        int load() throws OBEventNotificationException;
+    }
+}
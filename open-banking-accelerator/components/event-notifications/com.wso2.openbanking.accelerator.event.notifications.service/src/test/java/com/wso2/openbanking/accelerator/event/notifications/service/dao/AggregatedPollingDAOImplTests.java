@@ -43,6 +43,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -260,4 +263,71 @@ public class AggregatedPollingDAOImplTests extends PowerMockTestCase {
 
         Assert.assertFalse(updatedStatus);
     }
+
+    @Test
+    public void testGetEventsByNotificationIDs() throws OBEventNotificationException, SQLException, IOException {
+
+        ResultSet mockedResultSet = Mockito.mock(ResultSet.class);
+        when(mockedResultSet.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedPreparedStatement);
+        when(mockedPreparedStatement.executeQuery()).thenReturn(mockedResultSet);
+        when(mockedResultSet.getString(EventNotificationConstants.NOTIFICATION_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2);
+        when(mockedResultSet.getString(EventNotificationConstants.EVENT_TYPE)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_EVENT_TYPE_1);
+        when(mockedResultSet.getString(EventNotificationConstants.EVENT_INFO)).thenReturn(
+                EventNotificationTestUtils.getSampleEventInformation().toString());
+
+        Map<String, List<NotificationEvent>> events = aggregatedPollingDAOImpl.getEventsByNotificationIDs(
+                Arrays.asList(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                        EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2));
+
+        Assert.assertEquals(events.size(), 2);
+        Assert.assertEquals(events.get(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID).size(), 1);
+        Assert.assertEquals(events.get(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2).get(0)
+                .getEventType(), EventNotificationTestConstants.SAMPLE_NOTIFICATION_EVENT_TYPE_1);
+    }
+
+    @Test
+    public void testGetNotificationsByIds() throws OBEventNotificationException, SQLException {
+
+        ResultSet mockedResultSet = Mockito.mock(ResultSet.class);
+        when(mockedResultSet.next()).thenReturn(true).thenReturn(false);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedPreparedStatement);
+        when(mockedPreparedStatement.executeQuery()).thenReturn(mockedResultSet);
+        when(mockedResultSet.getString(EventNotificationConstants.NOTIFICATION_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID);
+        when(mockedResultSet.getString(EventNotificationConstants.CLIENT_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+        when(mockedResultSet.getString(EventNotificationConstants.STATUS)).thenReturn(
+                EventNotificationConstants.OPEN);
+
+        Map<String, NotificationDTO> notifications = aggregatedPollingDAOImpl.getNotificationsByIds(
+                Arrays.asList(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                        EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2));
+
+        Assert.assertEquals(notifications.size(), 1);
+        Assert.assertEquals(notifications.get(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID).getStatus(),
+                EventNotificationConstants.OPEN);
+    }
+
+    @Test
+    public void testUpdateNotificationStatuses() throws SQLException, OBEventNotificationException {
+
+        PreparedStatement mockedBatchPreparedStatement = Mockito.mock(PreparedStatement.class);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedBatchPreparedStatement);
+
+        Map<String, String> notificationStatuses = new HashMap<>();
+        notificationStatuses.put(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                EventNotificationConstants.ACK);
+        notificationStatuses.put(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2,
+                EventNotificationConstants.ERROR);
+        aggregatedPollingDAOImpl.updateNotificationStatuses(notificationStatuses,
+                Collections.singletonList(EventNotificationTestUtils.getNotificationError()));
+
+        Mockito.verify(mockedBatchPreparedStatement, Mockito.times(3)).addBatch();
+        Mockito.verify(mockedBatchPreparedStatement, Mockito.times(2)).executeBatch();
+        Mockito.verify(mockedConnection, Mockito.atLeastOnce()).commit();
+    }
 }
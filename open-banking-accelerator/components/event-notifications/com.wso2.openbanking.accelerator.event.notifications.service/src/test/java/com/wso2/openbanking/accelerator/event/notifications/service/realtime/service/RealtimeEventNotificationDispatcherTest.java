@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationTestConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.dao.AggregatedPollingDAOImpl;
+import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
+import com.wso2.openbanking.accelerator.event.notifications.service.realtime.model.RealtimeEventNotification;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for RealtimeEventNotificationDispatcher.
+ */
+@PowerMockIgnore("jdk.internal.reflect.*")
+@PrepareForTest({EventPollingStoreInitializer.class, AggregatedPollingDAOImpl.class, OpenBankingConfigParser.class})
+public class RealtimeEventNotificationDispatcherTest extends PowerMockTestCase {
+
+    private static final long VERIFICATION_TIMEOUT_MILLIS = 5000;
+    private static final String OTHER_CALLBACK_URL = "https://localhost:8081/callback";
+
+    private AggregatedPollingDAOImpl aggregatedPollingDAOMock;
+
+    @BeforeMethod
+    public void initMethod() {
+
+        aggregatedPollingDAOMock = Mockito.mock(AggregatedPollingDAOImpl.class);
+        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
+        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(aggregatedPollingDAOMock);
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> true, 2, 3, 10, "EX", 60000, 5, 100);
+        try {
+            dispatcher.dispatch(getNotification(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID));
+
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                            EventNotificationConstants.ACK);
+            Assert.assertEquals(dispatcher.getDeliveredCount(), 1);
+            Assert.assertEquals(dispatcher.getDeliveryLatency().getTotalCount(), 1);
+            Assert.assertEquals(dispatcher.getRetryCount(), 0);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testFailedNotificationIsRetried() throws Exception {
+
+        AtomicInteger attempts = new AtomicInteger();
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> attempts.incrementAndGet() > 2, 2, 3, 10, "CONSTANT",
+                60000, 5, 100);
+        try {
+            dispatcher.dispatch(getNotification(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID));
+
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                            EventNotificationConstants.ACK);
+            Assert.assertEquals(attempts.get(), 3);
+            Assert.assertEquals(dispatcher.getRetryCount(), 2);
+            Assert.assertFalse(dispatcher.isCircuitOpen(EventNotificationTestConstants.SAMPLE_CALLBACK_URL));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testNotificationFailsAfterMaxRetries() throws Exception {
+
+        AtomicInteger attempts = new AtomicInteger();
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> attempts.incrementAndGet() < 0, 2, 2, 10, "LINEAR",
+                60000, 5, 100);
+        try {
+            dispatcher.dispatch(getNotification(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID));
+
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                            EventNotificationConstants.ERROR);
+            Assert.assertEquals(attempts.get(), 3);
+            Assert.assertEquals(dispatcher.getRetryCount(), 2);
+            Assert.assertEquals(dispatcher.getFailedCount(), 1);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerIsOpenedPerCallback() throws Exception {
+
+        AtomicInteger attempts = new AtomicInteger();
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> {
+                    attempts.incrementAndGet();
+                    return OTHER_CALLBACK_URL.equals(callbackUrl);
+                }, 2, 5, 100, "CONSTANT", 200, 5, 100);
+        try {
+            // Circuit is opened when the callback keeps failing for the open timeout
+            dispatcher.dispatch(getNotification("notification-1"));
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-1", EventNotificationConstants.ERROR);
+            Assert.assertEquals(attempts.get(), 3);
+            Assert.assertTrue(dispatcher.isCircuitOpen(EventNotificationTestConstants.SAMPLE_CALLBACK_URL));
+
+            // Notifications of the callback are not sent while the circuit is open
+            dispatcher.dispatch(getNotification("notification-2"));
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-2", EventNotificationConstants.ERROR);
+            Assert.assertEquals(attempts.get(), 3);
+
+            // Notifications of other callbacks are sent
+            dispatcher.dispatch(getNotification("notification-3", OTHER_CALLBACK_URL));
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-3", EventNotificationConstants.ACK);
+            Assert.assertFalse(dispatcher.isCircuitOpen(OTHER_CALLBACK_URL));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testConcurrencyIsLimitedPerCallback() throws Exception {
+
+        AtomicInteger concurrentDeliveries = new AtomicInteger();
+        AtomicInteger maxConcurrentDeliveries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> {
+                    maxConcurrentDeliveries.accumulateAndGet(concurrentDeliveries.incrementAndGet(), Math::max);
+                    try {
+                        release.await(VERIFICATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    concurrentDeliveries.decrementAndGet();
+                    return true;
+                }, 4, 0, 10, "EX", 60000, 2, 100);
+        try {
+            for (int i = 0; i < 5; i++) {
+                dispatcher.dispatch(getNotification("notification-" + i));
+            }
+            Thread.sleep(200);
+            Assert.assertEquals(dispatcher.getInFlightCount(), 2);
+            Assert.assertTrue(dispatcher.getQueueDepth() >= 3);
+
+            release.countDown();
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS).times(5))
+                    .updateNotificationStatusById(Mockito.anyString(), Mockito.eq(EventNotificationConstants.ACK));
+            Assert.assertEquals(maxConcurrentDeliveries.get(), 2);
+            Assert.assertEquals(dispatcher.getInFlightCount(), 0);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testFullCallbackDoesNotBlockOtherCallbacks() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> {
+                    if (EventNotificationTestConstants.SAMPLE_CALLBACK_URL.equals(callbackUrl)) {
+                        try {
+                            release.await(VERIFICATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return true;
+                }, 2, 3, 500, "CONSTANT", 60000, 1, 2);
+        try {
+            dispatcher.dispatch(getNotification("notification-1"));
+            dispatcher.dispatch(getNotification("notification-2"));
+
+            // Third notification is rejected without waiting, and the other callback is not blocked
+            dispatcher.dispatch(getNotification("notification-3"));
+            Assert.assertEquals(dispatcher.getRejectedCount(), 1);
+            dispatcher.dispatch(getNotification("notification-4", OTHER_CALLBACK_URL));
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-4", EventNotificationConstants.ACK);
+
+            RealtimeEventNotificationDispatcher.CallbackMetrics metrics = dispatcher.getCallbackMetrics()
+                    .get(EventNotificationTestConstants.SAMPLE_CALLBACK_URL);
+            Assert.assertEquals(metrics.getPendingCount(), 2);
+            Assert.assertEquals(metrics.getInFlightCount(), 1);
+            Assert.assertEquals(metrics.getRejectedCount(), 1);
+            Assert.assertEquals(dispatcher.getCallbackMetrics().get(OTHER_CALLBACK_URL).getDeliveredCount(), 1);
+
+            // Rejected notification is retried once the callback has completed its notifications
+            release.countDown();
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-3", EventNotificationConstants.ACK);
+            Assert.assertEquals(dispatcher.getCallbackMetrics().get(EventNotificationTestConstants.SAMPLE_CALLBACK_URL)
+                    .getDeliveredCount(), 3);
+            dispatcher.reportMetrics();
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testRejectedNotificationFailsWithoutRetries() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> {
+                    try {
+                        release.await(VERIFICATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                }, 2, 0, 10, "EX", 60000, 1, 1);
+        try {
+            dispatcher.dispatch(getNotification("notification-1"));
+            dispatcher.dispatch(getNotification("notification-2"));
+
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-2", EventNotificationConstants.ERROR);
+            Assert.assertEquals(dispatcher.getFailedCount(), 1);
+            release.countDown();
+            Mockito.verify(aggregatedPollingDAOMock, Mockito.timeout(VERIFICATION_TIMEOUT_MILLIS))
+                    .updateNotificationStatusById("notification-1", EventNotificationConstants.ACK);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testStoppedDispatcherIsReplaced() {
+
+        OpenBankingConfigParser configParserMock = Mockito.mock(OpenBankingConfigParser.class);
+        Mockito.when(configParserMock.getRealtimeEventNotificationBackoffFunction()).thenReturn("EX");
+        PowerMockito.mockStatic(OpenBankingConfigParser.class);
+        PowerMockito.when(OpenBankingConfigParser.getInstance()).thenReturn(configParserMock);
+
+        RealtimeEventNotificationDispatcher dispatcher = RealtimeEventNotificationDispatcher.getInstance();
+        Assert.assertSame(RealtimeEventNotificationDispatcher.getInstance(), dispatcher);
+        dispatcher.stop();
+
+        RealtimeEventNotificationDispatcher newDispatcher = RealtimeEventNotificationDispatcher.getInstance();
+        Assert.assertNotSame(newDispatcher, dispatcher);
+        newDispatcher.stop();
+    }
+
+    @Test
+    public void testBackoffTime() {
+
+        RealtimeEventNotificationDispatcher dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> true, 1, 3, 1000, "LINEAR", 60000, 5, 100);
+        try {
+            Assert.assertEquals(dispatcher.getBackoffTimeMillis(1), 1000);
+            Assert.assertEquals(dispatcher.getBackoffTimeMillis(3), 4000);
+        } finally {
+            dispatcher.stop();
+        }
+
+        dispatcher = new RealtimeEventNotificationDispatcher(
+                (callbackUrl, payload, notificationId) -> true, 1, 3, 1000, "INVALID", 60000, 5, 100);
+        try {
+            Assert.assertEquals(dispatcher.getBackoffTimeMillis(1), 1000);
+            Assert.assertEquals(dispatcher.getBackoffTimeMillis(2), (long) (1000 * Math.E));
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private static RealtimeEventNotification getNotification(String notificationId) {
+
+        return getNotification(notificationId, EventNotificationTestConstants.SAMPLE_CALLBACK_URL);
+    }
+
+    private static RealtimeEventNotification getNotification(String notificationId, String callbackUrl) {
+
+        RealtimeEventNotification notification = Mockito.mock(RealtimeEventNotification.class);
+        Mockito.when(notification.getNotificationId()).thenReturn(notificationId);
+        Mockito.when(notification.getCallbackUrl()).thenReturn(callbackUrl);
+        Mockito.when(notification.getJsonPayload())
+                .thenReturn(EventNotificationTestConstants.SAMPLE_NOTIFICATION_PAYLOAD);
+        return notification;
+    }
+}
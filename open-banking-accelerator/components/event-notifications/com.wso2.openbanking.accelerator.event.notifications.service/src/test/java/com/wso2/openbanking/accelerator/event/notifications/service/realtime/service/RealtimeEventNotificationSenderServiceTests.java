@@ -21,10 +21,7 @@ package com.wso2.openbanking.accelerator.event.notifications.service.realtime.se
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.HTTPClientUtils;
-import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
 import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationTestConstants;
-import com.wso2.openbanking.accelerator.event.notifications.service.dao.AggregatedPollingDAOImpl;
-import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
 import com.wso2.openbanking.accelerator.event.notifications.service.util.EventNotificationServiceUtil;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
@@ -36,6 +33,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
@@ -51,67 +49,58 @@ import static org.mockito.Mockito.doReturn;
  */
 @PowerMockIgnore("jdk.internal.reflect.*")
 @PrepareForTest({OpenBankingConfigParser.class, HTTPClientUtils.class, CloseableHttpClient.class, HttpPost.class,
-        AggregatedPollingDAOImpl.class, EventPollingStoreInitializer.class, CloseableHttpResponse.class,
-        StatusLine.class, EventNotificationServiceUtil.class, DefaultRealtimeEventNotificationRequestGenerator.class})
+        CloseableHttpResponse.class, StatusLine.class, EventNotificationServiceUtil.class,
+        DefaultRealtimeEventNotificationRequestGenerator.class})
 public class RealtimeEventNotificationSenderServiceTests extends PowerMockTestCase {
-    private static final int MAX_RETRIES = 1;
-    private static final int INITIAL_BACKOFF_TIME_IN_SECONDS = 1;
-    private static final String BACKOFF_FUNCTION = "EX";
-    private static final int CIRCUIT_BREAKER_OPEN_TIMEOUT_IN_SECONDS = 30;
     private static final int TIMEOUT_IN_SECONDS = 1;
 
     @BeforeClass
     public void initTest() {
         OpenBankingConfigParser configParser = Mockito.mock(OpenBankingConfigParser.class);
-        Mockito.when(configParser.getRealtimeEventNotificationMaxRetries()).thenReturn(MAX_RETRIES);
-        Mockito.when(configParser.getRealtimeEventNotificationInitialBackoffTimeInSeconds())
-                .thenReturn(INITIAL_BACKOFF_TIME_IN_SECONDS);
-        Mockito.when(configParser.getRealtimeEventNotificationBackoffFunction()).thenReturn(BACKOFF_FUNCTION);
-        Mockito.when(configParser.getRealtimeEventNotificationCircuitBreakerOpenTimeoutInSeconds())
-                .thenReturn(CIRCUIT_BREAKER_OPEN_TIMEOUT_IN_SECONDS);
         Mockito.when(configParser.getRealtimeEventNotificationTimeoutInSeconds()).thenReturn(TIMEOUT_IN_SECONDS);
         PowerMockito.mockStatic(OpenBankingConfigParser.class);
         PowerMockito.when(OpenBankingConfigParser.getInstance()).thenReturn(configParser);
     }
 
     @Test
-    public void testRunBad() throws OpenBankingException, IOException {
-        AggregatedPollingDAOImpl aggregatedPollingDAOMock = Mockito.mock(AggregatedPollingDAOImpl.class);
-        Mockito.when(aggregatedPollingDAOMock.updateNotificationStatusById(EventNotificationTestConstants
-                .SAMPLE_NOTIFICATION_ID, EventNotificationConstants.ACK)).thenReturn(true);
-        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
-        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(aggregatedPollingDAOMock);
+    public void testSendBad() throws OpenBankingException, IOException {
 
-        RealtimeEventNotificationRequestGenerator mockRequestGenerator =
-                Mockito.mock(DefaultRealtimeEventNotificationRequestGenerator.class);
-        Map<String, String> mockHeaders = new HashMap<>();
-        Mockito.when(mockRequestGenerator.getAdditionalHeaders()).thenReturn(mockHeaders);
-        PowerMockito.mockStatic(EventNotificationServiceUtil.class);
-        PowerMockito.when(EventNotificationServiceUtil.getRealtimeEventNotificationRequestGenerator())
-                .thenReturn(mockRequestGenerator);
+        mockRequestGenerator();
+        mockHttpClient(HttpStatus.SC_BAD_REQUEST);
 
-        CloseableHttpResponse mockResponse = Mockito.mock(CloseableHttpResponse.class);
-        StatusLine mockSL = Mockito.mock(StatusLine.class);
-        Mockito.when(mockResponse.getStatusLine()).thenReturn(mockSL);
-        Mockito.when(mockSL.getStatusCode()).thenReturn(HttpStatus.SC_BAD_REQUEST);
+        Assert.assertFalse(new RealtimeEventNotificationSenderService(
+                EventNotificationTestConstants.SAMPLE_CALLBACK_URL,
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_PAYLOAD,
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID).send());
+    }
 
-        CloseableHttpClient httpClientMock = Mockito.mock(CloseableHttpClient.class);
-        doReturn(mockResponse).when(httpClientMock).execute(any());
-        PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getRealtimeEventNotificationHttpsClient()).thenReturn(httpClientMock);
+    @Test
+    public void testSend() throws OpenBankingException, IOException {
+
+        mockRequestGenerator();
+        mockHttpClient(HttpStatus.SC_OK);
 
-        new Thread(new RealtimeEventNotificationSenderService(EventNotificationTestConstants.SAMPLE_CALLBACK_URL,
+        Assert.assertTrue(new RealtimeEventNotificationSenderService(
+                EventNotificationTestConstants.SAMPLE_CALLBACK_URL,
                 EventNotificationTestConstants.SAMPLE_NOTIFICATION_PAYLOAD,
-                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID)).start();
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID).send());
     }
 
     @Test
-    public void testRun() throws OpenBankingException, IOException {
-        AggregatedPollingDAOImpl aggregatedPollingDAOMock = Mockito.mock(AggregatedPollingDAOImpl.class);
-        Mockito.when(aggregatedPollingDAOMock.updateNotificationStatusById(EventNotificationTestConstants
-                .SAMPLE_NOTIFICATION_ID, EventNotificationConstants.ACK)).thenReturn(true);
-        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
-        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(aggregatedPollingDAOMock);
+    public void testSendWithoutHttpClient() throws OpenBankingException {
+
+        mockRequestGenerator();
+        PowerMockito.mockStatic(HTTPClientUtils.class);
+        PowerMockito.when(HTTPClientUtils.getRealtimeEventNotificationHttpsClient())
+                .thenThrow(new OpenBankingException("Unable to create the ssl context"));
+
+        Assert.assertFalse(new RealtimeEventNotificationSenderService(
+                EventNotificationTestConstants.SAMPLE_CALLBACK_URL,
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_PAYLOAD,
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID).send());
+    }
+
+    private void mockRequestGenerator() {
 
         RealtimeEventNotificationRequestGenerator mockRequestGenerator =
                 Mockito.mock(DefaultRealtimeEventNotificationRequestGenerator.class);
@@ -120,19 +109,18 @@ public class RealtimeEventNotificationSenderServiceTests extends PowerMockTestCa
         PowerMockito.mockStatic(EventNotificationServiceUtil.class);
         PowerMockito.when(EventNotificationServiceUtil.getRealtimeEventNotificationRequestGenerator())
                 .thenReturn(mockRequestGenerator);
+    }
+
+    private void mockHttpClient(int statusCode) throws OpenBankingException, IOException {
 
         CloseableHttpResponse mockResponse = Mockito.mock(CloseableHttpResponse.class);
         StatusLine mockSL = Mockito.mock(StatusLine.class);
         Mockito.when(mockResponse.getStatusLine()).thenReturn(mockSL);
-        Mockito.when(mockSL.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(mockSL.getStatusCode()).thenReturn(statusCode);
 
         CloseableHttpClient httpClientMock = Mockito.mock(CloseableHttpClient.class);
         doReturn(mockResponse).when(httpClientMock).execute(any());
         PowerMockito.mockStatic(HTTPClientUtils.class);
         PowerMockito.when(HTTPClientUtils.getRealtimeEventNotificationHttpsClient()).thenReturn(httpClientMock);
-
-        new Thread(new RealtimeEventNotificationSenderService(EventNotificationTestConstants.SAMPLE_CALLBACK_URL,
-                EventNotificationTestConstants.SAMPLE_NOTIFICATION_PAYLOAD,
-                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID)).start();
     }
 }
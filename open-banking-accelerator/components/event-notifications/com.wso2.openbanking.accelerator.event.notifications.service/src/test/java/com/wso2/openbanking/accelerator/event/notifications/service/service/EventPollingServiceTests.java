@@ -22,7 +22,10 @@ import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationTestConstants;
 import com.wso2.openbanking.accelerator.event.notifications.service.dao.AggregatedPollingDAO;
+import com.wso2.openbanking.accelerator.event.notifications.service.dto.EventPollingDTO;
+import com.wso2.openbanking.accelerator.event.notifications.service.dto.NotificationDTO;
 import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.AggregatedPollingResponse;
 import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
@@ -39,6 +42,10 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.sql.Connection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Test class for EventPollingService.
  */
@@ -46,6 +53,7 @@ import java.sql.Connection;
 @PrepareForTest({DatabaseUtil.class, EventPollingStoreInitializer.class, EventNotificationServiceUtil.class,
         OpenBankingConfigParser.class})
 public class EventPollingServiceTests extends PowerMockTestCase {
+    private static final String ERROR_NOTIFICATION_ID = "d3fcb77a-274d-4851-b392-a2c0af312fd8";
     private static Connection mockedConnection;
     private static AggregatedPollingDAO mockedAggregatedPollingDAO;
     private static EventNotificationGenerator mockedEventNotificationGenerator;
@@ -76,7 +84,8 @@ public class EventPollingServiceTests extends PowerMockTestCase {
         PowerMockito.mockStatic(EventNotificationServiceUtil.class);
         PowerMockito.when(EventNotificationServiceUtil.getEventNotificationGenerator()).thenReturn(
                 mockedEventNotificationGenerator);
-        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationStatus(Mockito.anyString())).thenReturn(true);
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsByIds(Mockito.anyListOf(String.class)))
+                .thenReturn(getOpenNotifications());
 
         EventPollingService eventPollingService = new EventPollingService();
 
@@ -101,7 +110,8 @@ public class EventPollingServiceTests extends PowerMockTestCase {
         PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsByClientIdAndStatus(Mockito.anyString(),
                 Mockito.anyString(), Mockito.anyInt())).thenReturn(
                 EventNotificationTestUtils.getSampleSavedTestNotification());
-        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationStatus(Mockito.anyString())).thenReturn(true);
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsByIds(Mockito.anyListOf(String.class)))
+                .thenReturn(getOpenNotifications());
 
         EventPollingService eventPollingService = new EventPollingService();
 
@@ -109,5 +119,53 @@ public class EventPollingServiceTests extends PowerMockTestCase {
                 EventNotificationTestUtils.getEventPollingDTO());
 
         Assert.assertEquals(aggregatedPollingResponse.getStatus(), EventNotificationConstants.OK);
+        Mockito.verify(mockedAggregatedPollingDAO).getEventsByNotificationIDs(
+                Collections.singletonList(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID));
+    }
+
+    @Test
+    public void testPollEventsUpdatesStatusesInBatch() throws OBEventNotificationException {
+
+        mockedAggregatedPollingDAO = Mockito.mock(AggregatedPollingDAO.class);
+        mockedEventNotificationGenerator = Mockito.mock(EventNotificationGenerator.class);
+
+        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
+        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(
+                mockedAggregatedPollingDAO);
+        PowerMockito.mockStatic(EventNotificationServiceUtil.class);
+        PowerMockito.when(EventNotificationServiceUtil.getEventNotificationGenerator()).thenReturn(
+                mockedEventNotificationGenerator);
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsByIds(Mockito.anyListOf(String.class)))
+                .thenReturn(getOpenNotifications());
+
+        EventPollingDTO eventPollingDTO = EventNotificationTestUtils.getEventPollingDTO();
+        eventPollingDTO.setErrors(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2,
+                EventNotificationTestUtils.getNotificationError());
+        new EventPollingService().pollEvents(eventPollingDTO);
+
+        // Errors are stored only for the notifications in OPEN status
+        Map<String, String> notificationStatuses = new HashMap<>();
+        notificationStatuses.put(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                EventNotificationConstants.ACK);
+        notificationStatuses.put(ERROR_NOTIFICATION_ID, EventNotificationConstants.ERROR);
+        Mockito.verify(mockedAggregatedPollingDAO).updateNotificationStatuses(notificationStatuses,
+                Collections.singletonList(eventPollingDTO.getErrors().get(ERROR_NOTIFICATION_ID)));
+        Mockito.verify(mockedAggregatedPollingDAO, Mockito.never()).updateNotificationStatusById(
+                Mockito.anyString(), Mockito.anyString());
+    }
+
+    private static Map<String, NotificationDTO> getOpenNotifications() {
+
+        Map<String, NotificationDTO> notifications = new HashMap<>();
+        NotificationDTO ackNotification = EventNotificationTestUtils.getSampleNotificationDTO();
+        notifications.put(ackNotification.getNotificationId(), ackNotification);
+        NotificationDTO errorNotification = EventNotificationTestUtils.getSampleNotificationDTO();
+        errorNotification.setNotificationId(ERROR_NOTIFICATION_ID);
+        notifications.put(ERROR_NOTIFICATION_ID, errorNotification);
+        NotificationDTO closedNotification = EventNotificationTestUtils.getSampleNotificationDTO();
+        closedNotification.setNotificationId(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID_2);
+        closedNotification.setStatus(EventNotificationConstants.ACK);
+        notifications.put(closedNotification.getNotificationId(), closedNotification);
+        return notifications;
     }
 }
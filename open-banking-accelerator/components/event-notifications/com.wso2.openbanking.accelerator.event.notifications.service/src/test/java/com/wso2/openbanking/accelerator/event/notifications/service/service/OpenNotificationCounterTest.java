@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.service;
+
+import com.wso2.openbanking.accelerator.event.notifications.service.cache.OpenNotificationCountCache;
+import com.wso2.openbanking.accelerator.event.notifications.service.cache.OpenNotificationCountCacheKey;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationTestConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
+import com.wso2.openbanking.accelerator.event.notifications.service.model.OpenNotificationCount;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Test class for OpenNotificationCounter.
+ */
+public class OpenNotificationCounterTest {
+
+    @Test
+    public void testCountIsMaintainedAfterLoading() throws OBEventNotificationException {
+
+        OpenNotificationCounter counter = new OpenNotificationCounter(mockCountCache(), 60000);
+        AtomicInteger loadCount = new AtomicInteger();
+        OpenNotificationCounter.CountLoader loader = () -> {
+            loadCount.incrementAndGet();
+            return 5;
+        };
+
+        Assert.assertEquals(counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, loader), 5);
+        counter.increment(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+        counter.decrement(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+        counter.decrement(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+
+        Assert.assertEquals(counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, loader), 4);
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+    @Test
+    public void testCountIsSharedByNodes() throws OBEventNotificationException {
+
+        OpenNotificationCountCache countCache = mockCountCache();
+        OpenNotificationCounter pollingNodeCounter = new OpenNotificationCounter(countCache, 60000);
+        OpenNotificationCounter creatingNodeCounter = new OpenNotificationCounter(countCache, 60000);
+
+        Assert.assertEquals(pollingNodeCounter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, () -> 2), 2);
+        creatingNodeCounter.increment(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+
+        Assert.assertEquals(pollingNodeCounter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, () -> 0), 3);
+    }
+
+    @Test
+    public void testCountIsLoadedAfterRefreshInterval() throws OBEventNotificationException {
+
+        OpenNotificationCounter counter = new OpenNotificationCounter(mockCountCache(), 0);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, loadCount::incrementAndGet);
+        Assert.assertEquals(counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID,
+                loadCount::incrementAndGet), 2);
+    }
+
+    @Test
+    public void testCountIsLoadedOnEachPollWithoutCache() throws OBEventNotificationException {
+
+        OpenNotificationCounter counter = new OpenNotificationCounter(null, 60000);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, loadCount::incrementAndGet);
+        counter.increment(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+        Assert.assertEquals(counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID,
+                loadCount::incrementAndGet), 2);
+    }
+
+    @Test
+    public void testUnknownClientIsNotCounted() throws OBEventNotificationException {
+
+        OpenNotificationCounter counter = new OpenNotificationCounter(mockCountCache(), 60000);
+        counter.decrement(EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+
+        Assert.assertEquals(counter.getCount(EventNotificationTestConstants.SAMPLE_CLIENT_ID, () -> 0), 0);
+    }
+
+    /**
+     * Mock the distributed cache with a map shared by the counters using it.
+     */
+    @SuppressWarnings("unchecked")
+    private static OpenNotificationCountCache mockCountCache() {
+
+        Map<OpenNotificationCountCacheKey, OpenNotificationCount> counts = new ConcurrentHashMap<>();
+        OpenNotificationCountCache countCache = Mockito.mock(OpenNotificationCountCache.class);
+        Mockito.when(countCache.getFromCache(Matchers.any(OpenNotificationCountCacheKey.class)))
+                .thenAnswer(invocation -> counts.get(invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> counts.put((OpenNotificationCountCacheKey) invocation.getArguments()[0],
+                (OpenNotificationCount) invocation.getArguments()[1]))
+                .when(countCache).addToCache(Matchers.any(OpenNotificationCountCacheKey.class),
+                        Matchers.any(OpenNotificationCount.class));
+        Mockito.when(countCache.compute(Matchers.any(OpenNotificationCountCacheKey.class),
+                Matchers.any(BiFunction.class))).thenAnswer(invocation -> counts.compute(
+                (OpenNotificationCountCacheKey) invocation.getArguments()[0],
+                (BiFunction<OpenNotificationCountCacheKey, OpenNotificationCount, OpenNotificationCount>)
+                        invocation.getArguments()[1]));
+        return countCache;
+    }
+}
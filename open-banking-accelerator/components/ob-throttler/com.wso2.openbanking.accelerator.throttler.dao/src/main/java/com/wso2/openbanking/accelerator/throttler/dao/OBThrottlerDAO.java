@@ -25,6 +25,7 @@ import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
+import java.util.List;
 
 /**
  * DAO class for throttle data.
@@ -96,4 +97,47 @@ public interface OBThrottlerDAO {
      */
     boolean isThrottleDataExists(Connection connection, String throttleGroup, String throttleParam)
             throws OBThrottlerDataRetrievalException;
+
+    /**
+     * Store a set of throttle data in a single batch.
+     *
+     * @param connection connection object
+     * @param throttleDataModels - throttle data to store
+     * @throws OBThrottlerDataInsertionException - OBThrottlerDataInsertionException
+     */
+    void storeThrottleData(Connection connection, List<ThrottleDataModel> throttleDataModels)
+            throws OBThrottlerDataInsertionException;
+
+    /**
+     * Remove a set of throttle data from database in a single batch. Throttle data which does not exist in the
+     * database is ignored.
+     *
+     * @param connection connection object
+     * @param throttleDataModels - throttle data to remove
+     * @throws OBThrottlerDataDeletionException - OBThrottlerDataDeletionException
+     */
+    void deleteThrottleData(Connection connection, List<ThrottleDataModel> throttleDataModels)
+            throws OBThrottlerDataDeletionException;
+
+    /**
+     * Retrieve the throttle data which is not unlocked at the given time.
+     *
+     * @param connection connection object
+     * @param currentTimestamp - current timestamp
+     * @return - list of ThrottleDataModel
+     * @throws OBThrottlerDataRetrievalException - OBThrottlerDataRetrievalException
+     */
+    List<ThrottleDataModel> getActiveThrottleData(Connection connection, Timestamp currentTimestamp)
+            throws OBThrottlerDataRetrievalException;
+
+    /**
+     * Remove the throttle data which is unlocked at the given time from database.
+     *
+     * @param connection connection object
+     * @param currentTimestamp - current timestamp
+     * @return - number of removed throttle data records
+     * @throws OBThrottlerDataDeletionException - OBThrottlerDataDeletionException
+     */
+    int deleteExpiredThrottleData(Connection connection, Timestamp currentTimestamp)
+            throws OBThrottlerDataDeletionException;
 }
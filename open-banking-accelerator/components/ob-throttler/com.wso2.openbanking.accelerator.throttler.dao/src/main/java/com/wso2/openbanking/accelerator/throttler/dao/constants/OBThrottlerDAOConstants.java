@@ -23,6 +23,8 @@ package com.wso2.openbanking.accelerator.throttler.dao.constants;
 public class OBThrottlerDAOConstants {
 
     public static final int FIRST_OCCURRENCE = 1;
+    public static final String THROTTLE_GROUP = "THROTTLE_GROUP";
+    public static final String THROTTLE_PARAM = "THROTTLE_PARAM";
     public static final String LAST_UPDATE_TIMESTAMP = "LAST_UPDATE_TIMESTAMP";
     public static final String UNLOCK_TIMESTAMP = "UNLOCK_TIMESTAMP";
     public static final String OCCURRENCES = "OCCURRENCES";
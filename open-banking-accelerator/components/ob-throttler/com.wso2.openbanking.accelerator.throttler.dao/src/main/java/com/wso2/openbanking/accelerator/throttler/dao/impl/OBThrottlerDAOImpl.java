@@ -33,6 +33,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implementation of OBThrottlerDAO.
@@ -229,4 +231,121 @@ public class OBThrottlerDAOImpl implements OBThrottlerDAO {
         }
         return throttleDataExists;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void storeThrottleData(Connection connection, List<ThrottleDataModel> throttleDataModels)
+            throws OBThrottlerDataInsertionException {
+
+        String storeThrottleDataSql = sqlStatements.storeThrottleData();
+
+        //store data
+        try (PreparedStatement storePreparedStatement = connection.prepareStatement(storeThrottleDataSql)) {
+            for (ThrottleDataModel throttleDataModel : throttleDataModels) {
+                //Set prepared statement parameters
+                storePreparedStatement.setString(1, throttleDataModel.getThrottleGroup());
+                storePreparedStatement.setString(2, throttleDataModel.getThrottleParam());
+                storePreparedStatement.setTimestamp(3, throttleDataModel.getLastUpdateTimestamp());
+                storePreparedStatement.setTimestamp(4, throttleDataModel.getUnlockTimestamp());
+                storePreparedStatement.setInt(5, throttleDataModel.getOccurrences());
+                storePreparedStatement.addBatch();
+            }
+            storePreparedStatement.executeBatch();
+        } catch (SQLException e) {
+            log.error(OBThrottlerDAOConstants.THROTTLE_DATA_STORE_ERROR_MSG);
+            throw new OBThrottlerDataInsertionException(OBThrottlerDAOConstants.THROTTLE_DATA_STORE_ERROR_MSG, e);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Stored %d throttle data records", throttleDataModels.size()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteThrottleData(Connection connection, List<ThrottleDataModel> throttleDataModels)
+            throws OBThrottlerDataDeletionException {
+
+        String removeThrottleDataSql = sqlStatements.removeThrottleData();
+
+        //remove data from database
+        try (PreparedStatement removePreparedStatement = connection.prepareStatement(removeThrottleDataSql)) {
+            for (ThrottleDataModel throttleDataModel : throttleDataModels) {
+                //Set prepared statement parameters
+                removePreparedStatement.setString(1, throttleDataModel.getThrottleGroup());
+                removePreparedStatement.setString(2, throttleDataModel.getThrottleParam());
+                removePreparedStatement.addBatch();
+            }
+            removePreparedStatement.executeBatch();
+        } catch (SQLException e) {
+            log.error(OBThrottlerDAOConstants.THROTTLE_DATA_DELETE_ERROR_MSG);
+            throw new OBThrottlerDataDeletionException(OBThrottlerDAOConstants.THROTTLE_DATA_DELETE_ERROR_MSG, e);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Removed %d throttle data records", throttleDataModels.size()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ThrottleDataModel> getActiveThrottleData(Connection connection, Timestamp currentTimestamp)
+            throws OBThrottlerDataRetrievalException {
+
+        List<ThrottleDataModel> throttleDataModels = new ArrayList<>();
+        String sql = sqlStatements.retrieveActiveThrottleData();
+
+        //retrieve data from database
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setTimestamp(1, currentTimestamp);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    throttleDataModels.add(new ThrottleDataModel(
+                            resultSet.getString(OBThrottlerDAOConstants.THROTTLE_GROUP),
+                            resultSet.getString(OBThrottlerDAOConstants.THROTTLE_PARAM),
+                            resultSet.getTimestamp(OBThrottlerDAOConstants.LAST_UPDATE_TIMESTAMP),
+                            resultSet.getTimestamp(OBThrottlerDAOConstants.UNLOCK_TIMESTAMP),
+                            resultSet.getInt(OBThrottlerDAOConstants.OCCURRENCES)));
+                }
+            } catch (SQLException e) {
+                throw new OBThrottlerDataRetrievalException(
+                        OBThrottlerDAOConstants.THROTTLE_DATA_RESULT_SET_RETRIEVE_ERROR_MSG, e);
+            }
+        } catch (SQLException e) {
+            log.error(OBThrottlerDAOConstants.THROTTLE_DATA_RETRIEVE_ERROR_MSG);
+            throw new OBThrottlerDataRetrievalException(OBThrottlerDAOConstants.THROTTLE_DATA_RETRIEVE_ERROR_MSG, e);
+        }
+        return throttleDataModels;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteExpiredThrottleData(Connection connection, Timestamp currentTimestamp)
+            throws OBThrottlerDataDeletionException {
+
+        int removedCount;
+        String sql = sqlStatements.removeExpiredThrottleData();
+
+        //remove data from database
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setTimestamp(1, currentTimestamp);
+            removedCount = preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            log.error(OBThrottlerDAOConstants.THROTTLE_DATA_DELETE_ERROR_MSG);
+            throw new OBThrottlerDataDeletionException(OBThrottlerDAOConstants.THROTTLE_DATA_DELETE_ERROR_MSG, e);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Removed %d expired throttle data records", removedCount));
+        }
+        return removedCount;
+    }
 }
@@ -48,4 +48,14 @@ public class OBThrottlerSQLStatements {
 
         return "SELECT COUNT(1) FROM OB_THROTTLE_DATA WHERE THROTTLE_GROUP = ? AND THROTTLE_PARAM = ?";
     }
+
+    public String retrieveActiveThrottleData() {
+
+        return "SELECT * FROM OB_THROTTLE_DATA WHERE UNLOCK_TIMESTAMP > ?";
+    }
+
+    public String removeExpiredThrottleData() {
+
+        return "DELETE FROM OB_THROTTLE_DATA WHERE UNLOCK_TIMESTAMP <= ?";
+    }
 }
@@ -37,6 +37,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Test for Open Banking throttler DAO.
@@ -44,6 +48,7 @@ import java.sql.Timestamp;
 public class OBThrottlerDAOTests {
 
     private static final String DB_NAME = "OB_THROTTLE_DB";
+    private static final String BATCH_THROTTLE_GROUP = "BatchTestGroup";
 
     private OBThrottlerDAO obThrottlerDAO;
     private Connection mockedConnection;
@@ -272,4 +277,94 @@ public class OBThrottlerDAOTests {
         obThrottlerDAO.deleteThrottleData(mockedConnection, OBThrottlerDAOTestData.THROTTLE_GROUP,
                 OBThrottlerDAOTestData.THROTTLE_PARAM);
     }
+
+    //batch tests
+    @Test
+    public void testStoreAndDeleteThrottleDataInBatch() throws Exception {
+
+        Timestamp expiredTimestamp = new Timestamp(OBThrottlerDAOTestData.CURRENT_TIMESTAMP.getTime() - 1000L);
+        List<ThrottleDataModel> throttleDataModels = Arrays.asList(
+                new ThrottleDataModel(BATCH_THROTTLE_GROUP, "user-ip-10.0.0.1",
+                        OBThrottlerDAOTestData.CURRENT_TIMESTAMP, OBThrottlerDAOTestData.UNLOCK_TIMESTAMP, 3),
+                new ThrottleDataModel(BATCH_THROTTLE_GROUP, "user-ip-10.0.0.2",
+                        OBThrottlerDAOTestData.CURRENT_TIMESTAMP, expiredTimestamp, 1));
+
+        try (Connection connection = OBThrottlerDAOUtils.getConnection(DB_NAME)) {
+            obThrottlerDAO.storeThrottleData(connection, throttleDataModels);
+
+            List<ThrottleDataModel> activeThrottleData = getBatchThrottleData(connection);
+            Assert.assertEquals(activeThrottleData.size(), 1);
+            Assert.assertEquals(activeThrottleData.get(0).getThrottleParam(), "user-ip-10.0.0.1");
+            Assert.assertEquals(activeThrottleData.get(0).getOccurrences(), 3);
+
+            obThrottlerDAO.deleteThrottleData(connection, throttleDataModels);
+            Assert.assertTrue(getBatchThrottleData(connection).isEmpty());
+        }
+    }
+
+    @Test
+    public void testDeleteExpiredThrottleData() throws Exception {
+
+        Timestamp expiredTimestamp = new Timestamp(OBThrottlerDAOTestData.CURRENT_TIMESTAMP.getTime() - 1000L);
+        List<ThrottleDataModel> throttleDataModels = Arrays.asList(
+                new ThrottleDataModel(BATCH_THROTTLE_GROUP, "user-ip-10.0.0.3",
+                        OBThrottlerDAOTestData.CURRENT_TIMESTAMP, OBThrottlerDAOTestData.UNLOCK_TIMESTAMP, 3),
+                new ThrottleDataModel(BATCH_THROTTLE_GROUP, "user-ip-10.0.0.4",
+                        OBThrottlerDAOTestData.CURRENT_TIMESTAMP, expiredTimestamp, 1));
+
+        try (Connection connection = OBThrottlerDAOUtils.getConnection(DB_NAME)) {
+            obThrottlerDAO.storeThrottleData(connection, throttleDataModels);
+
+            Assert.assertEquals(obThrottlerDAO.deleteExpiredThrottleData(connection,
+                    OBThrottlerDAOTestData.CURRENT_TIMESTAMP), 1);
+            Assert.assertFalse(obThrottlerDAO.isThrottleDataExists(connection, BATCH_THROTTLE_GROUP,
+                    "user-ip-10.0.0.4"));
+            Assert.assertTrue(obThrottlerDAO.isThrottleDataExists(connection, BATCH_THROTTLE_GROUP,
+                    "user-ip-10.0.0.3"));
+
+            obThrottlerDAO.deleteThrottleData(connection, throttleDataModels);
+        }
+    }
+
+    @Test(expectedExceptions = OBThrottlerDataDeletionException.class)
+    public void testDeleteExpiredThrottleDataSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        obThrottlerDAO.deleteExpiredThrottleData(mockedConnection, OBThrottlerDAOTestData.CURRENT_TIMESTAMP);
+    }
+
+    @Test(expectedExceptions = OBThrottlerDataInsertionException.class)
+    public void testStoreThrottleDataInBatchSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        obThrottlerDAO.storeThrottleData(mockedConnection, Collections.singletonList(
+                OBThrottlerDAOTestData.getSampleThrottleDataModel()));
+    }
+
+    @Test(expectedExceptions = OBThrottlerDataDeletionException.class)
+    public void testDeleteThrottleDataInBatchSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        obThrottlerDAO.deleteThrottleData(mockedConnection, Collections.singletonList(
+                OBThrottlerDAOTestData.getSampleThrottleDataModel()));
+    }
+
+    @Test(expectedExceptions = OBThrottlerDataRetrievalException.class)
+    public void testRetrieveActiveThrottleDataSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        obThrottlerDAO.getActiveThrottleData(mockedConnection, OBThrottlerDAOTestData.CURRENT_TIMESTAMP);
+    }
+
+    private List<ThrottleDataModel> getBatchThrottleData(Connection connection) throws Exception {
+
+        List<ThrottleDataModel> batchThrottleData = new ArrayList<>();
+        for (ThrottleDataModel throttleDataModel : obThrottlerDAO.getActiveThrottleData(connection,
+                OBThrottlerDAOTestData.CURRENT_TIMESTAMP)) {
+            if (BATCH_THROTTLE_GROUP.equals(throttleDataModel.getThrottleGroup())) {
+                batchThrottleData.add(throttleDataModel);
+            }
+        }
+        return batchThrottleData;
+    }
 }
@@ -17,6 +17,8 @@
  */
 package com.wso2.openbanking.accelerator.throttler.dao.util;
 
+import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
+
 import java.sql.Timestamp;
 import java.util.Date;
 
@@ -35,6 +37,11 @@ public class OBThrottlerDAOTestData {
 
     public static final int OCCURRENCES = 1;
 
+    public static ThrottleDataModel getSampleThrottleDataModel() {
+
+        return new ThrottleDataModel(THROTTLE_GROUP, THROTTLE_PARAM, CURRENT_TIMESTAMP, UNLOCK_TIMESTAMP, OCCURRENCES);
+    }
+
     /**
      * Data provider.
      */
@@ -17,24 +17,31 @@
  */
 package com.wso2.openbanking.accelerator.throttler.service;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedMember;
 import com.wso2.openbanking.accelerator.common.exception.OBThrottlerException;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
 import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import com.wso2.openbanking.accelerator.throttler.dao.OBThrottlerDAO;
-import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataDeletionException;
-import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataInsertionException;
 import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataRetrievalException;
-import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataUpdationException;
 import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
 import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
+import com.wso2.openbanking.accelerator.throttler.service.cache.OBThrottleDataCache;
+import com.wso2.openbanking.accelerator.throttler.service.cache.OBThrottleDataCacheKey;
 import com.wso2.openbanking.accelerator.throttler.service.constants.OBThrottlerServiceConstants;
+import com.wso2.openbanking.accelerator.throttler.service.model.ThrottleState;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
-import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 /**
  * Service class for OB Throttler.
@@ -42,30 +49,83 @@ import java.util.Map;
  * Contains methods required to throttle the occurrence of a given parameter.
  * The parameters can be separated into groups by 'throttleGroup' attribute, which will
  * allow throttling same parameter values in different groups.
+ * <p>
+ * Occurrences are counted and checked in memory, with a sliding window per group and parameter. When cluster wide
+ * throttling is enabled, the throttle state is kept in the distributed cache so that all the nodes share the same
+ * counts. Changes are written to the database in the background, to restore the counts after a restart.
  */
 public class OBThrottleService {
 
-    private static Log log = LogFactory.getLog(OBThrottleService.class);
-    protected Map<String, Map<String, Timestamp>> throttleDataMap = new HashMap<>();
-    private static OBThrottleService instance = null;
+    private static final Log log = LogFactory.getLog(OBThrottleService.class);
+    private static volatile OBThrottleService instance;
+
+    private final Map<String, ThrottleState> throttleData = new ConcurrentHashMap<>();
+    private final OBThrottleDataCache throttleDataCache;
+    private final ThrottleDataWriter throttleDataWriter;
+    private ScheduledExecutorService persistenceExecutor;
 
-    // private constructor
-    private OBThrottleService() {
+    /**
+     * Create the throttle service.
+     *
+     * @param throttleDataCache  - distributed cache to share the throttle state, or null to keep it in memory
+     * @param throttleDataWriter - write behind buffer of the throttle data
+     */
+    OBThrottleService(OBThrottleDataCache throttleDataCache, ThrottleDataWriter throttleDataWriter) {
+
+        this.throttleDataCache = throttleDataCache;
+        this.throttleDataWriter = throttleDataWriter;
     }
 
     /**
      * @return OBThrottleService instance
      */
-    public static synchronized OBThrottleService getInstance() {
+    public static OBThrottleService getInstance() {
 
         if (instance == null) {
-            instance = new OBThrottleService();
+            synchronized (OBThrottleService.class) {
+                if (instance == null) {
+                    instance = new OBThrottleService(getThrottleDataCache(), new ThrottleDataWriter());
+                }
+            }
         }
         return instance;
     }
 
     /**
-     * Update throttle database and throttleDataMap.
+     * Load the persisted throttle data and start writing the throttle data changes to the database.
+     */
+    public synchronized void start() {
+
+        if (persistenceExecutor != null) {
+            return;
+        }
+        loadThrottleData();
+
+        int persistenceInterval = OpenBankingConfigParser.getInstance().getThrottleDataPersistenceIntervalInSeconds();
+        persistenceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ob-throttle-data-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        persistenceExecutor.scheduleWithFixedDelay(this::persistThrottleData, persistenceInterval,
+                persistenceInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop writing the throttle data changes, after writing the pending changes to the database.
+     */
+    public synchronized void stop() {
+
+        if (persistenceExecutor != null) {
+            persistenceExecutor.shutdown();
+            persistenceExecutor = null;
+        }
+        throttleDataWriter.flush();
+    }
+
+    /**
+     * Record an occurrence of the parameter, which is throttled once the occurrences within the throttle time
+     * period exceed the throttle limit.
      *
      * @param throttleGroup      - throttle group
      * @param throttleParam      - throttle parameter
@@ -76,53 +136,17 @@ public class OBThrottleService {
     public void updateThrottleData(String throttleGroup, String throttleParam, int throttleLimit,
                                    int throttleTimePeriod) throws OBThrottlerException {
 
-        ThrottleDataModel throttleDataModel;
-        ThrottleDataModel existingThrottleDataModel;
-        OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
-        Timestamp currentTimestamp = new Timestamp(new Date().getTime());
-        Timestamp unlockTimestamp = new Timestamp(currentTimestamp.getTime() + (1000L * throttleTimePeriod));
+        String key = getKey(throttleGroup, throttleParam);
+        long currentTime = System.currentTimeMillis();
+        ThrottleState throttleState = computeThrottleState(key, (throttleKey, current) ->
+                ThrottleState.recordOccurrence(current, throttleGroup, throttleParam, currentTime, throttleLimit,
+                        throttleTimePeriod));
+        throttleDataWriter.store(key, throttleState);
 
-        Connection connection = DatabaseUtil.getDBConnection();
-
-        try {
-            //remove expired data from database by checking throttle status
-            getThrottleStatus(connection, throttleGroup, throttleParam, obThrottlerDAO);
-            //check if throttle group and parameter exists. Add new record if not.
-
-            if (obThrottlerDAO.isThrottleDataExists(connection, throttleGroup, throttleParam)) {
-                existingThrottleDataModel = obThrottlerDAO.getThrottleData(connection, throttleGroup, throttleParam);
-                //increment Occurrences
-                int updatedOccurrences = existingThrottleDataModel.getOccurrences() + 1;
-                throttleDataModel = obThrottlerDAO.updateThrottleData(connection, throttleGroup, throttleParam,
-                        currentTimestamp, unlockTimestamp, updatedOccurrences);
-            } else {
-                throttleDataModel = obThrottlerDAO.storeThrottleData(connection, throttleGroup, throttleParam,
-                        currentTimestamp, unlockTimestamp);
-            }
-            DatabaseUtil.commitTransaction(connection);
-            log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
-            if (throttleDataModel.getOccurrences() > throttleLimit) {
-                updateThrottleDataMap(throttleGroup, throttleParam, throttleDataModel.getUnlockTimestamp());
-            }
-        } catch (OBThrottlerDataInsertionException e) {
-            log.error(OBThrottlerServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
-        } catch (OBThrottlerDataUpdationException e) {
-            log.error(OBThrottlerServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
-        } catch (OBThrottlerDataRetrievalException e) {
-            log.error(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
-        } catch (OBThrottlerDataDeletionException e) {
-            log.error(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-        } finally {
-            log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+        if (log.isDebugEnabled() && throttleState.isThrottledAt(currentTime)) {
+            log.debug(String.format("ThrottleParam: '%s' of ThrottleGroup: '%s' is throttled until '%s'",
+                    throttleParam, throttleGroup, new Timestamp(throttleState.getUnlockTime()))
+                    .replaceAll("[\r\n]", ""));
         }
     }
 
@@ -132,114 +156,156 @@ public class OBThrottleService {
      * @param throttleGroup - throttle group
      * @param throttleParam - throttle parameter
      * @return - boolean
-     * @throws OBThrottlerException - OBThrottlerDataDeletionException
+     * @throws OBThrottlerException - OBThrottlerException
      */
     public boolean isThrottled(String throttleGroup, String throttleParam) throws OBThrottlerException {
 
-        Connection connection = DatabaseUtil.getDBConnection();
-        OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
-
-        try {
-            boolean throttleStatus = getThrottleStatus(connection, throttleGroup, throttleParam, obThrottlerDAO);
-            DatabaseUtil.commitTransaction(connection);
-            log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
-            return throttleStatus;
-        } catch (OBThrottlerDataDeletionException e) {
-            log.error(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-        } finally {
-            log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+        String key = getKey(throttleGroup, throttleParam);
+        long currentTime = System.currentTimeMillis();
+        ThrottleState throttleState = getThrottleState(key);
+        if (throttleState == null) {
+            return false;
+        }
+        if (throttleState.isThrottledAt(currentTime)) {
+            return true;
         }
+        if (throttleState.isExpiredAt(currentTime)) {
+            //remove the throttle parameter if the window is over
+            removeExpiredThrottleState(key, currentTime);
+        }
+        return false;
     }
 
     /**
-     * Delete the throttle data record from DB on a successful attempt.
+     * Delete the throttle data of the parameter on a successful attempt.
      *
      * @param throttleGroup - throttle group
      * @param throttleParam - throttle parameter
-     * @throws OBThrottlerException - OBThrottlerDataDeletionException, OBThrottlerDataRetrievalException
+     * @throws OBThrottlerException - OBThrottlerException
      */
     public void deleteRecordOnSuccessAttempt(String throttleGroup, String throttleParam) throws OBThrottlerException {
 
-        Connection connection = DatabaseUtil.getDBConnection();
-        OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+        String key = getKey(throttleGroup, throttleParam);
+        if (getThrottleState(key) != null) {
+            computeThrottleState(key, (throttleKey, current) -> null);
+            throttleDataWriter.delete(key, throttleGroup, throttleParam);
+        }
+    }
+
+    /**
+     * Remove the expired throttle data from memory, write the pending changes to the database and remove the
+     * expired throttle data from the database. The database is purged regardless of the throttle data in memory,
+     * which is not held locally when the throttle data is shared in the cluster.
+     */
+    void persistThrottleData() {
 
         try {
-            if (obThrottlerDAO.isThrottleDataExists(connection, throttleGroup, throttleParam)) {
-                obThrottlerDAO.deleteThrottleData(connection, throttleGroup, throttleParam);
-                DatabaseUtil.commitTransaction(connection);
+            long currentTime = System.currentTimeMillis();
+            for (Map.Entry<String, ThrottleState> entry : throttleData.entrySet()) {
+                if (entry.getValue().isExpiredAt(currentTime)) {
+                    removeExpiredThrottleState(entry.getKey(), currentTime);
+                }
             }
-        } catch (OBThrottlerDataRetrievalException e) {
-            log.error(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
-        } catch (OBThrottlerDataDeletionException e) {
-            log.error(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-            DatabaseUtil.rollbackTransaction(connection);
-            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
-        } finally {
-            log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
-            DatabaseUtil.closeConnection(connection);
+            throttleDataWriter.flush();
+            throttleDataWriter.purgeExpiredThrottleData(currentTime);
+        } catch (RuntimeException e) {
+            // Keep the scheduled task running
+            log.error(OBThrottlerServiceConstants.THROTTLE_DATA_PERSIST_ERROR_MSG, e);
         }
     }
 
     /**
-     * Check if the given parameter is throttled. This method is overloaded.
-     *
-     * @param connection connection object
-     * @param throttleGroup - throttle group
-     * @param throttleParam - throttle parameter
-     * @return - boolean
-     * @throws OBThrottlerDataDeletionException - OBThrottlerDataDeletionException
+     * Load the throttle data of the parameters which are not unlocked yet from the database.
      */
-    private boolean getThrottleStatus(Connection connection, String throttleGroup, String throttleParam,
-                               OBThrottlerDAO obThrottlerDAO) throws OBThrottlerDataDeletionException {
-
-        Map<String, Timestamp> throttleParamMap;
-        if (throttleDataMap.containsKey(throttleGroup)) {
-            throttleParamMap = throttleDataMap.get(throttleGroup);
-            if (throttleParamMap.containsKey(throttleParam)) {
-                //check if the parameter is still locked
-                Timestamp currentTimestamp = new Timestamp(new Date().getTime());
-                Timestamp unlockTimestamp = throttleParamMap.get(throttleParam);
-                if (unlockTimestamp.after(currentTimestamp)) {
-                    return true;
-                } else {
-                    //remove throttle parameter from throttle data map if expired
-                    throttleParamMap.remove(throttleParam);
-                    throttleDataMap.put(throttleGroup, throttleParamMap);
-                    //remove from database
-                    obThrottlerDAO.deleteThrottleData(connection, throttleGroup, throttleParam);
-                    return false;
-                }
-            } else {
-                return false;
+    void loadThrottleData() {
+
+        Connection connection = null;
+        try {
+            OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+            connection = DatabaseUtil.getDBConnection();
+            List<ThrottleDataModel> throttleDataModels = obThrottlerDAO.getActiveThrottleData(connection,
+                    new Timestamp(System.currentTimeMillis()));
+            for (ThrottleDataModel throttleDataModel : throttleDataModels) {
+                ThrottleState persistedState = ThrottleState.of(throttleDataModel);
+                computeThrottleState(getKey(throttleDataModel.getThrottleGroup(),
+                        throttleDataModel.getThrottleParam()), (throttleKey, current) ->
+                        current == null ? persistedState : current);
             }
-        } else {
-            return false;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Loaded %d persisted throttle data records", throttleDataModels.size()));
+            }
+        } catch (OBThrottlerException | OBThrottlerDataRetrievalException | OpenBankingRuntimeException e) {
+            log.error(OBThrottlerServiceConstants.THROTTLE_DATA_LOAD_ERROR_MSG, e);
+        } finally {
+            if (connection != null) {
+                log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+                DatabaseUtil.closeConnection(connection);
+            }
+        }
+    }
+
+    private void removeExpiredThrottleState(String key, long currentTime) {
+
+        ThrottleState[] removedState = new ThrottleState[1];
+        computeThrottleState(key, (throttleKey, current) -> {
+            // The function may be applied again when the state is concurrently updated in the cluster
+            removedState[0] = null;
+            if (current != null && current.isExpiredAt(currentTime)) {
+                removedState[0] = current;
+                return null;
+            }
+            return current;
+        });
+        if (removedState[0] != null) {
+            throttleDataWriter.delete(key, removedState[0].getThrottleGroup(), removedState[0].getThrottleParam());
         }
     }
 
+    private ThrottleState getThrottleState(String key) {
+
+        if (throttleDataCache == null) {
+            return throttleData.get(key);
+        }
+        return throttleDataCache.getFromCache(OBThrottleDataCacheKey.of(key));
+    }
+
     /**
-     * Update throttle data map.
+     * Atomically update the throttle state of a parameter. Returning null from the remapping function removes the
+     * throttle state.
      *
-     * @param throttleGroup   - throttle group
-     * @param throttleParam   - throttle parameter
-     * @param unlockTimestamp - timestamp that the parameter will be unlocked.
+     * @param key               - key of the parameter
+     * @param remappingFunction - function computing the new state from the current state
+     * @return - new throttle state
+     */
+    private ThrottleState computeThrottleState(String key,
+                                               BiFunction<String, ThrottleState, ThrottleState> remappingFunction) {
+
+        if (throttleDataCache == null) {
+            return throttleData.compute(key, remappingFunction);
+        }
+        return throttleDataCache.compute(OBThrottleDataCacheKey.of(key),
+                (cacheKey, current) -> remappingFunction.apply(key, current));
+    }
+
+    /**
+     * Key of a parameter. The length of the group is included so that the key is unique for any group and
+     * parameter.
      */
-    protected void updateThrottleDataMap(String throttleGroup, String throttleParam, Timestamp unlockTimestamp) {
-
-        Map<String, Timestamp> throttleParamMap;
-        //check if throttle group already exists
-        if (throttleDataMap.containsKey(throttleGroup)) {
-            throttleParamMap = throttleDataMap.get(throttleGroup);
-        } else {
-            throttleParamMap = new HashMap<>();
+    private static String getKey(String throttleGroup, String throttleParam) {
+
+        return throttleGroup.length() + ":" + throttleGroup + ":" + throttleParam;
+    }
+
+    private static OBThrottleDataCache getThrottleDataCache() {
+
+        if (!OpenBankingConfigParser.getInstance().isClusterWideThrottlingEnabled()) {
+            return null;
+        }
+        if (!OpenBankingDistributedMember.of().isEnabled()) {
+            log.warn("Cluster wide throttling is enabled, but distributed caching is disabled. Throttle data is " +
+                    "kept in the memory of each node");
+            return null;
         }
-        //put parameter and unlockTimestamp to the throttle data map
-        throttleParamMap.put(throttleParam, unlockTimestamp);
-        throttleDataMap.put(throttleGroup, throttleParamMap);
+        return OBThrottleDataCache.getInstance();
     }
 }
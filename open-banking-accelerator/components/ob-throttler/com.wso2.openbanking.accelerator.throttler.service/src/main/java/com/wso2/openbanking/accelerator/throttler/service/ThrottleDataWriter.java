@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.wso2.openbanking.accelerator.throttler.service;
+
+import com.wso2.openbanking.accelerator.common.exception.OBThrottlerException;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
+import com.wso2.openbanking.accelerator.throttler.dao.OBThrottlerDAO;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataDeletionException;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataInsertionException;
+import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
+import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
+import com.wso2.openbanking.accelerator.throttler.service.constants.OBThrottlerServiceConstants;
+import com.wso2.openbanking.accelerator.throttler.service.model.ThrottleState;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write behind buffer of the throttle data.
+ * <p>
+ * Changes of a parameter are coalesced until the next flush, which writes the latest state of every changed parameter
+ * to the database in a single transaction. Changes that could not be written are kept for the next flush unless the
+ * parameter has changed again.
+ */
+class ThrottleDataWriter {
+
+    private static final Log log = LogFactory.getLog(ThrottleDataWriter.class);
+
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Record the latest state of a parameter.
+     *
+     * @param key           - key of the parameter
+     * @param throttleState - throttle state
+     */
+    void store(String key, ThrottleState throttleState) {
+
+        pendingWrites.put(key, new PendingWrite(throttleState.getThrottleGroup(), throttleState.getThrottleParam(),
+                throttleState));
+    }
+
+    /**
+     * Record the removal of a parameter.
+     *
+     * @param key           - key of the parameter
+     * @param throttleGroup - throttle group
+     * @param throttleParam - throttle parameter
+     */
+    void delete(String key, String throttleGroup, String throttleParam) {
+
+        pendingWrites.put(key, new PendingWrite(throttleGroup, throttleParam, null));
+    }
+
+    int getPendingWriteCount() {
+
+        return pendingWrites.size();
+    }
+
+    /**
+     * Write the pending changes to the database. Existing records of the changed parameters are removed and the
+     * latest states are inserted, as two batches in one transaction.
+     */
+    synchronized void flush() {
+
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        Map<String, PendingWrite> writes = new LinkedHashMap<>();
+        for (Map.Entry<String, PendingWrite> entry : pendingWrites.entrySet()) {
+            if (pendingWrites.remove(entry.getKey(), entry.getValue())) {
+                writes.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<ThrottleDataModel> removedThrottleData = new ArrayList<>();
+        List<ThrottleDataModel> storedThrottleData = new ArrayList<>();
+        for (PendingWrite write : writes.values()) {
+            removedThrottleData.add(new ThrottleDataModel(write.throttleGroup, write.throttleParam, null, null, 0));
+            if (write.throttleState != null) {
+                storedThrottleData.add(write.throttleState.toThrottleDataModel());
+            }
+        }
+
+        Connection connection = null;
+        try {
+            OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+            connection = DatabaseUtil.getDBConnection();
+            try {
+                obThrottlerDAO.deleteThrottleData(connection, removedThrottleData);
+                if (!storedThrottleData.isEmpty()) {
+                    obThrottlerDAO.storeThrottleData(connection, storedThrottleData);
+                }
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            } catch (OBThrottlerDataDeletionException | OBThrottlerDataInsertionException e) {
+                DatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Persisted %d throttle data changes", writes.size()));
+            }
+        } catch (OBThrottlerException | OBThrottlerDataDeletionException | OBThrottlerDataInsertionException |
+                 OpenBankingRuntimeException e) {
+            log.error(OBThrottlerServiceConstants.THROTTLE_DATA_PERSIST_ERROR_MSG, e);
+            for (Map.Entry<String, PendingWrite> entry : writes.entrySet()) {
+                pendingWrites.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            if (connection != null) {
+                log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+                DatabaseUtil.closeConnection(connection);
+            }
+        }
+    }
+
+    /**
+     * Remove the throttle data which is unlocked at the given time from the database. The database is purged
+     * directly, since the expired parameters may not be held in the memory of this node when the throttle data is
+     * shared in the cluster.
+     *
+     * @param currentTime - current time (milliseconds)
+     */
+    synchronized void purgeExpiredThrottleData(long currentTime) {
+
+        Connection connection = null;
+        try {
+            OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+            connection = DatabaseUtil.getDBConnection();
+            try {
+                obThrottlerDAO.deleteExpiredThrottleData(connection, new Timestamp(currentTime));
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+            } catch (OBThrottlerDataDeletionException e) {
+                DatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        } catch (OBThrottlerException | OBThrottlerDataDeletionException | OpenBankingRuntimeException e) {
+            log.error(OBThrottlerServiceConstants.THROTTLE_DATA_PERSIST_ERROR_MSG, e);
+        } finally {
+            if (connection != null) {
+                log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+                DatabaseUtil.closeConnection(connection);
+            }
+        }
+    }
+
+    /**
+     * Change of a parameter to be written. The throttle state is null when the parameter is removed.
+     */
+    private static class PendingWrite {
+
+        private final String throttleGroup;
+        private final String throttleParam;
+        private final ThrottleState throttleState;
+
+        PendingWrite(String throttleGroup, String throttleParam, ThrottleState throttleState) {
+
+            this.throttleGroup = throttleGroup;
+            this.throttleParam = throttleParam;
+            this.throttleState = throttleState;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.cache;
+
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCache;
+import com.wso2.openbanking.accelerator.throttler.service.model.ThrottleState;
+
+/**
+ * Cache definition to share the throttle state of the parameters among the nodes of the cluster.
+ */
+public class OBThrottleDataCache extends OpenBankingDistributedCache<OBThrottleDataCacheKey, ThrottleState> {
+
+    // Entries are only kept to bound the size of the cache, since expired states are ignored by the throttle service
+    private static final int CACHE_TIME_TO_LIVE_MINUTES = 1440;
+    private static final String cacheName = "OB-Throttle-Data-Cache";
+    private static volatile OBThrottleDataCache throttleDataCache;
+
+    /**
+     * Initialize With unique cache name.
+     *
+     * @param cacheName Name of the cache.
+     */
+    private OBThrottleDataCache(String cacheName) {
+        super(cacheName);
+    }
+
+    /**
+     * Creating a singleton OBThrottleDataCache object.
+     *
+     * @return OBThrottleDataCache object.
+     */
+    public static OBThrottleDataCache getInstance() {
+        if (throttleDataCache == null) {
+            synchronized (OBThrottleDataCache.class) {
+                if (throttleDataCache == null) {
+                    throttleDataCache = new OBThrottleDataCache(OBThrottleDataCache.cacheName);
+                }
+            }
+        }
+        return throttleDataCache;
+    }
+
+    /**
+     * Getter for cache time to live in minutes.
+     *
+     * @return cache time to live for Open Banking throttle data cache.
+     */
+    @Override
+    public int getCacheTimeToLiveMinutes() {
+        return CACHE_TIME_TO_LIVE_MINUTES;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.cache;
+
+import com.wso2.openbanking.accelerator.common.distributed.caching.OpenBankingDistributedCacheKey;
+
+/**
+ * Cache Key for Open Banking throttle data cache.
+ */
+public class OBThrottleDataCacheKey extends OpenBankingDistributedCacheKey {
+
+    private static final long serialVersionUID = 2904823472690315457L;
+
+    /**
+     * public constructor for OBThrottleDataCacheKey.
+     *
+     * @param cacheKey String cache key.
+     */
+    public OBThrottleDataCacheKey(String cacheKey) {
+        super(cacheKey);
+    }
+
+    /**
+     * Static method to create a cache key.
+     *
+     * @param cacheKey cache key in string.
+     * @return OBThrottleDataCacheKey.
+     */
+    public static OBThrottleDataCacheKey of(String cacheKey) {
+        return new OBThrottleDataCacheKey(cacheKey);
+    }
+}
@@ -32,4 +32,7 @@ public class OBThrottlerServiceConstants {
     public static final String DATA_RETRIEVE_ERROR_MSG = "Error occurred while retrieving data";
     public static final String DATA_DELETE_ROLLBACK_ERROR_MSG = "Error occurred while deleting data. Rolling " +
             "back the transaction";
+    public static final String THROTTLE_DATA_PERSIST_ERROR_MSG = "Error occurred while persisting throttle data. " +
+            "Changes will be persisted in the next attempt";
+    public static final String THROTTLE_DATA_LOAD_ERROR_MSG = "Error occurred while loading persisted throttle data";
 }
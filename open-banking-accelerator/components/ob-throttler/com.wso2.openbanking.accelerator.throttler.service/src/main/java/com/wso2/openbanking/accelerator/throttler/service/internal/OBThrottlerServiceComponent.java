@@ -64,6 +64,7 @@ public class OBThrottlerServiceComponent {
 
         try {
             OBThrottleService obThrottleService = OBThrottleService.getInstance();
+            obThrottleService.start();
             ctxt.getBundleContext().registerService(OBThrottleService.class.getName(),
                     obThrottleService, null);
             log.debug("OBThrottleService bundle is activated");
@@ -76,6 +77,7 @@ public class OBThrottlerServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext ctxt) {
 
+        OBThrottleService.getInstance().stop();
         log.debug("OBThrottleService bundle is deactivated");
     }
 
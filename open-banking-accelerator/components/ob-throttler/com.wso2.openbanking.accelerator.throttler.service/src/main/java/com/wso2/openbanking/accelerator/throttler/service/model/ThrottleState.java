@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2023, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.model;
+
+import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * Immutable throttle state of a parameter in a throttle group.
+ * <p>
+ * Occurrences are counted in a sliding window of the throttle time period, which starts again when the parameter
+ * does not occur within the period after its last occurrence. The parameter is throttled until the end of the window
+ * once the occurrences exceed the throttle limit.
+ */
+public class ThrottleState implements Serializable {
+
+    private static final long serialVersionUID = 5383307217434596224L;
+
+    private final String throttleGroup;
+    private final String throttleParam;
+    private final int occurrences;
+    private final long lastUpdateTime;
+    private final long unlockTime;
+    private final boolean throttled;
+
+    public ThrottleState(String throttleGroup, String throttleParam, int occurrences, long lastUpdateTime,
+                         long unlockTime, boolean throttled) {
+
+        this.throttleGroup = throttleGroup;
+        this.throttleParam = throttleParam;
+        this.occurrences = occurrences;
+        this.lastUpdateTime = lastUpdateTime;
+        this.unlockTime = unlockTime;
+        this.throttled = throttled;
+    }
+
+    /**
+     * Record an occurrence of the parameter.
+     *
+     * @param current            - current throttle state, or null if the parameter has not occurred
+     * @param throttleGroup      - throttle group
+     * @param throttleParam      - throttle parameter
+     * @param currentTime        - time of the occurrence in milliseconds
+     * @param throttleLimit      - allowed number of occurrences
+     * @param throttleTimePeriod - time period that the parameter is throttled (seconds)
+     * @return - updated throttle state
+     */
+    public static ThrottleState recordOccurrence(ThrottleState current, String throttleGroup, String throttleParam,
+                                                 long currentTime, int throttleLimit, int throttleTimePeriod) {
+
+        int occurrences = current == null || current.isExpiredAt(currentTime) ? 1 : current.occurrences + 1;
+        return new ThrottleState(throttleGroup, throttleParam, occurrences, currentTime,
+                currentTime + (1000L * throttleTimePeriod), occurrences > throttleLimit);
+    }
+
+    /**
+     * Create the throttle state from the persisted throttle data. Since the throttle limit is not persisted, the
+     * parameter is throttled again on its next occurrence if the occurrences already exceed the limit.
+     *
+     * @param throttleDataModel - persisted throttle data
+     * @return - throttle state
+     */
+    public static ThrottleState of(ThrottleDataModel throttleDataModel) {
+
+        return new ThrottleState(throttleDataModel.getThrottleGroup(), throttleDataModel.getThrottleParam(),
+                throttleDataModel.getOccurrences(), throttleDataModel.getLastUpdateTimestamp().getTime(),
+                throttleDataModel.getUnlockTimestamp().getTime(), false);
+    }
+
+    public ThrottleDataModel toThrottleDataModel() {
+
+        return new ThrottleDataModel(throttleGroup, throttleParam, new Timestamp(lastUpdateTime),
+                new Timestamp(unlockTime), occurrences);
+    }
+
+    public boolean isThrottledAt(long time) {
+
+        return throttled && unlockTime > time;
+    }
+
+    public boolean isExpiredAt(long time) {
+
+        return unlockTime <= time;
+    }
+
+    public String getThrottleGroup() {
+
+        return throttleGroup;
+    }
+
+    public String getThrottleParam() {
+
+        return throttleParam;
+    }
+
+    public int getOccurrences() {
+
+        return occurrences;
+    }
+
+    public long getLastUpdateTime() {
+
+        return lastUpdateTime;
+    }
+
+    public long getUnlockTime() {
+
+        return unlockTime;
+    }
+
+    public boolean isThrottled() {
+
+        return throttled;
+    }
+}
@@ -22,25 +22,25 @@ import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import com.wso2.openbanking.accelerator.throttler.dao.OBThrottlerDAO;
 import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataDeletionException;
 import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataInsertionException;
-import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataRetrievalException;
-import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataUpdationException;
 import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
 import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
+import com.wso2.openbanking.accelerator.throttler.service.cache.OBThrottleDataCache;
 import com.wso2.openbanking.accelerator.throttler.service.util.OBThrottleServiceTestData;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.testng.Assert;
 import org.testng.IObjectFactory;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.ObjectFactory;
 import org.testng.annotations.Test;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Test for Open banking throttle service.
@@ -50,22 +50,15 @@ import java.util.HashMap;
 public class OBThrottleServiceTests {
 
     private OBThrottleService obThrottleService;
+    private ThrottleDataWriter throttleDataWriter;
     private OBThrottlerDAO mockedOBThrottlerDAO;
-    private Connection mockedConnection;
-    private ThrottleDataModel throttleDataModel;
-
-    @BeforeClass
-    public void initTest() {
-
-        obThrottleService = OBThrottleService.getInstance();
-        mockedOBThrottlerDAO = Mockito.mock(OBThrottlerDAO.class);
-        mockedConnection  = Mockito.mock(Connection.class);
-        throttleDataModel = Mockito.mock(ThrottleDataModel.class);
-    }
 
     @BeforeMethod
     public void mock() throws OBThrottlerException {
 
+        mockedOBThrottlerDAO = Mockito.mock(OBThrottlerDAO.class);
+        throttleDataWriter = new ThrottleDataWriter();
+        obThrottleService = new OBThrottleService(null, throttleDataWriter);
         mockStaticClasses();
     }
 
@@ -78,218 +71,145 @@ public class OBThrottleServiceTests {
     @Test
     public void testThrottledOutScenario() throws Exception {
 
-        Mockito.doNothing().when(mockedOBThrottlerDAO).deleteThrottleData(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-
-        obThrottleService.throttleDataMap.put(OBThrottleServiceTestData.THROTTLE_GROUP,
-                new HashMap<String, Timestamp>() {
-            {
-                put(OBThrottleServiceTestData.THROTTLE_PARAM,
-                        OBThrottleServiceTestData.UNLOCK_TIMESTAMP_GREATER_THAN_CURRENT_TIMESTAMP);
-            }
-        });
+        for (int i = 0; i < 4; i++) {
+            obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
+        }
 
-        Boolean isThrottled = obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_PARAM);
-
-        Assert.assertTrue(isThrottled);
+        Assert.assertTrue(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Assert.assertFalse(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
     }
 
     @Test
     public void testNotThrottledOutScenario() throws Exception {
 
-        Mockito.doNothing().when(mockedOBThrottlerDAO).deleteThrottleData(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-
-        obThrottleService.throttleDataMap.put(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP,
-                new HashMap<String, Timestamp>() {
-            {
-                put(OBThrottleServiceTestData.THROTTLE_PARAM,
-                        OBThrottleServiceTestData.UNLOCK_TIMESTAMP_LESS_THAN_CURRENT_TIMESTAMP);
-            }
-        });
-
-        Boolean isThrottled = obThrottleService.isThrottled(
-                OBThrottleServiceTestData.THROTTLE_SECOND_GROUP, OBThrottleServiceTestData.THROTTLE_PARAM);
+        for (int i = 0; i < 3; i++) {
+            obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
+        }
 
-        Assert.assertFalse(isThrottled);
+        Assert.assertFalse(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
     }
 
-    @Test(priority = 1)
-    public void testThrottleGroupNotInThrottleDataMap() throws Exception {
-
-        Mockito.doNothing().when(mockedOBThrottlerDAO).deleteThrottleData(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-
-        Boolean isThrottled = obThrottleService.isThrottled(
-                OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH, OBThrottleServiceTestData.THROTTLE_PARAM);
-
-        Assert.assertFalse(isThrottled);
-    }
-
-    @Test(priority = 1)
-    public void testThrottleParamNotInThrottleDataMap() throws Exception {
-
-        Mockito.doNothing().when(mockedOBThrottlerDAO).deleteThrottleData(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-
-        Boolean isThrottled = obThrottleService.isThrottled(
-                OBThrottleServiceTestData.THROTTLE_SECOND_GROUP, OBThrottleServiceTestData.THROTTLE_SECOND_PARAM);
-
-        Assert.assertFalse(isThrottled);
-    }
-
-    @Test(priority = 2)
-    public void testThrottleGroupInUpdateThrottleDataMap() {
-
-        obThrottleService.updateThrottleDataMap(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP,
-                OBThrottleServiceTestData.THROTTLE_PARAM,
-                OBThrottleServiceTestData.UNLOCK_TIMESTAMP_GREATER_THAN_CURRENT_TIMESTAMP);
-
-        Assert.assertTrue(obThrottleService.throttleDataMap
-                .containsKey(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP));
-    }
-
-    @Test(priority = 2)
-    public void testThrottleGroupNotInUpdateThrottleDataMap() {
+    @Test
+    public void testOccurrencesOutsideTheWindowAreNotCounted() throws Exception {
 
-        obThrottleService.updateThrottleDataMap(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM,
-                OBThrottleServiceTestData.UNLOCK_TIMESTAMP_GREATER_THAN_CURRENT_TIMESTAMP);
+        for (int i = 0; i < 4; i++) {
+            obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, 3, 0);
+        }
 
-        Assert.assertTrue(obThrottleService.throttleDataMap
-                .containsKey(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH));
+        Assert.assertFalse(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
     }
 
     @Test
-    public void testUpdateThrottleData() throws Exception {
-
-        Mockito.doReturn(true).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleTestThrottleData()).when(mockedOBThrottlerDAO)
-                .getThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData()).when(mockedOBThrottlerDAO)
-                .updateThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(),
-                        Mockito.anyObject(), Mockito.anyInt());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData().getOccurrences())
-                .when(throttleDataModel).getOccurrences();
-
-        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM, 3, 180);
+    public void testThrottleGroupNotInThrottleData() throws Exception {
 
+        Assert.assertFalse(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Assert.assertEquals(throttleDataWriter.getPendingWriteCount(), 0);
     }
 
     @Test
-    public void testStoreThrottleData() throws Exception {
+    public void testDeleteRecordOnSuccessAttempt() throws Exception {
 
-        Mockito.doReturn(false).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData()).when(mockedOBThrottlerDAO)
-                .storeThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(),
-                        Mockito.anyObject());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData().getOccurrences())
-                .when(throttleDataModel).getOccurrences();
+        for (int i = 0; i < 4; i++) {
+            obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
+        }
+        obThrottleService.deleteRecordOnSuccessAttempt(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM);
 
-        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM, 3, 180);
+        Assert.assertFalse(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
 
+        // The removal replaces the pending update of the parameter
+        obThrottleService.persistThrottleData();
+        Mockito.verify(mockedOBThrottlerDAO).deleteThrottleData(Mockito.any(Connection.class),
+                Mockito.anyListOf(ThrottleDataModel.class));
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.never()).storeThrottleData(Mockito.any(Connection.class),
+                Mockito.anyListOf(ThrottleDataModel.class));
     }
 
-    @Test(expectedExceptions = OBThrottlerException.class)
-    public void testStoreThrottleDataError() throws Exception {
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testThrottleDataIsPersistedInBatch() throws Exception {
 
-        Mockito.doReturn(false).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doThrow(OBThrottlerDataInsertionException.class).when(mockedOBThrottlerDAO)
-                .storeThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(),
-                        Mockito.anyObject());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData().getOccurrences())
-                .when(throttleDataModel).getOccurrences();
+        for (int i = 0; i < 3; i++) {
+            obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
+        }
+        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
 
-        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM, 3, 180);
+        obThrottleService.persistThrottleData();
 
+        ArgumentCaptor<List> storedThrottleData = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(mockedOBThrottlerDAO).storeThrottleData(Mockito.any(Connection.class),
+                storedThrottleData.capture());
+        Assert.assertEquals(storedThrottleData.getValue().size(), 2);
+        Assert.assertEquals(throttleDataWriter.getPendingWriteCount(), 0);
     }
 
-    @Test(expectedExceptions = OBThrottlerException.class)
-    public void testUpdateThrottleDataError() throws Exception {
-
-        Mockito.doReturn(true).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleTestThrottleData()).when(mockedOBThrottlerDAO)
-                .getThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString());
-        Mockito.doThrow(OBThrottlerDataUpdationException.class).when(mockedOBThrottlerDAO)
-                .updateThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(),
-                        Mockito.anyObject(), Mockito.anyInt());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData().getOccurrences())
-                .when(throttleDataModel).getOccurrences();
+    @Test
+    public void testFailedPersistenceIsRetried() throws Exception {
 
+        Mockito.doThrow(OBThrottlerDataInsertionException.class).doNothing().when(mockedOBThrottlerDAO)
+                .storeThrottleData(Mockito.any(Connection.class), Mockito.anyListOf(ThrottleDataModel.class));
         obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM, 3, 180);
-
-    }
-
-    @Test(expectedExceptions = OBThrottlerException.class)
-    public void testRetrievalThrottleDataError() throws Exception {
-
-        Mockito.doReturn(true).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doThrow(OBThrottlerDataRetrievalException.class).when(mockedOBThrottlerDAO)
-                .getThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData()).when(mockedOBThrottlerDAO)
-                .updateThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(),
-                        Mockito.anyObject(), Mockito.anyInt());
-        Mockito.doReturn(OBThrottleServiceTestData.getSampleUpdateTestThrottleData().getOccurrences())
-                .when(throttleDataModel).getOccurrences();
+                OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
 
-        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM, 3, 180);
+        obThrottleService.persistThrottleData();
+        Assert.assertEquals(throttleDataWriter.getPendingWriteCount(), 1);
 
+        obThrottleService.persistThrottleData();
+        Assert.assertEquals(throttleDataWriter.getPendingWriteCount(), 0);
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.times(2)).storeThrottleData(Mockito.any(Connection.class),
+                Mockito.anyListOf(ThrottleDataModel.class));
     }
 
     @Test
-    public void testDeleteRecordOnSuccessAttempt() throws Exception {
-
-        Mockito.doReturn(true).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
+    public void testExpiredThrottleDataIsPurgedWithSharedThrottleData() throws Exception {
 
-        obThrottleService.deleteRecordOnSuccessAttempt(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM);
+        // The throttle data of the cluster is not held in memory, so the database is purged directly
+        obThrottleService = new OBThrottleService(Mockito.mock(OBThrottleDataCache.class), throttleDataWriter);
 
+        obThrottleService.persistThrottleData();
+        Mockito.verify(mockedOBThrottlerDAO).deleteExpiredThrottleData(Mockito.any(Connection.class),
+                Mockito.any(Timestamp.class));
     }
 
-    @Test(expectedExceptions = OBThrottlerException.class)
-    public void testRetrievalThrottleDataErrorWhenDeleteRecordOnSuccessAttempt() throws Exception {
-
-        Mockito.doThrow(OBThrottlerDataRetrievalException.class).when(mockedOBThrottlerDAO)
-                .isThrottleDataExists(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString());
+    @Test
+    public void testFailedPurgeDoesNotAffectPendingWrites() throws Exception {
 
-        obThrottleService.deleteRecordOnSuccessAttempt(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM);
+        Mockito.doThrow(OBThrottlerDataDeletionException.class).when(mockedOBThrottlerDAO)
+                .deleteExpiredThrottleData(Mockito.any(Connection.class), Mockito.any(Timestamp.class));
+        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM, 3, 180);
 
+        obThrottleService.persistThrottleData();
+        Assert.assertEquals(throttleDataWriter.getPendingWriteCount(), 0);
+        Mockito.verify(mockedOBThrottlerDAO).storeThrottleData(Mockito.any(Connection.class),
+                Mockito.anyListOf(ThrottleDataModel.class));
     }
 
-    @Test(expectedExceptions = OBThrottlerException.class)
-    public void testDeleteThrottleDataErrorWhenDeleteRecordOnSuccessAttempt() throws Exception {
+    @Test
+    public void testPersistedThrottleDataIsLoaded() throws Exception {
 
-        Mockito.doReturn(true).when(mockedOBThrottlerDAO).isThrottleDataExists(Mockito.anyObject(),
-                Mockito.anyString(), Mockito.anyString());
-        Mockito.doThrow(OBThrottlerDataDeletionException.class).when(mockedOBThrottlerDAO)
-                .deleteThrottleData(Mockito.anyObject(),
-                        Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(Collections.singletonList(OBThrottleServiceTestData.getSampleUpdateTestThrottleData()))
+                .when(mockedOBThrottlerDAO).getActiveThrottleData(Mockito.any(Connection.class), Mockito.any());
+        obThrottleService.loadThrottleData();
 
-        obThrottleService.deleteRecordOnSuccessAttempt(OBThrottleServiceTestData.THROTTLE_GROUP,
-                OBThrottleServiceTestData.THROTTLE_SECOND_PARAM);
+        // Occurrences are restored, and the next occurrence exceeds the limit
+        obThrottleService.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM, 5, 180);
 
+        Assert.assertTrue(obThrottleService.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
     }
 
     private void mockStaticClasses() throws OBThrottlerException {
@@ -31,6 +31,8 @@ import com.wso2.openbanking.accelerator.consent.extensions.validate.model.Consen
 import com.wso2.openbanking.accelerator.consent.extensions.validate.model.ConsentValidationResult;
 import com.wso2.openbanking.accelerator.consent.extensions.validate.model.ConsentValidator;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.service.cache.CompiledConsent;
+import com.wso2.openbanking.accelerator.consent.mgt.service.cache.CompiledConsentCache;
 import com.wso2.openbanking.accelerator.consent.mgt.service.impl.ConsentCoreServiceImpl;
 import com.wso2.openbanking.accelerator.identity.util.IdentityCommonUtil;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -171,8 +173,11 @@ public class ConsentValidationEndpoint {
                 requestPath, consentId, userId, clientId, resourceParams, headersMap);
 
         try {
-            DetailedConsentResource consentResource = consentCoreService.getDetailedConsent(consentId);
-            consentValidateData.setComprehensiveConsent(consentResource);
+            // Compiled consents are shared between the validation requests of a consent, so that the consent is not
+            // retrieved and its receipt is not parsed for each resource request
+            CompiledConsent compiledConsent = CompiledConsentCache.getInstance().getCompiledConsent(consentId,
+                    ConsentValidationEndpoint::compileConsent);
+            consentValidateData.setCompiledConsent(compiledConsent);
         } catch (ConsentManagementException e) {
             log.error("Exception while getting consent", e);
             throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, "Exception while getting consent");
@@ -197,4 +202,10 @@ public class ConsentValidationEndpoint {
         }
         return Response.status(HttpServletResponse.SC_OK).entity(responsePayload).build();
     }
+
+    private static CompiledConsent compileConsent(String consentId) throws ConsentManagementException {
+
+        DetailedConsentResource consentResource = consentCoreService.getDetailedConsent(consentId);
+        return consentResource == null ? null : CompiledConsent.of(consentResource);
+    }
 }
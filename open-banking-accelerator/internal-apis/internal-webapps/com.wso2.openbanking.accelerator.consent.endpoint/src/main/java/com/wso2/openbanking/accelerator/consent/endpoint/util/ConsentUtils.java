@@ -36,9 +36,9 @@ import org.apache.commons.httpclient.util.HttpURLConnection;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.BasicCookieStore;
@@ -86,7 +86,8 @@ public class ConsentUtils {
     public static URI authorizeRequest(String consent, Map<String, String> cookies, ConsentData consentData) {
 
         String authorizeURL = IdentityUtil.getProperty("OAuth.OAuth2AuthzEPUrl");
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
+        try {
+            CloseableHttpClient client = HTTPClientUtils.getSharedHttpsClient(HTTPClientUtils.CONSENT_ENDPOINT_CLIENT);
 
             BasicCookieStore cookieStore = new BasicCookieStore();
             String cookieDomain = new URI(authorizeURL).getHost();
@@ -107,14 +108,14 @@ public class ConsentUtils {
             localContext.setAttribute(HttpClientContext.COOKIE_STORE, cookieStore);
             UrlEncodedFormEntity entity = new UrlEncodedFormEntity(params);
             authorizeRequest.setEntity(entity);
-            HttpResponse authorizeResponse = client.execute(authorizeRequest, localContext);
-
-            if (authorizeResponse.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_MOVED_TEMP) {
-                throw new ConsentException(consentData.getRedirectURI(), AuthErrorCode.SERVER_ERROR,
-                        "Error while getting authorize redirect", consentData.getState());
-            } else {
-                //Extract the location header from the authorization redirect
-                return new URI(authorizeResponse.getLastHeader("Location").getValue());
+            try (CloseableHttpResponse authorizeResponse = client.execute(authorizeRequest, localContext)) {
+                if (authorizeResponse.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_MOVED_TEMP) {
+                    throw new ConsentException(consentData.getRedirectURI(), AuthErrorCode.SERVER_ERROR,
+                            "Error while getting authorize redirect", consentData.getState());
+                } else {
+                    //Extract the location header from the authorization redirect
+                    return new URI(authorizeResponse.getLastHeader("Location").getValue());
+                }
             }
         } catch (IOException e) {
             log.error("Error while sending authorize request to complete the authorize flow", e);